@@ -0,0 +1,54 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.admission.AdaptiveConcurrencyLimit;
+import guru.springframework.admission.ClientRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What admission control adds to a request, from 8 threads: {@code rateLimit} is one client's token bucket out of
+ * 1000 clients, {@code concurrencyLimit} takes and gives back a slot and reports a latency sample, as the filter and
+ * the RecipeService aspect do. The limits are set high, so every request is admitted and nothing is short-circuited.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class AdmissionBenchmark {
+
+    private static final int CLIENTS = 1000;
+
+    ClientRateLimiter rateLimiter;
+    AdaptiveConcurrencyLimit concurrencyLimit;
+    String[] clients;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new ClientRateLimiter(1e9, 1000);
+        concurrencyLimit = new AdaptiveConcurrencyLimit(1000, 1000, 1000, TimeUnit.SECONDS.toNanos(1));
+        clients = new String[CLIENTS];
+        for(int i = 0; i < CLIENTS; i++) {
+            clients[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long rateLimit() {
+        return rateLimiter.tryAcquire(clients[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+
+    @Benchmark
+    public boolean concurrencyLimit() {
+        boolean admitted = concurrencyLimit.tryAcquire();
+        if(admitted) {
+            concurrencyLimit.onSample(1000);
+            concurrencyLimit.release();
+        }
+        return admitted;
+    }
+}
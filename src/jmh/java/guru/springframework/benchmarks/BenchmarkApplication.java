@@ -0,0 +1,53 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.Spring5RecipeAppApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts the recipe application against its own in-memory H2 database filled by the recipe generator.
+ * Extra arguments override the defaults below.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(int recipes, String... args) {
+        return start(WebApplicationType.NONE, recipes, args);
+    }
+
+    //with the embedded web server on a random port, see port()
+    public static ConfigurableApplicationContext startWeb(int recipes, String... args) {
+        return start(WebApplicationType.SERVLET, recipes, args);
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, int recipes, String... args) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark" + recipes + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--spring.devtools.restart.enabled=false",
+                "--recipe.page-cache.enabled=false",
+                "--recipe.generator.enabled=true",
+                "--recipe.generator.recipes=" + recipes,
+                "--logging.level.root=WARN",
+                "--logging.level.guru.springframework.bootstrap=INFO"));
+        arguments.addAll(Arrays.asList(args));
+
+        return new SpringApplicationBuilder(Spring5RecipeAppApplication.class)
+                .web(type)
+                .bannerMode(Banner.Mode.OFF)
+                .run(arguments.toArray(new String[0]));
+    }
+}
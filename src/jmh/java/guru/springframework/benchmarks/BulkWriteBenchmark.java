@@ -0,0 +1,108 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.domain.*;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import guru.springframework.services.RecipeBulkWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to persist a load of new recipes, through the repository and through the {@link RecipeBulkWriter},
+ * with and without JDBC batching. A batch size of 1 sends one INSERT per row, as identity ids used to force.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BulkWriteBenchmark {
+
+    @Param({"100000"})
+    int recipes;
+
+    @Param({"1", "50"})
+    int batchSize;
+
+    ConfigurableApplicationContext context;
+    RecipeRepository recipeRepository;
+    RecipeBulkWriter recipeBulkWriter;
+    JdbcTemplate jdbcTemplate;
+    List<Category> categories;
+    List<UnitOfMeasure> uoms;
+
+    List<Recipe> load;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(0, "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        recipeRepository = context.getBean(RecipeRepository.class);
+        recipeBulkWriter = context.getBean(RecipeBulkWriter.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        categories = new ArrayList<>();
+        context.getBean(CategoryRepository.class).findAll().forEach(categories::add);
+        uoms = new ArrayList<>();
+        context.getBean(UnitOfMeasureRepository.class).findAll().forEach(uoms::add);
+    }
+
+    //every invocation writes into empty tables
+    @Setup(Level.Invocation)
+    public void newLoad() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for(String table : new String[]{"recipe_category", "ingredient", "notes", "recipe"}) {
+            jdbcTemplate.execute("truncate table " + table);
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+
+        load = new ArrayList<>(recipes);
+        for(int i = 0; i < recipes; i++) {
+            load.add(newRecipe(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Iterable<Recipe> repositorySaveAll() {
+        return recipeRepository.saveAll(load);
+    }
+
+    @Benchmark
+    public long bulkWriterSaveAll() {
+        return recipeBulkWriter.saveAll(load);
+    }
+
+    private Recipe newRecipe(int i) {
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Bulk Recipe " + i);
+        recipe.setPrepTime(10);
+        recipe.setCookTime(20);
+        recipe.setServings(4);
+        recipe.setDifficulty(Difficulty.values()[i % Difficulty.values().length]);
+        recipe.setDirections("1. Mix everything\n2. Bake for 20 minutes\n");
+
+        Notes notes = new Notes();
+        notes.setRecipeNotes("Swap the butter for olive oil if you like.");
+        notes.setRecipe(recipe);
+        recipe.setNotes(notes);
+
+        for(int j = 0; j < 10; j++) {
+            recipe.addIngredient(new Ingredient("ingredient " + j, BigDecimal.valueOf(j + 1), uoms.get((i + j) % uoms.size())));
+        }
+        recipe.getCategories().add(categories.get(i % categories.size()));
+
+        return recipe;
+    }
+}
@@ -0,0 +1,101 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.domain.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * hashCode and equals of detached Recipe and Ingredient graphs, the cost paid whenever they go into a hash set.
+ * With identity semantics neither depends on the number of ingredients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityHashBenchmark {
+
+    //the bootstrap recipes have 10 and 18 ingredients
+    @Param({"10", "50"})
+    int ingredients;
+
+    Recipe recipe;
+    Recipe sameRecipe;
+    Ingredient ingredient;
+    Ingredient sameIngredient;
+
+    @Setup
+    public void setUp() {
+        recipe = newRecipe(ingredients);
+        sameRecipe = newRecipe(ingredients);
+        ingredient = recipe.getIngredients().iterator().next();
+        sameIngredient = newIngredient(ingredient.getId());
+    }
+
+    @Benchmark
+    public int recipeHashCode() {
+        return recipe.hashCode();
+    }
+
+    //distinct graphs holding the same values, the worst case for a field by field equals
+    @Benchmark
+    public boolean recipeEquals() {
+        return recipe.equals(sameRecipe);
+    }
+
+    @Benchmark
+    public int ingredientHashCode() {
+        return ingredient.hashCode();
+    }
+
+    @Benchmark
+    public boolean ingredientEquals() {
+        return ingredient.equals(sameIngredient);
+    }
+
+    private static Recipe newRecipe(int ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setDescription("Perfect Guacamole");
+        recipe.setPrepTime(10);
+        recipe.setCookTime(0);
+        recipe.setServings(4);
+        recipe.setDifficulty(Difficulty.EASY);
+        recipe.setUrl("https://www.perfectguacamole.com");
+        recipe.setDirections("1. Cut the avocado\n2. Mash the avocado flesh\n3. Add remaining ingredient to taste\n");
+
+        Notes notes = new Notes();
+        notes.setId(1L);
+        notes.setRecipeNotes("Be careful handling chilis! If using, it's best to wear food-safe gloves.");
+        notes.setRecipe(recipe);
+        recipe.setNotes(notes);
+
+        for(long id = 1; id <= ingredients; id++) {
+            recipe.addIngredient(newIngredient(id));
+        }
+
+        Category american = new Category();
+        american.setId(1L);
+        american.setDescription("American");
+        Category mexican = new Category();
+        mexican.setId(3L);
+        mexican.setDescription("Mexican");
+        recipe.getCategories().add(american);
+        recipe.getCategories().add(mexican);
+
+        return recipe;
+    }
+
+    private static Ingredient newIngredient(long id) {
+        UnitOfMeasure uom = new UnitOfMeasure();
+        uom.setId(7L);
+        uom.setDescription("Each");
+
+        Ingredient ingredient = new Ingredient("ripe avocados " + id, BigDecimal.valueOf(2), uom);
+        ingredient.setId(id);
+        return ingredient;
+    }
+}
@@ -0,0 +1,69 @@
+package guru.springframework.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test over HTTP: 64 concurrent clients against a server with 16 servlet threads, once with the
+ * blocking controllers and once with recipe.execution.mode=async.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExecutionModeBenchmark {
+
+    @Param({"10000"})
+    int recipes;
+
+    @Param({"blocking", "async"})
+    String mode;
+
+    ConfigurableApplicationContext context;
+    String baseUrl;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.startWeb(recipes,
+                "--recipe.execution.mode=" + mode,
+                "--server.tomcat.max-threads=16",
+                //64 clients from one address would be rate limited
+                "--recipe.admission.enabled=false");
+        baseUrl = "http://localhost:" + BenchmarkApplication.port(context);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int index() throws IOException {
+        return get(baseUrl + "/index");
+    }
+
+    @Benchmark
+    public int show() throws IOException {
+        return get(baseUrl + "/recipe/show/" + ThreadLocalRandom.current().nextInt(1, recipes + 1));
+    }
+
+    //reads the whole body so the connection goes back to the keep-alive pool
+    private static int get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try(InputStream body = connection.getInputStream()) {
+            StreamUtils.drain(body);
+        }
+        return connection.getResponseCode();
+    }
+}
@@ -0,0 +1,53 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.search.FacetResult;
+import guru.springframework.search.FacetSelection;
+import guru.springframework.search.RecipeFacetIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering with counts for every facet value: no selection, one facet, and a selection across three facets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FacetBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int recipes;
+
+    @Param({"", "difficulty=EASY&difficulty=HARD", "category=1&difficulty=EASY&prepTime=0-15&prepTime=16-30"})
+    String selection;
+
+    ConfigurableApplicationContext context;
+    RecipeFacetIndex recipeFacetIndex;
+    FacetSelection facetSelection;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        context = BenchmarkApplication.start(recipes);
+        recipeFacetIndex = context.getBean(RecipeFacetIndex.class);
+        facetSelection = FacetSelection.from(UriComponentsBuilder.fromUriString("/?" + selection).build().getQueryParams());
+        //built in the background once the application is ready
+        while(!recipeFacetIndex.isReady()) {
+            Thread.sleep(100);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public FacetResult firstPage() {
+        return recipeFacetIndex.filter(facetSelection, 0, 20);
+    }
+}
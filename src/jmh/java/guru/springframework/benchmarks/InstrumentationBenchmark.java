@@ -0,0 +1,80 @@
+package guru.springframework.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test over HTTP of the blocking index and recipe pages with the metrics on and off. {@code on} is the
+ * application as configured, plus the Hibernate statistics behind the second-level cache metrics. {@code off}
+ * drops the request timers, the per request SQL accounting, the session listener and the statistics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class InstrumentationBenchmark {
+
+    @Param({"10000"})
+    int recipes;
+
+    @Param({"on", "off"})
+    String instrumentation;
+
+    ConfigurableApplicationContext context;
+    String baseUrl;
+
+    @Setup
+    public void setUp() {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--server.tomcat.max-threads=16",
+                "--recipe.admission.enabled=false"));
+        if("on".equals(instrumentation)) {
+            args.add("--spring.jpa.properties.hibernate.generate_statistics=true");
+        } else {
+            args.addAll(Arrays.asList(
+                    "--recipe.metrics.request-sql.enabled=false",
+                    "--spring.jpa.properties.hibernate.session.events.auto=org.hibernate.BaseSessionEventListener",
+                    "--management.metrics.web.server.auto-time-requests=false",
+                    "--management.metrics.enable.all=false"));
+        }
+        context = BenchmarkApplication.startWeb(recipes, args.toArray(new String[0]));
+        baseUrl = "http://localhost:" + BenchmarkApplication.port(context);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int index() throws IOException {
+        return get(baseUrl + "/index");
+    }
+
+    @Benchmark
+    public int show() throws IOException {
+        return get(baseUrl + "/recipe/show/" + ThreadLocalRandom.current().nextInt(1, recipes + 1));
+    }
+
+    private static int get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try(InputStream body = connection.getInputStream()) {
+            StreamUtils.drain(body);
+        }
+        return connection.getResponseCode();
+    }
+}
@@ -0,0 +1,80 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.search.PantryMatches;
+import guru.springframework.search.RecipeFacetIndex;
+import guru.springframework.search.RecipePantryIndex;
+import guru.springframework.search.RecipeSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The 20 recipes best covered by a pantry. {@code index} scores every recipe in the {@link RecipePantryIndex},
+ * {@code sqlJoin} is the query it replaces, grouping the ingredient rows of every recipe by exact description.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PantryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int recipes;
+
+    //the generator draws from 30 ingredients, so a small pantry already touches most recipes
+    @Param({"salt,eggs,milk", "ripe avocados,lime juice,cilantro,salt,tomato,red onion,black pepper,corn tortillas"})
+    String pantry;
+
+    ConfigurableApplicationContext context;
+    RecipePantryIndex recipePantryIndex;
+    JdbcTemplate jdbcTemplate;
+    List<String> items;
+    String sql;
+    long call;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        context = BenchmarkApplication.start(recipes);
+        recipePantryIndex = context.getBean(RecipePantryIndex.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        items = Arrays.asList(pantry.split(","));
+
+        String in = String.join(",", Collections.nCopies(items.size(), "?"));
+        sql = "select recipe_id, matched, total from (select i.recipe_id, count(*) total,"
+                + " sum(case when lower(i.description) in (" + in + ") then 1 else 0 end) matched"
+                + " from ingredient i group by i.recipe_id) where matched > 0 and recipe_id <> ?"
+                + " order by cast(matched as double) / total desc, matched desc, recipe_id limit 20";
+        //built in the background once the application is ready, the other indexes would compete for the cpu
+        RecipeSearchIndex recipeSearchIndex = context.getBean(RecipeSearchIndex.class);
+        RecipeFacetIndex recipeFacetIndex = context.getBean(RecipeFacetIndex.class);
+        while(!recipePantryIndex.isReady() || !recipeSearchIndex.isReady() || !recipeFacetIndex.isReady()) {
+            Thread.sleep(100);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PantryMatches index() {
+        return recipePantryIndex.match(items, 20);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sqlJoin() {
+        //h2 hands back the last result for the same parameters, a recipe id that never exists defeats that
+        Object[] args = items.toArray(new Object[items.size() + 1]);
+        args[items.size()] = -++call;
+        return jdbcTemplate.queryForList(sql, args);
+    }
+}
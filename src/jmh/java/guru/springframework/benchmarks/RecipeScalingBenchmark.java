@@ -0,0 +1,136 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.domain.UnitOfMeasure;
+import guru.springframework.units.Amount;
+import guru.springframework.units.AmountBatch;
+import guru.springframework.units.UnitConversions;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scales every ingredient of a batch of recipes to ten servings and moves it to the unit it reads best in.
+ * {@code amountBatch} works on the fractions in place through the precomputed conversion table,
+ * {@code bigDecimal} is the straightforward version: BigDecimal arithmetic and a conversion factor looked up
+ * by unit description for every ingredient. Run with -prof gc to see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeScalingBenchmark {
+
+    private static final String[] UNITS = {"Teaspoon", "Tablespoon", "Cup", "Pinch", "Ounce", "Dash", "Each", "Pint"};
+    private static final String[] AMOUNTS = {"0.25", "0.5", "0.75", "1", "1.25", "1.5", "2", "3", "6"};
+    private static final int INGREDIENTS = 12;
+    private static final int SERVINGS = 10;
+
+    @Param({"1000", "10000"})
+    int recipes;
+
+    UnitConversions conversions;
+    AmountBatch batch;
+    int[] servings;
+    long[] numerators;
+    long[] denominators;
+    int[] units;
+
+    BigDecimal[] amounts;
+    String[] unitDescriptions;
+    Map<String, BigDecimal> teaspoons;
+
+    @Setup
+    public void setUp() {
+        List<UnitOfMeasure> unitsOfMeasure = new ArrayList<>();
+        for(String description : UNITS) {
+            UnitOfMeasure unit = new UnitOfMeasure();
+            unit.setId((long) unitsOfMeasure.size() + 1);
+            unit.setDescription(description);
+            unitsOfMeasure.add(unit);
+        }
+        conversions = new UnitConversions(unitsOfMeasure);
+
+        Random random = new Random(42);
+        int count = recipes * INGREDIENTS;
+        servings = new int[recipes];
+        numerators = new long[count];
+        denominators = new long[count];
+        units = new int[count];
+        amounts = new BigDecimal[count];
+        unitDescriptions = new String[count];
+        for(int r = 0; r < recipes; r++) {
+            servings[r] = 2 + random.nextInt(7);
+        }
+        for(int i = 0; i < count; i++) {
+            amounts[i] = new BigDecimal(AMOUNTS[random.nextInt(AMOUNTS.length)]);
+            int unit = random.nextInt(UNITS.length);
+            unitDescriptions[i] = UNITS[unit];
+            units[i] = conversions.indexOf((long) unit + 1);
+            numerators[i] = Amount.of(amounts[i]).getNumerator();
+            denominators[i] = Amount.of(amounts[i]).getDenominator();
+        }
+        batch = new AmountBatch(count);
+
+        teaspoons = new HashMap<>();
+        teaspoons.put("Pinch", new BigDecimal("0.0625"));
+        teaspoons.put("Dash", new BigDecimal("0.125"));
+        teaspoons.put("Teaspoon", BigDecimal.ONE);
+        teaspoons.put("Tablespoon", new BigDecimal("3"));
+        teaspoons.put("Cup", new BigDecimal("48"));
+        teaspoons.put("Pint", new BigDecimal("96"));
+    }
+
+    @Benchmark
+    public long amountBatch() {
+        batch.clear();
+        for(int i = 0; i < numerators.length; i++) {
+            batch.add(numerators[i], denominators[i], units[i]);
+        }
+        for(int r = 0; r < recipes; r++) {
+            batch.scale(r * INGREDIENTS, (r + 1) * INGREDIENTS, SERVINGS, servings[r]);
+        }
+        batch.toReadableUnits(0, batch.size(), conversions);
+
+        long checksum = 0;
+        for(int i = 0; i < batch.size(); i++) {
+            checksum += batch.unit(i);
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long bigDecimal() {
+        BigDecimal wanted = BigDecimal.valueOf(SERVINGS);
+        BigDecimal twentyFour = BigDecimal.valueOf(24);
+        long checksum = 0;
+        for(int i = 0; i < amounts.length; i++) {
+            BigDecimal scaled = amounts[i].multiply(wanted)
+                    .divide(BigDecimal.valueOf(servings[i / INGREDIENTS]), MathContext.DECIMAL64);
+            String unit = unitDescriptions[i];
+            BigDecimal from = teaspoons.get(unit);
+            if(from != null) {
+                for(String to : new String[]{"Cup", "Tablespoon", "Teaspoon"}) {
+                    BigDecimal converted = scaled.multiply(from).divide(teaspoons.get(to), MathContext.DECIMAL64);
+                    //a simple fraction is a whole number of 24ths, as near as a decimal gets to a third
+                    BigDecimal twentyFourths = converted.multiply(twentyFour);
+                    if(converted.compareTo(BigDecimal.ONE) >= 0
+                            && twentyFourths.subtract(twentyFourths.setScale(0, BigDecimal.ROUND_HALF_UP)).abs().compareTo(new BigDecimal("1E-9")) < 0) {
+                        unit = to;
+                        break;
+                    }
+                }
+            }
+            checksum += unit.length();
+        }
+        return checksum;
+    }
+}
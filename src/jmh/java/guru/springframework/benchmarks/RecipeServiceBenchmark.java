@@ -0,0 +1,80 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.domain.Recipe;
+import guru.springframework.projections.RecipeSummary;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.services.RecipePage;
+import guru.springframework.services.RecipeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service and repository reads behind the index and show pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RecipeServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int recipes;
+
+    ConfigurableApplicationContext context;
+    RecipeService recipeService;
+    RecipeRepository recipeRepository;
+    TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(recipes);
+        recipeService = context.getBean(RecipeService.class);
+        recipeRepository = context.getBean(RecipeRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Loads every recipe; run inside a transaction the way open session in view would, so lazy state can load.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Set<Recipe> getRecipes() {
+        return transactionTemplate.execute(status -> recipeService.getRecipes());
+    }
+
+    @Benchmark
+    public RecipePage getFirstRecipePage() {
+        return recipeService.getRecipePage(null, RecipeService.DEFAULT_PAGE_SIZE);
+    }
+
+    //the query behind a page taken from the middle of the listing
+    @Benchmark
+    public List<RecipeSummary> findSummariesAfterMiddle() {
+        return recipeRepository.findSummariesAfter((long) recipes / 2,
+                PageRequest.of(0, RecipeService.DEFAULT_PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public Recipe findById() {
+        return recipeService.findById(ThreadLocalRandom.current().nextLong(1, recipes + 1));
+    }
+}
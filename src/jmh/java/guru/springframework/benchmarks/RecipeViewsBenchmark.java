@@ -0,0 +1,67 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.popularity.RecipePopularity;
+import guru.springframework.popularity.TrendingRecipe;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counting one recipe page view from 8 client threads. {@code inMemory} is what the show page pays with
+ * {@link RecipePopularity}, {@code sqlUpdate} is an update per view. {@code trending} is the index page's read.
+ * Views go to a tenth of the recipes, so threads keep hitting the same counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RecipeViewsBenchmark {
+
+    @Param({"10000"})
+    int recipes;
+
+    ConfigurableApplicationContext context;
+    RecipePopularity recipePopularity;
+    JdbcTemplate jdbcTemplate;
+    long firstId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(recipes, "--spring.datasource.hikari.maximum-pool-size=8");
+        recipePopularity = context.getBean(RecipePopularity.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        firstId = jdbcTemplate.queryForObject("select min(id) from recipe", Long.class);
+        jdbcTemplate.update("insert into recipe_view_count(recipe_id, views) select id, 0 from recipe");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void inMemory() {
+        recipePopularity.recordView(hotId());
+    }
+
+    @Benchmark
+    public int sqlUpdate() {
+        return jdbcTemplate.update("update recipe_view_count set views = views + 1 where recipe_id = ?", hotId());
+    }
+
+    @Benchmark
+    public List<TrendingRecipe> trending() {
+        return recipePopularity.trending();
+    }
+
+    private long hotId() {
+        return firstId + ThreadLocalRandom.current().nextInt(recipes / 10);
+    }
+}
@@ -0,0 +1,73 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.domain.Recipe;
+import guru.springframework.services.RecipePage;
+import guru.springframework.services.RecipeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-only RecipeService throughput with the replicas profile, from 16 client threads, as replicas are added.
+ * Every database is an in-memory H2, which runs one statement at a time per database, so replicas on a
+ * multi-core machine add read capacity much like separate servers would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReplicaReadBenchmark {
+
+    @Param({"10000"})
+    int recipes;
+
+    @Param({"0", "1", "2", "4"})
+    int replicas;
+
+    ConfigurableApplicationContext context;
+    RecipeService recipeService;
+
+    @Setup
+    public void setUp() {
+        if(replicas == 0) {
+            // baseline: the default single data source, without the replicas profile
+            context = BenchmarkApplication.start(recipes,
+                    "--spring.datasource.hikari.maximum-pool-size=16",
+                    "--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        } else {
+            List<String> urls = new ArrayList<>();
+            for(int i = 1; i <= replicas; i++) {
+                urls.add("jdbc:h2:mem:benchmark-replica" + i + ";DB_CLOSE_DELAY=-1");
+            }
+            context = BenchmarkApplication.start(recipes,
+                    "--spring.profiles.active=replicas",
+                    "--recipe.datasource.primary.jdbc-url=jdbc:h2:mem:benchmark-primary;DB_CLOSE_DELAY=-1",
+                    "--recipe.datasource.replica-urls=" + String.join(",", urls),
+                    "--recipe.datasource.replica.maximum-pool-size=16",
+                    "--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        }
+        recipeService = context.getBean(RecipeService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Recipe findById() {
+        return recipeService.findById(ThreadLocalRandom.current().nextLong(1, recipes + 1));
+    }
+
+    @Benchmark
+    public RecipePage getFirstRecipePage() {
+        return recipeService.getRecipePage(null, RecipeService.DEFAULT_PAGE_SIZE);
+    }
+}
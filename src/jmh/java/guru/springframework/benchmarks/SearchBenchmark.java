@@ -0,0 +1,55 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.search.RecipeSearchIndex;
+import guru.springframework.search.SearchHits;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranked queries against the in-memory search index: a selective term, a three term conjunction and a
+ * term found in about half of all recipes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int recipes;
+
+    @Param({"guacamole", "spicy chicken tacos", "salt"})
+    String query;
+
+    ConfigurableApplicationContext context;
+    RecipeSearchIndex recipeSearchIndex;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        context = BenchmarkApplication.start(recipes);
+        recipeSearchIndex = context.getBean(RecipeSearchIndex.class);
+        //built in the background once the application is ready
+        while(!recipeSearchIndex.isReady()) {
+            Thread.sleep(100);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SearchHits firstPage() {
+        return recipeSearchIndex.search(query, 0, 20);
+    }
+
+    @Benchmark
+    public SearchHits tenthPage() {
+        return recipeSearchIndex.search(query, 180, 20);
+    }
+}
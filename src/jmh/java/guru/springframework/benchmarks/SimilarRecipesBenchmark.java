@@ -0,0 +1,77 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.search.RecipeFacetIndex;
+import guru.springframework.search.RecipeNeighborIndex;
+import guru.springframework.search.RecipePantryIndex;
+import guru.springframework.search.RecipeSearchIndex;
+import guru.springframework.search.SimilarRecipe;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The similar recipes of one recipe, a different one each call. {@code precomputed} reads them from the
+ * {@link RecipeNeighborIndex}, {@code sqlOverlap} counts shared ingredients against every other recipe per
+ * request. The build time and size of the index are logged when the application starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SimilarRecipesBenchmark {
+
+    static final String OVERLAP_SQL = "select other.recipe_id, count(*) shared from ingredient i"
+            + " join ingredient other on lower(other.description) = lower(i.description) and other.recipe_id <> i.recipe_id"
+            + " where i.recipe_id = ? group by other.recipe_id order by shared desc, other.recipe_id limit 6";
+
+    @Param({"1000", "100000", "1000000"})
+    int recipes;
+
+    ConfigurableApplicationContext context;
+    RecipeNeighborIndex recipeNeighborIndex;
+    JdbcTemplate jdbcTemplate;
+    long firstId;
+    long call;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        //logs how long the neighbors took to build and what they take
+        context = BenchmarkApplication.start(recipes, "--logging.level.guru.springframework.search.RecipeNeighborIndex=INFO");
+        recipeNeighborIndex = context.getBean(RecipeNeighborIndex.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        firstId = jdbcTemplate.queryForObject("select min(id) from recipe", Long.class);
+        //built in the background once the application is ready, the other indexes would compete for the cpu
+        RecipeSearchIndex recipeSearchIndex = context.getBean(RecipeSearchIndex.class);
+        RecipeFacetIndex recipeFacetIndex = context.getBean(RecipeFacetIndex.class);
+        RecipePantryIndex recipePantryIndex = context.getBean(RecipePantryIndex.class);
+        while(!recipeNeighborIndex.isReady() || !recipeSearchIndex.isReady() || !recipeFacetIndex.isReady()
+                || !recipePantryIndex.isReady()) {
+            Thread.sleep(100);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<SimilarRecipe> precomputed() {
+        return recipeNeighborIndex.similar(nextId());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sqlOverlap() {
+        return jdbcTemplate.queryForList(OVERLAP_SQL, nextId());
+    }
+
+    private long nextId() {
+        return firstId + call++ % recipes;
+    }
+}
@@ -0,0 +1,78 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.services.RecipePage;
+import guru.springframework.services.RecipeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thymeleaf rendering of the index and show pages from a model loaded up front, so only the template work is timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TemplateRenderBenchmark {
+
+    //rendering does not depend on how many recipes are stored, one size is enough
+    @Param({"1000"})
+    int recipes;
+
+    ConfigurableApplicationContext context;
+    ITemplateEngine templateEngine;
+    WebContext indexContext;
+    WebContext showContext;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(recipes);
+        templateEngine = context.getBean(ITemplateEngine.class);
+        RecipeService recipeService = context.getBean(RecipeService.class);
+
+        RecipePage page = recipeService.getRecipePage(null, RecipeService.DEFAULT_PAGE_SIZE);
+        indexContext = webContext("/index");
+        indexContext.setVariable("recipes", page.getRecipes());
+        indexContext.setVariable("nextCursor", page.getNextCursor());
+
+        showContext = webContext("/recipe/show/1");
+        showContext.setVariable("recipe", recipeService.findById(1L));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String renderIndex() {
+        return render("index", indexContext);
+    }
+
+    @Benchmark
+    public String renderShow() {
+        return render("recipe/show", showContext);
+    }
+
+    private String render(String template, WebContext webContext) {
+        StringWriter writer = new StringWriter(16 * 1024);
+        templateEngine.process(template, webContext, writer);
+        return writer.toString();
+    }
+
+    private static WebContext webContext(String uri) {
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", uri);
+        return new WebContext(request, new MockHttpServletResponse(), servletContext, Locale.US);
+    }
+}
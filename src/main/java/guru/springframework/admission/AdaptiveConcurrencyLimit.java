@@ -0,0 +1,75 @@
+package guru.springframework.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the requests in flight at a limit found by additive increase, multiplicative decrease (AIMD) on the latency
+ * of RecipeService calls. While calls come back within the target and the limit is in use, it grows by one per
+ * limit calls. A call slower than the target cuts it by a quarter, at most once per target interval, since the calls
+ * of one slow spell all come back slow together. Everything is compare-and-set, nothing blocks.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    //the limit is kept in fixed point, so increases of 1/limit add up
+    private static final int SCALE = 1 << 10;
+    private static final double BACKOFF = 0.75;
+
+    private final long minScaled;
+    private final long maxScaled;
+    private final long latencyTargetNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong scaledLimit;
+    private final AtomicLong lastBackoff;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos) {
+        this.minScaled = (long) Math.max(1, minLimit) * SCALE;
+        this.maxScaled = (long) Math.max(minLimit, maxLimit) * SCALE;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.scaledLimit = new AtomicLong(Math.min(maxScaled, Math.max(minScaled, (long) initialLimit * SCALE)));
+        this.lastBackoff = new AtomicLong(System.nanoTime() - latencyTargetNanos);
+    }
+
+    //false when the limit is reached, a true has to be followed by release()
+    public boolean tryAcquire() {
+        int limit = getLimit();
+        while(true) {
+            int current = inFlight.get();
+            if(current >= limit) {
+                return false;
+            }
+            if(inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    //one RecipeService call took latencyNanos
+    public void onSample(long latencyNanos) {
+        onSample(latencyNanos, System.nanoTime());
+    }
+
+    void onSample(long latencyNanos, long now) {
+        if(latencyNanos > latencyTargetNanos) {
+            long last = lastBackoff.get();
+            if(now - last >= latencyTargetNanos && lastBackoff.compareAndSet(last, now)) {
+                scaledLimit.updateAndGet(limit -> Math.max(minScaled, (long) (limit * BACKOFF)));
+            }
+        } else if(inFlight.get() * 2 >= getLimit()) {
+            //an idle limit says nothing about what the database can take, it only grows while in use
+            scaledLimit.updateAndGet(limit -> Math.min(maxScaled, limit + (long) SCALE * SCALE / limit));
+        }
+    }
+
+    public int getLimit() {
+        return (int) (scaledLimit.get() / SCALE);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,139 @@
+package guru.springframework.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits a request only when its client is within its {@link ClientRateLimiter rate limit}, 429 otherwise, and
+ * there is room under the {@link AdaptiveConcurrencyLimit concurrency limit}, 503 otherwise. Without a rate limiter
+ * only the concurrency limit applies. Rejections are answered before any servlet work, with a Retry-After, and
+ * counted as recipe.admission.rejected by reason. Assets and the actuator are never limited.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final List<String> UNLIMITED = Arrays.asList("/webjars/", "/actuator/", "/favicon.ico");
+    //static assets are served from /** as well, no page or API url ends in one of these
+    private static final Set<String> ASSET_EXTENSIONS = new HashSet<>(Arrays.asList("css", "js", "map", "png", "jpg",
+            "jpeg", "gif", "svg", "ico", "webp", "woff", "woff2", "ttf", "eot"));
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    public AdmissionControlFilter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit,
+                                  MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+        this.rateLimited = rejected(meterRegistry, "rate-limit");
+        this.shed = rejected(meterRegistry, "concurrency-limit");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for(String unlimited : UNLIMITED) {
+            if(path.startsWith(unlimited)) {
+                return true;
+            }
+        }
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/')
+                && ASSET_EXTENSIONS.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long wait = rateLimiter == null ? 0 : rateLimiter.tryAcquire(request.getRemoteAddr());
+        if(wait > 0) {
+            rateLimited.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(wait) + 1);
+            return;
+        }
+        if(!concurrencyLimit.tryAcquire()) {
+            shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1);
+            return;
+        }
+
+        boolean releaseNow = true;
+        try {
+            filterChain.doFilter(request, response);
+            //an async request is in flight until it completes, not until the servlet thread is released
+            if(request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+                releaseNow = false;
+            }
+        } finally {
+            if(releaseNow) {
+                concurrencyLimit.release();
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(status.getReasonPhrase());
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("recipe.admission.rejected")
+                .description("Requests turned away before reaching a controller")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private class ReleaseOnCompletion implements AsyncListener {
+
+        //a timeout or an error is followed by a complete
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void release() {
+            if(released.compareAndSet(false, true)) {
+                concurrencyLimit.release();
+            }
+        }
+    }
+}
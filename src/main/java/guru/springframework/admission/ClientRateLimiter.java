@@ -0,0 +1,54 @@
+package guru.springframework.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket per client, kept the way the generic cell rate algorithm does: as the single instant at which the
+ * client's bucket will be full again. Admitting a request is one compare-and-set on that instant, there are no
+ * locks and no refill timer. Clients idle long enough to have a full bucket are forgotten.
+ */
+public class ClientRateLimiter {
+
+    private static final long MAX_CLIENTS = 100_000;
+
+    //one token comes back every interval, a full bucket holds burst of them
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> clients;
+
+    public ClientRateLimiter(double requestsPerSecond, int burst) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(MAX_CLIENTS)
+                .expireAfterAccess(burstNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    //0 when the request is admitted, otherwise the nanoseconds until the client may try again
+    public long tryAcquire(String client) {
+        return tryAcquire(client, System.nanoTime());
+    }
+
+    long tryAcquire(String client, long now) {
+        AtomicLong full = clients.getIfPresent(client);
+        if(full == null) {
+            full = clients.get(client, key -> new AtomicLong(now));
+        }
+        while(true) {
+            long current = full.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if(wait > 0) {
+                return wait;
+            }
+            if(full.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
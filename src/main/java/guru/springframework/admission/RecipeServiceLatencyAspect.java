@@ -0,0 +1,29 @@
+package guru.springframework.admission;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Feeds the time of every RecipeService call to the {@link AdaptiveConcurrencyLimit}. That is where requests wait
+ * on the database, so it is the latency that tells whether more requests in flight would still be served.
+ */
+@Aspect
+public class RecipeServiceLatencyAspect {
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    public RecipeServiceLatencyAspect(AdaptiveConcurrencyLimit concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    @Around("execution(* guru.springframework.services.RecipeService.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            concurrencyLimit.onSample(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package guru.springframework.bootstrap;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Restores the H2 file database from the recipe.snapshot.file backup before anything connects to it. Schema
+ * generation, data.sql and the startup seeding are then switched off, the snapshot already holds all of it.
+ * Nothing happens until {@link DatabaseSnapshotWriter} has written a snapshot. A database file that is already
+ * there is kept with the writes made since the snapshot, unless recipe.snapshot.restore is always.
+ * Registered in META-INF/spring.factories, it runs once the application properties and profiles have been loaded.
+ */
+public class DatabaseSnapshotRestorer implements EnvironmentPostProcessor {
+
+    static final String SNAPSHOT_PROPERTY = "recipe.snapshot.file";
+    static final String RESTORED_PROPERTY = "recipe.snapshot.restored";
+    static final String RESTORE_PROPERTY = "recipe.snapshot.restore";
+
+    private static final String H2_FILE_URL = "jdbc:h2:file:";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        String snapshot = environment.getProperty(SNAPSHOT_PROPERTY);
+        if(!StringUtils.hasText(snapshot) || !new File(snapshot).isFile()) {
+            return;
+        }
+
+        File database = databaseFile(environment.getProperty("spring.datasource.url", ""));
+        //an existing database was restored or seeded by an earlier start, it holds the schema and data as well
+        if(!exists(database) || "always".equalsIgnoreCase(environment.getProperty(RESTORE_PROPERTY, "missing"))) {
+            restore(new File(snapshot), database);
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(RESTORED_PROPERTY, true);
+        properties.put("spring.jpa.hibernate.ddl-auto", "none");
+        properties.put("spring.datasource.initialization-mode", "never");
+        environment.getPropertySources().addFirst(new MapPropertySource("recipeSnapshot", properties));
+    }
+
+    //jdbc:h2:file:./target/recipes;OPTION=1 is the database ./target/recipes(.mv.db)
+    static File databaseFile(String url) {
+        if(!url.startsWith(H2_FILE_URL)) {
+            throw new IllegalStateException("Database Snapshot Needs A " + H2_FILE_URL + " Url, Found " + url);
+        }
+        int options = url.indexOf(';');
+        return new File(url.substring(H2_FILE_URL.length(), options < 0 ? url.length() : options)).getAbsoluteFile();
+    }
+
+    //recipes.mv.db, or recipes.h2.db for the older page store
+    static boolean exists(File database) {
+        File directory = database.getParentFile();
+        return new File(directory, database.getName() + ".mv.db").isFile()
+                || new File(directory, database.getName() + ".h2.db").isFile();
+    }
+
+    //an H2 backup is a zip of the database files, extracted over whatever is there
+    static void restore(File snapshot, File database) {
+        File directory = database.getParentFile();
+        directory.mkdirs();
+        try(ZipInputStream zip = new ZipInputStream(Files.newInputStream(snapshot.toPath()))) {
+            for(ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                String name = entry.getName();
+                if(entry.isDirectory() || !name.startsWith(database.getName() + ".")
+                        || name.contains("/") || name.contains("\\")) {
+                    throw new IllegalStateException("Unexpected Database Snapshot Entry " + name);
+                }
+                Files.copy(zip, new File(directory, name).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not restore database snapshot " + snapshot, e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package guru.springframework.bootstrap;
+
+import guru.springframework.events.RecipesSeededEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes an H2 backup of the freshly seeded database to recipe.snapshot.file, which {@link DatabaseSnapshotRestorer}
+ * restores on the next start instead of creating the schema and replaying the inserts. Delete the file when the
+ * schema or the seeding changes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(DatabaseSnapshotRestorer.SNAPSHOT_PROPERTY)
+public class DatabaseSnapshotWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final File snapshot;
+
+    public DatabaseSnapshotWriter(JdbcTemplate jdbcTemplate,
+                                  @Value("${" + DatabaseSnapshotRestorer.SNAPSHOT_PROPERTY + "}") File snapshot) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshot = snapshot.getAbsoluteFile();
+    }
+
+    @EventListener
+    public void onRecipesSeeded(RecipesSeededEvent event) {
+        if(snapshot.isFile()) {
+            return;
+        }
+        try {
+            write();
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.warn("Could not write database snapshot {}: {}", snapshot, e.getMessage());
+        }
+    }
+
+    void write() {
+        long start = System.nanoTime();
+        snapshot.getParentFile().mkdirs();
+
+        //written next to the snapshot and moved in place, a start never sees half a backup
+        File partial = new File(snapshot.getPath() + ".partial");
+        jdbcTemplate.execute("backup to '" + partial.getPath().replace("'", "''") + "'");
+        try {
+            Files.move(partial.toPath(), snapshot.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("Wrote database snapshot {} ({} bytes) in {} ms", snapshot, snapshot.length(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
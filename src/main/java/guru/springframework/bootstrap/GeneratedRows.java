@@ -0,0 +1,26 @@
+package guru.springframework.bootstrap;
+
+import lombok.Value;
+
+/**
+ * Row counts written by the {@link RecipeDataGenerator}.
+ */
+@Value
+public class GeneratedRows {
+
+    static final GeneratedRows NONE = new GeneratedRows(0, 0, 0, 0);
+
+    private final long recipes;
+    private final long notes;
+    private final long ingredients;
+    private final long categoryLinks;
+
+    public long total() {
+        return recipes + notes + ingredients + categoryLinks;
+    }
+
+    GeneratedRows plus(GeneratedRows other) {
+        return new GeneratedRows(recipes + other.recipes, notes + other.notes,
+                ingredients + other.ingredients, categoryLinks + other.categoryLinks);
+    }
+}
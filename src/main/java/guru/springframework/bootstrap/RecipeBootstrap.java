@@ -5,12 +5,13 @@ import guru.springframework.repositories.CategoryRepository;
 import guru.springframework.repositories.RecipeRepository;
 import guru.springframework.repositories.UnitOfMeasureRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.transaction.Transactional;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
@@ -18,25 +19,35 @@ import java.util.Optional;
 
 @Slf4j
 @Component
+@ConditionalOnProperty(name = "recipe.generator.enabled", havingValue = "false", matchIfMissing = true)
 public class RecipeBootstrap implements ApplicationListener<ContextRefreshedEvent> {
 
     private final CategoryRepository categoryRepository;
     private final RecipeRepository recipeRepository;
     private final UnitOfMeasureRepository unitOfMeasureRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StartupSeeder startupSeeder;
 
-    public RecipeBootstrap(CategoryRepository categoryRepository, RecipeRepository recipeRepository, UnitOfMeasureRepository unitOfMeasureRepository) {
+    public RecipeBootstrap(CategoryRepository categoryRepository, RecipeRepository recipeRepository, UnitOfMeasureRepository unitOfMeasureRepository,
+                           PlatformTransactionManager transactionManager, StartupSeeder startupSeeder) {
         log.debug("Created RecipeBootstrap");
         this.categoryRepository = categoryRepository;
         this.recipeRepository = recipeRepository;
         this.unitOfMeasureRepository = unitOfMeasureRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.startupSeeder = startupSeeder;
     }
 
     @Override
-    @Transactional
     public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
         log.info("Context Refresh Event " + contextRefreshedEvent.toString());
 
-        recipeRepository.saveAll(getRecipes());
+        //may run on a task thread, so the transaction is not left to a proxy
+        startupSeeder.seed("RecipeBootstrap", () -> transactionTemplate.execute(status -> {
+            List<Recipe> recipes = getRecipes();
+            recipeRepository.saveAll(recipes);
+            return (long) recipes.size();
+        }));
 
         log.info("Context Refresh Event terminated");
     }
@@ -0,0 +1,239 @@
+package guru.springframework.bootstrap;
+
+import guru.springframework.domain.Difficulty;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates recipes with their notes, ingredients and category links straight through JDBC batches.
+ * The work is split in partitions, each with its own random stream, written in parallel. Only created
+ * when recipe.generator.enabled=true, in which case it replaces the hand written {@link RecipeBootstrap}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "recipe.generator.enabled", havingValue = "true")
+public class RecipeDataGenerator implements ApplicationRunner {
+
+    private static final String[] ADJECTIVES = {"Spicy", "Grilled", "Roasted", "Creamy", "Smoky", "Crispy",
+            "Slow Cooked", "Perfect", "Easy", "Classic", "Zesty", "Garlic", "Lemon", "Honey Glazed", "Vegan"};
+    private static final String[] DISHES = {"Chicken Tacos", "Guacamole", "Lasagna", "Burger", "Chili",
+            "Risotto", "Enchiladas", "Meatballs", "Pulled Pork", "Mac and Cheese", "Fajitas", "Pizza", "Salmon",
+            "Pancakes", "Curry", "Ramen", "Brownies", "Caesar Salad"};
+    private static final String[] INGREDIENTS = {"ripe avocados", "salt", "red onion", "lime juice", "cilantro",
+            "black pepper", "tomato", "olive oil", "clove garlic", "dried oregano", "sour cream", "chicken thighs",
+            "ground beef", "parmesan", "basil", "cumin", "corn tortillas", "butter", "flour", "milk", "eggs",
+            "sugar", "rice", "soy sauce", "ginger", "honey", "cheddar", "bacon", "spinach", "mushrooms"};
+    private static final int[] SERVINGS = {1, 2, 2, 4, 4, 4, 4, 6, 6, 8, 12};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StartupSeeder startupSeeder;
+    private final int recipes;
+    private final int partitions;
+    private final int batchSize;
+    private final long seed;
+
+    public RecipeDataGenerator(JdbcTemplate jdbcTemplate, StartupSeeder startupSeeder,
+                               @Value("${recipe.generator.recipes:10000}") int recipes,
+                               @Value("${recipe.generator.partitions:0}") int partitions,
+                               @Value("${recipe.generator.batch-size:1000}") int batchSize,
+                               @Value("${recipe.generator.seed:42}") long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.startupSeeder = startupSeeder;
+        this.recipes = recipes;
+        //0 means one partition per processor
+        this.partitions = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, batchSize);
+        this.seed = seed;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        startupSeeder.seed("RecipeDataGenerator", () -> generate(recipes).getRecipes());
+    }
+
+    public GeneratedRows generate(int count) {
+        if(count <= 0) {
+            return GeneratedRows.NONE;
+        }
+
+        List<Long> categoryIds = jdbcTemplate.queryForList("select id from category order by id", Long.class);
+        List<Long> uomIds = jdbcTemplate.queryForList("select id from unit_of_measure order by id", Long.class);
+        if(categoryIds.isEmpty() || uomIds.isEmpty()) {
+            throw new RuntimeException("Expected Categories and UOMs Not Found");
+        }
+
+        int partitionCount = Math.min(partitions, count);
+        SplittableRandom root = new SplittableRandom(seed);
+        ExecutorService executor = Executors.newFixedThreadPool(partitionCount);
+        long start = System.nanoTime();
+
+        GeneratedRows rows = GeneratedRows.NONE;
+
+        try {
+            List<Future<GeneratedRows>> futures = new ArrayList<>(partitionCount);
+            for(int p = 0; p < partitionCount; p++) {
+                int size = count / partitionCount + (p < count % partitionCount ? 1 : 0);
+                Partition partition = new Partition(root.split(), categoryIds, uomIds);
+                futures.add(executor.submit(() -> partition.write(size)));
+            }
+            for(Future<GeneratedRows> future : futures) {
+                rows = rows.plus(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Recipe Generation Interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Recipe Generation Failed!", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        log.info("Generated {} recipes, {} ingredients, {} category links ({} rows) in {} ms with {} partitions, {} rows/sec",
+                rows.getRecipes(), rows.getIngredients(), rows.getCategoryLinks(), rows.total(),
+                Math.round(seconds * 1000), partitionCount, Math.round(rows.total() / seconds));
+
+        return rows;
+    }
+
+    private class Partition {
+
+        private final SplittableRandom random;
+        private final List<Long> categoryIds;
+        private final List<Long> uomIds;
+        //ids come from the same sequences hibernate allocates from
+        private final SequenceIdBlocks recipeIds = new SequenceIdBlocks(jdbcTemplate, "recipe_seq");
+        private final SequenceIdBlocks notesIds = new SequenceIdBlocks(jdbcTemplate, "notes_seq");
+        private final SequenceIdBlocks ingredientIds = new SequenceIdBlocks(jdbcTemplate, "ingredient_seq");
+
+        Partition(SplittableRandom random, List<Long> categoryIds, List<Long> uomIds) {
+            this.random = random;
+            this.categoryIds = categoryIds;
+            this.uomIds = uomIds;
+        }
+
+        GeneratedRows write(int count) {
+            GeneratedRows rows = GeneratedRows.NONE;
+            for(int remaining = count; remaining > 0; remaining -= batchSize) {
+                rows = rows.plus(writeBatch(Math.min(batchSize, remaining)));
+            }
+            return rows;
+        }
+
+        private GeneratedRows writeBatch(int count) {
+            List<Object[]> recipeRows = new ArrayList<>(count);
+            List<Object[]> notesRows = new ArrayList<>(count);
+            List<Object[]> notesLinks = new ArrayList<>(count);
+            List<Object[]> ingredientRows = new ArrayList<>(count * 11);
+            List<Object[]> categoryRows = new ArrayList<>(count * 2);
+
+            for(int i = 0; i < count; i++) {
+                long recipeId = recipeIds.next();
+                long notesId = notesIds.next();
+                recipeRows.add(new Object[]{recipeId, description(), prepTime(), cookTime(),
+                        SERVINGS[random.nextInt(SERVINGS.length)], "Recipe Generator",
+                        "https://www.example.com/recipes/" + recipeId, directions(), difficulty().name()});
+                notesRows.add(new Object[]{notesId, recipeId, notes()});
+                notesLinks.add(new Object[]{notesId, recipeId});
+
+                for(int j = ingredientCount(); j > 0; j--) {
+                    ingredientRows.add(new Object[]{ingredientIds.next(), pick(INGREDIENTS),
+                            BigDecimal.valueOf(25L * (1 + random.nextInt(16)), 2), skewed(uomIds), recipeId});
+                }
+
+                //most recipes have one category, some two or three, popular categories come up more often
+                int categories = 1 + (random.nextInt(10) < 4 ? 1 : 0) + (random.nextInt(10) < 1 ? 1 : 0);
+                int first = skewedIndex(categoryIds.size());
+                for(int c = 0; c < Math.min(categories, categoryIds.size()); c++) {
+                    categoryRows.add(new Object[]{recipeId, categoryIds.get((first + c) % categoryIds.size())});
+                }
+            }
+
+            //notes and recipe reference each other, the recipe goes in first and is linked to its notes after
+            jdbcTemplate.batchUpdate("insert into recipe(id, description, prep_time, cook_time, servings, source, url," +
+                    " directions, difficulty, version) values(?,?,?,?,?,?,?,?,?,0)", recipeRows);
+            jdbcTemplate.batchUpdate("insert into notes(id, recipe_id, recipe_notes) values(?,?,?)", notesRows);
+            jdbcTemplate.batchUpdate("update recipe set notes_id = ? where id = ?", notesLinks);
+            jdbcTemplate.batchUpdate("insert into ingredient(id, description, amount, uom_id, recipe_id)" +
+                    " values(?,?,?,?,?)", ingredientRows);
+            jdbcTemplate.batchUpdate("insert into recipe_category(recipe_id, category_id) values(?,?)", categoryRows);
+
+            return new GeneratedRows(count, count, ingredientRows.size(), categoryRows.size());
+        }
+
+        //3 to 19 ingredients, centered around 11
+        private int ingredientCount() {
+            return 3 + random.nextInt(5) + random.nextInt(5) + random.nextInt(5) + random.nextInt(5);
+        }
+
+        private int prepTime() {
+            return Math.min(120, 5 + exponential(15));
+        }
+
+        private int cookTime() {
+            return random.nextInt(10) < 3 ? 0 : Math.min(240, 5 + exponential(30));
+        }
+
+        private Difficulty difficulty() {
+            int roll = random.nextInt(100);
+            return roll < 50 ? Difficulty.EASY : roll < 85 ? Difficulty.MODERATE : Difficulty.HARD;
+        }
+
+        private String description() {
+            return pick(ADJECTIVES) + " " + pick(DISHES);
+        }
+
+        //kept under the 255 characters of the column
+        private String directions() {
+            StringBuilder directions = new StringBuilder();
+            int steps = 2 + random.nextInt(3);
+            for(int step = 1; step <= steps; step++) {
+                directions.append(step).append(". Add the ").append(pick(INGREDIENTS))
+                        .append(" and cook for ").append(1 + random.nextInt(15)).append(" minutes\n");
+            }
+            return directions.toString();
+        }
+
+        private String notes() {
+            StringBuilder notes = new StringBuilder();
+            int sentences = 1 + random.nextInt(6);
+            for(int i = 0; i < sentences; i++) {
+                notes.append("Swap the ").append(pick(INGREDIENTS)).append(" for ").append(pick(INGREDIENTS))
+                        .append(" if it is hard to find at your grocery store. ");
+            }
+            return notes.toString();
+        }
+
+        private int exponential(int mean) {
+            return (int) (-mean * Math.log(1 - random.nextDouble()));
+        }
+
+        private String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+
+        private Long skewed(List<Long> ids) {
+            return ids.get(skewedIndex(ids.size()));
+        }
+
+        //squaring a uniform value favours the low indexes
+        private int skewedIndex(int size) {
+            double u = random.nextDouble();
+            return (int) (size * u * u);
+        }
+    }
+}
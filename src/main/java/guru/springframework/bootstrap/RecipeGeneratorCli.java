@@ -0,0 +1,27 @@
+package guru.springframework.bootstrap;
+
+import guru.springframework.Spring5RecipeAppApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs the {@link RecipeDataGenerator} without the web server and exits, e.g.
+ * {@code --spring.datasource.url=jdbc:h2:file:./recipes --recipe.generator.recipes=1000000}.
+ */
+public class RecipeGeneratorCli {
+
+    public static void main(String[] args) {
+        //system properties win over application.properties, command line arguments still win over them
+        System.setProperty("recipe.generator.enabled", "true");
+        //a one shot run has nothing to reload
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Spring5RecipeAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,33 @@
+package guru.springframework.bootstrap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Hands out ids from a database sequence the way hibernate's pooled optimizer does: each sequence value v
+ * reserves the block (v - allocationSize, v]. Sharing the blocks with hibernate keeps generated rows and
+ * rows saved through JPA from colliding. Not thread safe, every partition uses its own.
+ */
+class SequenceIdBlocks {
+
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sql;
+
+    private long next;
+    private long last = -1;
+
+    SequenceIdBlocks(JdbcTemplate jdbcTemplate, String sequence) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sql = "select next value for " + sequence;
+    }
+
+    long next() {
+        if(next > last) {
+            last = jdbcTemplate.queryForObject(sql, Long.class);
+            //the very first value of a fresh sequence is 1, only that id is usable from its block
+            next = Math.max(1, last - ALLOCATION_SIZE + 1);
+        }
+        return next++;
+    }
+}
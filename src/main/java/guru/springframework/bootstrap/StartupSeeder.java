@@ -0,0 +1,69 @@
+package guru.springframework.bootstrap;
+
+import guru.springframework.events.RecipeChangedEvent;
+import guru.springframework.events.RecipesSeededEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Runs the startup seeding of {@link RecipeBootstrap} or {@link RecipeDataGenerator}. With recipe.bootstrap.async=true
+ * it runs on the application task executor, so the application is ready while it writes. It is skipped when the
+ * database was restored from a snapshot, or kept from an earlier start, which already holds the data.
+ */
+@Slf4j
+@Component
+public class StartupSeeder {
+
+    private final TaskExecutor taskExecutor;
+    private final ApplicationEventPublisher publisher;
+    private final boolean async;
+    private final boolean restored;
+
+    public StartupSeeder(TaskExecutor taskExecutor, ApplicationEventPublisher publisher,
+                         @Value("${recipe.bootstrap.async:false}") boolean async,
+                         @Value("${" + DatabaseSnapshotRestorer.RESTORED_PROPERTY + ":false}") boolean restored) {
+        this.taskExecutor = taskExecutor;
+        this.publisher = publisher;
+        this.async = async;
+        this.restored = restored;
+    }
+
+    //the seeding returns the number of recipes written
+    public void seed(String seeder, LongSupplier seeding) {
+        if(restored) {
+            log.info("Database restored from a snapshot or kept from an earlier start, skipping {}", seeder);
+            return;
+        }
+
+        if(async) {
+            taskExecutor.execute(() -> {
+                try {
+                    run(seeder, seeding);
+                } catch (RuntimeException e) {
+                    log.error(seeder + " failed", e);
+                }
+            });
+        } else {
+            run(seeder, seeding);
+        }
+    }
+
+    private void run(String seeder, LongSupplier seeding) {
+        long start = System.nanoTime();
+        long recipes = seeding.getAsLong();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("{} seeded {} recipes in {} ms{}", seeder, recipes, millis, async ? " in the background" : "");
+
+        if(async) {
+            //the search indexes were built at startup, generated rows never went through hibernate
+            publisher.publishEvent(RecipeChangedEvent.all());
+        }
+        publisher.publishEvent(new RecipesSeededEvent(seeder, recipes, millis));
+    }
+}
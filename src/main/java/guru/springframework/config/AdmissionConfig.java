@@ -0,0 +1,66 @@
+package guru.springframework.config;
+
+import guru.springframework.admission.AdaptiveConcurrencyLimit;
+import guru.springframework.admission.AdmissionControlFilter;
+import guru.springframework.admission.ClientRateLimiter;
+import guru.springframework.admission.RecipeServiceLatencyAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+//rate limits clients and sheds load before requests reach a controller, see AdmissionControlFilter
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "recipe.admission.enabled", matchIfMissing = true)
+public class AdmissionConfig {
+
+    //keyed by the remote address, behind a proxy that takes server.use-forward-headers=true
+    @Bean
+    @ConditionalOnProperty(name = "recipe.admission.rate-limit.enabled")
+    public ClientRateLimiter clientRateLimiter(@Value("${recipe.admission.rate:50}") double rate,
+                                               @Value("${recipe.admission.burst:100}") int burst) {
+        return new ClientRateLimiter(rate, burst);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimit adaptiveConcurrencyLimit(MeterRegistry meterRegistry,
+            @Value("${recipe.admission.initial-limit:20}") int initialLimit,
+            @Value("${recipe.admission.min-limit:4}") int minLimit,
+            @Value("${recipe.admission.max-limit:200}") int maxLimit,
+            @Value("${recipe.admission.latency-target:100ms}") Duration latencyTarget) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit,
+                latencyTarget.toNanos());
+        Gauge.builder("recipe.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Requests allowed in flight")
+                .register(meterRegistry);
+        Gauge.builder("recipe.admission.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests in flight")
+                .register(meterRegistry);
+        return limit;
+    }
+
+    @Bean
+    public RecipeServiceLatencyAspect recipeServiceLatencyAspect(AdaptiveConcurrencyLimit concurrencyLimit) {
+        return new RecipeServiceLatencyAspect(concurrencyLimit);
+    }
+
+    //after the request metrics filter, so rejected requests are still timed and counted
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            ObjectProvider<ClientRateLimiter> rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(rateLimiter.getIfAvailable(), concurrencyLimit, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,27 @@
+package guru.springframework.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@Configuration
+public class CacheConfig {
+
+    static final String EHCACHE_CONFIG = "ehcache.xml";
+
+    //hibernate-jcache only understands real URIs, resolve the classpath location for it
+    @Bean
+    public HibernatePropertiesCustomizer jcacheConfigCustomizer() {
+        return hibernateProperties -> {
+            try {
+                hibernateProperties.put("hibernate.javax.cache.uri", new ClassPathResource(EHCACHE_CONFIG).getURI().toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not resolve " + EHCACHE_CONFIG, e);
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package guru.springframework.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+import java.util.Set;
+
+/**
+ * Marks every application bean lazy, so it is only created when first used instead of during startup. Spring's
+ * own infrastructure beans and the eager beans named in recipe.startup.eager-beans are left alone, the latter
+ * for beans nothing looks up that still have to be running, like the hibernate change listener.
+ */
+@Slf4j
+public class LazyInitBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+    private final Set<String> eagerBeans;
+
+    public LazyInitBeanFactoryPostProcessor(Set<String> eagerBeans) {
+        this.eagerBeans = eagerBeans;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        int lazy = 0;
+        String[] names = beanFactory.getBeanDefinitionNames();
+        for(String name : names) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if(definition.isLazyInit() || definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || eagerBeans.contains(name)) {
+                continue;
+            }
+            definition.setLazyInit(true);
+            lazy++;
+        }
+        log.info("Made {} of {} beans lazy", lazy, names.length);
+    }
+}
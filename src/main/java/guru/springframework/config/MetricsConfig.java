@@ -0,0 +1,54 @@
+package guru.springframework.config;
+
+import guru.springframework.metrics.RequestMetricsInterceptor;
+import guru.springframework.metrics.RequestTimings;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final Duration slowSqlThreshold;
+    private final boolean serverTiming;
+    private final boolean requestSql;
+
+    public MetricsConfig(MeterRegistry meterRegistry,
+                         @Value("${recipe.metrics.slow-sql-threshold:100ms}") Duration slowSqlThreshold,
+                         @Value("${recipe.metrics.server-timing:false}") boolean serverTiming,
+                         @Value("${recipe.metrics.request-sql.enabled:true}") boolean requestSql) {
+        this.meterRegistry = meterRegistry;
+        this.slowSqlThreshold = slowSqlThreshold;
+        this.serverTiming = serverTiming;
+        this.requestSql = requestSql;
+    }
+
+    //backs the @Timed service methods
+    @Bean
+    public TimedAspect timedAspect() {
+        return new TimedAspect(meterRegistry);
+    }
+
+    //picked up by the application task executor, so async requests keep counting their SQL
+    @Bean
+    public TaskDecorator requestTimingsTaskDecorator() {
+        return RequestTimings::wrap;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        //without it no request binds RequestTimings, and the statement inspector and listener only read a ThreadLocal
+        if(!requestSql) {
+            return;
+        }
+        registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry, slowSqlThreshold, serverTiming));
+    }
+}
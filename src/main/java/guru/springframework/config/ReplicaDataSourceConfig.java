@@ -0,0 +1,110 @@
+package guru.springframework.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A primary database with read replicas, see application-replicas.properties.
+ */
+@Slf4j
+@Configuration
+@Profile("replicas")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaPools replicaPools(ReplicaDataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource primary = pool(properties.getPrimary(), "primary", null, false, meterRegistry);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for(int i = 0; i < properties.getReplicaUrls().size(); i++) {
+            replicas.add(pool(properties.getReplica(), "replica-" + (i + 1),
+                    properties.getReplicaUrls().get(i), true, meterRegistry));
+        }
+        log.info("Routing read-only transactions to {} replicas", replicas.size());
+        return new ReplicaPools(primary, replicas);
+    }
+
+    //the routing is decided when the first statement runs, by then the transaction is known
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaPools replicaPools) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(replicaPools);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "recipe.datasource.seed-replicas")
+    public ReplicaSeeder replicaSeeder(ReplicaPools replicaPools) {
+        return new ReplicaSeeder(replicaPools);
+    }
+
+    private static HikariDataSource pool(HikariConfig settings, String name, String url, boolean readOnly,
+                                         MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        settings.copyStateTo(config);
+        config.setPoolName(name);
+        if(url != null) {
+            config.setJdbcUrl(url);
+        }
+        config.setReadOnly(readOnly);
+        //Boot only binds pool metrics for DataSource beans, these pools are not
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Stands in for replication when the databases are H2: once the bootstrap data is in, the primary is
+     * scripted out and loaded into every replica. Later writes are not copied.
+     */
+    public static class ReplicaSeeder {
+
+        private final ReplicaPools pools;
+
+        ReplicaSeeder(ReplicaPools pools) {
+            this.pools = pools;
+        }
+
+        @EventListener(ApplicationReadyEvent.class)
+        public void seed() {
+            long start = System.currentTimeMillis();
+            try {
+                Path script = Files.createTempFile("recipe-replica", ".sql");
+                try {
+                    new JdbcTemplate(pools.getPrimary()).execute("script to '" + script + "'");
+                    for(HikariDataSource replica : pools.getReplicas()) {
+                        JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+                        jdbcTemplate.execute("drop all objects");
+                        jdbcTemplate.execute("runscript from '" + script + "'");
+                    }
+                } finally {
+                    Files.delete(script);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not seed the replicas", e);
+            }
+            log.info("Seeded {} replicas in {} ms", pools.getReplicas().size(), System.currentTimeMillis() - start);
+        }
+    }
+}
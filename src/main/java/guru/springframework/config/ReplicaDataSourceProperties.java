@@ -0,0 +1,24 @@
+package guru.springframework.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pools for the primary and the read replicas. Every replica gets a copy of the replica pool settings with its
+ * own URL from replica-urls.
+ */
+@Data
+@ConfigurationProperties("recipe.datasource")
+public class ReplicaDataSourceProperties {
+
+    private HikariConfig primary = new HikariConfig();
+    private HikariConfig replica = new HikariConfig();
+    private List<String> replicaUrls = new ArrayList<>();
+
+    //copies the primary into the replicas once the application is up, for H2 stand-ins only
+    private boolean seedReplicas;
+}
@@ -0,0 +1,43 @@
+package guru.springframework.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections taken inside a read-only transaction to the replicas, round robin, and everything else to
+ * the primary. The transaction has to be known before the connection is taken, so this sits behind a
+ * LazyConnectionDataSourceProxy.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final int replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(ReplicaPools pools) {
+        this.replicas = pools.getReplicas().size();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, pools.getPrimary());
+        for(int i = 0; i < replicas; i++) {
+            targets.put(i, pools.getReplicas().get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(pools.getPrimary());
+        //a key that is not mapped is a bug, not a reason to quietly use the primary
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if(replicas == 0 || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return Math.floorMod(next.getAndIncrement(), replicas);
+    }
+}
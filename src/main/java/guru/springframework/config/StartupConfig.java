@@ -0,0 +1,23 @@
+package guru.springframework.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+
+@Configuration
+public class StartupConfig {
+
+    //static, bean factory post processors run before this configuration could be created
+    @Bean
+    @ConditionalOnProperty(name = "recipe.startup.lazy-init", havingValue = "true")
+    public static LazyInitBeanFactoryPostProcessor lazyInitBeanFactoryPostProcessor(Environment environment) {
+        return new LazyInitBeanFactoryPostProcessor(Binder.get(environment)
+                .bind("recipe.startup.eager-beans", Bindable.setOf(String.class))
+                .orElse(Collections.emptySet()));
+    }
+}
@@ -0,0 +1,68 @@
+package guru.springframework.config;
+
+import guru.springframework.services.RecipePopularityService;
+import guru.springframework.web.AssetCacheControlInterceptor;
+import guru.springframework.web.CompressedAssetResolver;
+import guru.springframework.web.RenderedPageCache;
+import guru.springframework.web.RenderedPageCacheFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.ResourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+//ResourceProperties only exists when Spring MVC is set up
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ResourceProperties resourceProperties;
+
+    public WebConfig(ResourceProperties resourceProperties) {
+        this.resourceProperties = resourceProperties;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "recipe.page-cache.enabled", matchIfMissing = true)
+    public FilterRegistrationBean<RenderedPageCacheFilter> renderedPageCacheFilter(RenderedPageCache pageCache,
+            RecipePopularityService recipePopularityService, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RenderedPageCacheFilter> registration = new FilterRegistrationBean<>(
+                new RenderedPageCacheFilter(pageCache, recipePopularityService, meterRegistry));
+        registration.addUrlPatterns("/recipe/show/*");
+        return registration;
+    }
+
+    //rewrites @{/webjars/...} links in the templates to their content hashed urls
+    @Bean
+    public FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        return new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+    }
+
+    //replaces the default /webjars/** and /** handlers, same locations
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        assets(registry.addResourceHandler("/webjars/**").addResourceLocations("classpath:/META-INF/resources/webjars/"));
+        assets(registry.addResourceHandler("/**").addResourceLocations(resourceProperties.getStaticLocations()));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AssetCacheControlInterceptor());
+    }
+
+    private void assets(ResourceHandlerRegistration registration) {
+        registration.resourceChain(true)
+                .addResolver(new CompressedAssetResolver())
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+}
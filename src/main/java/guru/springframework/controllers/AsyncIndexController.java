@@ -0,0 +1,54 @@
+package guru.springframework.controllers;
+
+import guru.springframework.services.InvalidCursorException;
+import guru.springframework.services.RecipeAsyncService;
+import guru.springframework.services.RecipePopularityService;
+import guru.springframework.services.RecipeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link IndexController} for recipe.execution.mode=async, the servlet thread is released until the page is loaded.
+ */
+@Slf4j
+@Controller
+@ConditionalOnProperty(name = "recipe.execution.mode", havingValue = "async")
+public class AsyncIndexController {
+
+    private final RecipeAsyncService recipeAsyncService;
+    private final RecipePopularityService recipePopularityService;
+
+    public AsyncIndexController(RecipeAsyncService recipeAsyncService, RecipePopularityService recipePopularityService) {
+        log.debug("Created AsyncIndexController");
+        this.recipeAsyncService = recipeAsyncService;
+        this.recipePopularityService = recipePopularityService;
+    }
+
+    @RequestMapping({"","/","/index"})
+    public CompletableFuture<String> getIndexPage(@RequestParam(required = false) String cursor, Model model) {
+        log.info("Call to getIndexPage()");
+
+        return recipeAsyncService.getRecipePage(cursor, RecipeService.DEFAULT_PAGE_SIZE).thenApply(page -> {
+            model.addAttribute("recipes", page.getRecipes());
+            model.addAttribute("nextCursor", page.getNextCursor());
+            model.addAttribute("trendingRecipes", recipePopularityService.getTrending());
+
+            return "index";
+        });
+    }
+
+    //a cursor the client made up or mangled
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(code = HttpStatus.BAD_REQUEST, reason = "Invalid Recipe Cursor!")
+    public void invalidCursor() {
+    }
+}
@@ -0,0 +1,47 @@
+package guru.springframework.controllers;
+
+import guru.springframework.services.RecipeAsyncService;
+import guru.springframework.services.RecipePopularityService;
+import guru.springframework.services.RecipeSimilarityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link RecipeController} for recipe.execution.mode=async, the servlet thread is released until the recipe is loaded.
+ */
+@Slf4j
+@Controller
+@ConditionalOnProperty(name = "recipe.execution.mode", havingValue = "async")
+public class AsyncRecipeController {
+
+    private final RecipeAsyncService recipeAsyncService;
+    private final RecipeSimilarityService recipeSimilarityService;
+    private final RecipePopularityService recipePopularityService;
+
+    public AsyncRecipeController(RecipeAsyncService recipeAsyncService, RecipeSimilarityService recipeSimilarityService,
+                                 RecipePopularityService recipePopularityService) {
+        log.debug("Created AsyncRecipeController");
+        this.recipeAsyncService = recipeAsyncService;
+        this.recipeSimilarityService = recipeSimilarityService;
+        this.recipePopularityService = recipePopularityService;
+    }
+
+    @RequestMapping("/recipe/show/{id}")
+    public CompletableFuture<String> showById(@PathVariable String id, Model model) {
+
+        return recipeAsyncService.findById(Long.valueOf(id)).thenApply(recipe -> {
+            model.addAttribute("recipe", recipe);
+            model.addAttribute("similarRecipes", recipeSimilarityService.findSimilar(recipe.getId()));
+            recipePopularityService.recordView(recipe.getId());
+
+            return "recipe/show";
+        });
+    }
+
+}
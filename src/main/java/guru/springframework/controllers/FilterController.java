@@ -0,0 +1,43 @@
+package guru.springframework.controllers;
+
+import guru.springframework.search.FacetSelection;
+import guru.springframework.services.InvalidCursorException;
+import guru.springframework.services.RecipeFilterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Slf4j
+@Controller
+public class FilterController {
+
+    private final RecipeFilterService recipeFilterService;
+
+    public FilterController(RecipeFilterService recipeFilterService) {
+        log.debug("Created FilterController");
+        this.recipeFilterService = recipeFilterService;
+    }
+
+    //facet values arrive as repeated parameters named after the facet, e.g. ?difficulty=EASY&difficulty=HARD
+    @RequestMapping("/recipes/filter")
+    public String filter(@RequestParam MultiValueMap<String, String> parameters,
+                         @RequestParam(required = false) String cursor, Model model) {
+
+        model.addAttribute("result", recipeFilterService.filter(FacetSelection.from(parameters), cursor,
+                RecipeFilterService.DEFAULT_PAGE_SIZE));
+
+        return "recipes/filter";
+    }
+
+    //a cursor the client made up or mangled
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(code = HttpStatus.BAD_REQUEST, reason = "Invalid Recipe Cursor!")
+    public void invalidCursor() {
+    }
+}
@@ -0,0 +1,108 @@
+package guru.springframework.controllers;
+
+import guru.springframework.domain.RecipeImage;
+import guru.springframework.services.ImageService;
+import guru.springframework.services.RecipeNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Controller
+public class ImageController {
+
+    private final ImageService imageService;
+
+    public ImageController(ImageService imageService) {
+        log.debug("Created ImageController");
+        this.imageService = imageService;
+    }
+
+    @PostMapping("/recipe/{id}/image")
+    public String handleImagePost(@PathVariable String id, @RequestParam("imagefile") MultipartFile file) throws IOException {
+
+        imageService.saveImage(Long.valueOf(id), file.getContentType(), file.getBytes());
+
+        return "redirect:/recipe/show/" + id;
+    }
+
+    @GetMapping("/recipe/{id}/image")
+    public void renderImage(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Long recipeId = Long.valueOf(id);
+
+        Optional<RecipeImage> imageOptional = imageService.findImage(recipeId);
+        if(!imageOptional.isPresent()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        RecipeImage image = imageOptional.get();
+        String etag = "\"" + image.getEtag() + "\"";
+        long length = image.getContentLength();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if(new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+
+        List<HttpRange> ranges = parseRanges(request, etag);
+        //multiple ranges are legal to ignore, the whole image is served instead
+        if(ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+            if(start >= length || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentType(image.getContentType());
+        response.setContentLengthLong(count);
+
+        imageService.writeImage(recipeId, start, count, Channels.newChannel(response.getOutputStream()));
+    }
+
+    @ExceptionHandler(RecipeNotFoundException.class)
+    @ResponseStatus(code = HttpStatus.NOT_FOUND, reason = "Recipe Not Found!")
+    public void recipeNotFound() {
+    }
+
+    private List<HttpRange> parseRanges(HttpServletRequest request, String etag) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if(ifRange != null && !ifRange.equals(etag)) {
+            return Collections.emptyList();
+        }
+        try {
+            return HttpRange.parseRanges(request.getHeader(HttpHeaders.RANGE));
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring invalid range header: " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+}
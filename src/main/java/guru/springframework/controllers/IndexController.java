@@ -1,36 +1,50 @@
 package guru.springframework.controllers;
 
-import guru.springframework.domain.Category;
-import guru.springframework.domain.UnitOfMeasure;
-import guru.springframework.repositories.CategoryRepository;
-import guru.springframework.repositories.RecipeRepository;
-import guru.springframework.repositories.UnitOfMeasureRepository;
+import guru.springframework.services.RecipePage;
+import guru.springframework.services.InvalidCursorException;
+import guru.springframework.services.RecipePopularityService;
 import guru.springframework.services.RecipeService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
-
-import java.util.Optional;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 
 @Slf4j
 @Controller
+@ConditionalOnProperty(name = "recipe.execution.mode", havingValue = "blocking", matchIfMissing = true)
 public class IndexController {
 
     private final RecipeService recipeService;
+    private final RecipePopularityService recipePopularityService;
 
-    public IndexController(RecipeService recipeService) {
+    public IndexController(RecipeService recipeService, RecipePopularityService recipePopularityService) {
         log.debug("Created IndexController");
         this.recipeService = recipeService;
+        this.recipePopularityService = recipePopularityService;
     }
 
     @RequestMapping({"","/","/index"})
-    public String getIndexPage(Model model) {
+    public String getIndexPage(@RequestParam(required = false) String cursor, Model model) {
         log.info("Call to getIndexPage()");
 
-        model.addAttribute("recipes", recipeService.getRecipes());
+        RecipePage page = recipeService.getRecipePage(cursor, RecipeService.DEFAULT_PAGE_SIZE);
+
+        model.addAttribute("recipes", page.getRecipes());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("trendingRecipes", recipePopularityService.getTrending());
 
         return "index";
 
     }
+
+    //a cursor the client made up or mangled
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(code = HttpStatus.BAD_REQUEST, reason = "Invalid Recipe Cursor!")
+    public void invalidCursor() {
+    }
 }
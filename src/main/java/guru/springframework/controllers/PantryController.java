@@ -0,0 +1,29 @@
+package guru.springframework.controllers;
+
+import guru.springframework.services.RecipePantryPage;
+import guru.springframework.services.RecipePantryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+public class PantryController {
+
+    private final RecipePantryService recipePantryService;
+
+    public PantryController(RecipePantryService recipePantryService) {
+        log.debug("Created PantryController");
+        this.recipePantryService = recipePantryService;
+    }
+
+    //?have=avocado&have=lime juice, or comma separated
+    @GetMapping("/api/recipes/pantry")
+    public RecipePantryPage match(@RequestParam(name = "have", required = false) List<String> pantry,
+                                  @RequestParam(defaultValue = "" + RecipePantryService.DEFAULT_LIMIT) int limit) {
+        return recipePantryService.match(pantry, limit);
+    }
+}
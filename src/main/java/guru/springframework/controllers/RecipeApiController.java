@@ -0,0 +1,130 @@
+package guru.springframework.controllers;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import guru.springframework.domain.Recipe;
+import guru.springframework.projections.RecipeItem;
+import guru.springframework.services.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/recipes")
+public class RecipeApiController {
+
+    private final RecipeItemService recipeItemService;
+    private final RecipeService recipeService;
+    private final ObjectMapper objectMapper;
+
+    public RecipeApiController(RecipeItemService recipeItemService, RecipeService recipeService, ObjectMapper objectMapper) {
+        log.debug("Created RecipeApiController");
+        this.recipeItemService = recipeItemService;
+        this.recipeService = recipeService;
+        this.objectMapper = objectMapper;
+    }
+
+    //written as the rows are read, so memory does not grow with the number of recipes
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> listRecipes(@RequestParam(required = false) String fields) {
+        RecipeFields recipeFields = RecipeFields.forList(fields);
+        ObjectWriter writer = objectMapper.writer(filter(recipeFields))
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = out -> {
+            try(JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                generator.writeStartArray();
+                recipeItemService.forEachRecipe(recipeFields, recipe -> {
+                    try {
+                        writer.writeValue(generator, recipe);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(body);
+    }
+
+    @GetMapping("/{id}")
+    public MappingJacksonValue getRecipe(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        RecipeFields recipeFields = RecipeFields.forDetail(fields);
+        RecipeItem recipe = recipeItemService.findById(id, recipeFields)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipe Not Found!"));
+
+        MappingJacksonValue value = new MappingJacksonValue(recipe);
+        value.setFilters(filter(recipeFields));
+        return value;
+    }
+
+    @PostMapping
+    public ResponseEntity<MappingJacksonValue> createRecipe(@RequestBody RecipeForm form) {
+        Recipe recipe = recipeService.saveRecipe(form);
+        return ResponseEntity.created(URI.create("/api/recipes/" + recipe.getId())).body(written(recipe));
+    }
+
+    //the form carries the version it was read at, 409 when the recipe has changed since
+    @PutMapping("/{id}")
+    public MappingJacksonValue updateRecipe(@PathVariable Long id, @RequestBody RecipeForm form) {
+        return written(recipeService.updateRecipe(id, form));
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteRecipe(@PathVariable Long id, @RequestParam Long version) {
+        recipeService.deleteById(id, version);
+    }
+
+    @ExceptionHandler(RecipeNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> notFound(RecipeNotFoundException e) {
+        return Collections.singletonMap("error", e.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> conflict(OptimisticLockingFailureException e) {
+        return Collections.singletonMap("error", "Recipe Changed Since It Was Read!");
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> badRequest(IllegalArgumentException e) {
+        return Collections.singletonMap("error", e.getMessage());
+    }
+
+    //the recipe as GET /api/recipes/{id} returns it, with its new version
+    private MappingJacksonValue written(Recipe recipe) {
+        RecipeFields recipeFields = RecipeFields.forDetail(null);
+        MappingJacksonValue value = new MappingJacksonValue(recipeItemService.findById(recipe.getId(), recipeFields)
+                .orElseThrow(RecipeNotFoundException::new));
+        value.setFilters(filter(recipeFields));
+        return value;
+    }
+
+    private static FilterProvider filter(RecipeFields fields) {
+        return new SimpleFilterProvider().addFilter(RecipeItem.FIELDS_FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(fields.getNames()));
+    }
+}
@@ -1,7 +1,10 @@
 package guru.springframework.controllers;
 
+import guru.springframework.services.RecipePopularityService;
 import guru.springframework.services.RecipeService;
+import guru.springframework.services.RecipeSimilarityService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,19 +12,28 @@ import org.springframework.web.bind.annotation.RequestMapping;
 
 @Slf4j
 @Controller
+@ConditionalOnProperty(name = "recipe.execution.mode", havingValue = "blocking", matchIfMissing = true)
 public class RecipeController {
 
     private final RecipeService recipeService;
+    private final RecipeSimilarityService recipeSimilarityService;
+    private final RecipePopularityService recipePopularityService;
 
-    public RecipeController(RecipeService recipeService) {
+    public RecipeController(RecipeService recipeService, RecipeSimilarityService recipeSimilarityService,
+                            RecipePopularityService recipePopularityService) {
         log.debug("Created RecipeController");
         this.recipeService = recipeService;
+        this.recipeSimilarityService = recipeSimilarityService;
+        this.recipePopularityService = recipePopularityService;
     }
 
     @RequestMapping("/recipe/show/{id}")
     public String showById(@PathVariable String id, Model model) {
 
         model.addAttribute("recipe", recipeService.findById(Long.valueOf(id)));
+        model.addAttribute("similarRecipes", recipeSimilarityService.findSimilar(Long.valueOf(id)));
+        //after the recipe was found, unknown ids are not counted
+        recipePopularityService.recordView(Long.valueOf(id));
 
         return "recipe/show";
     }
@@ -0,0 +1,49 @@
+package guru.springframework.controllers;
+
+import guru.springframework.exporter.ExportFormat;
+import guru.springframework.exporter.RecipeExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Collections;
+import java.util.Map;
+
+@Slf4j
+@RestController
+public class RecipeExportController {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final RecipeExporter recipeExporter;
+
+    public RecipeExportController(RecipeExporter recipeExporter) {
+        log.debug("Created RecipeExportController");
+        this.recipeExporter = recipeExporter;
+    }
+
+    //the whole catalog as a download, streamed while the database is read
+    @GetMapping("/api/recipes/export")
+    public ResponseEntity<StreamingResponseBody> exportRecipes(@RequestParam(defaultValue = "jsonl") String format,
+                                                               @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        String fileName = "recipes." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> recipeExporter.exportRecipes(out, exportFormat, gzip);
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> badRequest(IllegalArgumentException e) {
+        return Collections.singletonMap("error", e.getMessage());
+    }
+}
@@ -0,0 +1,42 @@
+package guru.springframework.controllers;
+
+import guru.springframework.projections.ScaledRecipe;
+import guru.springframework.services.RecipeScaleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collections;
+import java.util.Map;
+
+@Slf4j
+@RestController
+public class RecipeScaleController {
+
+    private final RecipeScaleService recipeScaleService;
+
+    public RecipeScaleController(RecipeScaleService recipeScaleService) {
+        log.debug("Created RecipeScaleController");
+        this.recipeScaleService = recipeScaleService;
+    }
+
+    @GetMapping("/recipe/{id}/scale")
+    public ScaledRecipe scale(@PathVariable Long id, @RequestParam int servings) {
+        return recipeScaleService.scale(id, servings)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipe Not Found!"));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> badRequest(IllegalArgumentException e) {
+        return Collections.singletonMap("error", e.getMessage());
+    }
+
+    //a recipe without servings has nothing to scale from
+    @ExceptionHandler(IllegalStateException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public Map<String, String> unscalable(IllegalStateException e) {
+        return Collections.singletonMap("error", e.getMessage());
+    }
+}
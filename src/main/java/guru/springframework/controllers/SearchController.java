@@ -0,0 +1,29 @@
+package guru.springframework.controllers;
+
+import guru.springframework.services.RecipeSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Slf4j
+@Controller
+public class SearchController {
+
+    private final RecipeSearchService recipeSearchService;
+
+    public SearchController(RecipeSearchService recipeSearchService) {
+        log.debug("Created SearchController");
+        this.recipeSearchService = recipeSearchService;
+    }
+
+    @RequestMapping("/recipes/search")
+    public String search(@RequestParam(name = "q", required = false) String query,
+                         @RequestParam(defaultValue = "0") int page, Model model) {
+
+        model.addAttribute("result", recipeSearchService.search(query, page, RecipeSearchService.DEFAULT_PAGE_SIZE));
+
+        return "recipes/search";
+    }
+}
@@ -4,16 +4,18 @@ import lombok.*;
 
 import javax.persistence.*;
 
-@Data
-@EqualsAndHashCode(exclude="recipe")
+@Getter
+@Setter
+@ToString(of = "id")
 @Entity
 public class Notes {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_seq")
+    @SequenceGenerator(name = "notes_seq", sequenceName = "notes_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     private Recipe recipe;
 
     @Lob
@@ -22,8 +24,4 @@ public class Notes {
     public Notes() {
     }
 
-    protected boolean canEqual(final Object other) {
-        return other instanceof Notes;
-    }
-
 }
@@ -7,13 +7,27 @@ import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
 
-@Data
+/**
+ * Entities keep the identity equals and hashCode of Object: they are cheap, never touch the associations and do
+ * not change when an id is assigned on persist. Within one persistence context there is only one instance per row.
+ */
+@Getter
+@Setter
+@ToString(of = {"id", "description"})
 @Entity
 public class Recipe {
 
+    //pooled sequence ids let hibernate batch the inserts, identity columns force one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+    @SequenceGenerator(name = "recipe_seq", sequenceName = "recipe_seq", allocationSize = 50)
     private Long id;
+
+    //checked on every update and delete, a write based on an older read fails instead of overwriting
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     private String description;
     private Integer prepTime;
     private Integer cookTime;
@@ -25,19 +39,17 @@ public class Recipe {
     @Enumerated(value = EnumType.STRING)
     private Difficulty difficulty;
 
-    @OneToMany(cascade = CascadeType.ALL, mappedBy = "recipe")
+    //an ingredient taken out of the set is deleted, it belongs to no other recipe
+    @OneToMany(cascade = CascadeType.ALL, mappedBy = "recipe", orphanRemoval = true)
     private Set<Ingredient> ingredients = new HashSet<>();
 
-    @Lob
-    private Byte[] image;
-
     @ManyToMany
     @JoinTable(name ="recipe_category",
         joinColumns = @JoinColumn(name = "recipe_id"),
             inverseJoinColumns = @JoinColumn(name = "category_id"))
     private Set<Category> categories = new HashSet<>();
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Notes notes;
 
     public Recipe() {
@@ -49,8 +61,4 @@ public class Recipe {
         return this;
     }
 
-    protected boolean canEqual(final Object other) {
-        return other instanceof Recipe;
-    }
-
 }
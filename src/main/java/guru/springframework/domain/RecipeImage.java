@@ -0,0 +1,32 @@
+package guru.springframework.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.sql.Blob;
+
+/**
+ * Image bytes live in their own table, keyed by the recipe id, so loading a Recipe never drags them along.
+ */
+@Getter
+@Setter
+@ToString(exclude={"recipe", "data"})
+@Entity
+public class RecipeImage {
+
+    @Id
+    private Long id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    private Recipe recipe;
+
+    private String contentType;
+    private Long contentLength;
+    private String etag;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    private Blob data;
+
+}
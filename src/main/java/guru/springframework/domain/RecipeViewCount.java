@@ -0,0 +1,24 @@
+package guru.springframework.domain;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * How often a recipe page was viewed. Written in batches by RecipePopularity, never through the entity manager,
+ * the mapping is there for the schema.
+ */
+@Getter
+@Setter
+@ToString
+@Entity
+public class RecipeViewCount {
+
+    //the recipe id, no foreign key so counts can be written without touching the recipe row
+    @Id
+    private Long recipeId;
+
+    private long views;
+
+}
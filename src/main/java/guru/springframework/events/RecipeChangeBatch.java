@@ -0,0 +1,94 @@
+package guru.springframework.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the changes of committed transactions for a short window and publishes them as one
+ * {@link RecipeChangedEvent}, so a burst of edits evicts and reindexes each recipe once instead of once per commit.
+ * The window starts with the first change and is not extended by later ones, nothing waits longer than one window.
+ */
+@Slf4j
+class RecipeChangeBatch {
+
+    private final ApplicationEventPublisher publisher;
+    private final long windowMillis;
+    private final ScheduledExecutorService flushes;
+
+    private Set<Long> recipeIds = new HashSet<>();
+    private boolean allRecipes;
+    private boolean scheduled;
+
+    RecipeChangeBatch(ApplicationEventPublisher publisher, Duration window) {
+        this.publisher = publisher;
+        this.windowMillis = window.toMillis();
+        this.flushes = windowMillis > 0 ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recipe-change-batch");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    void add(Set<Long> changedIds, boolean changedAll) {
+        //no window, every commit is published on its own
+        if(flushes == null) {
+            publish(changedIds, changedAll);
+            return;
+        }
+
+        synchronized(this) {
+            if(changedAll) {
+                allRecipes = true;
+                recipeIds.clear();
+            } else if(!allRecipes) {
+                recipeIds.addAll(changedIds);
+            }
+            if(!scheduled) {
+                scheduled = true;
+                flushes.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    //publishes whatever has been collected right away
+    void flush() {
+        Set<Long> changedIds;
+        boolean changedAll;
+        synchronized(this) {
+            changedIds = recipeIds;
+            changedAll = allRecipes;
+            recipeIds = new HashSet<>();
+            allRecipes = false;
+            scheduled = false;
+        }
+        try {
+            publish(changedIds, changedAll);
+        } catch (RuntimeException e) {
+            //a failing listener must not take the batch thread down with it
+            log.error("Publishing recipe changes failed", e);
+        }
+    }
+
+    void shutdown() {
+        if(flushes != null) {
+            flushes.shutdownNow();
+        }
+    }
+
+    private void publish(Set<Long> changedIds, boolean changedAll) {
+        if(changedAll) {
+            log.debug("All recipes changed");
+            publisher.publishEvent(RecipeChangedEvent.all());
+        } else if(!changedIds.isEmpty()) {
+            log.debug("Recipes changed: " + changedIds);
+            publisher.publishEvent(RecipeChangedEvent.of(changedIds));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package guru.springframework.events;
+
+import guru.springframework.domain.*;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Watches Hibernate flushes for anything a rendered recipe depends on and publishes a single
+ * {@link RecipeChangedEvent} per transaction once it has committed. With {@code recipe.changes.batch-window} set,
+ * the transactions committed within one window are published together.
+ */
+@Component
+public class RecipeChangeListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final RecipeChangeBatch batch;
+
+    public RecipeChangeListener(EntityManagerFactory entityManagerFactory, ApplicationEventPublisher publisher,
+                                @Value("${recipe.changes.batch-window:0ms}") Duration batchWindow) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.batch = new RecipeChangeBatch(publisher, batchWindow);
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        collectionChanged(event);
+    }
+
+    //deprecated in Hibernate 5.3, but still abstract in PostUpdateEventListener, so it has to be implemented
+    @SuppressWarnings("deprecation")
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void collectionChanged(AbstractCollectionEvent event) {
+        //only the owning side matters, Category.recipes mirrors Recipe.categories
+        if(event.getAffectedOwnerOrNull() instanceof Recipe) {
+            changed(event.getAffectedOwnerOrNull());
+        }
+    }
+
+    private void changed(Object entity) {
+        if(entity instanceof Recipe) {
+            recipeChanged(((Recipe) entity).getId());
+        } else if(entity instanceof Ingredient) {
+            recipeChanged(((Ingredient) entity).getRecipe());
+        } else if(entity instanceof Notes) {
+            recipeChanged(((Notes) entity).getRecipe());
+        } else if(entity instanceof Category || entity instanceof UnitOfMeasure) {
+            PendingChanges pending = pending();
+            pending.allRecipes = true;
+            publishIfImmediate(pending);
+        }
+    }
+
+    private void recipeChanged(Recipe recipe) {
+        if(recipe == null) {
+            return;
+        }
+        //read the id off a proxy without initializing it
+        Object id = recipe instanceof HibernateProxy
+                ? ((HibernateProxy) recipe).getHibernateLazyInitializer().getIdentifier()
+                : recipe.getId();
+        recipeChanged((Long) id);
+    }
+
+    private void recipeChanged(Long recipeId) {
+        //children can be flushed before a new recipe, which reports itself once inserted
+        if(recipeId == null) {
+            return;
+        }
+        PendingChanges pending = pending();
+        pending.recipeIds.add(recipeId);
+        publishIfImmediate(pending);
+    }
+
+    private PendingChanges pending() {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new PendingChanges(true);
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if(pending == null) {
+            PendingChanges changes = new PendingChanges(false);
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    publish(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RecipeChangeListener.this);
+                }
+            });
+            pending = changes;
+        }
+        return pending;
+    }
+
+    private void publishIfImmediate(PendingChanges pending) {
+        //outside a transaction there is no commit to wait for
+        if(pending.immediate) {
+            publish(pending);
+        }
+    }
+
+    private void publish(PendingChanges pending) {
+        batch.add(pending.recipeIds, pending.allRecipes);
+    }
+
+    //publishes the changes collected in the current window right away
+    public void flush() {
+        batch.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batch.shutdown();
+    }
+
+    private static class PendingChanges {
+        private final boolean immediate;
+        private final Set<Long> recipeIds = new HashSet<>();
+        private boolean allRecipes;
+
+        PendingChanges(boolean immediate) {
+            this.immediate = immediate;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package guru.springframework.events;
+
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Published once a transaction that touched recipes has committed.
+ */
+@Value
+public class RecipeChangedEvent {
+
+    private final Set<Long> recipeIds;
+
+    //set when shared data (categories, units) changed, every recipe may render differently
+    private final boolean allRecipes;
+
+    public static RecipeChangedEvent of(Set<Long> recipeIds) {
+        return new RecipeChangedEvent(Collections.unmodifiableSet(recipeIds), false);
+    }
+
+    public static RecipeChangedEvent all() {
+        return new RecipeChangedEvent(Collections.emptySet(), true);
+    }
+
+    public boolean affects(Long recipeId) {
+        return allRecipes || recipeIds.contains(recipeId);
+    }
+}
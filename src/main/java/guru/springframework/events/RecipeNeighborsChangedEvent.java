@@ -0,0 +1,12 @@
+package guru.springframework.events;
+
+import lombok.Value;
+
+/**
+ * Published once the similar recipes have been recomputed, any recipe may have new neighbors.
+ */
+@Value
+public class RecipeNeighborsChangedEvent {
+
+    private final int recipes;
+}
@@ -0,0 +1,14 @@
+package guru.springframework.events;
+
+import lombok.Value;
+
+/**
+ * Published once the startup data (bootstrap or generated recipes) has been written.
+ */
+@Value
+public class RecipesSeededEvent {
+
+    private final String seeder;
+    private final long recipes;
+    private final long millis;
+}
@@ -0,0 +1,96 @@
+package guru.springframework.exporter;
+
+import guru.springframework.projections.IngredientItem;
+import guru.springframework.projections.RecipeItem;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CSV with the columns the importer reads: categories separated by |, so are ingredients, each written as
+ * amount;unitOfMeasure;description. A |, ; or \ inside a name is escaped with a \. Fields are quoted when they
+ * hold a comma, quote or line break.
+ */
+final class CsvRecipeWriter implements RecipeRecordWriter {
+
+    static final List<String> COLUMNS = Collections.unmodifiableList(Arrays.asList("description", "prepTime",
+            "cookTime", "servings", "source", "url", "difficulty", "directions", "notes", "categories", "ingredients"));
+
+    private final Writer out;
+
+    CsvRecipeWriter(OutputStream out) throws IOException {
+        this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        this.out.write(String.join(",", COLUMNS));
+        this.out.write("\r\n");
+    }
+
+    @Override
+    public void write(RecipeItem recipe) throws IOException {
+        field(recipe.getDescription());
+        field(recipe.getPrepTime());
+        field(recipe.getCookTime());
+        field(recipe.getServings());
+        field(recipe.getSource());
+        field(recipe.getUrl());
+        field(recipe.getDifficulty());
+        field(recipe.getDirections());
+        field(recipe.getNotes());
+        StringBuilder categories = new StringBuilder();
+        for(String category : recipe.getCategories()) {
+            if(categories.length() > 0) {
+                categories.append('|');
+            }
+            categories.append(escape(category));
+        }
+        field(categories.toString());
+        StringBuilder ingredients = new StringBuilder();
+        for(IngredientItem ingredient : recipe.getIngredients()) {
+            if(ingredients.length() > 0) {
+                ingredients.append('|');
+            }
+            ingredients.append(ingredient.getAmount() == null ? "" : ingredient.getAmount().toPlainString())
+                    .append(';').append(ingredient.getUnitOfMeasure() == null ? "" : escape(ingredient.getUnitOfMeasure()))
+                    .append(';').append(ingredient.getDescription() == null ? "" : escape(ingredient.getDescription()));
+        }
+        out.write(quote(ingredients.toString()));
+        out.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    private void field(Object value) throws IOException {
+        if(value != null) {
+            out.write(quote(value.toString()));
+        }
+        out.write(',');
+    }
+
+    //the importer splits on unescaped | and ;
+    static String escape(String value) {
+        if(value.indexOf('|') < 0 && value.indexOf(';') < 0 && value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c == '|' || c == ';' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    static String quote(String value) {
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
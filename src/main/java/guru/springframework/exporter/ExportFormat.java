@@ -0,0 +1,55 @@
+package guru.springframework.exporter;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+
+    JSONL("jsonl", MediaType.parseMediaType("application/x-ndjson;charset=UTF-8")),
+    CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat fromParameter(String format) {
+        for(ExportFormat exportFormat : values()) {
+            if(exportFormat.extension.equalsIgnoreCase(format)) {
+                return exportFormat;
+            }
+        }
+        throw new IllegalArgumentException("Unknown Export Format: " + format);
+    }
+
+    //.jsonl, .ndjson or .csv, each optionally followed by .gz
+    public static ExportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if(name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        if(name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return JSONL;
+        }
+        if(name.endsWith(".csv")) {
+            return CSV;
+        }
+        throw new RuntimeException("Unsupported Recipe Export File: " + fileName);
+    }
+
+    public static boolean isGzip(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+}
@@ -0,0 +1,15 @@
+package guru.springframework.exporter;
+
+import lombok.Value;
+
+@Value
+public class ExportReport {
+
+    private final long exported;
+    private final long bytes;
+    private final long millis;
+
+    public long recordsPerSecond() {
+        return millis == 0 ? exported : exported * 1000 / millis;
+    }
+}
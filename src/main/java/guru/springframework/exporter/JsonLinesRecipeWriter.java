@@ -0,0 +1,43 @@
+package guru.springframework.exporter;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import guru.springframework.projections.RecipeItem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One recipe per line in the JSON API shape, which is also what the importer reads.
+ */
+final class JsonLinesRecipeWriter implements RecipeRecordWriter {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+
+    JsonLinesRecipeWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        //the caller owns the stream
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        writer = objectMapper.writer(new SimpleFilterProvider()
+                .addFilter(RecipeItem.FIELDS_FILTER, SimpleBeanPropertyFilter.serializeAll()))
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void write(RecipeItem recipe) throws IOException {
+        writer.writeValue(generator, recipe);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,30 @@
+package guru.springframework.exporter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+/**
+ * Exports to recipe.exporter.file at startup, only created when that property is set.
+ */
+@Component
+@ConditionalOnProperty(name = "recipe.exporter.file")
+public class RecipeExportRunner implements ApplicationRunner {
+
+    private final RecipeExporter recipeExporter;
+    private final String file;
+
+    public RecipeExportRunner(RecipeExporter recipeExporter, @Value("${recipe.exporter.file}") String file) {
+        this.recipeExporter = recipeExporter;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        recipeExporter.exportRecipes(Paths.get(file));
+    }
+}
@@ -0,0 +1,137 @@
+package guru.springframework.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.projections.IngredientItem;
+import guru.springframework.projections.RecipeItem;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports every recipe with its notes, categories and ingredients as JSON lines or CSV. Recipes, category links
+ * and ingredients are read by three forward-only cursors ordered by recipe id on one stateless session and merged
+ * as they go, so nothing is held in a persistence context and memory does not grow with the catalog.
+ */
+@Slf4j
+@Service
+public class RecipeExporter {
+
+    private static final String RECIPES = "select r.id, r.description, r.prepTime, r.cookTime, r.servings, r.source,"
+            + " r.url, r.difficulty, r.directions, n.recipeNotes from Recipe r left join r.notes n order by r.id";
+    private static final String CATEGORIES = "select r.id, c.description from Recipe r join r.categories c"
+            + " order by r.id, c.description";
+    private static final String INGREDIENTS = "select i.recipe.id, i.description, i.amount, u.description"
+            + " from Ingredient i left join i.uom u where i.recipe is not null order by i.recipe.id, i.id";
+
+    private final SessionFactory sessionFactory;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int bufferSize;
+
+    public RecipeExporter(EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper,
+                          @Value("${recipe.exporter.fetch-size:1000}") int fetchSize,
+                          @Value("${recipe.exporter.buffer-size:65536}") int bufferSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.objectMapper = objectMapper;
+        this.fetchSize = Math.max(1, fetchSize);
+        this.bufferSize = Math.max(512, bufferSize);
+    }
+
+    //format from the file name, gzip when it ends with .gz
+    public ExportReport exportRecipes(Path output) {
+        String name = output.getFileName().toString();
+        ExportFormat format = ExportFormat.fromFileName(name);
+        try(OutputStream out = Files.newOutputStream(output)) {
+            return exportRecipes(out, format, ExportFormat.isGzip(name));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + output, e);
+        }
+    }
+
+    //writes to target without closing it
+    public ExportReport exportRecipes(OutputStream target, ExportFormat format, boolean gzip) throws IOException {
+        long start = System.nanoTime();
+        CountingOutputStream counter = new CountingOutputStream(target);
+        GZIPOutputStream compressor = gzip ? new GZIPOutputStream(counter, bufferSize) : null;
+        OutputStream out = new BufferedOutputStream(gzip ? compressor : counter, bufferSize);
+
+        RecipeRecordWriter writer = format == ExportFormat.CSV
+                ? new CsvRecipeWriter(out) : new JsonLinesRecipeWriter(objectMapper, out);
+        long exported = 0;
+
+        StatelessSession session = sessionFactory.openStatelessSession();
+        //one transaction, so the three cursors see the same snapshot
+        Transaction transaction = session.beginTransaction();
+        try(ScrollableResults recipes = scroll(session, RECIPES);
+            RecipeRows categories = new RecipeRows(scroll(session, CATEGORIES));
+            RecipeRows ingredients = new RecipeRows(scroll(session, INGREDIENTS))) {
+
+            while(recipes.next()) {
+                Object[] row = recipes.get();
+                long id = ((Number) row[0]).longValue();
+                writer.write(new RecipeItem(id, null, (String) row[1], (Integer) row[2], (Integer) row[3], (Integer) row[4],
+                        (String) row[5], (String) row[6], row[7] == null ? null : row[7].toString(), (String) row[8],
+                        (String) row[9],
+                        categories.take(id, category -> (String) category[1]),
+                        ingredients.take(id, ingredient -> new IngredientItem((String) ingredient[1],
+                                (BigDecimal) ingredient[2], (String) ingredient[3]))));
+                exported++;
+            }
+            transaction.commit();
+        } finally {
+            if(transaction.isActive()) {
+                transaction.rollback();
+            }
+            session.close();
+        }
+
+        writer.finish();
+        out.flush();
+        if(compressor != null) {
+            compressor.finish();
+        }
+        target.flush();
+
+        ExportReport report = new ExportReport(exported, counter.count, (System.nanoTime() - start) / 1_000_000);
+        log.info("Exported {} recipes as {}{}, {} bytes in {} ms, {} recipes/sec", report.getExported(), format,
+                gzip ? " (gzip)" : "", report.getBytes(), report.getMillis(), report.recordsPerSecond());
+        return report;
+    }
+
+    private ScrollableResults scroll(StatelessSession session, String hql) {
+        return session.createQuery(hql)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    //bytes that reached the target, after compression
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
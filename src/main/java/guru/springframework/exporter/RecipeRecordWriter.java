@@ -0,0 +1,15 @@
+package guru.springframework.exporter;
+
+import guru.springframework.projections.RecipeItem;
+
+import java.io.IOException;
+
+/**
+ * Writes one exported recipe per record. Nothing is flushed until {@link #finish()}.
+ */
+interface RecipeRecordWriter {
+
+    void write(RecipeItem recipe) throws IOException;
+
+    void finish() throws IOException;
+}
@@ -0,0 +1,52 @@
+package guru.springframework.exporter;
+
+import org.hibernate.ScrollableResults;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Forward-only rows ordered by the recipe id in their first column, handed out a recipe at a time so they can
+ * be merged with the recipe rows read in the same order.
+ */
+final class RecipeRows implements AutoCloseable {
+
+    private final ScrollableResults results;
+    private Object[] next;
+
+    RecipeRows(ScrollableResults results) {
+        this.results = results;
+        advance();
+    }
+
+    <T> List<T> take(long recipeId, Function<Object[], T> mapper) {
+        //rows of recipes deleted since the recipe cursor went past them
+        while(next != null && recipeId(next) < recipeId) {
+            advance();
+        }
+        if(next == null || recipeId(next) != recipeId) {
+            return Collections.emptyList();
+        }
+        List<T> values = new ArrayList<>();
+        while(next != null && recipeId(next) == recipeId) {
+            values.add(mapper.apply(next));
+            advance();
+        }
+        return values;
+    }
+
+    private void advance() {
+        next = results.next() ? results.get() : null;
+    }
+
+    private static long recipeId(Object[] row) {
+        return ((Number) row[0]).longValue();
+    }
+
+    @Override
+    public void close() {
+        results.close();
+    }
+}
@@ -0,0 +1,152 @@
+package guru.springframework.importer;
+
+import guru.springframework.domain.Recipe;
+
+import java.util.*;
+
+/**
+ * CSV with a header row naming the columns, in any order: description (required), prepTime, cookTime,
+ * servings, source, url, difficulty, directions, notes, categories and ingredients. Categories are separated
+ * by |, so are ingredients, each written as amount;unitOfMeasure;description. A |, ; or \ inside a name is
+ * escaped with a \.
+ */
+final class CsvRecipeParser extends RecipeParser {
+
+    static final List<String> COLUMNS = Collections.unmodifiableList(Arrays.asList("description", "prepTime",
+            "cookTime", "servings", "source", "url", "difficulty", "directions", "notes", "categories", "ingredients"));
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    CsvRecipeParser(ReferenceData referenceData, String header) {
+        super(referenceData);
+        List<String> names = split(header);
+        for(int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim();
+            if(!COLUMNS.contains(name)) {
+                throw new RuntimeException("Unknown Recipe Import Column: " + name);
+            }
+            columns.put(name, i);
+        }
+        if(!columns.containsKey("description")) {
+            throw new RuntimeException("Recipe Import Header Missing description!");
+        }
+    }
+
+    @Override
+    Recipe parse(String record) {
+        List<String> fields = split(record);
+
+        Recipe recipe = recipe(field(fields, "description"));
+        recipe.setPrepTime(integer("prepTime", field(fields, "prepTime")));
+        recipe.setCookTime(integer("cookTime", field(fields, "cookTime")));
+        recipe.setServings(integer("servings", field(fields, "servings")));
+        recipe.setSource(field(fields, "source"));
+        recipe.setUrl(field(fields, "url"));
+        recipe.setDifficulty(difficulty(field(fields, "difficulty")));
+        recipe.setDirections(field(fields, "directions"));
+        notes(recipe, field(fields, "notes"));
+
+        for(String category : list(field(fields, "categories"))) {
+            category(recipe, unescape(category));
+        }
+        for(String ingredient : list(field(fields, "ingredients"))) {
+            List<String> parts = split(ingredient, ';', 3);
+            if(parts.size() != 3) {
+                throw new RejectedRecordException("Invalid ingredient: " + ingredient);
+            }
+            ingredient(recipe, unescape(parts.get(2)), unescape(parts.get(0)), unescape(parts.get(1)));
+        }
+        return recipe;
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if(index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<String> list(String value) {
+        if(value == null) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>();
+        for(String item : split(value, '|', 0)) {
+            if(!item.trim().isEmpty()) {
+                values.add(item.trim());
+            }
+        }
+        return values;
+    }
+
+    //splits on the separators that are not escaped, into at most limit parts (0 for no limit), escapes are kept
+    static List<String> split(String value, char separator, int limit) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c == '\\') {
+                i++;
+            } else if(c == separator && (limit == 0 || parts.size() < limit - 1)) {
+                parts.add(value.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(value.substring(start));
+        return parts;
+    }
+
+    //only \| \; and \\ are escapes, any other backslash is taken as it is
+    static String unescape(String value) {
+        if(value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(i + 1);
+                if(next == '|' || next == ';' || next == '\\') {
+                    c = next;
+                    i++;
+                }
+            }
+            unescaped.append(c);
+        }
+        return unescaped.toString();
+    }
+
+    //RFC 4180: fields may be quoted, a quote inside a quoted field is doubled
+    static List<String> split(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for(int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if(quoted) {
+                if(c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if(c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if(c == '"') {
+                quoted = true;
+            } else if(c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if(quoted) {
+            throw new RejectedRecordException("Unterminated Quoted Field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
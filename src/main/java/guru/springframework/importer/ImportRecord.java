@@ -0,0 +1,15 @@
+package guru.springframework.importer;
+
+import lombok.Value;
+
+/**
+ * One recipe as read from the input, before it is parsed.
+ */
+@Value
+class ImportRecord {
+
+    //line the record starts on, 1 based
+    private final long lineNumber;
+
+    private final String text;
+}
@@ -0,0 +1,18 @@
+package guru.springframework.importer;
+
+import lombok.Value;
+
+@Value
+public class ImportReport {
+
+    public static final ImportReport NONE = new ImportReport(0, 0, 0, 0);
+
+    private final long read;
+    private final long imported;
+    private final long rejected;
+    private final long millis;
+
+    public long recordsPerSecond() {
+        return millis == 0 ? read : read * 1000 / millis;
+    }
+}
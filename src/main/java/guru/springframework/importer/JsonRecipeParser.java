@@ -0,0 +1,60 @@
+package guru.springframework.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.domain.Recipe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * One JSON object per line, in the shape GET /api/recipes/{id} returns: the recipe fields plus
+ * "categories" as descriptions and "ingredients" as objects with description, amount and unitOfMeasure.
+ */
+final class JsonRecipeParser extends RecipeParser {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    JsonRecipeParser(ReferenceData referenceData) {
+        super(referenceData);
+    }
+
+    @Override
+    Recipe parse(String record) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(record);
+        } catch (JsonProcessingException e) {
+            throw new RejectedRecordException("Invalid JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if(node == null || !node.isObject()) {
+            throw new RejectedRecordException("Expected A JSON Object");
+        }
+
+        Recipe recipe = recipe(text(node, "description"));
+        recipe.setPrepTime(integer("prepTime", text(node, "prepTime")));
+        recipe.setCookTime(integer("cookTime", text(node, "cookTime")));
+        recipe.setServings(integer("servings", text(node, "servings")));
+        recipe.setSource(text(node, "source"));
+        recipe.setUrl(text(node, "url"));
+        recipe.setDifficulty(difficulty(text(node, "difficulty")));
+        recipe.setDirections(text(node, "directions"));
+        notes(recipe, text(node, "notes"));
+
+        for(JsonNode category : node.path("categories")) {
+            category(recipe, category.asText());
+        }
+        for(JsonNode ingredient : node.path("ingredients")) {
+            ingredient(recipe, text(ingredient, "description"), text(ingredient, "amount"), text(ingredient, "unitOfMeasure"));
+        }
+        return recipe;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
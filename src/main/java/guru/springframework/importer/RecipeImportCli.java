@@ -0,0 +1,25 @@
+package guru.springframework.importer;
+
+import guru.springframework.Spring5RecipeAppApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs the {@link RecipeImporter} without the web server and exits, e.g.
+ * {@code --spring.datasource.url=jdbc:h2:file:./recipes --recipe.importer.file=recipes.jsonl}.
+ */
+public class RecipeImportCli {
+
+    public static void main(String[] args) {
+        //a one shot run has nothing to reload
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Spring5RecipeAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+
+        System.exit(SpringApplication.exit(context));
+    }
+}
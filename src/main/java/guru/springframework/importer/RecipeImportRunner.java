@@ -0,0 +1,40 @@
+package guru.springframework.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Imports recipe.importer.file at startup, only created when that property is set.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "recipe.importer.file")
+public class RecipeImportRunner implements ApplicationRunner {
+
+    private final RecipeImporter recipeImporter;
+    private final String file;
+    private final String rejects;
+
+    public RecipeImportRunner(RecipeImporter recipeImporter,
+                              @Value("${recipe.importer.file}") String file,
+                              @Value("${recipe.importer.rejects:}") String rejects) {
+        this.recipeImporter = recipeImporter;
+        this.file = file;
+        this.rejects = rejects;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Path input = Paths.get(file);
+        //next to the input unless given
+        Path rejectFile = rejects.isEmpty() ? Paths.get(file + ".rejects") : Paths.get(rejects);
+        recipeImporter.importRecipes(input, rejectFile);
+    }
+}
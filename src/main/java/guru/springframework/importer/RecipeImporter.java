@@ -0,0 +1,299 @@
+package guru.springframework.importer;
+
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import guru.springframework.services.RecipeBulkWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Imports recipes from JSON lines (.jsonl, .ndjson) or CSV (.csv) files of any size. The file is streamed
+ * in chunks to parser threads, parsed recipes go in batches to writer threads that save each batch in
+ * one transaction through {@link RecipeBulkWriter}. Both hand-offs are bounded queues, so a slow stage
+ * holds back the ones before it instead of filling the heap. Records that cannot be parsed or saved go
+ * to the reject file and the import carries on.
+ */
+@Slf4j
+@Service
+public class RecipeImporter {
+
+    //marks the end of a queue, one per consumer
+    private static final List<?> END = Collections.emptyList();
+
+    private final CategoryRepository categoryRepository;
+    private final UnitOfMeasureRepository unitOfMeasureRepository;
+    private final RecipeBulkWriter recipeBulkWriter;
+    private final int parsers;
+    private final int writers;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final long progressInterval;
+
+    public RecipeImporter(CategoryRepository categoryRepository, UnitOfMeasureRepository unitOfMeasureRepository,
+                          RecipeBulkWriter recipeBulkWriter,
+                          @Value("${recipe.importer.parsers:0}") int parsers,
+                          @Value("${recipe.importer.writers:1}") int writers,
+                          @Value("${recipe.importer.chunk-size:500}") int chunkSize,
+                          @Value("${recipe.importer.batch-size:1000}") int batchSize,
+                          @Value("${recipe.importer.queue-capacity:4}") int queueCapacity,
+                          @Value("${recipe.importer.progress-interval:5000}") long progressInterval) {
+        this.categoryRepository = categoryRepository;
+        this.unitOfMeasureRepository = unitOfMeasureRepository;
+        this.recipeBulkWriter = recipeBulkWriter;
+        //0 means one parser per processor
+        this.parsers = parsers > 0 ? parsers : Runtime.getRuntime().availableProcessors();
+        this.writers = Math.max(1, writers);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.progressInterval = progressInterval;
+    }
+
+    public ImportReport importRecipes(Path input, Path rejects) {
+        String name = input.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean csv = name.endsWith(".csv");
+        if(!csv && !name.endsWith(".jsonl") && !name.endsWith(".ndjson")) {
+            throw new RuntimeException("Unsupported Recipe Import File: " + input);
+        }
+
+        ReferenceData referenceData = new ReferenceData(categoryRepository.findAll(), unitOfMeasureRepository.findAll());
+        Progress progress = new Progress();
+        long start = System.nanoTime();
+
+        try(BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+            RejectWriter rejectWriter = new RejectWriter(rejects)) {
+
+            RecordReader reader = new RecordReader(in, csv);
+            RecipeParser parser;
+            if(csv) {
+                ImportRecord header = reader.next();
+                if(header == null) {
+                    return ImportReport.NONE;
+                }
+                parser = new CsvRecipeParser(referenceData, header.getText());
+            } else {
+                parser = new JsonRecipeParser(referenceData);
+            }
+
+            new Pipeline(reader, parser, rejectWriter, progress).run(start);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not import recipes from " + input, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Recipe Import Interrupted!", e);
+        }
+
+        ImportReport report = progress.report(System.nanoTime() - start);
+        log.info("Imported {} recipes from {}, rejected {} of {} records in {} ms, {} records/sec",
+                report.getImported(), input, report.getRejected(), report.getRead(), report.getMillis(),
+                report.recordsPerSecond());
+        return report;
+    }
+
+    private class Pipeline {
+
+        private final RecordReader reader;
+        private final RecipeParser parser;
+        private final RejectWriter rejectWriter;
+        private final Progress progress;
+        private final BlockingQueue<List<ImportRecord>> chunks = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<List<Parsed>> batches = new ArrayBlockingQueue<>(queueCapacity);
+        private final List<Future<?>> workers = new CopyOnWriteArrayList<>();
+
+        Pipeline(RecordReader reader, RecipeParser parser, RejectWriter rejectWriter, Progress progress) {
+            this.reader = reader;
+            this.parser = parser;
+            this.rejectWriter = rejectWriter;
+            this.progress = progress;
+        }
+
+        @SuppressWarnings("unchecked")
+        void run(long start) throws IOException, InterruptedException {
+            ExecutorService parserPool = Executors.newFixedThreadPool(parsers, threads("recipe-import-parser"));
+            ExecutorService writerPool = Executors.newFixedThreadPool(writers, threads("recipe-import-writer"));
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(threads("recipe-import-progress"));
+            try {
+                if(progressInterval > 0) {
+                    reporter.scheduleAtFixedRate(() -> progress.log(System.nanoTime() - start),
+                            progressInterval, progressInterval, TimeUnit.MILLISECONDS);
+                }
+                List<Future<?>> parsing = new ArrayList<>();
+                for(int i = 0; i < parsers; i++) {
+                    parsing.add(parserPool.submit(this::parse));
+                }
+                List<Future<?>> writing = new ArrayList<>();
+                for(int i = 0; i < writers; i++) {
+                    writing.add(writerPool.submit(this::write));
+                }
+                workers.addAll(parsing);
+                workers.addAll(writing);
+
+                List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+                ImportRecord record;
+                while((record = reader.next()) != null) {
+                    chunk.add(record);
+                    progress.read.increment();
+                    if(chunk.size() == chunkSize) {
+                        put(chunks, chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if(!chunk.isEmpty()) {
+                    put(chunks, chunk);
+                }
+
+                for(int i = 0; i < parsers; i++) {
+                    put(chunks, (List<ImportRecord>) END);
+                }
+                await(parsing);
+                for(int i = 0; i < writers; i++) {
+                    put(batches, (List<Parsed>) END);
+                }
+                await(writing);
+            } finally {
+                reporter.shutdownNow();
+                parserPool.shutdownNow();
+                writerPool.shutdownNow();
+            }
+        }
+
+        private Void parse() throws InterruptedException {
+            List<Parsed> batch = new ArrayList<>(batchSize);
+            List<ImportRecord> chunk;
+            while((chunk = chunks.take()) != END) {
+                for(ImportRecord record : chunk) {
+                    try {
+                        batch.add(new Parsed(record, parser.parse(record.getText())));
+                    } catch (RejectedRecordException e) {
+                        reject(record, e.getMessage());
+                    } catch (RuntimeException e) {
+                        reject(record, e.toString());
+                    }
+                    if(batch.size() == batchSize) {
+                        put(batches, batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+            if(!batch.isEmpty()) {
+                put(batches, batch);
+            }
+            return null;
+        }
+
+        private Void write() throws InterruptedException {
+            List<Parsed> batch;
+            while((batch = batches.take()) != END) {
+                List<Recipe> recipes = new ArrayList<>(batch.size());
+                for(Parsed parsed : batch) {
+                    recipes.add(parsed.recipe);
+                }
+                try {
+                    recipeBulkWriter.saveAll(recipes);
+                    progress.imported.add(recipes.size());
+                } catch (RuntimeException e) {
+                    log.debug("Batch of {} recipes failed, saving them one by one", batch.size(), e);
+                    for(Parsed parsed : batch) {
+                        writeOne(parsed.record);
+                    }
+                }
+            }
+            return null;
+        }
+
+        //the failed transaction left ids on the entities, so the record is parsed again into fresh ones
+        private void writeOne(ImportRecord record) {
+            try {
+                recipeBulkWriter.saveAll(Collections.singletonList(parser.parse(record.getText())));
+                progress.imported.increment();
+            } catch (RuntimeException e) {
+                reject(record, rootCause(e).toString());
+            }
+        }
+
+        private void reject(ImportRecord record, String reason) {
+            rejectWriter.reject(record, reason);
+            progress.rejected.increment();
+        }
+
+        //blocks while the queue is full, giving up if a worker has failed and may never drain it
+        private <T> void put(BlockingQueue<T> queue, T item) throws InterruptedException {
+            while(!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                for(Future<?> worker : workers) {
+                    if(worker.isDone()) {
+                        await(Collections.singletonList(worker));
+                    }
+                }
+            }
+        }
+
+        private void await(List<Future<?>> futures) throws InterruptedException {
+            for(Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Recipe Import Failed!", e.getCause());
+                }
+            }
+        }
+    }
+
+    private static class Parsed {
+
+        private final ImportRecord record;
+        private final Recipe recipe;
+
+        Parsed(ImportRecord record, Recipe recipe) {
+            this.record = record;
+            this.recipe = recipe;
+        }
+    }
+
+    private static class Progress {
+
+        private final LongAdder read = new LongAdder();
+        private final LongAdder imported = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        ImportReport report(long nanos) {
+            return new ImportReport(read.sum(), imported.sum(), rejected.sum(), nanos / 1_000_000);
+        }
+
+        void log(long nanos) {
+            ImportReport report = report(nanos);
+            log.info("Read {} records, imported {}, rejected {}, {} records/sec",
+                    report.getRead(), report.getImported(), report.getRejected(), report.recordsPerSecond());
+        }
+    }
+
+    private static ThreadFactory threads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while(cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,84 @@
+package guru.springframework.importer;
+
+import guru.springframework.domain.*;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Turns one record into a new, unsaved {@link Recipe}, throwing {@link RejectedRecordException} when it cannot.
+ * Implementations are called from several parser threads at once.
+ */
+abstract class RecipeParser {
+
+    protected final ReferenceData referenceData;
+
+    protected RecipeParser(ReferenceData referenceData) {
+        this.referenceData = referenceData;
+    }
+
+    abstract Recipe parse(String record);
+
+    protected static Recipe recipe(String description) {
+        if(description == null || description.trim().isEmpty()) {
+            throw new RejectedRecordException("Missing Description");
+        }
+        Recipe recipe = new Recipe();
+        recipe.setDescription(description.trim());
+        return recipe;
+    }
+
+    protected static void notes(Recipe recipe, String text) {
+        if(text != null && !text.isEmpty()) {
+            Notes notes = new Notes();
+            notes.setRecipeNotes(text);
+            notes.setRecipe(recipe);
+            recipe.setNotes(notes);
+        }
+    }
+
+    protected void category(Recipe recipe, String description) {
+        recipe.getCategories().add(referenceData.category(description));
+    }
+
+    protected void ingredient(Recipe recipe, String description, String amount, String unitOfMeasure) {
+        if(description == null || description.trim().isEmpty()) {
+            throw new RejectedRecordException("Missing Ingredient Description");
+        }
+        recipe.addIngredient(new Ingredient(description.trim(), decimal("amount", amount),
+                referenceData.unitOfMeasure(unitOfMeasure)));
+    }
+
+    protected static Integer integer(String field, String value) {
+        if(value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RejectedRecordException("Invalid " + field + ": " + value);
+        }
+    }
+
+    protected static BigDecimal decimal(String field, String value) {
+        if(value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RejectedRecordException("Invalid " + field + ": " + value);
+        }
+    }
+
+    protected static Difficulty difficulty(String value) {
+        if(value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Difficulty.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RejectedRecordException("Invalid difficulty: " + value);
+        }
+    }
+}
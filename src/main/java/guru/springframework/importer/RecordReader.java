@@ -0,0 +1,57 @@
+package guru.springframework.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Splits the input into records, one per line. A CSV record continues over line breaks while a quoted
+ * field is open. Blank lines are skipped.
+ */
+final class RecordReader {
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private long lineNumber;
+
+    RecordReader(BufferedReader reader, boolean csv) {
+        this.reader = reader;
+        this.csv = csv;
+    }
+
+    //null at the end of the input
+    ImportRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if(line == null) {
+                return null;
+            }
+        } while(line.trim().isEmpty());
+
+        long start = lineNumber;
+        if(!csv || quotes(line) % 2 == 0) {
+            return new ImportRecord(start, line);
+        }
+
+        //an odd number of quotes leaves a field open, "" escapes keep the count even
+        StringBuilder record = new StringBuilder(line);
+        int open = quotes(line);
+        while(open % 2 != 0 && (line = reader.readLine()) != null) {
+            lineNumber++;
+            record.append('\n').append(line);
+            open += quotes(line);
+        }
+        return new ImportRecord(start, record.toString());
+    }
+
+    private static int quotes(String line) {
+        int count = 0;
+        for(int i = 0; i < line.length(); i++) {
+            if(line.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
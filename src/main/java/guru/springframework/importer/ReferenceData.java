@@ -0,0 +1,43 @@
+package guru.springframework.importer;
+
+import guru.springframework.domain.Category;
+import guru.springframework.domain.UnitOfMeasure;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Categories and units of measure by description, loaded once per import so parsing never queries them.
+ * Read only after construction, so parsers share it freely.
+ */
+final class ReferenceData {
+
+    private final Map<String, Category> categories = new HashMap<>();
+    private final Map<String, UnitOfMeasure> unitsOfMeasure = new HashMap<>();
+
+    ReferenceData(Iterable<Category> categories, Iterable<UnitOfMeasure> unitsOfMeasure) {
+        categories.forEach(category -> this.categories.put(key(category.getDescription()), category));
+        unitsOfMeasure.forEach(uom -> this.unitsOfMeasure.put(key(uom.getDescription()), uom));
+    }
+
+    Category category(String description) {
+        Category category = categories.get(key(description));
+        if(category == null) {
+            throw new RejectedRecordException("Unknown Category: " + description);
+        }
+        return category;
+    }
+
+    UnitOfMeasure unitOfMeasure(String description) {
+        UnitOfMeasure uom = unitsOfMeasure.get(key(description));
+        if(uom == null) {
+            throw new RejectedRecordException("Unknown Unit Of Measure: " + description);
+        }
+        return uom;
+    }
+
+    private static String key(String description) {
+        return description == null ? "" : description.trim().toLowerCase(Locale.ROOT);
+    }
+}
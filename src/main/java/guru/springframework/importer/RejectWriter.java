@@ -0,0 +1,46 @@
+package guru.springframework.importer;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes rejected records as tab separated lines: line number, reason and the record, with tabs and line
+ * breaks inside the record escaped. The file is only created once something is rejected.
+ */
+final class RejectWriter implements Closeable {
+
+    private final Path path;
+    private BufferedWriter writer;
+
+    RejectWriter(Path path) {
+        this.path = path;
+    }
+
+    synchronized void reject(ImportRecord record, String reason) {
+        try {
+            if(writer == null) {
+                writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            }
+            writer.write(record.getLineNumber() + "\t" + escape(reason) + "\t" + escape(record.getText()));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write rejects to " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if(writer != null) {
+            writer.close();
+        }
+    }
+
+    private static String escape(String text) {
+        return text == null ? "" : text.replace("\\", "\\\\").replace("\t", "\\t").replace("\r", "\\r").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,11 @@
+package guru.springframework.importer;
+
+/**
+ * A record that cannot become a recipe. It goes to the reject file and the import carries on.
+ */
+class RejectedRecordException extends RuntimeException {
+
+    RejectedRecordException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,33 @@
+package guru.springframework.metrics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Tells {@link StartupTimings} when the first response has been written, whichever path it was for.
+ */
+@Component
+public class FirstRequestFilter extends OncePerRequestFilter {
+
+    private final StartupTimings startupTimings;
+
+    public FirstRequestFilter(StartupTimings startupTimings) {
+        this.startupTimings = startupTimings;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            startupTimings.requestServed();
+        }
+    }
+}
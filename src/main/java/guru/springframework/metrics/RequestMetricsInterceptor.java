@@ -0,0 +1,118 @@
+package guru.springframework.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per request SQL statement counts and time, captures the slowest statement when it passes the
+ * threshold, and times the view render. With server-timing on, the breakdown is also sent as a Server-Timing
+ * header. The header goes out before the view renders, so render time is only in the metrics.
+ */
+@Slf4j
+public class RequestMetricsInterceptor extends HandlerInterceptorAdapter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private static final String TIMINGS_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".TIMINGS";
+    private static final String RENDER_START_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".RENDER_START";
+
+    private final MeterRegistry meterRegistry;
+    private final long slowSqlNanos;
+    private final boolean serverTiming;
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry, Duration slowSqlThreshold, boolean serverTiming) {
+        this.meterRegistry = meterRegistry;
+        this.slowSqlNanos = slowSqlThreshold.toNanos();
+        this.serverTiming = serverTiming;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        //an async dispatch picks up the timings of its first pass
+        RequestTimings timings = (RequestTimings) request.getAttribute(TIMINGS_ATTRIBUTE);
+        if(timings == null) {
+            timings = new RequestTimings();
+            request.setAttribute(TIMINGS_ATTRIBUTE, timings);
+        }
+        RequestTimings.bind(timings);
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        RequestTimings timings = RequestTimings.current();
+        if(timings == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if(modelAndView != null && modelAndView.getViewName() != null) {
+            request.setAttribute(RENDER_START_ATTRIBUTE, now);
+        }
+        if(serverTiming && !response.isCommitted()) {
+            response.setHeader(SERVER_TIMING, String.format(Locale.ROOT,
+                    "db;desc=\"%d statements\";dur=%.1f, app;dur=%.1f",
+                    timings.getStatements(), millis(timings.getSqlNanos()), millis(now - timings.getStartNanos())));
+        }
+    }
+
+    //the servlet thread is done, the task executor carries the timings from here
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTimings.unbind();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestTimings timings = RequestTimings.current();
+        RequestTimings.unbind();
+        if(timings == null) {
+            return;
+        }
+        String uri = uri(request);
+
+        Long renderStart = (Long) request.getAttribute(RENDER_START_ATTRIBUTE);
+        if(renderStart != null) {
+            Timer.builder("recipe.view.render")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - renderStart, TimeUnit.NANOSECONDS);
+        }
+
+        DistributionSummary.builder("recipe.request.sql.statements")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(timings.getStatements());
+        Timer.builder("recipe.request.sql.time")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(timings.getSqlNanos(), TimeUnit.NANOSECONDS);
+
+        if(timings.getSlowestNanos() >= slowSqlNanos) {
+            meterRegistry.counter("recipe.sql.slow", "uri", uri).increment();
+            log.warn("Slow SQL on {} {}: {} ms, {}", request.getMethod(), request.getRequestURI(),
+                    TimeUnit.NANOSECONDS.toMillis(timings.getSlowestNanos()), timings.getSlowestSql());
+        }
+    }
+
+    //the mapped pattern, not the raw path, keeps the tag values bounded
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,80 @@
+package guru.springframework.metrics;
+
+/**
+ * What one request spent in SQL, collected by {@link SqlStatementInspector} and {@link SqlTimingSessionListener}
+ * on whichever thread runs the statements. Bound to the thread serving the request, and carried over to the
+ * task executor by {@link #wrap(Runnable)} in async mode.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+
+    private long statements;
+    private long sqlNanos;
+    private String lastSql;
+    private String slowestSql;
+    private long slowestNanos;
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(RequestTimings timings) {
+        CURRENT.set(timings);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    //runs the task with the timings of the request that submitted it
+    public static Runnable wrap(Runnable task) {
+        RequestTimings timings = current();
+        if(timings == null) {
+            return task;
+        }
+        return () -> {
+            bind(timings);
+            try {
+                task.run();
+            } finally {
+                unbind();
+            }
+        };
+    }
+
+    synchronized void statementPrepared(String sql) {
+        statements++;
+        lastSql = sql;
+    }
+
+    synchronized void statementExecuted(long nanos) {
+        sqlNanos += nanos;
+        if(nanos > slowestNanos) {
+            slowestNanos = nanos;
+            slowestSql = lastSql;
+        }
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public synchronized long getStatements() {
+        return statements;
+    }
+
+    public synchronized long getSqlNanos() {
+        return sqlNanos;
+    }
+
+    public synchronized long getSlowestNanos() {
+        return slowestNanos;
+    }
+
+    public synchronized String getSlowestSql() {
+        return slowestSql;
+    }
+}
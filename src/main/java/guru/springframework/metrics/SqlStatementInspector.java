@@ -0,0 +1,19 @@
+package guru.springframework.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the statements Hibernate prepares for the current request, registered through
+ * hibernate.session_factory.statement_inspector. The SQL is passed on unchanged.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTimings timings = RequestTimings.current();
+        if(timings != null) {
+            timings.statementPrepared(sql);
+        }
+        return sql;
+    }
+}
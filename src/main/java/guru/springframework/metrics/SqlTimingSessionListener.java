@@ -0,0 +1,39 @@
+package guru.springframework.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Times the statements and batches a session executes for the current request, registered through
+ * hibernate.session.events.auto. Hibernate creates one per session.
+ */
+public class SqlTimingSessionListener extends BaseSessionEventListener {
+
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executed();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executed();
+    }
+
+    private void executed() {
+        RequestTimings timings = RequestTimings.current();
+        if(timings != null) {
+            timings.statementExecuted(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package guru.springframework.metrics;
+
+import guru.springframework.events.RecipesSeededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records how long after the JVM started the application reached each startup phase: context refreshed,
+ * ready, startup data seeded and first request served. Published as the recipe.startup timer tagged with
+ * the phase, and logged.
+ */
+@Slf4j
+@Component
+public class StartupTimings {
+
+    static final String CONTEXT_REFRESHED = "context-refreshed";
+    static final String READY = "ready";
+    static final String SEEDED = "seeded";
+    static final String FIRST_REQUEST = "first-request";
+
+    private final MeterRegistry meterRegistry;
+    private final long jvmStartMillis;
+    private final AtomicBoolean requestServed = new AtomicBoolean();
+
+    public StartupTimings(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        //a separate management context refreshes as a child
+        if(event.getApplicationContext().getParent() == null) {
+            record(CONTEXT_REFRESHED);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        record(READY);
+    }
+
+    @EventListener(RecipesSeededEvent.class)
+    public void onRecipesSeeded() {
+        record(SEEDED);
+    }
+
+    //called after every response, only the first one counts
+    public void requestServed() {
+        if(!requestServed.get() && requestServed.compareAndSet(false, true)) {
+            record(FIRST_REQUEST);
+        }
+    }
+
+    long record(String phase) {
+        long millis = System.currentTimeMillis() - jvmStartMillis;
+        Timer.builder("recipe.startup")
+                .description("Time from JVM start to a startup phase")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(millis, TimeUnit.MILLISECONDS);
+        log.info("Startup phase {} reached {} ms after JVM start", phase, millis);
+        return millis;
+    }
+}
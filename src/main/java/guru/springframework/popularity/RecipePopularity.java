@@ -0,0 +1,228 @@
+package guru.springframework.popularity;
+
+import guru.springframework.events.RecipeChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts recipe page views in memory and writes them to recipe_view_count in one batch per flush interval, so a
+ * view costs a map lookup and a {@link LongAdder} increment instead of an update. Each flush also decays every
+ * recipe's trending score by the half life and adds the views since the last flush, and keeps the top recipes
+ * by score for the index page to read without a query. The counter and the row of a deleted recipe are dropped.
+ */
+@Slf4j
+@Component
+public class RecipePopularity {
+
+    static final String UPDATE_SQL = "update recipe_view_count set views = views + ? where recipe_id = ?";
+    //nothing is inserted for a recipe deleted since it was viewed
+    static final String INSERT_SQL = "insert into recipe_view_count(recipe_id, views)"
+            + " select id, ? from recipe where id = ?";
+    static final String TRENDING_SQL = "select r.id, r.description, coalesce(v.views, 0) from recipe r"
+            + " left join recipe_view_count v on v.recipe_id = r.id where r.id in ";
+    static final String EXISTING_SQL = "select id from recipe where id in ";
+    static final String DELETE_SQL = "delete from recipe_view_count where recipe_id in ";
+
+    //a score this low is a recipe nobody has viewed for many half lives, it no longer trends
+    private static final double MIN_TRENDING_SCORE = 0.01;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long flushIntervalMillis;
+    private final double decayPerFlush;
+    private final int trendingSize;
+    private final Map<Long, ViewCounter> counters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flushes = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "recipe-popularity");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile List<TrendingRecipe> trending = Collections.emptyList();
+
+    public RecipePopularity(JdbcTemplate jdbcTemplate,
+                            @Value("${recipe.popularity.flush-interval:10s}") Duration flushInterval,
+                            @Value("${recipe.popularity.half-life:1h}") Duration halfLife,
+                            @Value("${recipe.popularity.trending-size:10}") int trendingSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushIntervalMillis = Math.max(1, flushInterval.toMillis());
+        this.decayPerFlush = Math.pow(0.5, (double) flushIntervalMillis / Math.max(1, halfLife.toMillis()));
+        this.trendingSize = trendingSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        flushes.scheduleWithFixedDelay(this::scheduledFlush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    //called on every page view, must stay as cheap as possible
+    public void recordView(Long recipeId) {
+        ViewCounter counter = counters.get(recipeId);
+        if(counter == null) {
+            counter = counters.computeIfAbsent(recipeId, id -> new ViewCounter());
+        }
+        counter.views.increment();
+    }
+
+    //most trending first, as of the last flush
+    public List<TrendingRecipe> trending() {
+        return trending;
+    }
+
+    //forgets the views of deleted recipes, the event does not tell a delete from an edit
+    @EventListener
+    public synchronized void onRecipeChanged(RecipeChangedEvent event) {
+        if(event.isAllRecipes() || event.getRecipeIds().isEmpty()) {
+            return;
+        }
+        Object[] ids = event.getRecipeIds().toArray();
+        Set<Long> deleted = new HashSet<>(event.getRecipeIds());
+        deleted.removeAll(jdbcTemplate.queryForList(EXISTING_SQL + "(" + placeholders(ids.length) + ")",
+                Long.class, ids));
+        if(deleted.isEmpty()) {
+            return;
+        }
+        counters.keySet().removeAll(deleted);
+        Object[] deletedIds = deleted.toArray();
+        jdbcTemplate.update(DELETE_SQL + "(" + placeholders(deletedIds.length) + ")", deletedIds);
+    }
+
+    synchronized void flush() {
+        Map<ViewCounter, Long> viewed = new HashMap<>();
+        List<Object[]> deltas = new ArrayList<>();
+        for(Map.Entry<Long, ViewCounter> entry : counters.entrySet()) {
+            ViewCounter counter = entry.getValue();
+            //read then subtract, unlike sumThenReset an increment racing with the read is never lost
+            long views = counter.views.sum();
+            if(views != 0) {
+                counter.views.add(-views);
+                viewed.put(counter, views);
+                deltas.add(new Object[]{views, entry.getKey()});
+            }
+        }
+
+        try {
+            write(deltas);
+        } catch (RuntimeException e) {
+            //counted again next time instead of lost, the scores only move once the views are written
+            viewed.forEach((counter, views) -> counter.views.add(views));
+            throw e;
+        }
+
+        PriorityQueue<Scored> top = new PriorityQueue<>(Comparator.comparingDouble((Scored scored) -> scored.score));
+        for(Map.Entry<Long, ViewCounter> entry : counters.entrySet()) {
+            Long recipeId = entry.getKey();
+            ViewCounter counter = entry.getValue();
+            counter.score = counter.score * decayPerFlush + viewed.getOrDefault(counter, 0L);
+            //the counter is kept until the recipe is deleted, so a view racing with the flush always lands in the map
+            if(counter.score < MIN_TRENDING_SCORE) {
+                counter.score = 0;
+                continue;
+            }
+
+            if(top.size() < trendingSize) {
+                top.add(new Scored(recipeId, counter.score));
+            } else if(trendingSize > 0 && counter.score > top.peek().score) {
+                top.poll();
+                top.add(new Scored(recipeId, counter.score));
+            }
+        }
+        trending = load(top);
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not write recipe views, retrying on the next flush", e);
+        }
+    }
+
+    private void write(List<Object[]> deltas) {
+        if(deltas.isEmpty()) {
+            return;
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, deltas);
+
+        //first views of a recipe, there was no row to update
+        List<Object[]> inserts = new ArrayList<>();
+        for(int i = 0; i < updated.length; i++) {
+            if(updated[i] == 0) {
+                inserts.add(deltas.get(i));
+            }
+        }
+        if(!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        log.debug("Wrote views of {} recipes, {} new", deltas.size(), inserts.size());
+    }
+
+    //descriptions and total views of the top recipes, deleted ones drop out here
+    private List<TrendingRecipe> load(PriorityQueue<Scored> top) {
+        if(top.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(Comparator.comparingDouble((Scored scored) -> scored.score).reversed());
+        Object[] ids = ranked.stream().map(scored -> scored.recipeId).toArray();
+
+        Map<Long, TrendingRecipe> recipes = new HashMap<>();
+        jdbcTemplate.query(TRENDING_SQL + "(" + placeholders(ids.length) + ")",
+                (RowCallbackHandler) resultSet -> recipes.put(resultSet.getLong(1),
+                        new TrendingRecipe(resultSet.getLong(1), resultSet.getString(2), resultSet.getLong(3))), ids);
+
+        List<TrendingRecipe> trending = new ArrayList<>(ranked.size());
+        for(Scored scored : ranked) {
+            TrendingRecipe recipe = recipes.get(scored.recipeId);
+            if(recipe != null) {
+                trending.add(recipe);
+            }
+        }
+        return Collections.unmodifiableList(trending);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    //writes the views still in memory before the data source goes away
+    @PreDestroy
+    public void shutdown() {
+        flushes.shutdownNow();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not write recipe views on shutdown", e);
+        }
+    }
+
+    private static class ViewCounter {
+        private final LongAdder views = new LongAdder();
+
+        //only touched by flush, which is synchronized
+        private double score;
+    }
+
+    private static class Scored {
+        private final Long recipeId;
+        private final double score;
+
+        Scored(Long recipeId, double score) {
+            this.recipeId = recipeId;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package guru.springframework.popularity;
+
+import lombok.Value;
+
+/**
+ * A recipe viewed often lately, with every view it has had so far.
+ */
+@Value
+public class TrendingRecipe {
+
+    private final Long recipeId;
+    private final String description;
+    private final long views;
+}
@@ -0,0 +1,13 @@
+package guru.springframework.projections;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+@Value
+public class IngredientItem {
+
+    private final String description;
+    private final BigDecimal amount;
+    private final String unitOfMeasure;
+}
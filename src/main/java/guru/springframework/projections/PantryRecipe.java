@@ -0,0 +1,19 @@
+package guru.springframework.projections;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A recipe matched against a pantry, with the share of its ingredients covered and the ones still missing.
+ */
+@Value
+public class PantryRecipe {
+
+    private final Long id;
+    private final String description;
+    private final double coverage;
+    private final int matched;
+    private final int total;
+    private final List<String> missing;
+}
@@ -0,0 +1,36 @@
+package guru.springframework.projections;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Read-only view of a recipe served by the JSON API. Fields the client did not ask for are left null and are
+ * filtered out by name through the {@link #FIELDS_FILTER} Jackson filter.
+ */
+@Value
+@JsonFilter(RecipeItem.FIELDS_FILTER)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecipeItem {
+
+    public static final String FIELDS_FILTER = "recipeFields";
+
+    private final Long id;
+    //sent back with an update, a stale one is refused
+    private final Long version;
+    private final String description;
+    private final Integer prepTime;
+    private final Integer cookTime;
+    private final Integer servings;
+    private final String source;
+    private final String url;
+    private final String difficulty;
+    private final String directions;
+    private final String notes;
+
+    //only loaded for a single recipe
+    private final List<String> categories;
+    private final List<IngredientItem> ingredients;
+}
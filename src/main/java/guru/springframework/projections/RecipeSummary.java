@@ -0,0 +1,17 @@
+package guru.springframework.projections;
+
+import lombok.Value;
+
+/**
+ * Read-only view of a recipe holding only the columns the listing page renders.
+ */
+@Value
+public class RecipeSummary {
+
+    public static final int NOTES_PREVIEW_LENGTH = 200;
+
+    private final Long id;
+    private final String description;
+    private final String notesPreview;
+
+}
@@ -0,0 +1,17 @@
+package guru.springframework.projections;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * An ingredient scaled to a number of servings, its amount both rounded and as the exact fraction.
+ */
+@Value
+public class ScaledIngredient {
+
+    private final String description;
+    private final BigDecimal amount;
+    private final String fraction;
+    private final String unitOfMeasure;
+}
@@ -0,0 +1,14 @@
+package guru.springframework.projections;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ScaledRecipe {
+
+    private final Long id;
+    private final Integer servings;
+    private final Integer originalServings;
+    private final List<ScaledIngredient> ingredients;
+}
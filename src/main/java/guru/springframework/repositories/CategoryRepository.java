@@ -1,12 +1,16 @@
 package guru.springframework.repositories;
 
 import guru.springframework.domain.Category;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
 
 public interface CategoryRepository extends CrudRepository<Category, Long> {
 
+    //served from the query cache, Hibernate invalidates it whenever the table is written
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Category> findByDescription(String description);
 
 }
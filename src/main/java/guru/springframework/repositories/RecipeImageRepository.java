@@ -0,0 +1,15 @@
+package guru.springframework.repositories;
+
+import guru.springframework.domain.RecipeImage;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface RecipeImageRepository extends CrudRepository<RecipeImage, Long> {
+
+    //a bulk delete, removing the entity would read the image first
+    @Modifying
+    @Query("delete from RecipeImage i where i.id = :recipeId")
+    int deleteByRecipeId(@Param("recipeId") Long recipeId);
+}
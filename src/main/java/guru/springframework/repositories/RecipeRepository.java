@@ -1,7 +1,32 @@
 package guru.springframework.repositories;
 
 import guru.springframework.domain.Recipe;
+import guru.springframework.projections.RecipeSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface RecipeRepository extends CrudRepository<Recipe, Long> {
+
+    //keyset pagination: seek past the last id seen instead of using an offset
+    @Query("select new guru.springframework.projections.RecipeSummary(r.id, r.description, substring(n.recipeNotes, 1, "
+            + RecipeSummary.NOTES_PREVIEW_LENGTH + ")) "
+            + "from Recipe r left join r.notes n where r.id > :afterId order by r.id asc")
+    List<RecipeSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select new guru.springframework.projections.RecipeSummary(r.id, r.description, substring(n.recipeNotes, 1, "
+            + RecipeSummary.NOTES_PREVIEW_LENGTH + ")) "
+            + "from Recipe r left join r.notes n where r.id in :ids")
+    List<RecipeSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    //detail page fetch plan: everything recipe/show renders, in a single select
+    @EntityGraph(attributePaths = {"notes", "categories", "ingredients", "ingredients.uom"})
+    Optional<Recipe> findWithDetailsById(Long id);
+
 }
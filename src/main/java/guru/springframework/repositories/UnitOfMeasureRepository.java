@@ -1,12 +1,16 @@
 package guru.springframework.repositories;
 
 import guru.springframework.domain.UnitOfMeasure;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
 
 public interface UnitOfMeasureRepository extends CrudRepository<UnitOfMeasure, Long> {
 
+    //served from the query cache, Hibernate invalidates it whenever the table is written
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<UnitOfMeasure> findByDescription(String description);
 
 }
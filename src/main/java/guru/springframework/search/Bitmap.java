@@ -0,0 +1,102 @@
+package guru.springframework.search;
+
+import java.util.Arrays;
+
+/**
+ * A plain growable bitmap over recipe ids. Unlike {@link java.util.BitSet} it can count an intersection
+ * without building it, which is what facet counts are made of.
+ */
+final class Bitmap {
+
+    private long[] words;
+
+    Bitmap(int bits) {
+        words = new long[Math.max(1, (bits + 63) >>> 6)];
+    }
+
+    private Bitmap(long[] words) {
+        this.words = words;
+    }
+
+    void set(int bit) {
+        int word = bit >>> 6;
+        if(word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+        }
+        words[word] |= 1L << bit;
+    }
+
+    void clear(int bit) {
+        int word = bit >>> 6;
+        if(word < words.length) {
+            words[word] &= ~(1L << bit);
+        }
+    }
+
+    boolean get(int bit) {
+        int word = bit >>> 6;
+        return word < words.length && (words[word] & (1L << bit)) != 0;
+    }
+
+    //1 or 0, lets a loop count set bits without branching on each
+    int bit(int bit) {
+        int word = bit >>> 6;
+        return word < words.length ? (int) (words[word] >>> bit) & 1 : 0;
+    }
+
+    Bitmap copy() {
+        return new Bitmap(words.clone());
+    }
+
+    void and(Bitmap other) {
+        int common = Math.min(words.length, other.words.length);
+        for(int i = 0; i < common; i++) {
+            words[i] &= other.words[i];
+        }
+        Arrays.fill(words, common, words.length, 0L);
+    }
+
+    void or(Bitmap other) {
+        if(other.words.length > words.length) {
+            words = Arrays.copyOf(words, other.words.length);
+        }
+        for(int i = 0; i < other.words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    int cardinality() {
+        int count = 0;
+        for(long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    static int andCardinality(Bitmap a, Bitmap b) {
+        int common = Math.min(a.words.length, b.words.length);
+        int count = 0;
+        for(int i = 0; i < common; i++) {
+            count += Long.bitCount(a.words[i] & b.words[i]);
+        }
+        return count;
+    }
+
+    //index of the first set bit at or after from, -1 if there is none
+    int nextSetBit(int from) {
+        int word = from >>> 6;
+        if(word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        while(true) {
+            if(bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if(++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+}
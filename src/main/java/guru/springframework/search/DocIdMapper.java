@@ -0,0 +1,107 @@
+package guru.springframework.search;
+
+import java.util.Arrays;
+
+/**
+ * Maps recipe ids to the dense int doc ids the postings are written with, and back. An open addressing
+ * table of primitives, so a million recipes cost a few megabytes rather than a map of boxed entries.
+ */
+class DocIdMapper {
+
+    static final int NO_DOC = -1;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] docs;
+    private int used;
+
+    private long[] recipeIds;
+    private int docCount;
+
+    DocIdMapper(int expectedDocs) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedDocs * 2 - 1)) << 1;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        docs = new int[capacity];
+        recipeIds = new long[Math.max(16, expectedDocs)];
+    }
+
+    //hands out the next doc id for the recipe, replacing any doc it had before
+    int assign(long recipeId) {
+        if(docCount == recipeIds.length) {
+            recipeIds = Arrays.copyOf(recipeIds, recipeIds.length * 2);
+        }
+        int doc = docCount++;
+        recipeIds[doc] = recipeId;
+        put(recipeId, doc);
+        return doc;
+    }
+
+    //returns the doc the recipe had, NO_DOC if it had none
+    int remove(long recipeId) {
+        int slot = slot(recipeId);
+        if(keys[slot] == EMPTY) {
+            return NO_DOC;
+        }
+        //the key stays as a tombstone, probing past it keeps working
+        int doc = docs[slot];
+        docs[slot] = NO_DOC;
+        return doc;
+    }
+
+    int doc(long recipeId) {
+        int slot = slot(recipeId);
+        return keys[slot] == EMPTY ? NO_DOC : docs[slot];
+    }
+
+    long recipeId(int doc) {
+        return recipeIds[doc];
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    private void put(long recipeId, int doc) {
+        int slot = slot(recipeId);
+        if(keys[slot] == EMPTY) {
+            if((used + 1) * 2 > keys.length) {
+                grow();
+                slot = slot(recipeId);
+            }
+            keys[slot] = recipeId;
+            used++;
+        }
+        docs[slot] = doc;
+    }
+
+    private int slot(long recipeId) {
+        int mask = keys.length - 1;
+        int slot = mix(recipeId) & mask;
+        while(keys[slot] != EMPTY && keys[slot] != recipeId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldDocs = docs;
+        keys = new long[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        docs = new int[oldKeys.length * 2];
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                docs[slot] = oldDocs[i];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
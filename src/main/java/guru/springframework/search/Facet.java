@@ -0,0 +1,72 @@
+package guru.springframework.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The recipe attributes recipes can be filtered on. Numeric ones are grouped into fixed buckets.
+ */
+public enum Facet {
+
+    CATEGORY("category", "Category", 0, null, ""),
+    DIFFICULTY("difficulty", "Difficulty", 0, null, ""),
+    PREP_TIME("prepTime", "Prep Time", 0, new int[]{15, 30, 60}, " min"),
+    COOK_TIME("cookTime", "Cook Time", 0, new int[]{15, 30, 60}, " min"),
+    SERVINGS("servings", "Servings", 1, new int[]{2, 4, 6}, "");
+
+    private final String parameter;
+    private final String label;
+    private final int min;
+    //inclusive upper bounds of the buckets, the last bucket is open ended
+    private final int[] bounds;
+    private final String unit;
+
+    Facet(String parameter, String label, int min, int[] bounds, String unit) {
+        this.parameter = parameter;
+        this.label = label;
+        this.min = min;
+        this.bounds = bounds;
+        this.unit = unit;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    boolean isBucketed() {
+        return bounds != null;
+    }
+
+    //the bucket key a value falls in, e.g. "16-30"
+    String bucket(int value) {
+        int lower = min;
+        for(int bound : bounds) {
+            if(value <= bound) {
+                return lower + "-" + bound;
+            }
+            lower = bound + 1;
+        }
+        return lower + "+";
+    }
+
+    List<String> buckets() {
+        if(bounds == null) {
+            return Collections.emptyList();
+        }
+        List<String> buckets = new ArrayList<>(bounds.length + 1);
+        for(int bound : bounds) {
+            buckets.add(bucket(bound));
+        }
+        buckets.add(bucket(Integer.MAX_VALUE));
+        return buckets;
+    }
+
+    String bucketLabel(String bucket) {
+        return bucket + unit;
+    }
+}
@@ -0,0 +1,19 @@
+package guru.springframework.search;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * The facet attributes of one recipe, null where the recipe has no value.
+ */
+@Value
+class FacetDocument {
+
+    private final long recipeId;
+    private final Set<Long> categoryIds;
+    private final String difficulty;
+    private final Integer prepTime;
+    private final Integer cookTime;
+    private final Integer servings;
+}
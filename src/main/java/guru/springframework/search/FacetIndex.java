@@ -0,0 +1,164 @@
+package guru.springframework.search;
+
+import guru.springframework.domain.Difficulty;
+
+import java.util.*;
+
+/**
+ * One bitmap of recipe ids per facet value. Filtering intersects the unions of the selected values and
+ * counts are intersection cardinalities, so neither touches the database. Not thread safe on its own.
+ */
+final class FacetIndex {
+
+    private final Map<Facet, Map<String, Bitmap>> bitmaps = new EnumMap<>(Facet.class);
+    private final Map<String, String> categoryLabels = new HashMap<>();
+    private final Bitmap all;
+    private final int capacity;
+    private int size;
+
+    //categories maps category ids to their description, maxRecipeId sizes the bitmaps up front
+    FacetIndex(Map<Long, String> categories, long maxRecipeId) {
+        capacity = bit(maxRecipeId) + 1;
+        all = new Bitmap(capacity);
+        for(Facet facet : Facet.values()) {
+            bitmaps.put(facet, new LinkedHashMap<>());
+        }
+
+        categories.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(String.CASE_INSENSITIVE_ORDER))
+                .forEach(category -> {
+                    categoryLabels.put(category.getKey().toString(), category.getValue());
+                    bitmap(Facet.CATEGORY, category.getKey().toString());
+                });
+        for(Difficulty difficulty : Difficulty.values()) {
+            bitmap(Facet.DIFFICULTY, difficulty.name());
+        }
+        for(Facet facet : Facet.values()) {
+            for(String bucket : facet.buckets()) {
+                bitmap(facet, bucket);
+            }
+        }
+    }
+
+    //replaces whatever was indexed for the recipe before
+    void add(FacetDocument document) {
+        remove(document.getRecipeId());
+
+        int bit = bit(document.getRecipeId());
+        all.set(bit);
+        size++;
+
+        for(Long categoryId : document.getCategoryIds()) {
+            bitmap(Facet.CATEGORY, categoryId.toString()).set(bit);
+        }
+        if(document.getDifficulty() != null) {
+            bitmap(Facet.DIFFICULTY, document.getDifficulty()).set(bit);
+        }
+        setBucket(Facet.PREP_TIME, document.getPrepTime(), bit);
+        setBucket(Facet.COOK_TIME, document.getCookTime(), bit);
+        setBucket(Facet.SERVINGS, document.getServings(), bit);
+    }
+
+    void remove(long recipeId) {
+        int bit = bit(recipeId);
+        if(!all.get(bit)) {
+            return;
+        }
+        all.clear(bit);
+        size--;
+        for(Map<String, Bitmap> values : bitmaps.values()) {
+            for(Bitmap bitmap : values.values()) {
+                bitmap.clear(bit);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns up to limit matching recipe ids greater than afterId, plus every facet value with the number
+     * of recipes it would match given the selection on the other facets.
+     */
+    FacetResult filter(FacetSelection selection, long afterId, int limit) {
+        Map<Facet, Bitmap> unions = new EnumMap<>(Facet.class);
+        Bitmap matching = all.copy();
+        for(Facet facet : Facet.values()) {
+            if(selection.isSelected(facet)) {
+                Bitmap union = new Bitmap(capacity);
+                for(String value : selection.values(facet)) {
+                    Bitmap bitmap = bitmaps.get(facet).get(value);
+                    if(bitmap != null) {
+                        union.or(bitmap);
+                    }
+                }
+                unions.put(facet, union);
+                matching.and(union);
+            }
+        }
+
+        Map<Facet, List<FacetValue>> facets = new EnumMap<>(Facet.class);
+        for(Facet facet : Facet.values()) {
+            //a facet's own selection does not narrow its counts, so its other values stay selectable
+            Bitmap base = matching;
+            if(unions.containsKey(facet)) {
+                base = all.copy();
+                for(Map.Entry<Facet, Bitmap> union : unions.entrySet()) {
+                    if(union.getKey() != facet) {
+                        base.and(union.getValue());
+                    }
+                }
+            }
+
+            Set<String> selected = selection.values(facet);
+            List<FacetValue> values = new ArrayList<>();
+            for(Map.Entry<String, Bitmap> value : bitmaps.get(facet).entrySet()) {
+                values.add(new FacetValue(value.getKey(), label(facet, value.getKey()),
+                        Bitmap.andCardinality(base, value.getValue()), selected.contains(value.getKey())));
+            }
+            facets.put(facet, values);
+        }
+
+        List<Long> recipeIds = new ArrayList<>(limit);
+        Long lastId = null;
+        if(afterId < Integer.MAX_VALUE) {
+            int bit = matching.nextSetBit((int) Math.max(0, afterId + 1));
+            while(bit >= 0 && recipeIds.size() < limit) {
+                recipeIds.add((long) bit);
+                bit = bit == Integer.MAX_VALUE ? -1 : matching.nextSetBit(bit + 1);
+            }
+            if(bit >= 0 && !recipeIds.isEmpty()) {
+                lastId = recipeIds.get(recipeIds.size() - 1);
+            }
+        }
+
+        return new FacetResult(facets, matching.cardinality(), recipeIds, lastId);
+    }
+
+    private void setBucket(Facet facet, Integer value, int bit) {
+        if(value != null) {
+            bitmap(facet, facet.bucket(value)).set(bit);
+        }
+    }
+
+    private Bitmap bitmap(Facet facet, String value) {
+        return bitmaps.get(facet).computeIfAbsent(value, key -> new Bitmap(capacity));
+    }
+
+    private String label(Facet facet, String value) {
+        switch(facet) {
+            case CATEGORY:
+                return categoryLabels.getOrDefault(value, value);
+            case DIFFICULTY:
+                return value.charAt(0) + value.substring(1).toLowerCase();
+            default:
+                return facet.bucketLabel(value);
+        }
+    }
+
+    //recipe ids come from a sequence and stay far below the int range
+    private static int bit(long recipeId) {
+        return Math.toIntExact(recipeId);
+    }
+}
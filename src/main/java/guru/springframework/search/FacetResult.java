@@ -0,0 +1,21 @@
+package guru.springframework.search;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+@Value
+public class FacetResult {
+
+    //every facet with its values and counts, in facet order
+    private final Map<Facet, List<FacetValue>> facets;
+
+    private final int total;
+
+    //one page of matching recipe ids in ascending order
+    private final List<Long> recipeIds;
+
+    //last id of the page when more recipes follow, null otherwise
+    private final Long lastId;
+}
@@ -0,0 +1,41 @@
+package guru.springframework.search;
+
+import java.util.*;
+
+/**
+ * The facet values picked by the user. Values of one facet are alternatives, different facets all have to match.
+ */
+public class FacetSelection {
+
+    public static final FacetSelection NONE = new FacetSelection(Collections.emptyMap());
+
+    private final Map<Facet, Set<String>> selected;
+
+    private FacetSelection(Map<Facet, Set<String>> selected) {
+        this.selected = selected;
+    }
+
+    //reads each facet's values from the request parameter named after it, ignoring everything else
+    public static FacetSelection from(Map<String, List<String>> parameters) {
+        Map<Facet, Set<String>> selected = new EnumMap<>(Facet.class);
+        for(Facet facet : Facet.values()) {
+            List<String> values = parameters.get(facet.getParameter());
+            if(values != null && !values.isEmpty()) {
+                selected.put(facet, new LinkedHashSet<>(values));
+            }
+        }
+        return new FacetSelection(selected);
+    }
+
+    public Set<String> values(Facet facet) {
+        return selected.getOrDefault(facet, Collections.emptySet());
+    }
+
+    public boolean isSelected(Facet facet) {
+        return selected.containsKey(facet);
+    }
+
+    public boolean isEmpty() {
+        return selected.isEmpty();
+    }
+}
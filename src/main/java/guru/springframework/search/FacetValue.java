@@ -0,0 +1,15 @@
+package guru.springframework.search;
+
+import lombok.Value;
+
+@Value
+public class FacetValue {
+
+    private final String key;
+    private final String label;
+
+    //recipes with this value among those matching the selection on the other facets
+    private final int count;
+
+    private final boolean selected;
+}
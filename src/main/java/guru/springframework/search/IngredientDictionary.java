@@ -0,0 +1,89 @@
+package guru.springframework.search;
+
+import java.util.*;
+
+/**
+ * Ingredient descriptions folded to a normalized name and numbered densely, so "Ripe Avocados" and "avocado"
+ * are one entry. Each term points at the entries containing it, a pantry item finds every entry it covers
+ * without looking at a description. Not thread safe, {@link RecipePantryIndex} guards it.
+ */
+final class IngredientDictionary {
+
+    static final int NO_ENTRY = -1;
+
+    //how an ingredient is cut or sized says nothing about what it is
+    private static final Set<String> PREPARATION = new HashSet<>(Arrays.asList(
+            "fresh", "ripe", "minced", "chopped", "diced", "sliced", "thinly", "finely", "coarsely", "grated",
+            "crushed", "peeled", "removed", "stem", "seed", "large", "small", "medium", "whole", "optional", "taste"));
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Bitmap> entriesByTerm = new HashMap<>();
+
+    //the entry for the description, added if it is new, NO_ENTRY if nothing is left of it
+    int idOf(String description) {
+        SortedSet<String> terms = terms(description);
+        if(terms.isEmpty()) {
+            return NO_ENTRY;
+        }
+        String key = String.join(" ", terms);
+        Integer id = ids.get(key);
+        if(id != null) {
+            return id;
+        }
+
+        int entry = names.size();
+        ids.put(key, entry);
+        names.add(description.trim().toLowerCase(Locale.ROOT));
+        for(String term : terms) {
+            entriesByTerm.computeIfAbsent(term, t -> new Bitmap(64)).set(entry);
+        }
+        return entry;
+    }
+
+    //the description the entry was first seen with
+    String name(int entry) {
+        return names.get(entry);
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    /**
+     * The entries a pantry covers. An item covers every entry holding all of its terms, "lime juice" covers
+     * "fresh lime juice or lemon juice" and "pepper" covers "black pepper".
+     */
+    Bitmap covered(Collection<String> pantry) {
+        Bitmap covered = new Bitmap(names.size());
+        for(String item : pantry) {
+            Bitmap entries = null;
+            for(String term : terms(item)) {
+                Bitmap withTerm = entriesByTerm.get(term);
+                if(withTerm == null) {
+                    entries = null;
+                    break;
+                }
+                if(entries == null) {
+                    entries = withTerm.copy();
+                } else {
+                    entries.and(withTerm);
+                }
+            }
+            if(entries != null) {
+                covered.or(entries);
+            }
+        }
+        return covered;
+    }
+
+    private static SortedSet<String> terms(String description) {
+        SortedSet<String> terms = new TreeSet<>();
+        for(String term : Tokenizer.tokenize(description)) {
+            if(!PREPARATION.contains(term) && !Character.isDigit(term.charAt(0))) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,206 @@
+package guru.springframework.search;
+
+import java.util.*;
+
+/**
+ * Term to postings index over recipe text, ranked with BM25. Field weights are folded into the term
+ * frequencies when a recipe is added, a word in the description counts three times one in the directions.
+ * A recipe added again gets a new doc, the old one is only flagged deleted and its postings are skipped
+ * until a rebuild. Not thread safe, {@link RecipeSearchIndex} guards it.
+ */
+class InvertedIndex {
+
+    //BM25 saturation and length normalization, the usual defaults
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    //doubled so the ingredient weight of 1.5 stays an integer
+    private static final int DESCRIPTION_WEIGHT = 6;
+    private static final int CATEGORY_WEIGHT = 4;
+    private static final int INGREDIENT_WEIGHT = 3;
+    private static final int DIRECTIONS_WEIGHT = 2;
+    private static final int NOTES_WEIGHT = 2;
+
+    //lower score first, on equal scores the higher recipe id counts as worse
+    private static final Comparator<ScoredRecipe> WORST_FIRST = Comparator.comparingDouble(ScoredRecipe::getScore)
+            .thenComparing(Comparator.comparing(ScoredRecipe::getRecipeId).reversed());
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final DocIdMapper docIds;
+    private final BitSet deleted = new BitSet();
+    private int[] docLengths;
+    private long totalLength;
+    private int liveDocs;
+
+    InvertedIndex(int expectedDocs) {
+        docIds = new DocIdMapper(expectedDocs);
+        docLengths = new int[Math.max(16, expectedDocs)];
+    }
+
+    void add(RecipeDocument document) {
+        long recipeId = document.getRecipeId();
+        remove(recipeId);
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = count(frequencies, document.getDescription(), DESCRIPTION_WEIGHT)
+                + count(frequencies, document.getCategories(), CATEGORY_WEIGHT)
+                + count(frequencies, document.getIngredients(), INGREDIENT_WEIGHT)
+                + count(frequencies, document.getDirections(), DIRECTIONS_WEIGHT)
+                + count(frequencies, document.getNotes(), NOTES_WEIGHT);
+
+        int doc = docIds.assign(recipeId);
+        if(doc == docLengths.length) {
+            docLengths = Arrays.copyOf(docLengths, doc * 2);
+        }
+        docLengths[doc] = length;
+        totalLength += length;
+        liveDocs++;
+
+        int docLength = length;
+        frequencies.forEach((term, frequency) -> terms.computeIfAbsent(term, t -> new Postings()).add(doc, frequency, docLength));
+    }
+
+    private static int count(Map<String, Integer> frequencies, String text, int weight) {
+        int length = 0;
+        for(String term : Tokenizer.tokenize(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+            length += weight;
+        }
+        return length;
+    }
+
+    void remove(long recipeId) {
+        int doc = docIds.remove(recipeId);
+        if(doc != DocIdMapper.NO_DOC) {
+            deleted.set(doc);
+            totalLength -= docLengths[doc];
+            liveDocs--;
+        }
+    }
+
+    int size() {
+        return liveDocs;
+    }
+
+    //share of docs that are dead weight from updates and deletes
+    double deletedRatio() {
+        int docs = docIds.docCount();
+        return docs == 0 ? 0 : (double) (docs - liveDocs) / docs;
+    }
+
+    /**
+     * Recipes containing every term of the query, best match first, ties in recipe id order.
+     */
+    SearchHits search(String query, int offset, int limit) {
+        List<Postings> lists = new ArrayList<>();
+        for(String term : new LinkedHashSet<>(Tokenizer.tokenize(query))) {
+            Postings postings = terms.get(term);
+            if(postings == null) {
+                return SearchHits.EMPTY;
+            }
+            lists.add(postings);
+        }
+        if(lists.isEmpty() || liveDocs == 0) {
+            return SearchHits.EMPTY;
+        }
+        //walk the rarest term, skip ahead in the others
+        lists.sort(Comparator.comparingInt(Postings::size));
+
+        int n = lists.size();
+        double[] idf = new double[n];
+        for(int t = 0; t < n; t++) {
+            int df = lists.get(t).size();
+            idf[t] = Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+        }
+        double averageLength = Math.max(1, (double) totalLength / liveDocs);
+
+        //the most the other terms can add to any doc's score
+        double othersBound = 0;
+        for(int t = 1; t < n; t++) {
+            othersBound += score(idf[t], lists.get(t).maxFrequency(), lists.get(t).minLength(), averageLength);
+        }
+
+        Postings lead = lists.get(0);
+        int keep = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        //no more docs can match than the rarest term has
+        PriorityQueue<ScoredRecipe> top = new PriorityQueue<>(Math.max(1, Math.min(keep, lead.size())), WORST_FIRST);
+        int total = 0;
+
+        int[] positions = new int[n];
+        boolean scoreBlock = keep > 0;
+        candidates:
+        for(int i = 0; i < lead.size(); i++) {
+            //once the page is full, blocks whose best possible score falls short are only counted
+            if(i % Postings.BLOCK_SIZE == 0 && keep > 0 && top.size() == keep) {
+                int block = i / Postings.BLOCK_SIZE;
+                double bound = score(idf[0], lead.blockMaxFrequency(block), lead.blockMinLength(block), averageLength);
+                scoreBlock = bound + othersBound >= top.peek().getScore();
+                //with a single term every doc in the block matches, it can be counted without a walk
+                if(!scoreBlock && n == 1) {
+                    int end = Math.min(i + Postings.BLOCK_SIZE, lead.size());
+                    total += liveDocs(lead, i, end);
+                    i = end - 1;
+                    continue;
+                }
+            }
+
+            int doc = lead.doc(i);
+            if(deleted.get(doc)) {
+                continue;
+            }
+            for(int t = 1; t < n; t++) {
+                Postings postings = lists.get(t);
+                positions[t] = postings.advance(positions[t], doc);
+                if(positions[t] == postings.size()) {
+                    break candidates;
+                }
+                if(postings.doc(positions[t]) != doc) {
+                    continue candidates;
+                }
+            }
+            positions[0] = i;
+
+            total++;
+            if(!scoreBlock) {
+                continue;
+            }
+
+            double score = 0;
+            for(int t = 0; t < n; t++) {
+                score += score(idf[t], lists.get(t).frequency(positions[t]), docLengths[doc], averageLength);
+            }
+
+            if(top.size() < keep) {
+                top.add(new ScoredRecipe(docIds.recipeId(doc), score));
+            } else if(score >= top.peek().getScore()) {
+                //only allocate for docs that can make the page
+                ScoredRecipe candidate = new ScoredRecipe(docIds.recipeId(doc), score);
+                if(WORST_FIRST.compare(candidate, top.peek()) > 0) {
+                    top.poll();
+                    top.add(candidate);
+                }
+            }
+        }
+
+        List<ScoredRecipe> ranked = new ArrayList<>(top);
+        ranked.sort(WORST_FIRST.reversed());
+        return new SearchHits(offset < ranked.size() ? ranked.subList(offset, ranked.size()) : Collections.emptyList(), total);
+    }
+
+    private static double score(double idf, int frequency, int docLength, double averageLength) {
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * docLength / averageLength));
+    }
+
+    private int liveDocs(Postings postings, int from, int to) {
+        if(deleted.isEmpty()) {
+            return to - from;
+        }
+        int live = 0;
+        for(int i = from; i < to; i++) {
+            if(!deleted.get(postings.doc(i))) {
+                live++;
+            }
+        }
+        return live;
+    }
+}
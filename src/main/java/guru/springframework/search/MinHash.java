@@ -0,0 +1,56 @@
+package guru.springframework.search;
+
+import java.util.Random;
+
+/**
+ * MinHash signatures of int feature sets, cut into bands for locality sensitive hashing. Two sets agree on a
+ * signature row as often as their Jaccard similarity, so they share a band, and become candidates for each
+ * other, far more often when they are alike.
+ */
+final class MinHash {
+
+    static final int BANDS = 8;
+    static final int ROWS = 2;
+    static final int HASHES = BANDS * ROWS;
+
+    //fixed seeds, signatures are only ever compared within one run but tests want the same candidates each time
+    private static final long[] MULTIPLIERS = new long[HASHES];
+    private static final long[] INCREMENTS = new long[HASHES];
+
+    static {
+        Random random = new Random(0x5EEDL);
+        for(int i = 0; i < HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            INCREMENTS[i] = random.nextLong();
+        }
+    }
+
+    private MinHash() {
+    }
+
+    //writes the signature of features[from, to) into signature, which must hold HASHES ints
+    static void signature(int[] features, int from, int to, int[] signature) {
+        for(int i = 0; i < HASHES; i++) {
+            long multiplier = MULTIPLIERS[i];
+            long increment = INCREMENTS[i];
+            int min = Integer.MAX_VALUE;
+            for(int f = from; f < to; f++) {
+                //multiply-shift, the high bits of the product are the well mixed ones
+                int hash = (int) ((multiplier * features[f] + increment) >>> 32);
+                if(hash < min) {
+                    min = hash;
+                }
+            }
+            signature[i] = min;
+        }
+    }
+
+    //the rows of one band folded into one int
+    static int bandHash(int[] signature, int band) {
+        int hash = band;
+        for(int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            hash = hash * 0x9E3779B9 + signature[row];
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,17 @@
+package guru.springframework.search;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * What one recipe is compared on: its ingredient descriptions and traits such as "difficulty:EASY".
+ */
+@Value
+class NeighborDocument {
+
+    private final long recipeId;
+    private final String description;
+    private final List<String> ingredients;
+    private final List<String> traits;
+}
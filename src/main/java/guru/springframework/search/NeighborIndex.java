@@ -0,0 +1,325 @@
+package guru.springframework.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * The most similar recipes of every recipe, worked out ahead of time so reading them is a lookup. A recipe
+ * is a set of features, its normalized ingredients plus traits such as its categories, difficulty and time
+ * buckets, and two recipes are as similar as the Jaccard similarity of their sets. On a large catalog only
+ * the recipes sharing a {@link MinHash} band are compared, a few from each band, so building costs about the
+ * same per recipe however many there are. Building runs on the fork join pool, recipes added afterwards are
+ * linked in one at a time and join the neighbors of the recipes they beat. Titles are kept too, so showing
+ * the neighbors needs no query. Not thread safe, {@link RecipeNeighborIndex} guards it.
+ */
+final class NeighborIndex {
+
+    static final int NEIGHBORS = 6;
+
+    //below this many recipes every pair is compared, bands only pay off on large catalogs
+    static final int EXHAUSTIVE_DOCS = 1024;
+
+    //candidates taken from either side of a recipe in each band, generated recipes share huge buckets
+    private static final int BUCKET_SCAN = 8;
+
+    private static final int CHUNK = 1 << 12;
+
+    private final IngredientDictionary dictionary = new IngredientDictionary();
+    private final Map<String, Integer> traits = new HashMap<>();
+    private final DocIdMapper docIds;
+    private final BitSet deleted = new BitSet();
+    private int[] featureOffsets;
+    private int[] features;
+    private int[] titleOffsets;
+    private byte[] titles;
+    private int[] neighbors;
+    private float[] similarities;
+    private int liveDocs;
+
+    //per band every doc built as (hash << 32 | doc) sorted, docs linked since are listed by band and hash
+    private long[][] bands = new long[MinHash.BANDS][];
+    private final Map<Long, List<Integer>> linkedBands = new HashMap<>();
+    private boolean built;
+    private int builtDocs;
+
+    NeighborIndex(int expectedDocs) {
+        int docs = Math.max(16, expectedDocs);
+        docIds = new DocIdMapper(expectedDocs);
+        featureOffsets = new int[docs + 1];
+        features = new int[docs * 16];
+        titleOffsets = new int[docs + 1];
+        titles = new byte[docs * 32];
+        neighbors = new int[docs * NEIGHBORS];
+        Arrays.fill(neighbors, DocIdMapper.NO_DOC);
+        similarities = new float[docs * NEIGHBORS];
+    }
+
+    /**
+     * Replaces whatever was indexed for the recipe before. Traits are matched exactly, "difficulty:EASY" only
+     * shares with "difficulty:EASY". Once built the recipe is linked to its neighbors straight away.
+     */
+    void add(NeighborDocument document) {
+        remove(document.getRecipeId());
+
+        IntStream ingredientIds = document.getIngredients().stream().filter(Objects::nonNull)
+                .mapToInt(dictionary::idOf).filter(id -> id != IngredientDictionary.NO_ENTRY);
+        //traits count down from -1, they never meet an ingredient id
+        IntStream traitIds = document.getTraits().stream()
+                .mapToInt(trait -> traits.computeIfAbsent(trait, t -> -1 - traits.size()));
+        int[] ids = IntStream.concat(ingredientIds, traitIds).distinct().sorted().toArray();
+        if(ids.length == 0) {
+            return;
+        }
+
+        int doc = docIds.assign(document.getRecipeId());
+        if(doc + 1 == featureOffsets.length) {
+            featureOffsets = Arrays.copyOf(featureOffsets, featureOffsets.length * 2);
+            titleOffsets = Arrays.copyOf(titleOffsets, titleOffsets.length * 2);
+            int oldNeighbors = neighbors.length;
+            neighbors = Arrays.copyOf(neighbors, (featureOffsets.length - 1) * NEIGHBORS);
+            Arrays.fill(neighbors, oldNeighbors, neighbors.length, DocIdMapper.NO_DOC);
+            similarities = Arrays.copyOf(similarities, neighbors.length);
+        }
+        featureOffsets[doc + 1] = append(ids, featureOffsets[doc]);
+        String description = document.getDescription() == null ? "" : document.getDescription();
+        titleOffsets[doc + 1] = append(description.getBytes(StandardCharsets.UTF_8), titleOffsets[doc]);
+        liveDocs++;
+
+        if(built) {
+            link(doc);
+        }
+    }
+
+    void remove(long recipeId) {
+        int doc = docIds.remove(recipeId);
+        if(doc != DocIdMapper.NO_DOC && !deleted.get(doc)) {
+            deleted.set(doc);
+            liveDocs--;
+        }
+    }
+
+    //works out the neighbors of every recipe added so far
+    void build() {
+        int docs = docIds.docCount();
+        int chunks = (docs + CHUNK - 1) / CHUNK;
+        bands = new long[MinHash.BANDS][];
+        linkedBands.clear();
+
+        if(docs > EXHAUSTIVE_DOCS) {
+            for(int band = 0; band < MinHash.BANDS; band++) {
+                bands[band] = new long[docs];
+            }
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int[] signature = new int[MinHash.HASHES];
+                for(int doc = chunk * CHUNK; doc < Math.min(docs, (chunk + 1) * CHUNK); doc++) {
+                    signature(doc, signature);
+                    for(int band = 0; band < MinHash.BANDS; band++) {
+                        bands[band][doc] = (long) MinHash.bandHash(signature, band) << 32 | doc;
+                    }
+                }
+            });
+            for(long[] band : bands) {
+                Arrays.parallelSort(band);
+            }
+        }
+        built = true;
+        builtDocs = docs;
+
+        //every doc only writes its own neighbors, the chunks never touch the same ones
+        if(docs <= EXHAUSTIVE_DOCS) {
+            IntStream.range(0, docs).parallel().filter(doc -> !deleted.get(doc)).forEach(doc -> {
+                for(int other = 0; other < docs; other++) {
+                    consider(doc, other, false);
+                }
+            });
+            return;
+        }
+        //a band at a time, walking its table puts every doc next to the rest of its bucket without a search
+        for(long[] table : bands) {
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                for(int at = chunk * CHUNK; at < Math.min(docs, (chunk + 1) * CHUNK); at++) {
+                    int doc = (int) table[at];
+                    if(!deleted.get(doc)) {
+                        scanBucket(table, at, (int) (table[at] >> 32), doc, false);
+                    }
+                }
+            });
+        }
+    }
+
+    //the neighbors of the recipe, most similar first
+    List<SimilarRecipe> similar(long recipeId) {
+        int doc = docIds.doc(recipeId);
+        if(doc == DocIdMapper.NO_DOC) {
+            return Collections.emptyList();
+        }
+        List<SimilarRecipe> similar = new ArrayList<>(NEIGHBORS);
+        for(int i = doc * NEIGHBORS; i < (doc + 1) * NEIGHBORS; i++) {
+            int neighbor = neighbors[i];
+            if(neighbor != DocIdMapper.NO_DOC && !deleted.get(neighbor)) {
+                similar.add(new SimilarRecipe(docIds.recipeId(neighbor), title(neighbor), similarities[i]));
+            }
+        }
+        return similar;
+    }
+
+    int size() {
+        return liveDocs;
+    }
+
+    //the share of docs deleted or linked in since the build, the neighbors of those are the least thorough
+    double staleRatio() {
+        int docs = docIds.docCount();
+        return docs == 0 ? 0 : (double) (docs - liveDocs + docs - builtDocs) / docs;
+    }
+
+    //what the arrays take, the doc id table aside
+    long memoryBytes() {
+        long bytes = 4L * (featureOffsets.length + features.length + titleOffsets.length + neighbors.length
+                + similarities.length) + titles.length;
+        for(long[] band : bands) {
+            bytes += band == null ? 0 : 8L * band.length;
+        }
+        return bytes;
+    }
+
+    private void link(int doc) {
+        int[] signature = new int[MinHash.HASHES];
+        signature(doc, signature);
+        findNeighbors(doc, signature, true);
+        for(int band = 0; band < MinHash.BANDS; band++) {
+            long key = bandKey(band, MinHash.bandHash(signature, band));
+            linkedBands.computeIfAbsent(key, k -> new ArrayList<>()).add(doc);
+        }
+    }
+
+    //for a recipe linked in after the build, offers it to every candidate as well
+    private void findNeighbors(int doc, int[] signature, boolean reciprocal) {
+        if(builtDocs <= EXHAUSTIVE_DOCS) {
+            for(int other = 0; other < docIds.docCount(); other++) {
+                consider(doc, other, reciprocal);
+            }
+            return;
+        }
+
+        for(int band = 0; band < MinHash.BANDS; band++) {
+            int hash = MinHash.bandHash(signature, band);
+            long[] table = bands[band];
+            //where the doc would sit in the table, it is not in there
+            scanBucket(table, -Arrays.binarySearch(table, (long) hash << 32 | doc) - 1, hash, doc, reciprocal);
+
+            List<Integer> linked = linkedBands.get(bandKey(band, hash));
+            if(linked != null) {
+                for(int other : linked) {
+                    consider(doc, other, reciprocal);
+                }
+            }
+        }
+    }
+
+    //the docs up to BUCKET_SCAN either side of position at in a band table, as long as they share the hash
+    private void scanBucket(long[] table, int at, int hash, int doc, boolean reciprocal) {
+        for(int i = at - 1; i >= Math.max(0, at - BUCKET_SCAN) && (int) (table[i] >> 32) == hash; i--) {
+            consider(doc, (int) table[i], reciprocal);
+        }
+        for(int i = at; i < Math.min(table.length, at + BUCKET_SCAN + 1) && (int) (table[i] >> 32) == hash; i++) {
+            consider(doc, (int) table[i], reciprocal);
+        }
+    }
+
+    private void consider(int doc, int other, boolean reciprocal) {
+        if(other == doc || deleted.get(other)) {
+            return;
+        }
+        float similarity = jaccard(doc, other);
+        if(similarity > 0) {
+            insert(doc, other, similarity);
+            if(reciprocal) {
+                insert(other, doc, similarity);
+            }
+        }
+    }
+
+    //puts doc among the neighbors of target if it beats one, dropping deleted neighbors on the way
+    private void insert(int target, int doc, float similarity) {
+        int base = target * NEIGHBORS;
+        int worst = neighbors[base + NEIGHBORS - 1];
+        //most candidates lose to a full list of live neighbors
+        if(worst != DocIdMapper.NO_DOC && similarities[base + NEIGHBORS - 1] >= similarity && !deleted.get(worst)) {
+            return;
+        }
+        int size = 0;
+        for(int i = 0; i < NEIGHBORS; i++) {
+            int neighbor = neighbors[base + i];
+            if(neighbor == doc) {
+                return;
+            }
+            if(neighbor != DocIdMapper.NO_DOC && !deleted.get(neighbor)) {
+                neighbors[base + size] = neighbor;
+                similarities[base + size++] = similarities[base + i];
+            }
+        }
+        Arrays.fill(neighbors, base + size, base + NEIGHBORS, DocIdMapper.NO_DOC);
+
+        int at = size;
+        while(at > 0 && similarities[base + at - 1] < similarity) {
+            at--;
+        }
+        if(at == NEIGHBORS) {
+            return;
+        }
+        for(int i = Math.min(size, NEIGHBORS - 1); i > at; i--) {
+            neighbors[base + i] = neighbors[base + i - 1];
+            similarities[base + i] = similarities[base + i - 1];
+        }
+        neighbors[base + at] = doc;
+        similarities[base + at] = similarity;
+    }
+
+    //both feature runs are sorted, so one merge counts what they share
+    private float jaccard(int a, int b) {
+        int i = featureOffsets[a];
+        int j = featureOffsets[b];
+        int aEnd = featureOffsets[a + 1];
+        int bEnd = featureOffsets[b + 1];
+        int shared = 0;
+        //advancing by comparison results rather than branching, the jit turns these into conditional moves
+        while(i < aEnd && j < bEnd) {
+            int x = features[i];
+            int y = features[j];
+            shared += x == y ? 1 : 0;
+            i += x <= y ? 1 : 0;
+            j += y <= x ? 1 : 0;
+        }
+        return (float) shared / (aEnd - featureOffsets[a] + bEnd - featureOffsets[b] - shared);
+    }
+
+    private void signature(int doc, int[] signature) {
+        MinHash.signature(features, featureOffsets[doc], featureOffsets[doc + 1], signature);
+    }
+
+    private String title(int doc) {
+        return new String(titles, titleOffsets[doc], titleOffsets[doc + 1] - titleOffsets[doc], StandardCharsets.UTF_8);
+    }
+
+    private int append(int[] ids, int start) {
+        if(start + ids.length > features.length) {
+            features = Arrays.copyOf(features, Math.max(features.length * 2, start + ids.length));
+        }
+        System.arraycopy(ids, 0, features, start, ids.length);
+        return start + ids.length;
+    }
+
+    private int append(byte[] bytes, int start) {
+        if(start + bytes.length > titles.length) {
+            titles = Arrays.copyOf(titles, Math.max(titles.length * 2, start + bytes.length));
+        }
+        System.arraycopy(bytes, 0, titles, start, bytes.length);
+        return start + bytes.length;
+    }
+
+    private static long bandKey(int band, int hash) {
+        return (long) band << 32 | (hash & 0xffffffffL);
+    }
+}
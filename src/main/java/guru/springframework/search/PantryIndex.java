@@ -0,0 +1,151 @@
+package guru.springframework.search;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * The ingredients of every recipe as sorted {@link IngredientDictionary} ids, all in one flat array with a
+ * row of offsets marking where each doc's run starts. Matching a pantry walks that array in parallel chunks,
+ * each keeping its best recipes in a {@link TopK} of packed longs, so nothing is allocated per recipe.
+ * A recipe added again gets a new run at the end of the array, its old run stays in place, flagged in the
+ * deleted bitset and passed over when scoring. Not thread safe, {@link RecipePantryIndex} guards it.
+ */
+final class PantryIndex {
+
+    //docs scored per task, large enough that splitting costs nothing next to the scoring
+    private static final int CHUNK = 1 << 16;
+
+    /*
+     * a match packed so that a larger long is a better match: the share of the recipe covered, then the
+     * number of ingredients covered, then the earlier doc
+     */
+    private static final int COVERAGE_BITS = 20;
+    private static final int MATCHED_BITS = 11;
+    private static final int DOC_BITS = 31;
+    private static final int COVERAGE_SHIFT = MATCHED_BITS + DOC_BITS;
+    private static final int MAX_MATCHED = (1 << MATCHED_BITS) - 1;
+
+    private final IngredientDictionary dictionary = new IngredientDictionary();
+    private final DocIdMapper docIds;
+    private final BitSet deleted = new BitSet();
+    private int[] offsets;
+    private int[] ingredients;
+    private int liveDocs;
+
+    PantryIndex(int expectedDocs) {
+        docIds = new DocIdMapper(expectedDocs);
+        offsets = new int[Math.max(16, expectedDocs) + 1];
+        //the generated recipes have 11 ingredients on average
+        ingredients = new int[Math.max(16, expectedDocs) * 11];
+    }
+
+    //replaces whatever was indexed for the recipe before
+    void add(long recipeId, Collection<String> descriptions) {
+        remove(recipeId);
+
+        int[] ids = descriptions.stream().filter(Objects::nonNull).mapToInt(dictionary::idOf)
+                .filter(id -> id != IngredientDictionary.NO_ENTRY).distinct().sorted().toArray();
+        if(ids.length == 0) {
+            return;
+        }
+
+        int doc = docIds.assign(recipeId);
+        if(doc + 1 == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        int start = offsets[doc];
+        if(start + ids.length > ingredients.length) {
+            ingredients = Arrays.copyOf(ingredients, Math.max(ingredients.length * 2, start + ids.length));
+        }
+        System.arraycopy(ids, 0, ingredients, start, ids.length);
+        offsets[doc + 1] = start + ids.length;
+        liveDocs++;
+    }
+
+    void remove(long recipeId) {
+        int doc = docIds.remove(recipeId);
+        if(doc != DocIdMapper.NO_DOC && !deleted.get(doc)) {
+            deleted.set(doc);
+            liveDocs--;
+        }
+    }
+
+    int size() {
+        return liveDocs;
+    }
+
+    int dictionarySize() {
+        return dictionary.size();
+    }
+
+    double deletedRatio() {
+        int docs = docIds.docCount();
+        return docs == 0 ? 0 : (double) (docs - liveDocs) / docs;
+    }
+
+    /**
+     * Recipes the pantry covers any ingredient of, the largest share covered first, then the most
+     * ingredients covered, ties in doc order.
+     */
+    PantryMatches match(Collection<String> pantry, int limit) {
+        Bitmap covered = dictionary.covered(pantry);
+        int docs = docIds.docCount();
+        if(docs == 0 || covered.cardinality() == 0) {
+            return PantryMatches.EMPTY;
+        }
+
+        int chunks = (docs + CHUNK - 1) / CHUNK;
+        TopK top = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> score(covered, chunk * CHUNK, Math.min(docs, (chunk + 1) * CHUNK), limit))
+                .reduce(TopK::merge)
+                .get();
+
+        List<PantryMatch> matches = new ArrayList<>();
+        for(long key : top.descending()) {
+            int doc = Integer.MAX_VALUE - (int) (key & Integer.MAX_VALUE);
+            matches.add(match(doc, covered));
+        }
+        return new PantryMatches(matches, top.offered());
+    }
+
+    private TopK score(Bitmap covered, int fromDoc, int toDoc, int limit) {
+        TopK top = new TopK(limit);
+        int[] offsets = this.offsets;
+        int[] ingredients = this.ingredients;
+        for(int doc = fromDoc; doc < toDoc; doc++) {
+            int start = offsets[doc];
+            int end = offsets[doc + 1];
+            int matched = 0;
+            for(int i = start; i < end; i++) {
+                matched += covered.bit(ingredients[i]);
+            }
+            if(matched == 0 || deleted.get(doc)) {
+                continue;
+            }
+
+            //a share below the worst one kept loses whatever else it has, multiplying tells without dividing
+            long share = (long) matched << COVERAGE_BITS;
+            long threshold = top.threshold();
+            if(threshold != Long.MIN_VALUE && share < (threshold >>> COVERAGE_SHIFT) * (end - start)) {
+                top.skip();
+                continue;
+            }
+            top.offer(share / (end - start) << COVERAGE_SHIFT | (long) Math.min(matched, MAX_MATCHED) << DOC_BITS
+                    | (Integer.MAX_VALUE - doc));
+        }
+        return top;
+    }
+
+    private PantryMatch match(int doc, Bitmap covered) {
+        List<String> missing = new ArrayList<>();
+        int matched = 0;
+        for(int i = offsets[doc]; i < offsets[doc + 1]; i++) {
+            if(covered.get(ingredients[i])) {
+                matched++;
+            } else {
+                missing.add(dictionary.name(ingredients[i]));
+            }
+        }
+        return new PantryMatch(docIds.recipeId(doc), matched, offsets[doc + 1] - offsets[doc], missing);
+    }
+}
@@ -0,0 +1,21 @@
+package guru.springframework.search;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A recipe some of whose ingredients a pantry covers, and the ones it does not.
+ */
+@Value
+public class PantryMatch {
+
+    private final Long recipeId;
+    private final int matched;
+    private final int total;
+    private final List<String> missing;
+
+    public double getCoverage() {
+        return (double) matched / total;
+    }
+}
@@ -0,0 +1,18 @@
+package guru.springframework.search;
+
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The best covered recipes and the number of recipes the pantry covers anything of.
+ */
+@Value
+public class PantryMatches {
+
+    static final PantryMatches EMPTY = new PantryMatches(Collections.emptyList(), 0);
+
+    private final List<PantryMatch> matches;
+    private final int total;
+}
@@ -0,0 +1,92 @@
+package guru.springframework.search;
+
+import java.util.Arrays;
+
+/**
+ * The docs a term occurs in, in ascending doc order, with the field weighted term frequency in each.
+ * Docs are only ever appended with a higher id than the last, which keeps the list sorted.
+ * <p>
+ * Per block of {@link #BLOCK_SIZE} docs it also keeps the highest frequency and the shortest doc, enough
+ * to bound the best score any doc in the block can reach so a search can skip scoring blocks that cannot
+ * make the page.
+ */
+class Postings {
+
+    static final int BLOCK_SIZE = 16;
+
+    private int[] docs = new int[4];
+    private short[] frequencies = new short[4];
+    private int size;
+
+    private short[] blockMaxFrequencies = new short[1];
+    private int[] blockMinLengths = new int[1];
+    private int maxFrequency;
+    private int minLength = Integer.MAX_VALUE;
+
+    void add(int doc, int frequency, int docLength) {
+        if(size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            frequencies = Arrays.copyOf(frequencies, size * 2);
+        }
+        short capped = (short) Math.min(frequency, Short.MAX_VALUE);
+        docs[size] = doc;
+        frequencies[size] = capped;
+
+        int block = size / BLOCK_SIZE;
+        if(block == blockMaxFrequencies.length) {
+            blockMaxFrequencies = Arrays.copyOf(blockMaxFrequencies, block * 2);
+            blockMinLengths = Arrays.copyOf(blockMinLengths, block * 2);
+        }
+        if(size % BLOCK_SIZE == 0) {
+            blockMaxFrequencies[block] = capped;
+            blockMinLengths[block] = docLength;
+        } else {
+            blockMaxFrequencies[block] = (short) Math.max(blockMaxFrequencies[block], capped);
+            blockMinLengths[block] = Math.min(blockMinLengths[block], docLength);
+        }
+        maxFrequency = Math.max(maxFrequency, capped);
+        minLength = Math.min(minLength, docLength);
+
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int doc(int index) {
+        return docs[index];
+    }
+
+    int frequency(int index) {
+        return frequencies[index];
+    }
+
+    int blockMaxFrequency(int block) {
+        return blockMaxFrequencies[block];
+    }
+
+    int blockMinLength(int block) {
+        return blockMinLengths[block];
+    }
+
+    int maxFrequency() {
+        return maxFrequency;
+    }
+
+    int minLength() {
+        return minLength;
+    }
+
+    //first index at or after from whose doc is >= target, galloping then binary search; size() if none
+    int advance(int from, int target) {
+        int bound = 1;
+        int low = from;
+        while(from + bound < size && docs[from + bound] < target) {
+            low = from + bound;
+            bound <<= 1;
+        }
+        int index = Arrays.binarySearch(docs, low, Math.min(from + bound + 1, size), target);
+        return index >= 0 ? index : -index - 1;
+    }
+}
@@ -0,0 +1,17 @@
+package guru.springframework.search;
+
+import lombok.Value;
+
+/**
+ * The searchable text of one recipe, ingredients and categories joined with spaces.
+ */
+@Value
+class RecipeDocument {
+
+    private final long recipeId;
+    private final String description;
+    private final String directions;
+    private final String notes;
+    private final String ingredients;
+    private final String categories;
+}
@@ -0,0 +1,89 @@
+package guru.springframework.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Keeps the {@link FacetIndex} of all recipes in memory, so filtering by category, difficulty, times and
+ * servings and counting the matches per value never touch the database.
+ */
+@Slf4j
+@Component
+public class RecipeFacetIndex extends RecipeIndex<FacetIndex, FacetDocument> {
+
+    //one row per recipe, category ids comma separated
+    static final String DOCUMENT_SQL = "select r.id, r.difficulty, r.prep_time, r.cook_time, r.servings,"
+            + " (select group_concat(rc.category_id) from recipe_category rc where rc.recipe_id = r.id)"
+            + " from recipe r";
+
+    public RecipeFacetIndex(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate, "recipe-facet-index", new FacetIndex(Collections.emptyMap(), 0));
+    }
+
+    public FacetResult filter(FacetSelection selection, long afterId, int limit) {
+        return read(index -> index.filter(selection, afterId, limit));
+    }
+
+    public int size() {
+        return current().size();
+    }
+
+    @Override
+    protected FacetIndex loadAll() {
+        Map<Long, String> categories = new HashMap<>();
+        jdbcTemplate.query("select id, description from category",
+                (RowCallbackHandler) resultSet -> categories.put(resultSet.getLong(1), resultSet.getString(2)));
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from recipe", Long.class);
+        FacetIndex fresh = new FacetIndex(categories, maxId == null ? 0 : maxId);
+
+        queryAll(DOCUMENT_SQL, resultSet -> fresh.add(document(resultSet)));
+        return fresh;
+    }
+
+    @Override
+    protected Map<Long, FacetDocument> load(List<Long> recipeIds) {
+        Map<Long, FacetDocument> documents = new HashMap<>();
+        queryIn(DOCUMENT_SQL + " where r.id in ", recipeIds, (RowCallbackHandler) resultSet -> {
+            FacetDocument document = document(resultSet);
+            documents.put(document.getRecipeId(), document);
+        });
+        return documents;
+    }
+
+    @Override
+    protected void apply(FacetIndex index, Long recipeId, FacetDocument document) {
+        if(document != null) {
+            index.add(document);
+        } else {
+            index.remove(recipeId);
+        }
+    }
+
+    @Override
+    protected void rebuilt(FacetIndex fresh, long millis) {
+        log.info("Indexed {} recipes for facets in {} ms", fresh.size(), millis);
+    }
+
+    private static FacetDocument document(ResultSet resultSet) throws SQLException {
+        Set<Long> categoryIds = new HashSet<>();
+        String categories = resultSet.getString(6);
+        if(categories != null) {
+            for(String categoryId : categories.split(",")) {
+                categoryIds.add(Long.valueOf(categoryId.trim()));
+            }
+        }
+        return new FacetDocument(resultSet.getLong(1), categoryIds, resultSet.getString(2),
+                integer(resultSet, 3), integer(resultSet, 4), integer(resultSet, 5));
+    }
+
+    private static Integer integer(ResultSet resultSet, int column) throws SQLException {
+        int value = resultSet.getInt(column);
+        return resultSet.wasNull() ? null : value;
+    }
+}
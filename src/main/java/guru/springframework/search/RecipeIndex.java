@@ -0,0 +1,162 @@
+package guru.springframework.search;
+
+import guru.springframework.events.RecipeChangedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * An in-memory index of all recipes, built once the application is ready and then kept current from
+ * {@link RecipeChangedEvent}s. Updates run one at a time on a background thread, changed recipes are loaded
+ * in chunks and applied under the write lock. A full rebuild is loaded off to the side and swapped in, so
+ * reads never wait on it. Subclasses load the index and the documents of changed recipes.
+ *
+ * @param <I> the index
+ * @param <D> what is indexed of one recipe
+ */
+public abstract class RecipeIndex<I, D> {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int REINDEX_CHUNK = 500;
+
+    protected final JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService updates;
+
+    private volatile I index;
+    private volatile boolean ready;
+
+    protected RecipeIndex(JdbcTemplate jdbcTemplate, String threadName, I empty) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.index = empty;
+        this.updates = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    //every recipe, in a fresh index
+    protected abstract I loadAll();
+
+    //the documents of the given recipes, deleted ones are left out
+    protected abstract Map<Long, D> load(List<Long> recipeIds);
+
+    //called under the write lock, document is null when the recipe is gone
+    protected abstract void apply(I index, Long recipeId, D document);
+
+    protected void rebuilt(I fresh, long millis) {
+    }
+
+    //called after the changed recipes are applied, true swaps in a full rebuild
+    protected boolean updated(I index) {
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        updates.execute(this::rebuild);
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if(event.isAllRecipes()) {
+            updates.execute(this::rebuild);
+        } else {
+            Set<Long> recipeIds = new HashSet<>(event.getRecipeIds());
+            updates.execute(() -> reindex(recipeIds));
+        }
+    }
+
+    //false until the first build has finished
+    public boolean isReady() {
+        return ready;
+    }
+
+    protected <T> T read(Function<I, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //the current index without the read lock, for reads that only look at a volatile or final field
+    protected I current() {
+        return index;
+    }
+
+    //blocks until every update queued so far has been applied
+    void awaitPendingUpdates() throws InterruptedException, ExecutionException {
+        updates.submit(() -> { }).get();
+    }
+
+    void rebuild() {
+        long start = System.nanoTime();
+        I fresh = loadAll();
+
+        lock.writeLock().lock();
+        try {
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+
+        rebuilt(fresh, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    void reindex(Set<Long> recipeIds) {
+        List<Long> ids = new ArrayList<>(recipeIds);
+        for(int from = 0; from < ids.size(); from += REINDEX_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + REINDEX_CHUNK, ids.size()));
+            Map<Long, D> documents = load(chunk);
+
+            lock.writeLock().lock();
+            try {
+                for(Long recipeId : chunk) {
+                    apply(index, recipeId, documents.get(recipeId));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        if(updated(index)) {
+            rebuild();
+        }
+    }
+
+    //streams every row of the query with a bounded fetch size
+    protected void queryAll(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, handler);
+    }
+
+    //sql ends with "in ", the recipe ids are appended as parameters
+    protected void queryIn(String sql, List<Long> recipeIds, RowCallbackHandler handler) {
+        jdbcTemplate.query(sql + "(" + String.join(",", Collections.nCopies(recipeIds.size(), "?")) + ")",
+                handler, recipeIds.toArray());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updates.shutdownNow();
+    }
+}
@@ -0,0 +1,119 @@
+package guru.springframework.search;
+
+import guru.springframework.events.RecipeNeighborsChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Keeps the {@link NeighborIndex} of all recipes in memory, so the similar recipes of a page are a lookup.
+ * Every update publishes a {@link RecipeNeighborsChangedEvent}, pages showing neighbors are stale after one.
+ */
+@Slf4j
+@Component
+public class RecipeNeighborIndex extends RecipeIndex<NeighborIndex, NeighborDocument> {
+
+    //one row per recipe, category ids comma separated, ingredient descriptions unit separated
+    static final String DOCUMENT_SQL = "select r.id, r.description, r.difficulty, r.prep_time, r.cook_time,"
+            + " (select group_concat(rc.category_id) from recipe_category rc where rc.recipe_id = r.id),"
+            + " (select group_concat(i.description separator char(31)) from ingredient i where i.recipe_id = r.id)"
+            + " from recipe r";
+
+    //recipes linked in one at a time only find the neighbors of their bands, past this share the index is rebuilt
+    private static final double REBUILD_RATIO = 0.3;
+
+    private final ApplicationEventPublisher publisher;
+
+    //only touched on the update thread
+    private long loadMillis;
+
+    public RecipeNeighborIndex(JdbcTemplate jdbcTemplate, ApplicationEventPublisher publisher) {
+        super(jdbcTemplate, "recipe-neighbor-index", new NeighborIndex(0));
+        this.publisher = publisher;
+    }
+
+    //the recipes most alike the given one, most similar first, empty until the first build has finished
+    public List<SimilarRecipe> similar(Long recipeId) {
+        return read(index -> index.similar(recipeId));
+    }
+
+    public int size() {
+        return current().size();
+    }
+
+    @Override
+    protected NeighborIndex loadAll() {
+        long start = System.nanoTime();
+        NeighborIndex fresh = new NeighborIndex(jdbcTemplate.queryForObject("select count(*) from recipe", Integer.class));
+        queryAll(DOCUMENT_SQL, resultSet -> fresh.add(document(resultSet)));
+        loadMillis = (System.nanoTime() - start) / 1_000_000;
+        fresh.build();
+        return fresh;
+    }
+
+    @Override
+    protected Map<Long, NeighborDocument> load(List<Long> recipeIds) {
+        Map<Long, NeighborDocument> documents = new HashMap<>();
+        queryIn(DOCUMENT_SQL + " where r.id in ", recipeIds, (RowCallbackHandler) resultSet -> {
+            NeighborDocument document = document(resultSet);
+            documents.put(document.getRecipeId(), document);
+        });
+        return documents;
+    }
+
+    @Override
+    protected void apply(NeighborIndex index, Long recipeId, NeighborDocument document) {
+        if(document != null) {
+            index.add(document);
+        } else {
+            index.remove(recipeId);
+        }
+    }
+
+    @Override
+    protected boolean updated(NeighborIndex index) {
+        if(index.staleRatio() > REBUILD_RATIO) {
+            return true;
+        }
+        publisher.publishEvent(new RecipeNeighborsChangedEvent(index.size()));
+        return false;
+    }
+
+    @Override
+    protected void rebuilt(NeighborIndex fresh, long millis) {
+        log.info("Linked {} recipes to their {} most similar in {} ms ({} ms loading), {} MB", fresh.size(),
+                NeighborIndex.NEIGHBORS, millis, loadMillis, fresh.memoryBytes() / (1024 * 1024));
+        publisher.publishEvent(new RecipeNeighborsChangedEvent(fresh.size()));
+    }
+
+    private static NeighborDocument document(ResultSet resultSet) throws SQLException {
+        List<String> traits = new ArrayList<>();
+        String categories = resultSet.getString(6);
+        if(categories != null) {
+            for(String categoryId : categories.split(",")) {
+                traits.add("category:" + categoryId.trim());
+            }
+        }
+        if(resultSet.getString(3) != null) {
+            traits.add("difficulty:" + resultSet.getString(3));
+        }
+        int prepTime = resultSet.getInt(4);
+        if(!resultSet.wasNull()) {
+            traits.add("prepTime:" + Facet.PREP_TIME.bucket(prepTime));
+        }
+        int cookTime = resultSet.getInt(5);
+        if(!resultSet.wasNull()) {
+            traits.add("cookTime:" + Facet.COOK_TIME.bucket(cookTime));
+        }
+        String ingredients = resultSet.getString(7);
+
+        return new NeighborDocument(resultSet.getLong(1), resultSet.getString(2),
+                ingredients == null ? Collections.emptyList() : Arrays.asList(ingredients.split("\u001f")), traits);
+    }
+}
@@ -0,0 +1,84 @@
+package guru.springframework.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Keeps the {@link PantryIndex} of all recipes in memory, each recipe indexed by the normalized names of its
+ * ingredients. A changed recipe's ingredients are appended as a new run, the space of the old run is only
+ * reclaimed by a rebuild.
+ */
+@Slf4j
+@Component
+public class RecipePantryIndex extends RecipeIndex<PantryIndex, List<String>> {
+
+    //one row per ingredient, a recipe's rows together
+    static final String INGREDIENT_SQL = "select i.recipe_id, i.description from ingredient i order by i.recipe_id";
+
+    //updates leave deleted docs behind, past this share the index is rebuilt
+    private static final double REBUILD_RATIO = 0.3;
+
+    public RecipePantryIndex(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate, "recipe-pantry-index", new PantryIndex(0));
+    }
+
+    public PantryMatches match(Collection<String> pantry, int limit) {
+        return read(index -> index.match(pantry, limit));
+    }
+
+    public int size() {
+        return current().size();
+    }
+
+    @Override
+    protected PantryIndex loadAll() {
+        PantryIndex fresh = new PantryIndex(jdbcTemplate.queryForObject("select count(*) from recipe", Integer.class));
+
+        List<String> descriptions = new ArrayList<>();
+        long[] recipeId = {-1};
+        queryAll(INGREDIENT_SQL, resultSet -> {
+            if(resultSet.getLong(1) != recipeId[0]) {
+                if(!descriptions.isEmpty()) {
+                    fresh.add(recipeId[0], descriptions);
+                    descriptions.clear();
+                }
+                recipeId[0] = resultSet.getLong(1);
+            }
+            descriptions.add(resultSet.getString(2));
+        });
+        if(!descriptions.isEmpty()) {
+            fresh.add(recipeId[0], descriptions);
+        }
+        return fresh;
+    }
+
+    @Override
+    protected Map<Long, List<String>> load(List<Long> recipeIds) {
+        Map<Long, List<String>> documents = new HashMap<>();
+        queryIn("select i.recipe_id, i.description from ingredient i where i.recipe_id in ", recipeIds,
+                (RowCallbackHandler) resultSet -> documents.computeIfAbsent(resultSet.getLong(1), id -> new ArrayList<>())
+                        .add(resultSet.getString(2)));
+        return documents;
+    }
+
+    //a deleted recipe, or one left without ingredients, has nothing to match
+    @Override
+    protected void apply(PantryIndex index, Long recipeId, List<String> descriptions) {
+        index.add(recipeId, descriptions == null ? Collections.emptyList() : descriptions);
+    }
+
+    @Override
+    protected boolean updated(PantryIndex index) {
+        return index.deletedRatio() > REBUILD_RATIO;
+    }
+
+    @Override
+    protected void rebuilt(PantryIndex fresh, long millis) {
+        log.info("Indexed {} recipes with {} distinct ingredients for pantry matching in {} ms", fresh.size(),
+                fresh.dictionarySize(), millis);
+    }
+}
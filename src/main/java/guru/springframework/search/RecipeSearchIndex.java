@@ -0,0 +1,84 @@
+package guru.springframework.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps an in-memory {@link InvertedIndex} of all recipes for full-text search. A changed recipe is indexed
+ * as a new doc, the postings of its old doc stay until a rebuild drops them.
+ */
+@Slf4j
+@Component
+public class RecipeSearchIndex extends RecipeIndex<InvertedIndex, RecipeDocument> {
+
+    //one row per recipe with everything that gets indexed
+    static final String DOCUMENT_SQL = "select r.id, r.description, r.directions, n.recipe_notes,"
+            + " (select group_concat(i.description separator ' ') from ingredient i where i.recipe_id = r.id),"
+            + " (select group_concat(c.description separator ' ') from recipe_category rc"
+            + " join category c on c.id = rc.category_id where rc.recipe_id = r.id)"
+            + " from recipe r left join notes n on n.id = r.notes_id";
+
+    //updates leave deleted docs behind, past this share the index is rebuilt
+    private static final double REBUILD_RATIO = 0.3;
+
+    public RecipeSearchIndex(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate, "recipe-search-index", new InvertedIndex(0));
+    }
+
+    public SearchHits search(String query, int offset, int limit) {
+        return read(index -> index.search(query, offset, limit));
+    }
+
+    public int size() {
+        return current().size();
+    }
+
+    @Override
+    protected InvertedIndex loadAll() {
+        InvertedIndex fresh = new InvertedIndex(jdbcTemplate.queryForObject("select count(*) from recipe", Integer.class));
+        queryAll(DOCUMENT_SQL + " order by r.id", resultSet -> fresh.add(document(resultSet)));
+        return fresh;
+    }
+
+    @Override
+    protected Map<Long, RecipeDocument> load(List<Long> recipeIds) {
+        Map<Long, RecipeDocument> documents = new HashMap<>();
+        queryIn(DOCUMENT_SQL + " where r.id in ", recipeIds, (RowCallbackHandler) resultSet -> {
+            RecipeDocument document = document(resultSet);
+            documents.put(document.getRecipeId(), document);
+        });
+        return documents;
+    }
+
+    @Override
+    protected void apply(InvertedIndex index, Long recipeId, RecipeDocument document) {
+        if(document != null) {
+            index.add(document);
+        } else {
+            index.remove(recipeId);
+        }
+    }
+
+    @Override
+    protected boolean updated(InvertedIndex index) {
+        return index.deletedRatio() > REBUILD_RATIO;
+    }
+
+    @Override
+    protected void rebuilt(InvertedIndex fresh, long millis) {
+        log.info("Indexed {} recipes for search in {} ms", fresh.size(), millis);
+    }
+
+    private static RecipeDocument document(ResultSet resultSet) throws SQLException {
+        return new RecipeDocument(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3),
+                resultSet.getString(4), resultSet.getString(5), resultSet.getString(6));
+    }
+}
@@ -0,0 +1,10 @@
+package guru.springframework.search;
+
+import lombok.Value;
+
+@Value
+public class ScoredRecipe {
+
+    private final Long recipeId;
+    private final double score;
+}
@@ -0,0 +1,18 @@
+package guru.springframework.search;
+
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of ranked matches and the number of recipes matching overall.
+ */
+@Value
+public class SearchHits {
+
+    static final SearchHits EMPTY = new SearchHits(Collections.emptyList(), 0);
+
+    private final List<ScoredRecipe> hits;
+    private final int total;
+}
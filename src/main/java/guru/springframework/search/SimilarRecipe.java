@@ -0,0 +1,14 @@
+package guru.springframework.search;
+
+import lombok.Value;
+
+/**
+ * A recipe alike another one, with the Jaccard similarity of their ingredients and traits.
+ */
+@Value
+public class SimilarRecipe {
+
+    private final Long recipeId;
+    private final String description;
+    private final double similarity;
+}
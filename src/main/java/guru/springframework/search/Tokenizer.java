@@ -0,0 +1,59 @@
+package guru.springframework.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits text into lower case terms on anything that is not a letter or digit, drops stop words and
+ * folds simple plurals, so "Tomatoes" and "tomato" end up as the same term. Queries go through the same steps.
+ */
+final class Tokenizer {
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "if", "in", "into", "is", "it",
+            "of", "on", "or", "the", "then", "to", "with", "your", "you", "until", "add", "cook"));
+
+    private Tokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if(text == null) {
+            return terms;
+        }
+
+        StringBuilder term = new StringBuilder();
+        for(int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if(Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            } else if(term.length() > 0) {
+                String normalized = normalize(term.toString());
+                if(normalized != null) {
+                    terms.add(normalized);
+                }
+                term.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    private static String normalize(String term) {
+        if(term.length() < 2 || STOP_WORDS.contains(term)) {
+            return null;
+        }
+        if(term.length() > 4 && term.endsWith("ies")) {
+            return term.substring(0, term.length() - 3) + "y";
+        }
+        if(term.length() > 4 && term.endsWith("oes")) {
+            return term.substring(0, term.length() - 2);
+        }
+        if(term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")) {
+            return term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+}
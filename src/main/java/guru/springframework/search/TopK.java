@@ -0,0 +1,95 @@
+package guru.springframework.search;
+
+import java.util.Arrays;
+
+/**
+ * The k largest of a stream of longs, kept in a min-heap over a plain array. A score and a doc packed into
+ * one long compare in a single instruction, and offering one that does not make the cut costs one comparison.
+ */
+final class TopK {
+
+    private final long[] heap;
+    private int size;
+    private int offered;
+
+    TopK(int k) {
+        heap = new long[Math.max(1, k)];
+    }
+
+    void offer(long key) {
+        offered++;
+        if(size < heap.length) {
+            heap[size] = key;
+            siftUp(size++);
+        } else if(key > heap[0]) {
+            heap[0] = key;
+            siftDown(0);
+        }
+    }
+
+    //the key an offer has to beat to be kept, Long.MIN_VALUE while there is room
+    long threshold() {
+        return size < heap.length ? Long.MIN_VALUE : heap[0];
+    }
+
+    //counts an offer the caller already knows will not be kept
+    void skip() {
+        offered++;
+    }
+
+    //folds in the keys another heap kept, for combining the heaps of parallel chunks
+    TopK merge(TopK other) {
+        int otherOffered = other.offered;
+        for(int i = 0; i < other.size; i++) {
+            offer(other.heap[i]);
+        }
+        offered += otherOffered - other.size;
+        return this;
+    }
+
+    //everything offered, kept or not
+    int offered() {
+        return offered;
+    }
+
+    long[] descending() {
+        long[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted);
+        for(int i = 0, j = sorted.length - 1; i < j; i++, j--) {
+            long t = sorted[i];
+            sorted[i] = sorted[j];
+            sorted[j] = t;
+        }
+        return sorted;
+    }
+
+    private void siftUp(int i) {
+        long key = heap[i];
+        while(i > 0) {
+            int parent = (i - 1) >>> 1;
+            if(heap[parent] <= key) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    private void siftDown(int i) {
+        long key = heap[i];
+        int half = size >>> 1;
+        while(i < half) {
+            int child = 2 * i + 1;
+            if(child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if(key <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+    }
+}
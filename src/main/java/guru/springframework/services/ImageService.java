@@ -0,0 +1,16 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.RecipeImage;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Optional;
+
+public interface ImageService {
+
+    void saveImage(Long recipeId, String contentType, byte[] bytes);
+
+    Optional<RecipeImage> findImage(Long recipeId);
+
+    void writeImage(Long recipeId, long start, long count, WritableByteChannel out) throws IOException;
+}
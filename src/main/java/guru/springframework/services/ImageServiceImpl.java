@@ -0,0 +1,106 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.Recipe;
+import guru.springframework.domain.RecipeImage;
+import guru.springframework.repositories.RecipeImageRepository;
+import guru.springframework.repositories.RecipeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.sql.SQLException;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class ImageServiceImpl implements ImageService {
+
+    static final int BUFFER_SIZE = 8192;
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeImageRepository recipeImageRepository;
+
+    public ImageServiceImpl(RecipeRepository recipeRepository, RecipeImageRepository recipeImageRepository) {
+        this.recipeRepository = recipeRepository;
+        this.recipeImageRepository = recipeImageRepository;
+    }
+
+    @Override
+    @Transactional
+    public void saveImage(Long recipeId, String contentType, byte[] bytes) {
+        Recipe recipe = recipeRepository.findById(recipeId).orElseThrow(RecipeNotFoundException::new);
+
+        RecipeImage image = recipeImageRepository.findById(recipeId).orElseGet(RecipeImage::new);
+        image.setRecipe(recipe);
+        image.setContentType(contentType);
+        image.setContentLength((long) bytes.length);
+        image.setEtag(DigestUtils.md5DigestAsHex(bytes));
+        image.setData(BlobProxy.generateProxy(bytes));
+
+        recipeImageRepository.save(image);
+        log.debug("Saved image of " + bytes.length + " bytes for recipe " + recipeId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<RecipeImage> findImage(Long recipeId) {
+        return recipeImageRepository.findById(recipeId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeImage(Long recipeId, long start, long count, WritableByteChannel out) throws IOException {
+        Optional<RecipeImage> imageOptional = recipeImageRepository.findById(recipeId);
+        if(!imageOptional.isPresent()) {
+            throw new RuntimeException("Image Not Found!");
+        }
+
+        //the blob stays a locator until read, so only the requested bytes pass through the buffer
+        try (InputStream in = imageOptional.get().getData().getBinaryStream();
+             ReadableByteChannel channel = Channels.newChannel(in)) {
+            skipFully(in, start);
+
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long remaining = count;
+            while (remaining > 0) {
+                buffer.clear();
+                if(remaining < buffer.capacity()) {
+                    buffer.limit((int) remaining);
+                }
+                int read = channel.read(buffer);
+                if(read < 0) {
+                    break;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                remaining -= read;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not read image of recipe " + recipeId, e);
+        }
+    }
+
+    private static void skipFully(InputStream in, long bytes) throws IOException {
+        long remaining = bytes;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if(skipped <= 0) {
+                if(in.read() < 0) {
+                    return;
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package guru.springframework.services;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(Throwable cause) {
+        super("Invalid Recipe Cursor!", cause);
+    }
+}
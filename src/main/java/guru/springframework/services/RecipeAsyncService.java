@@ -0,0 +1,16 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.Recipe;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link RecipeService} calls completed on the application task executor, so a request does not hold a
+ * servlet thread while it waits on JDBC.
+ */
+public interface RecipeAsyncService {
+
+    CompletableFuture<RecipePage> getRecipePage(String cursor, int pageSize);
+
+    CompletableFuture<Recipe> findById(Long l);
+}
@@ -0,0 +1,31 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.Recipe;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Service
+public class RecipeAsyncServiceImpl implements RecipeAsyncService {
+
+    private final RecipeService recipeService;
+    private final TaskExecutor taskExecutor;
+
+    public RecipeAsyncServiceImpl(RecipeService recipeService, TaskExecutor taskExecutor) {
+        this.recipeService = recipeService;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public CompletableFuture<RecipePage> getRecipePage(String cursor, int pageSize) {
+        return CompletableFuture.supplyAsync(() -> recipeService.getRecipePage(cursor, pageSize), taskExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Recipe> findById(Long l) {
+        return CompletableFuture.supplyAsync(() -> recipeService.findById(l), taskExecutor);
+    }
+}
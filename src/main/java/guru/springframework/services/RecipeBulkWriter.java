@@ -0,0 +1,46 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.Recipe;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Persists large numbers of recipes in one transaction. The persistence context is flushed and cleared
+ * every flush-size recipes, which keeps memory flat however many recipes come in while the flushes still
+ * fill whole JDBC batches.
+ */
+@Slf4j
+@Service
+public class RecipeBulkWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int flushSize;
+
+    public RecipeBulkWriter(@Value("${recipe.bulk-writer.flush-size:1000}") int flushSize) {
+        this.flushSize = Math.max(1, flushSize);
+    }
+
+    @Transactional
+    public long saveAll(Iterable<Recipe> recipes) {
+        long count = 0;
+        for(Recipe recipe : recipes) {
+            entityManager.persist(recipe);
+            if(++count % flushSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        log.debug("Saved {} recipes", count);
+        return count;
+    }
+}
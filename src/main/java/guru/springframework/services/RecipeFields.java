@@ -0,0 +1,59 @@
+package guru.springframework.services;
+
+import java.util.*;
+
+/**
+ * The recipe fields a JSON API client asked for with ?fields=a,b,c, all of them when it did not ask.
+ */
+public final class RecipeFields {
+
+    //single valued fields, available on every endpoint
+    static final List<String> COLUMNS = Collections.unmodifiableList(Arrays.asList("id", "version", "description", "prepTime",
+            "cookTime", "servings", "source", "url", "difficulty", "directions", "notes"));
+
+    //collections, only loaded for a single recipe
+    static final List<String> COLLECTIONS = Collections.unmodifiableList(Arrays.asList("categories", "ingredients"));
+
+    private final Set<String> names;
+
+    private RecipeFields(Set<String> names) {
+        this.names = Collections.unmodifiableSet(names);
+    }
+
+    public static RecipeFields forList(String fields) {
+        return parse(fields, COLUMNS);
+    }
+
+    public static RecipeFields forDetail(String fields) {
+        List<String> available = new ArrayList<>(COLUMNS);
+        available.addAll(COLLECTIONS);
+        return parse(fields, available);
+    }
+
+    private static RecipeFields parse(String fields, List<String> available) {
+        if(fields == null || fields.trim().isEmpty()) {
+            return new RecipeFields(new LinkedHashSet<>(available));
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        for(String field : fields.split(",")) {
+            String name = field.trim();
+            if(name.isEmpty()) {
+                continue;
+            }
+            if(!available.contains(name)) {
+                throw new IllegalArgumentException("Unknown Recipe Field: " + name);
+            }
+            names.add(name);
+        }
+        return new RecipeFields(names);
+    }
+
+    public boolean includes(String name) {
+        return names.contains(name);
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+}
@@ -0,0 +1,31 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.RecipeSummary;
+import guru.springframework.search.Facet;
+import guru.springframework.search.FacetValue;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+@Value
+public class RecipeFilterPage {
+
+    //every facet with its values and counts, in facet order
+    private final Map<Facet, List<FacetValue>> facets;
+
+    //ascending by id
+    private final List<RecipeSummary> recipes;
+
+    private final int total;
+
+    //opaque token for the next page, null on the last page
+    private final String nextCursor;
+
+    //false while the facet index is still being built after startup
+    private final boolean indexReady;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
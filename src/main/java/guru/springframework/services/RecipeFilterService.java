@@ -0,0 +1,11 @@
+package guru.springframework.services;
+
+import guru.springframework.search.FacetSelection;
+
+public interface RecipeFilterService {
+
+    int DEFAULT_PAGE_SIZE = 20;
+    int MAX_PAGE_SIZE = 100;
+
+    RecipeFilterPage filter(FacetSelection selection, String cursor, int pageSize);
+}
@@ -0,0 +1,54 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.RecipeSummary;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.search.FacetResult;
+import guru.springframework.search.FacetSelection;
+import guru.springframework.search.RecipeFacetIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class RecipeFilterServiceImpl implements RecipeFilterService {
+
+    private final RecipeFacetIndex recipeFacetIndex;
+    private final RecipeRepository recipeRepository;
+
+    public RecipeFilterServiceImpl(RecipeFacetIndex recipeFacetIndex, RecipeRepository recipeRepository) {
+        this.recipeFacetIndex = recipeFacetIndex;
+        this.recipeRepository = recipeRepository;
+    }
+
+    @Override
+    public RecipeFilterPage filter(FacetSelection selection, String cursor, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        FacetResult result = recipeFacetIndex.filter(selection, RecipeCursor.decode(cursor), size);
+
+        List<RecipeSummary> recipes = Collections.emptyList();
+        if(!result.getRecipeIds().isEmpty()) {
+            Map<Long, RecipeSummary> summaries = recipeRepository.findSummariesByIdIn(result.getRecipeIds()).stream()
+                    .collect(Collectors.toMap(RecipeSummary::getId, Function.identity()));
+
+            //keep the index order, a recipe deleted since it was indexed is simply left out
+            recipes = new ArrayList<>(result.getRecipeIds().size());
+            for(Long id : result.getRecipeIds()) {
+                RecipeSummary summary = summaries.get(id);
+                if(summary != null) {
+                    recipes.add(summary);
+                }
+            }
+        }
+
+        String nextCursor = result.getLastId() == null ? null : RecipeCursor.encode(result.getLastId());
+
+        return new RecipeFilterPage(result.getFacets(), recipes, result.getTotal(), nextCursor, recipeFacetIndex.isReady());
+    }
+}
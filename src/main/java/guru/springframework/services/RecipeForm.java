@@ -0,0 +1,36 @@
+package guru.springframework.services;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recipe as a client writes it, in the shape GET /api/recipes/{id} returns, so a read can be edited and sent
+ * back. Categories and units of measure are referenced by description. An update carries the version it was read at.
+ */
+@Data
+public class RecipeForm {
+
+    private Long version;
+    private String description;
+    private Integer prepTime;
+    private Integer cookTime;
+    private Integer servings;
+    private String source;
+    private String url;
+    private String difficulty;
+    private String directions;
+    private String notes;
+    private List<String> categories = new ArrayList<>();
+    private List<IngredientForm> ingredients = new ArrayList<>();
+
+    @Data
+    public static class IngredientForm {
+
+        private String description;
+        private BigDecimal amount;
+        private String unitOfMeasure;
+    }
+}
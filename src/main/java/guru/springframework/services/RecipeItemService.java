@@ -0,0 +1,14 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.RecipeItem;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface RecipeItemService {
+
+    //hands every recipe to action in id order while the rows are read, nothing is collected
+    void forEachRecipe(RecipeFields fields, Consumer<RecipeItem> action);
+
+    Optional<RecipeItem> findById(Long id, RecipeFields fields);
+}
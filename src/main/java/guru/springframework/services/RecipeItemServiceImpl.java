@@ -0,0 +1,116 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.IngredientItem;
+import guru.springframework.projections.RecipeItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Builds {@link RecipeItem}s straight from JDBC rows, selecting only the columns the client asked for.
+ */
+@Slf4j
+@Service
+public class RecipeItemServiceImpl implements RecipeItemService {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RecipeItemServiceImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void forEachRecipe(RecipeFields fields, Consumer<RecipeItem> action) {
+        String sql = select(fields) + " order by r.id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> action.accept(item(resultSet, fields, null, null)));
+    }
+
+    @Override
+    public Optional<RecipeItem> findById(Long id, RecipeFields fields) {
+        List<String> categories = fields.includes("categories") ? categories(id) : null;
+        List<IngredientItem> ingredients = fields.includes("ingredients") ? ingredients(id) : null;
+
+        return jdbcTemplate.query(select(fields) + " where r.id = ?",
+                (resultSet, row) -> item(resultSet, fields, categories, ingredients), id).stream().findFirst();
+    }
+
+    private List<String> categories(Long recipeId) {
+        return jdbcTemplate.queryForList("select c.description from recipe_category rc"
+                + " join category c on c.id = rc.category_id where rc.recipe_id = ? order by c.description", String.class, recipeId);
+    }
+
+    private List<IngredientItem> ingredients(Long recipeId) {
+        return jdbcTemplate.query("select i.description, i.amount, u.description from ingredient i"
+                        + " left join unit_of_measure u on u.id = i.uom_id where i.recipe_id = ? order by i.id",
+                (resultSet, row) -> new IngredientItem(resultSet.getString(1), resultSet.getBigDecimal(2), resultSet.getString(3)),
+                recipeId);
+    }
+
+    //the notes join is only made when notes were asked for
+    private static String select(RecipeFields fields) {
+        StringBuilder sql = new StringBuilder("select r.id");
+        column(sql, fields, "version", "r.version");
+        column(sql, fields, "description", "r.description");
+        column(sql, fields, "prepTime", "r.prep_time");
+        column(sql, fields, "cookTime", "r.cook_time");
+        column(sql, fields, "servings", "r.servings");
+        column(sql, fields, "source", "r.source");
+        column(sql, fields, "url", "r.url");
+        column(sql, fields, "difficulty", "r.difficulty");
+        column(sql, fields, "directions", "r.directions");
+        column(sql, fields, "notes", "n.recipe_notes");
+        sql.append(" from recipe r");
+        if(fields.includes("notes")) {
+            sql.append(" left join notes n on n.id = r.notes_id");
+        }
+        return sql.toString();
+    }
+
+    private static void column(StringBuilder sql, RecipeFields fields, String field, String column) {
+        if(fields.includes(field)) {
+            sql.append(", ").append(column).append(" as ").append(field);
+        }
+    }
+
+    private static RecipeItem item(ResultSet resultSet, RecipeFields fields,
+                                   List<String> categories, List<IngredientItem> ingredients) throws SQLException {
+        return new RecipeItem(resultSet.getLong(1),
+                fields.includes("version") ? resultSet.getLong("version") : null,
+                string(resultSet, fields, "description"),
+                integer(resultSet, fields, "prepTime"),
+                integer(resultSet, fields, "cookTime"),
+                integer(resultSet, fields, "servings"),
+                string(resultSet, fields, "source"),
+                string(resultSet, fields, "url"),
+                string(resultSet, fields, "difficulty"),
+                string(resultSet, fields, "directions"),
+                string(resultSet, fields, "notes"),
+                categories, ingredients);
+    }
+
+    private static String string(ResultSet resultSet, RecipeFields fields, String field) throws SQLException {
+        return fields.includes(field) ? resultSet.getString(field) : null;
+    }
+
+    private static Integer integer(ResultSet resultSet, RecipeFields fields, String field) throws SQLException {
+        if(!fields.includes(field)) {
+            return null;
+        }
+        int value = resultSet.getInt(field);
+        return resultSet.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,8 @@
+package guru.springframework.services;
+
+public class RecipeNotFoundException extends RuntimeException {
+
+    public RecipeNotFoundException() {
+        super("Recipe Not Found!");
+    }
+}
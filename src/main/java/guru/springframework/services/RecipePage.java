@@ -0,0 +1,19 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.RecipeSummary;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class RecipePage {
+
+    private final List<RecipeSummary> recipes;
+
+    //opaque token for the next page, null on the last page
+    private final String nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,21 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.PantryRecipe;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class RecipePantryPage {
+
+    private final List<String> pantry;
+
+    //best covered first
+    private final List<PantryRecipe> recipes;
+
+    //recipes the pantry covers at least one ingredient of
+    private final int total;
+
+    //false while the pantry index is still being built after startup
+    private final boolean indexReady;
+}
@@ -0,0 +1,12 @@
+package guru.springframework.services;
+
+import java.util.List;
+
+public interface RecipePantryService {
+
+    int DEFAULT_LIMIT = 20;
+    int MAX_LIMIT = 100;
+
+    //the recipes that can be made, or nearly, from the pantry
+    RecipePantryPage match(List<String> pantry, int limit);
+}
@@ -0,0 +1,65 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.PantryRecipe;
+import guru.springframework.projections.RecipeSummary;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.search.PantryMatch;
+import guru.springframework.search.PantryMatches;
+import guru.springframework.search.RecipePantryIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class RecipePantryServiceImpl implements RecipePantryService {
+
+    private final RecipePantryIndex recipePantryIndex;
+    private final RecipeRepository recipeRepository;
+
+    public RecipePantryServiceImpl(RecipePantryIndex recipePantryIndex, RecipeRepository recipeRepository) {
+        this.recipePantryIndex = recipePantryIndex;
+        this.recipeRepository = recipeRepository;
+    }
+
+    @Override
+    public RecipePantryPage match(List<String> pantry, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        boolean ready = recipePantryIndex.isReady();
+        List<String> items = pantry == null ? Collections.emptyList() : pantry.stream()
+                .filter(item -> item != null && !item.trim().isEmpty())
+                .map(String::trim)
+                .collect(Collectors.toList());
+
+        if(items.isEmpty()) {
+            return new RecipePantryPage(items, Collections.emptyList(), 0, ready);
+        }
+
+        PantryMatches matches = recipePantryIndex.match(items, size);
+        if(matches.getMatches().isEmpty()) {
+            return new RecipePantryPage(items, Collections.emptyList(), matches.getTotal(), ready);
+        }
+
+        List<Long> ids = matches.getMatches().stream().map(PantryMatch::getRecipeId).collect(Collectors.toList());
+        Map<Long, RecipeSummary> summaries = recipeRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(RecipeSummary::getId, Function.identity()));
+
+        //keep the index order, a recipe deleted since it was indexed is simply left out
+        List<PantryRecipe> recipes = new ArrayList<>(ids.size());
+        for(PantryMatch match : matches.getMatches()) {
+            RecipeSummary summary = summaries.get(match.getRecipeId());
+            if(summary != null) {
+                recipes.add(new PantryRecipe(summary.getId(), summary.getDescription(), match.getCoverage(),
+                        match.getMatched(), match.getTotal(), match.getMissing()));
+            }
+        }
+
+        return new RecipePantryPage(items, recipes, matches.getTotal(), ready);
+    }
+}
@@ -0,0 +1,14 @@
+package guru.springframework.services;
+
+import guru.springframework.popularity.TrendingRecipe;
+
+import java.util.List;
+
+public interface RecipePopularityService {
+
+    //counted in memory, written to the database in batches
+    void recordView(Long recipeId);
+
+    //the recipes viewed most lately, read from memory without a query
+    List<TrendingRecipe> getTrending();
+}
@@ -0,0 +1,27 @@
+package guru.springframework.services;
+
+import guru.springframework.popularity.RecipePopularity;
+import guru.springframework.popularity.TrendingRecipe;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class RecipePopularityServiceImpl implements RecipePopularityService {
+
+    private final RecipePopularity recipePopularity;
+
+    public RecipePopularityServiceImpl(RecipePopularity recipePopularity) {
+        this.recipePopularity = recipePopularity;
+    }
+
+    @Override
+    public void recordView(Long recipeId) {
+        recipePopularity.recordView(recipeId);
+    }
+
+    @Override
+    public List<TrendingRecipe> getTrending() {
+        return recipePopularity.trending();
+    }
+}
@@ -0,0 +1,13 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.ScaledRecipe;
+
+import java.util.Optional;
+
+public interface RecipeScaleService {
+
+    int MAX_SERVINGS = 1000;
+
+    //the ingredients of a recipe for servings people, each in the unit it reads best in
+    Optional<ScaledRecipe> scale(Long id, int servings);
+}
@@ -0,0 +1,107 @@
+package guru.springframework.services;
+
+import guru.springframework.events.RecipeChangedEvent;
+import guru.springframework.projections.ScaledIngredient;
+import guru.springframework.projections.ScaledRecipe;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import guru.springframework.units.Amount;
+import guru.springframework.units.AmountBatch;
+import guru.springframework.units.UnitConversions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Scales a recipe from one query for its servings and ingredient rows. The units come from a
+ * {@link UnitConversions} table built once, and rebuilt after the units of measure change.
+ */
+@Slf4j
+@Service
+public class RecipeScaleServiceImpl implements RecipeScaleService {
+
+    //rounded amount, the exact one is in the fraction
+    private static final int AMOUNT_SCALE = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UnitOfMeasureRepository unitOfMeasureRepository;
+
+    private volatile UnitConversions conversions;
+
+    public RecipeScaleServiceImpl(JdbcTemplate jdbcTemplate, UnitOfMeasureRepository unitOfMeasureRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.unitOfMeasureRepository = unitOfMeasureRepository;
+    }
+
+    @Override
+    public Optional<ScaledRecipe> scale(Long id, int servings) {
+        if(servings < 1 || servings > MAX_SERVINGS) {
+            throw new IllegalArgumentException("Servings must be between 1 and " + MAX_SERVINGS);
+        }
+        UnitConversions units = conversions();
+
+        return Optional.ofNullable(jdbcTemplate.query("select r.servings, i.id, i.description, i.amount, i.uom_id, u.description"
+                        + " from recipe r left join ingredient i on i.recipe_id = r.id"
+                        + " left join unit_of_measure u on u.id = i.uom_id where r.id = ? order by i.id",
+                resultSet -> {
+                    if(!resultSet.next()) {
+                        return null;
+                    }
+                    int originalServings = resultSet.getInt(1);
+                    if(resultSet.wasNull() || originalServings < 1) {
+                        throw new IllegalStateException("Recipe Servings Not Set!");
+                    }
+
+                    List<String> descriptions = new ArrayList<>();
+                    List<String> unitDescriptions = new ArrayList<>();
+                    AmountBatch amounts = new AmountBatch(16);
+                    do {
+                        //the single row of a recipe without ingredients
+                        if(resultSet.getObject(2) == null) {
+                            continue;
+                        }
+                        long unitId = resultSet.getLong(5);
+                        int unit = resultSet.wasNull() ? -1 : units.indexOf(unitId);
+                        descriptions.add(resultSet.getString(3));
+                        unitDescriptions.add(resultSet.getString(6));
+                        amounts.add(resultSet.getBigDecimal(4), unit);
+                    } while(resultSet.next());
+
+                    amounts.scale(0, amounts.size(), servings, originalServings);
+                    amounts.toReadableUnits(0, amounts.size(), units);
+
+                    List<ScaledIngredient> ingredients = new ArrayList<>(amounts.size());
+                    for(int i = 0; i < amounts.size(); i++) {
+                        Amount amount = amounts.amount(i);
+                        int unit = amounts.unit(i);
+                        ingredients.add(new ScaledIngredient(descriptions.get(i),
+                                amount == null ? null : amount.toBigDecimal(AMOUNT_SCALE),
+                                amount == null ? null : amount.toString(),
+                                unit < 0 ? unitDescriptions.get(i) : units.description(unit)));
+                    }
+                    return new ScaledRecipe(id, servings, originalServings, ingredients);
+                }, id));
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        //units of measure are shared data, a change to them is published for all recipes
+        if(event.isAllRecipes()) {
+            conversions = null;
+        }
+    }
+
+    private UnitConversions conversions() {
+        UnitConversions current = conversions;
+        if(current == null) {
+            current = new UnitConversions(unitOfMeasureRepository.findAll());
+            log.debug("Built unit conversions for " + current.size() + " units of measure");
+            conversions = current;
+        }
+        return current;
+    }
+}
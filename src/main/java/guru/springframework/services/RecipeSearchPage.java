@@ -0,0 +1,30 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.RecipeSummary;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class RecipeSearchPage {
+
+    private final String query;
+
+    //best match first
+    private final List<RecipeSummary> recipes;
+
+    private final int page;
+    private final int size;
+    private final int total;
+
+    //false while the search index is still being built after startup
+    private final boolean indexReady;
+
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+
+    public boolean hasNext() {
+        return (long) (page + 1) * size < total && (page + 1) * size <= RecipeSearchService.MAX_OFFSET;
+    }
+}
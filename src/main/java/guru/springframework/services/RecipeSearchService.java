@@ -0,0 +1,11 @@
+package guru.springframework.services;
+
+public interface RecipeSearchService {
+
+    int DEFAULT_PAGE_SIZE = 20;
+    int MAX_PAGE_SIZE = 100;
+    //deeper pages are not served, the index keeps every hit before the page on a heap
+    int MAX_OFFSET = 10_000;
+
+    RecipeSearchPage search(String query, int page, int pageSize);
+}
@@ -0,0 +1,60 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.RecipeSummary;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.search.RecipeSearchIndex;
+import guru.springframework.search.ScoredRecipe;
+import guru.springframework.search.SearchHits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class RecipeSearchServiceImpl implements RecipeSearchService {
+
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeRepository recipeRepository;
+
+    public RecipeSearchServiceImpl(RecipeSearchIndex recipeSearchIndex, RecipeRepository recipeRepository) {
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.recipeRepository = recipeRepository;
+    }
+
+    @Override
+    public RecipeSearchPage search(String query, int page, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, Math.min(page, MAX_OFFSET / size));
+        boolean ready = recipeSearchIndex.isReady();
+
+        if(query == null || query.trim().isEmpty()) {
+            return new RecipeSearchPage(query, Collections.emptyList(), pageNumber, size, 0, ready);
+        }
+
+        SearchHits hits = recipeSearchIndex.search(query, pageNumber * size, size);
+        if(hits.getHits().isEmpty()) {
+            return new RecipeSearchPage(query, Collections.emptyList(), pageNumber, size, hits.getTotal(), ready);
+        }
+
+        List<Long> ids = hits.getHits().stream().map(ScoredRecipe::getRecipeId).collect(Collectors.toList());
+        Map<Long, RecipeSummary> summaries = recipeRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(RecipeSummary::getId, Function.identity()));
+
+        //keep the index order, a recipe deleted since it was indexed is simply left out
+        List<RecipeSummary> recipes = new ArrayList<>(ids.size());
+        for(Long id : ids) {
+            RecipeSummary summary = summaries.get(id);
+            if(summary != null) {
+                recipes.add(summary);
+            }
+        }
+
+        return new RecipeSearchPage(query, recipes, pageNumber, size, hits.getTotal(), ready);
+    }
+}
@@ -7,7 +7,20 @@ import java.util.Set;
 
 
 public interface RecipeService {
+
+    int DEFAULT_PAGE_SIZE = 20;
+    int MAX_PAGE_SIZE = 100;
+
     Set<Recipe> getRecipes();
 
+    RecipePage getRecipePage(String cursor, int pageSize);
+
     Recipe findById(Long l);
+
+    Recipe saveRecipe(RecipeForm form);
+
+    //throws an OptimisticLockingFailureException when the form was read at an older version
+    Recipe updateRecipe(Long id, RecipeForm form);
+
+    void deleteById(Long id, Long version);
 }
@@ -1,25 +1,46 @@
 package guru.springframework.services;
 
-import guru.springframework.domain.Recipe;
+import guru.springframework.domain.*;
+import guru.springframework.projections.RecipeSummary;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeImageRepository;
 import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 
 @Slf4j
 @Service
+//read-only transactions, with the replicas profile they are served by a replica
+@Transactional(readOnly = true)
 public class RecipeServiceImpl implements RecipeService {
 
     private final RecipeRepository recipeRepository;
+    private final CategoryRepository categoryRepository;
+    private final UnitOfMeasureRepository unitOfMeasureRepository;
+    private final RecipeImageRepository recipeImageRepository;
 
-    public RecipeServiceImpl(RecipeRepository recipeRepository) {
+    public RecipeServiceImpl(RecipeRepository recipeRepository, CategoryRepository categoryRepository,
+                             UnitOfMeasureRepository unitOfMeasureRepository, RecipeImageRepository recipeImageRepository) {
         this.recipeRepository = recipeRepository;
+        this.categoryRepository = categoryRepository;
+        this.unitOfMeasureRepository = unitOfMeasureRepository;
+        this.recipeImageRepository = recipeImageRepository;
     }
 
     @Override
+    @Timed("recipe.service")
     public Set<Recipe> getRecipes() {
         log.debug("I am in the service woo woo !");
 
@@ -31,11 +52,134 @@ public class RecipeServiceImpl implements RecipeService {
     }
 
     @Override
+    @Timed("recipe.service")
+    public RecipePage getRecipePage(String cursor, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        long afterId = RecipeCursor.decode(cursor);
+
+        //read one extra row to know whether another page follows
+        List<RecipeSummary> summaries = recipeRepository.findSummariesAfter(afterId, PageRequest.of(0, size + 1));
+        if(summaries.size() <= size) {
+            return new RecipePage(summaries, null);
+        }
+
+        List<RecipeSummary> page = summaries.subList(0, size);
+        return new RecipePage(page, RecipeCursor.encode(page.get(size - 1).getId()));
+    }
+
+    @Override
+    @Timed("recipe.service")
     public Recipe findById(Long l) {
-        Optional<Recipe> recipeOptional = recipeRepository.findById(l);
+        Optional<Recipe> recipeOptional = recipeRepository.findWithDetailsById(l);
         if(!recipeOptional.isPresent()) {
-            throw new RuntimeException("Recipe Not Found!");
+            throw new RecipeNotFoundException();
         }
         return recipeOptional.get();
     }
+
+    @Override
+    @Transactional
+    @Timed("recipe.service")
+    public Recipe saveRecipe(RecipeForm form) {
+        Recipe recipe = new Recipe();
+        copy(form, recipe);
+        return recipeRepository.save(recipe);
+    }
+
+    @Override
+    @Transactional
+    @Timed("recipe.service")
+    public Recipe updateRecipe(Long id, RecipeForm form) {
+        Recipe recipe = recipeRepository.findWithDetailsById(id).orElseThrow(RecipeNotFoundException::new);
+        checkVersion(recipe, form.getVersion());
+        copy(form, recipe);
+        //an edit that commits between this read and the flush fails the version check of the update itself
+        return recipe;
+    }
+
+    @Override
+    @Transactional
+    @Timed("recipe.service")
+    public void deleteById(Long id, Long version) {
+        Recipe recipe = recipeRepository.findById(id).orElseThrow(RecipeNotFoundException::new);
+        checkVersion(recipe, version);
+        recipeImageRepository.deleteByRecipeId(id);
+        recipeRepository.delete(recipe);
+    }
+
+    private static void checkVersion(Recipe recipe, Long version) {
+        if(version == null) {
+            throw new IllegalArgumentException("Missing Recipe Version");
+        }
+        if(!version.equals(recipe.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Recipe.class, recipe.getId());
+        }
+    }
+
+    //replaces everything the form describes, ingredients taken out are deleted as orphans
+    private void copy(RecipeForm form, Recipe recipe) {
+        if(form.getDescription() == null || form.getDescription().trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing Description");
+        }
+        recipe.setDescription(form.getDescription().trim());
+        recipe.setPrepTime(form.getPrepTime());
+        recipe.setCookTime(form.getCookTime());
+        recipe.setServings(form.getServings());
+        recipe.setSource(form.getSource());
+        recipe.setUrl(form.getUrl());
+        recipe.setDirections(form.getDirections());
+        recipe.setDifficulty(difficulty(form.getDifficulty()));
+        notes(recipe, form.getNotes());
+
+        recipe.getCategories().clear();
+        for(String description : orEmpty(form.getCategories())) {
+            recipe.getCategories().add(categoryRepository.findByDescription(description)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown Category: " + description)));
+        }
+
+        recipe.getIngredients().clear();
+        for(RecipeForm.IngredientForm ingredient : orEmpty(form.getIngredients())) {
+            if(ingredient == null || ingredient.getDescription() == null || ingredient.getDescription().trim().isEmpty()) {
+                throw new IllegalArgumentException("Missing Ingredient Description");
+            }
+            recipe.addIngredient(new Ingredient(ingredient.getDescription().trim(), ingredient.getAmount(),
+                    unitOfMeasure(ingredient.getUnitOfMeasure())));
+        }
+    }
+
+    //a JSON body can send null in place of the form's empty lists
+    private static <T> List<T> orEmpty(List<T> values) {
+        return values == null ? Collections.emptyList() : values;
+    }
+
+    private static void notes(Recipe recipe, String text) {
+        if(recipe.getNotes() == null) {
+            if(text == null || text.isEmpty()) {
+                return;
+            }
+            Notes notes = new Notes();
+            notes.setRecipe(recipe);
+            recipe.setNotes(notes);
+        }
+        recipe.getNotes().setRecipeNotes(text);
+    }
+
+    private UnitOfMeasure unitOfMeasure(String description) {
+        if(description == null) {
+            return null;
+        }
+        return unitOfMeasureRepository.findByDescription(description)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown Unit Of Measure: " + description));
+    }
+
+    private static Difficulty difficulty(String value) {
+        if(value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Difficulty.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid Difficulty: " + value);
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package guru.springframework.services;
+
+import guru.springframework.search.SimilarRecipe;
+
+import java.util.List;
+
+public interface RecipeSimilarityService {
+
+    //the recipes most alike the given one, read from the precomputed neighbors without a query
+    List<SimilarRecipe> findSimilar(Long recipeId);
+}
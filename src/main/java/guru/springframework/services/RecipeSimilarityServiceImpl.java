@@ -0,0 +1,22 @@
+package guru.springframework.services;
+
+import guru.springframework.search.RecipeNeighborIndex;
+import guru.springframework.search.SimilarRecipe;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class RecipeSimilarityServiceImpl implements RecipeSimilarityService {
+
+    private final RecipeNeighborIndex recipeNeighborIndex;
+
+    public RecipeSimilarityServiceImpl(RecipeNeighborIndex recipeNeighborIndex) {
+        this.recipeNeighborIndex = recipeNeighborIndex;
+    }
+
+    @Override
+    public List<SimilarRecipe> findSimilar(Long recipeId) {
+        return recipeNeighborIndex.similar(recipeId);
+    }
+}
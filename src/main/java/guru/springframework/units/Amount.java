@@ -0,0 +1,131 @@
+package guru.springframework.units;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact quantity kept as a reduced fraction of two longs. Scaling to a number of servings and converting
+ * between units only ever multiply by fractions, so nothing is rounded until the amount is shown: a third of
+ * a cup stays a third of a cup however often it is scaled.
+ */
+public final class Amount {
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+            10_000_000L, 100_000_000L, 1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L};
+
+    private final long numerator;
+    private final long denominator;
+
+    private Amount(long numerator, long denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    public static Amount of(long numerator, long denominator) {
+        if(denominator == 0) {
+            throw new IllegalArgumentException("Denominator Is Zero!");
+        }
+        if(denominator < 0) {
+            numerator = Math.negateExact(numerator);
+            denominator = Math.negateExact(denominator);
+        }
+        long gcd = gcd(numerator, denominator);
+        return new Amount(numerator / gcd, denominator / gcd);
+    }
+
+    //exact, 0.25 becomes 1/4
+    public static Amount of(BigDecimal value) {
+        BigDecimal stripped = value.stripTrailingZeros();
+        if(stripped.scale() <= 0) {
+            return of(stripped.longValueExact(), 1);
+        }
+        if(stripped.scale() >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Too Many Decimal Places: " + value);
+        }
+        return of(stripped.unscaledValue().longValueExact(), POWERS_OF_TEN[stripped.scale()]);
+    }
+
+    public long getNumerator() {
+        return numerator;
+    }
+
+    public long getDenominator() {
+        return denominator;
+    }
+
+    public Amount times(long numerator, long denominator) {
+        return of(multiplyNumerator(this.numerator, this.denominator, numerator, denominator),
+                multiplyDenominator(this.numerator, this.denominator, numerator, denominator));
+    }
+
+    //rounded to at most maxScale places, 1/4 is 0.25 and 1/3 0.333 at three
+    public BigDecimal toBigDecimal(int maxScale) {
+        BigDecimal value = BigDecimal.valueOf(numerator).divide(BigDecimal.valueOf(denominator), maxScale, RoundingMode.HALF_UP)
+                .stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
+
+    //as a cook reads it, 1 1/2 rather than 3/2
+    @Override
+    public String toString() {
+        long whole = numerator / denominator;
+        long rest = Math.abs(numerator % denominator);
+        if(rest == 0) {
+            return Long.toString(whole);
+        }
+        if(whole == 0) {
+            return (numerator < 0 ? "-" : "") + rest + "/" + denominator;
+        }
+        return whole + " " + rest + "/" + denominator;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof Amount)) {
+            return false;
+        }
+        Amount other = (Amount) o;
+        return numerator == other.numerator && denominator == other.denominator;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(numerator) + Long.hashCode(denominator);
+    }
+
+    /*
+     * a/b * c/d with both fractions reduced: cancelling across first keeps the result reduced and the
+     * products as small as they can be, they only overflow when the reduced result would
+     */
+    static long multiplyNumerator(long a, long b, long c, long d) {
+        return Math.multiplyExact(a / gcd(a, d), c / gcd(c, b));
+    }
+
+    static long multiplyDenominator(long a, long b, long c, long d) {
+        return Math.multiplyExact(b / gcd(c, b), d / gcd(a, d));
+    }
+
+    //binary gcd, shifts instead of the divisions of Euclid's
+    static long gcd(long a, long b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        if(a == 0 || b == 0) {
+            return a + b == 0 ? 1 : a + b;
+        }
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>= Long.numberOfTrailingZeros(a);
+        while(b != 0) {
+            b >>= Long.numberOfTrailingZeros(b);
+            if(a > b) {
+                long t = b;
+                b = a;
+                a = t;
+            }
+            b -= a;
+        }
+        return a << shift;
+    }
+}
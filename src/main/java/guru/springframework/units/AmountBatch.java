@@ -0,0 +1,95 @@
+package guru.springframework.units;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Ingredient amounts as parallel arrays of numerators, denominators and unit indexes. They are scaled and
+ * converted in place, so a recipe, or thousands of them, is worked through without an object per ingredient.
+ * An ingredient without an amount ("salt to taste") keeps its slot with a zero denominator and is left alone.
+ */
+public class AmountBatch {
+
+    private long[] numerators;
+    private long[] denominators;
+    private int[] units;
+    private int size;
+
+    public AmountBatch(int capacity) {
+        numerators = new long[Math.max(1, capacity)];
+        denominators = new long[numerators.length];
+        units = new int[numerators.length];
+    }
+
+    //unit is an index into the UnitConversions, -1 when it has none
+    public void add(BigDecimal amount, int unit) {
+        if(amount == null) {
+            add(0, 0, unit);
+        } else {
+            Amount exact = Amount.of(amount);
+            add(exact.getNumerator(), exact.getDenominator(), unit);
+        }
+    }
+
+    public void add(long numerator, long denominator, int unit) {
+        if(size == numerators.length) {
+            numerators = Arrays.copyOf(numerators, size * 2);
+            denominators = Arrays.copyOf(denominators, size * 2);
+            units = Arrays.copyOf(units, size * 2);
+        }
+        numerators[size] = numerator;
+        denominators[size] = denominator;
+        units[size] = unit;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //multiplies the amounts from start to end by numerator/denominator, servings wanted over servings written
+    public void scale(int start, int end, long numerator, long denominator) {
+        long gcd = Amount.gcd(numerator, denominator);
+        numerator /= gcd;
+        denominator /= gcd;
+        for(int i = start; i < end; i++) {
+            if(denominators[i] != 0) {
+                long n = numerators[i];
+                long d = denominators[i];
+                numerators[i] = Amount.multiplyNumerator(n, d, numerator, denominator);
+                denominators[i] = Amount.multiplyDenominator(n, d, numerator, denominator);
+            }
+        }
+    }
+
+    //moves the amounts from start to end to the unit they read best in, see UnitConversions.readableUnit
+    public void toReadableUnits(int start, int end, UnitConversions conversions) {
+        for(int i = start; i < end; i++) {
+            int unit = units[i];
+            if(denominators[i] == 0 || unit < 0) {
+                continue;
+            }
+            int to = conversions.readableUnit(numerators[i], denominators[i], unit);
+            if(to != unit) {
+                long n = numerators[i];
+                long d = denominators[i];
+                numerators[i] = Amount.multiplyNumerator(n, d, conversions.factorNumerator(unit, to), conversions.factorDenominator(unit, to));
+                denominators[i] = Amount.multiplyDenominator(n, d, conversions.factorNumerator(unit, to), conversions.factorDenominator(unit, to));
+                units[i] = to;
+            }
+        }
+    }
+
+    //null for an ingredient without an amount
+    public Amount amount(int i) {
+        return denominators[i] == 0 ? null : Amount.of(numerators[i], denominators[i]);
+    }
+
+    public int unit(int i) {
+        return units[i];
+    }
+}
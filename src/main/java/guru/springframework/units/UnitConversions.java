@@ -0,0 +1,192 @@
+package guru.springframework.units;
+
+import guru.springframework.domain.UnitOfMeasure;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The conversion factor between every pair of units of measure, worked out once from their descriptions.
+ * Units are addressed by a dense index, so a conversion is two array reads and no string is looked at again.
+ * Units the table does not know, and units of different kinds (a Cup is not an Ounce), only convert to
+ * themselves.
+ */
+public class UnitConversions {
+
+    private enum Kind { VOLUME, WEIGHT, COUNT }
+
+    //size in the smallest whole unit of its kind, teaspoons for volume and ounces for weight
+    private static final Map<String, KnownUnit> KNOWN = new HashMap<>();
+
+    static {
+        known(Kind.VOLUME, 1, 16, false, "pinch");
+        known(Kind.VOLUME, 1, 8, false, "dash");
+        known(Kind.VOLUME, 1, 1, true, "teaspoon");
+        known(Kind.VOLUME, 3, 1, true, "tablespoon");
+        known(Kind.VOLUME, 6, 1, false, "fluid ounce");
+        known(Kind.VOLUME, 48, 1, true, "cup");
+        known(Kind.VOLUME, 96, 1, false, "pint");
+        known(Kind.VOLUME, 192, 1, false, "quart");
+        known(Kind.WEIGHT, 1, 1, true, "ounce");
+        known(Kind.WEIGHT, 16, 1, true, "pound");
+        known(Kind.COUNT, 1, 1, false, "each");
+    }
+
+    //denominators a cook measures without a calculator
+    private static final long SIMPLE_DENOMINATORS = 1L << 1 | 1L << 2 | 1L << 3 | 1L << 4 | 1L << 8;
+
+    private final Map<Long, Integer> indexes = new HashMap<>();
+    private final String[] descriptions;
+
+    //factor from unit i to unit j at [i * size + j], a zero denominator where there is none
+    private final long[] factorNumerators;
+    private final long[] factorDenominators;
+
+    //readable units of the same kind, larger than the unit then the unit itself, and smaller ones, largest first
+    private final int[][] larger;
+    private final int[][] smaller;
+
+    public UnitConversions(Iterable<UnitOfMeasure> unitsOfMeasure) {
+        List<UnitOfMeasure> units = new ArrayList<>();
+        unitsOfMeasure.forEach(units::add);
+
+        int size = units.size();
+        descriptions = new String[size];
+        KnownUnit[] known = new KnownUnit[size];
+        for(int i = 0; i < size; i++) {
+            indexes.put(units.get(i).getId(), i);
+            descriptions[i] = units.get(i).getDescription();
+            known[i] = descriptions[i] == null ? null : KNOWN.get(descriptions[i].trim().toLowerCase(Locale.ROOT));
+        }
+
+        factorNumerators = new long[size * size];
+        factorDenominators = new long[size * size];
+        for(int from = 0; from < size; from++) {
+            for(int to = 0; to < size; to++) {
+                if(from == to) {
+                    factorNumerators[from * size + to] = 1;
+                    factorDenominators[from * size + to] = 1;
+                } else if(known[from] != null && known[to] != null && known[from].kind == known[to].kind) {
+                    Amount factor = Amount.of(known[from].numerator, known[from].denominator)
+                            .times(known[to].denominator, known[to].numerator);
+                    factorNumerators[from * size + to] = factor.getNumerator();
+                    factorDenominators[from * size + to] = factor.getDenominator();
+                }
+            }
+        }
+
+        larger = new int[size][];
+        smaller = new int[size][];
+        for(int unit = 0; unit < size; unit++) {
+            List<Integer> up = new ArrayList<>();
+            List<Integer> down = new ArrayList<>();
+            for(int to = 0; to < size; to++) {
+                if(to == unit || !convertible(unit, to) || !known[to].readable) {
+                    continue;
+                }
+                //converting to a larger unit gives a smaller number
+                boolean isLarger = factorNumerators[unit * size + to] < factorDenominators[unit * size + to];
+                (isLarger ? up : down).add(to);
+            }
+            Comparator<Integer> largestFirst = Comparator.comparingLong(to -> known[to].numerator * KnownUnit.LCD / known[to].denominator);
+            up.sort(largestFirst.reversed());
+            down.sort(largestFirst.reversed());
+            up.add(unit);
+            larger[unit] = up.stream().mapToInt(Integer::intValue).toArray();
+            smaller[unit] = down.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public int size() {
+        return descriptions.length;
+    }
+
+    //-1 for a unit that was not there when the table was built
+    public int indexOf(Long unitOfMeasureId) {
+        Integer index = indexes.get(unitOfMeasureId);
+        return index == null ? -1 : index;
+    }
+
+    public String description(int unit) {
+        return descriptions[unit];
+    }
+
+    public boolean convertible(int from, int to) {
+        return factorDenominators[from * descriptions.length + to] != 0;
+    }
+
+    public Amount convert(Amount amount, int from, int to) {
+        if(!convertible(from, to)) {
+            throw new IllegalArgumentException("Cannot Convert " + descriptions[from] + " To " + descriptions[to] + "!");
+        }
+        int at = from * descriptions.length + to;
+        return amount.times(factorNumerators[at], factorDenominators[at]);
+    }
+
+    long factorNumerator(int from, int to) {
+        return factorNumerators[from * descriptions.length + to];
+    }
+
+    long factorDenominator(int from, int to) {
+        return factorDenominators[from * descriptions.length + to];
+    }
+
+    /**
+     * The unit an amount reads best in: the largest unit it is at least one of with a simple fraction
+     * (48 teaspoons is 1 cup, 24 tablespoons 1 1/2 cups), else the unit it is in while that fraction is simple,
+     * else the largest smaller unit that makes it simple (3/16 cup is 3 tablespoons). Works on the bare
+     * numerator and denominator so a batch can ask without building an {@link Amount}.
+     */
+    public int readableUnit(long numerator, long denominator, int unit) {
+        for(int to : larger[unit]) {
+            long factorNumerator = factorNumerator(unit, to);
+            long factorDenominator = factorDenominator(unit, to);
+            //less than one of it, no need to reduce the fraction to know
+            if((double) Math.abs(numerator) * factorNumerator < (double) denominator * factorDenominator) {
+                continue;
+            }
+            if(isSimple(Amount.multiplyDenominator(numerator, denominator, factorNumerator, factorDenominator))) {
+                return to;
+            }
+        }
+        if(isSimple(denominator)) {
+            return unit;
+        }
+        for(int to : smaller[unit]) {
+            if(isSimple(Amount.multiplyDenominator(numerator, denominator, factorNumerator(unit, to), factorDenominator(unit, to)))) {
+                return to;
+            }
+        }
+        return unit;
+    }
+
+    private static boolean isSimple(long denominator) {
+        return denominator < 64 && (SIMPLE_DENOMINATORS & 1L << denominator) != 0;
+    }
+
+    private static void known(Kind kind, long numerator, long denominator, boolean readable, String description) {
+        KNOWN.put(description, new KnownUnit(kind, numerator, denominator, readable));
+    }
+
+    private static final class KnownUnit {
+
+        //a common multiple of every denominator above, to order units without fractions
+        static final long LCD = 16;
+
+        final Kind kind;
+        final long numerator;
+        final long denominator;
+        final boolean readable;
+
+        KnownUnit(Kind kind, long numerator, long denominator, boolean readable) {
+            this.kind = kind;
+            this.numerator = numerator;
+            this.denominator = denominator;
+            this.readable = readable;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package guru.springframework.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.regex.Pattern;
+
+/**
+ * Sets Cache-Control on static resources. A content hashed url never changes what it points to, so it is
+ * cached for a year and marked immutable. Anything else is revalidated against its Last-Modified/ETag.
+ */
+public class AssetCacheControlInterceptor extends HandlerInterceptorAdapter {
+
+    static final String IMMUTABLE = "max-age=31536000, public, immutable";
+    static final String REVALIDATE = "no-cache";
+
+    //the md5 the content version strategy puts before the extension, bootstrap.min-<hash>.css
+    private static final Pattern CONTENT_HASH = Pattern.compile(".*-[0-9a-f]{32}(\\.[^/.]+)?");
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if(handler instanceof ResourceHttpRequestHandler) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CONTENT_HASH.matcher(request.getRequestURI()).matches() ? IMMUTABLE : REVALIDATE);
+        }
+        return true;
+    }
+}
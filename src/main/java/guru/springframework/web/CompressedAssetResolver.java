@@ -0,0 +1,143 @@
+package guru.springframework.web;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips text assets at the highest level for clients that accept it. The resource chain caches resolved
+ * resources per content coding, so every asset is compressed once and then served from memory. A resource
+ * that already carries a Content-Encoding, like a .br or .gz file found by the EncodedResourceResolver
+ * behind this one, is passed through.
+ */
+public class CompressedAssetResolver extends AbstractResourceResolver {
+
+    static final String GZIP = "gzip";
+
+    private static final Set<String> COMPRESSIBLE = new HashSet<>(Arrays.asList("css", "js", "map", "svg", "json", "html", "txt", "xml"));
+
+    //below this the gzip header costs about as much as it saves
+    private static final int MIN_LENGTH = 1024;
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if(resource == null || request == null || !acceptsGzip(request) || !isCompressible(resource)) {
+            return resource;
+        }
+        if(resource instanceof HttpResource && ((HttpResource) resource).getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return resource;
+        }
+
+        try {
+            if(resource.contentLength() < MIN_LENGTH) {
+                return resource;
+            }
+            return new GzippedResource(resource, gzip(resource));
+        } catch (IOException e) {
+            logger.debug("Could not gzip " + resource, e);
+            return resource;
+        }
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains(GZIP);
+    }
+
+    private static boolean isCompressible(Resource resource) {
+        String extension = StringUtils.getFilenameExtension(resource.getFilename());
+        return extension != null && COMPRESSIBLE.contains(extension.toLowerCase(Locale.ROOT));
+    }
+
+    static byte[] gzip(Resource resource) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.max(resource.contentLength() / 4, 512));
+        //compressed once per asset, so the slowest level is worth it
+        try(InputStream in = resource.getInputStream();
+            GZIPOutputStream out = new GZIPOutputStream(bytes) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            FileCopyUtils.copy(in, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * The gzipped bytes of a resource, answering for its name, timestamp and headers.
+     */
+    static class GzippedResource extends AbstractResource implements HttpResource {
+
+        private final Resource original;
+        private final byte[] gzipped;
+
+        GzippedResource(Resource original, byte[] gzipped) {
+            this.original = original;
+            this.gzipped = gzipped;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(gzipped);
+        }
+
+        @Override
+        public long contentLength() {
+            return gzipped.length;
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return original.lastModified();
+        }
+
+        @Override
+        public String getFilename() {
+            return original.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return "gzipped " + original.getDescription();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return original.createRelative(relativePath);
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            if(original instanceof HttpResource) {
+                headers.putAll(((HttpResource) original).getResponseHeaders());
+            }
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package guru.springframework.web;
+
+import lombok.ToString;
+import lombok.Value;
+
+@Value
+@ToString(exclude = {"body", "gzipBody"})
+public class RenderedPage {
+
+    private final byte[] body;
+    //null when the page is too small to be worth compressing
+    private final byte[] gzipBody;
+    private final String contentType;
+    private final String etag;
+    private final long lastModified;
+
+    //the gzipped bytes are a different representation, so they get their own tag
+    public String gzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    public int weight() {
+        return body.length + (gzipBody == null ? 0 : gzipBody.length);
+    }
+}
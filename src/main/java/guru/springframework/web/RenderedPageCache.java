@@ -0,0 +1,74 @@
+package guru.springframework.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.events.RecipeChangedEvent;
+import guru.springframework.events.RecipeNeighborsChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendered recipe pages by recipe id, bounded by total body size. Caffeine's W-TinyLFU policy keeps
+ * the frequently viewed pages and lets one-off views age out.
+ */
+@Slf4j
+@Component
+public class RenderedPageCache {
+
+    private final long maxBytes;
+    private final Cache<Long, RenderedPage> pages;
+
+    //bumped on every invalidation, a render that started before it must not be stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public RenderedPageCache(@Value("${recipe.page-cache.max-bytes:16777216}") long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long recipeId, RenderedPage page) -> page.weight())
+                .recordStats()
+                .build();
+    }
+
+    public RenderedPage get(Long recipeId) {
+        return pages.getIfPresent(recipeId);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(Long recipeId, RenderedPage page, long renderedAtGeneration) {
+        if(generation.get() != renderedAtGeneration || page.weight() > maxBytes) {
+            return;
+        }
+        pages.put(recipeId, page);
+        //an invalidation may have slipped in between the check and the put
+        if(generation.get() != renderedAtGeneration) {
+            pages.invalidate(recipeId);
+        }
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        generation.incrementAndGet();
+        if(event.isAllRecipes()) {
+            pages.invalidateAll();
+        } else {
+            pages.invalidateAll(event.getRecipeIds());
+        }
+        log.debug("Invalidated rendered pages for " + (event.isAllRecipes() ? "all recipes" : event.getRecipeIds()));
+    }
+
+    //every page lists similar recipes, and a change to one recipe can move it into or out of any list
+    @EventListener(RecipeNeighborsChangedEvent.class)
+    public void onRecipeNeighborsChanged() {
+        generation.incrementAndGet();
+        pages.invalidateAll();
+        log.debug("Invalidated all rendered pages for new similar recipes");
+    }
+}
@@ -0,0 +1,155 @@
+package guru.springframework.web;
+
+import guru.springframework.services.RecipePopularityService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves /recipe/show/{id} from {@link RenderedPageCache}, rendering through the controller only on a miss.
+ * A page is gzipped once when it is cached, clients that accept gzip get those bytes on every hit. The size
+ * of every page written is recorded as recipe.page.bytes by encoding. A hit never reaches the controller, so it
+ * counts the view itself.
+ */
+@Slf4j
+public class RenderedPageCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern SHOW_PATH = Pattern.compile("/recipe/show/(\\d+)");
+
+    //cache generation seen before rendering, carried over to the async dispatch
+    private static final String GENERATION_ATTRIBUTE = RenderedPageCacheFilter.class.getName() + ".GENERATION";
+
+    //smaller pages are sent as they are
+    private static final int MIN_GZIP_LENGTH = 1024;
+
+    private final RenderedPageCache pageCache;
+    private final RecipePopularityService recipePopularityService;
+    private final DistributionSummary identityBytes;
+    private final DistributionSummary gzipBytes;
+
+    public RenderedPageCacheFilter(RenderedPageCache pageCache, RecipePopularityService recipePopularityService,
+                                   MeterRegistry meterRegistry) {
+        this.pageCache = pageCache;
+        this.recipePopularityService = recipePopularityService;
+        this.identityBytes = pageBytes(meterRegistry, "identity");
+        this.gzipBytes = pageBytes(meterRegistry, "gzip");
+    }
+
+    //the controller may finish on another thread, the page is then cached on the async dispatch
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long recipeId = recipeId(request);
+        if(recipeId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper;
+        if(isAsyncDispatch(request)) {
+            //the wrapper from the first pass, the async result was rendered into it
+            wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            filterChain.doFilter(request, response);
+            if(wrapper == null) {
+                return;
+            }
+        } else {
+            RenderedPage page = pageCache.get(recipeId);
+            if(page != null) {
+                recipePopularityService.recordView(recipeId);
+                write(page, request, response);
+                return;
+            }
+            request.setAttribute(GENERATION_ATTRIBUTE, pageCache.generation());
+            wrapper = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(request, wrapper);
+        }
+
+        if(isAsyncStarted(request)) {
+            return;
+        }
+
+        HttpServletResponse rawResponse = (HttpServletResponse) wrapper.getResponse();
+        if(wrapper.getStatus() != HttpStatus.OK.value()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        byte[] body = wrapper.getContentAsByteArray();
+        //whole seconds, that is all Last-Modified can carry
+        long lastModified = System.currentTimeMillis() / 1000 * 1000;
+        RenderedPage page = new RenderedPage(body, body.length < MIN_GZIP_LENGTH ? null : gzip(body), wrapper.getContentType(),
+                "\"" + DigestUtils.md5DigestAsHex(body) + "\"", lastModified);
+        pageCache.put(recipeId, page, (Long) request.getAttribute(GENERATION_ATTRIBUTE));
+        log.debug("Rendered and cached recipe page " + recipeId);
+
+        write(page, request, rawResponse);
+    }
+
+    private void write(RenderedPage page, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean gzip = page.getGzipBody() != null && CompressedAssetResolver.acceptsGzip(request);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if(new ServletWebRequest(request, response).checkNotModified(gzip ? page.gzipEtag() : page.getEtag(), page.getLastModified())) {
+            return;
+        }
+
+        byte[] body = gzip ? page.getGzipBody() : page.getBody();
+        if(gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, CompressedAssetResolver.GZIP);
+        }
+        response.setContentType(page.getContentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        (gzip ? gzipBytes : identityBytes).record(body.length);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4);
+        try(GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DistributionSummary pageBytes(MeterRegistry meterRegistry, String encoding) {
+        return DistributionSummary.builder("recipe.page.bytes")
+                .description("Size of the recipe pages sent")
+                .baseUnit("bytes")
+                .tag("encoding", encoding)
+                .register(meterRegistry);
+    }
+
+    private Long recipeId(HttpServletRequest request) {
+        if(!"GET".equals(request.getMethod())) {
+            return null;
+        }
+        Matcher matcher = SHOW_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+}
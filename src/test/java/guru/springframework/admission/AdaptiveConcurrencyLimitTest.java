@@ -0,0 +1,86 @@
+package guru.springframework.admission;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+
+    AdaptiveConcurrencyLimit limit;
+    long now;
+
+    @Before
+    public void setUp() {
+        limit = new AdaptiveConcurrencyLimit(8, 2, 10, TARGET);
+        now = System.nanoTime();
+    }
+
+    @Test
+    public void requestsBeyondTheLimitAreRejected() {
+        for(int i = 0; i < 8; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire());
+
+        limit.release();
+        assertTrue(limit.tryAcquire());
+        assertEquals(8, limit.getInFlight());
+    }
+
+    @Test
+    public void fastCallsGrowALimitInUse() {
+        acquire(4);
+        //about one more request in flight for every limit fast calls
+        for(int i = 0; i < 9; i++) {
+            limit.onSample(TARGET / 2, now);
+        }
+        assertEquals(9, limit.getLimit());
+
+        //4 of 9 is not in use enough to grow further
+        limit.onSample(TARGET / 2, now);
+        assertEquals(9, limit.getLimit());
+
+        acquire(1);
+        for(int i = 0; i < 100; i++) {
+            limit.onSample(TARGET / 2, now);
+        }
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void anIdleLimitDoesNotGrow() {
+        acquire(3);
+        for(int i = 0; i < 100; i++) {
+            limit.onSample(TARGET / 2, now);
+        }
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    public void slowCallsBackOffOncePerTarget() {
+        limit.onSample(TARGET * 2, now);
+        assertEquals(6, limit.getLimit());
+
+        //the rest of the same slow spell
+        limit.onSample(TARGET * 2, now + TARGET / 2);
+        assertEquals(6, limit.getLimit());
+
+        limit.onSample(TARGET * 2, now + TARGET);
+        assertEquals(4, limit.getLimit());
+        for(int i = 2; i < 10; i++) {
+            limit.onSample(TARGET * 2, now + TARGET * i);
+        }
+        assertEquals(2, limit.getLimit());
+    }
+
+    private void acquire(int requests) {
+        for(int i = 0; i < requests; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+    }
+}
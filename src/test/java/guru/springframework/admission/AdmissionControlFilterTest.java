@@ -0,0 +1,141 @@
+package guru.springframework.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.junit.Assert.*;
+
+public class AdmissionControlFilterTest {
+
+    ClientRateLimiter rateLimiter;
+    AdaptiveConcurrencyLimit concurrencyLimit;
+    MeterRegistry meterRegistry;
+    AdmissionControlFilter filter;
+    int handled;
+
+    @Before
+    public void setUp() {
+        rateLimiter = new ClientRateLimiter(1, 3);
+        concurrencyLimit = new AdaptiveConcurrencyLimit(2, 1, 2, 100_000_000L);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(rateLimiter, concurrencyLimit, meterRegistry);
+    }
+
+    @Test
+    public void clientsOverTheirRateGetTooManyRequests() throws Exception {
+        for(int i = 0; i < 3; i++) {
+            assertEquals(200, request("/recipe/show/1", "10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse response = request("/recipe/show/1", "10.0.0.1");
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(3, handled);
+        assertEquals(200, request("/recipe/show/1", "10.0.0.2").getStatus());
+        assertEquals(1, rejected("rate-limit"), 0);
+    }
+
+    @Test
+    public void requestsOverTheConcurrencyLimitAreShed() throws Exception {
+        concurrencyLimit.tryAcquire();
+        concurrencyLimit.tryAcquire();
+
+        MockHttpServletResponse response = request("/api/recipes", "10.0.0.1");
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(0, handled);
+        assertEquals(1, rejected("concurrency-limit"), 0);
+
+        concurrencyLimit.release();
+        assertEquals(200, request("/api/recipes", "10.0.0.1").getStatus());
+        assertEquals(1, concurrencyLimit.getInFlight());
+    }
+
+    @Test
+    public void assetsAreNotLimited() throws Exception {
+        concurrencyLimit.tryAcquire();
+        concurrencyLimit.tryAcquire();
+
+        for(int i = 0; i < 10; i++) {
+            assertEquals(200, request("/webjars/bootstrap/5.1.3/dist/css/bootstrap.min.css", "10.0.0.1").getStatus());
+        }
+        assertEquals(200, request("/actuator/prometheus", "10.0.0.1").getStatus());
+        assertEquals(200, request("/css/recipes-0123456789abcdef0123456789abcdef.css", "10.0.0.1").getStatus());
+        assertEquals(503, request("/recipe/show/1", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    public void withoutARateLimiterOnlyTheConcurrencyLimitApplies() throws Exception {
+        filter = new AdmissionControlFilter(null, concurrencyLimit, meterRegistry);
+
+        for(int i = 0; i < 10; i++) {
+            assertEquals(200, request("/recipe/show/1", "10.0.0.1").getStatus());
+        }
+        assertEquals(0, rejected("rate-limit"), 0);
+    }
+
+    @Test
+    public void asyncRequestsAreInFlightUntilTheyComplete() throws Exception {
+        MockHttpServletRequest request = get("/recipe/show/1", "10.0.0.1");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.startAsync();
+            }
+        }));
+        assertEquals(1, concurrencyLimit.getInFlight());
+
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        asyncContext.complete();
+        assertEquals(0, concurrencyLimit.getInFlight());
+    }
+
+    @Test
+    public void aFailingRequestIsReleased() throws Exception {
+        try {
+            filter.doFilter(get("/recipe/show/1", "10.0.0.1"), new MockHttpServletResponse(),
+                    new MockFilterChain(new HttpServlet() {
+                        @Override
+                        protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                            throw new IllegalStateException("boom");
+                        }
+                    }));
+            fail();
+        } catch(IllegalStateException expected) {
+        }
+        assertEquals(0, concurrencyLimit.getInFlight());
+    }
+
+    private MockHttpServletResponse request(String uri, String client) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(get(uri, client), response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                handled++;
+            }
+        }));
+        return response;
+    }
+
+    private static MockHttpServletRequest get(String uri, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(client);
+        return request;
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("recipe.admission.rejected").tag("reason", reason).counter().count();
+    }
+}
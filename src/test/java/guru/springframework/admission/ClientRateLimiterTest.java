@@ -0,0 +1,69 @@
+package guru.springframework.admission;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ClientRateLimiterTest {
+
+    static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    ClientRateLimiter rateLimiter;
+    long now;
+
+    @Before
+    public void setUp() {
+        //10 a second, bursts of 5
+        rateLimiter = new ClientRateLimiter(10, 5);
+        now = System.nanoTime();
+    }
+
+    @Test
+    public void aFullBucketAdmitsABurst() {
+        for(int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("a", now));
+        }
+        long wait = rateLimiter.tryAcquire("a", now);
+        assertEquals(SECOND / 10, wait);
+    }
+
+    @Test
+    public void tokensComeBackAtTheRate() {
+        for(int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("a", now);
+        }
+        assertTrue(rateLimiter.tryAcquire("a", now + SECOND / 20) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("a", now + SECOND / 10));
+        assertTrue(rateLimiter.tryAcquire("a", now + SECOND / 10) > 0);
+
+        //idle long enough to fill up again, but no further
+        long later = now + SECOND;
+        for(int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("a", later));
+        }
+        assertTrue(rateLimiter.tryAcquire("a", later) > 0);
+    }
+
+    @Test
+    public void rejectedRequestsDoNotUseTokens() {
+        for(int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("a", now);
+        }
+        for(int i = 0; i < 100; i++) {
+            assertTrue(rateLimiter.tryAcquire("a", now) > 0);
+        }
+        assertEquals(0, rateLimiter.tryAcquire("a", now + SECOND / 10));
+    }
+
+    @Test
+    public void clientsHaveTheirOwnBuckets() {
+        for(int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("a", now);
+        }
+        assertTrue(rateLimiter.tryAcquire("a", now) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("b", now));
+    }
+}
@@ -0,0 +1,117 @@
+package guru.springframework.bootstrap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+public class DatabaseSnapshotRestorerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    DatabaseSnapshotRestorer restorer;
+    MockEnvironment environment;
+    File database;
+    File snapshot;
+
+    @Before
+    public void setUp() throws Exception {
+        restorer = new DatabaseSnapshotRestorer();
+        database = new File(folder.getRoot(), "db/recipes");
+        snapshot = new File(folder.getRoot(), "recipes-snapshot.zip");
+        environment = new MockEnvironment()
+                .withProperty("spring.datasource.url", "jdbc:h2:file:" + database.getPath() + ";QUERY_CACHE_SIZE=64")
+                .withProperty(DatabaseSnapshotRestorer.SNAPSHOT_PROPERTY, snapshot.getPath());
+    }
+
+    @Test
+    public void databaseFile() {
+        assertEquals(new File("target/recipes").getAbsoluteFile(),
+                DatabaseSnapshotRestorer.databaseFile("jdbc:h2:file:target/recipes;DB_CLOSE_DELAY=-1"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void databaseFileNeedsFileUrl() {
+        DatabaseSnapshotRestorer.databaseFile("jdbc:h2:mem:testdb");
+    }
+
+    @Test
+    public void nothingRestoredWithoutSnapshot() {
+        restorer.postProcessEnvironment(environment, new SpringApplication());
+
+        assertNull(environment.getProperty(DatabaseSnapshotRestorer.RESTORED_PROPERTY));
+        assertFalse(database.getParentFile().exists());
+    }
+
+    @Test
+    public void restoresSnapshotAndSkipsSchemaAndData() throws Exception {
+        zip(snapshot, "recipes.mv.db", "pages");
+
+        restorer.postProcessEnvironment(environment, new SpringApplication());
+
+        assertEquals("pages", databaseContent());
+        assertEquals("true", environment.getProperty(DatabaseSnapshotRestorer.RESTORED_PROPERTY));
+        assertEquals("none", environment.getProperty("spring.jpa.hibernate.ddl-auto"));
+        assertEquals("never", environment.getProperty("spring.datasource.initialization-mode"));
+    }
+
+    @Test
+    public void keepsAnExistingDatabase() throws Exception {
+        zip(snapshot, "recipes.mv.db", "pages");
+        writeDatabase("saved since");
+
+        restorer.postProcessEnvironment(environment, new SpringApplication());
+
+        assertEquals("saved since", databaseContent());
+        assertEquals("true", environment.getProperty(DatabaseSnapshotRestorer.RESTORED_PROPERTY));
+        assertEquals("none", environment.getProperty("spring.jpa.hibernate.ddl-auto"));
+    }
+
+    @Test
+    public void restoresOverAnExistingDatabaseWhenAsked() throws Exception {
+        zip(snapshot, "recipes.mv.db", "pages");
+        writeDatabase("saved since");
+        environment.setProperty(DatabaseSnapshotRestorer.RESTORE_PROPERTY, "always");
+
+        restorer.postProcessEnvironment(environment, new SpringApplication());
+
+        assertEquals("pages", databaseContent());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsEntriesOfOtherDatabases() throws Exception {
+        zip(snapshot, "../other.mv.db", "pages");
+
+        restorer.postProcessEnvironment(environment, new SpringApplication());
+    }
+
+    private void writeDatabase(String content) throws IOException {
+        database.getParentFile().mkdirs();
+        Files.write(new File(database.getParentFile(), "recipes.mv.db").toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String databaseContent() throws IOException {
+        return new String(Files.readAllBytes(new File(database.getParentFile(), "recipes.mv.db").toPath()),
+                StandardCharsets.UTF_8);
+    }
+
+    private void zip(File file, String entry, String content) throws IOException {
+        try(ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file.toPath()))) {
+            zip.putNextEntry(new ZipEntry(entry));
+            zip.write(content.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+    }
+}
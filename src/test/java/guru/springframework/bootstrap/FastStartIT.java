@@ -0,0 +1,63 @@
+package guru.springframework.bootstrap;
+
+import guru.springframework.Spring5RecipeAppApplication;
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.RecipeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+/**
+ * Starts the fast-start profile twice on a file database: the first start seeds in the background and writes
+ * the snapshot, the second keeps the database, with what was saved after the snapshot, and skips the seeding.
+ */
+public class FastStartIT {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void secondStartKeepsTheDatabase() throws Exception {
+        File snapshot = new File(folder.getRoot(), "recipes-snapshot.zip");
+
+        try(ConfigurableApplicationContext context = start(snapshot)) {
+            for(int i = 0; i < 100 && !snapshot.isFile(); i++) {
+                Thread.sleep(100);
+            }
+            assertTrue(snapshot.isFile());
+            assertEquals(2, context.getBean(RecipeRepository.class).count());
+            assertNull(context.getEnvironment().getProperty(DatabaseSnapshotRestorer.RESTORED_PROPERTY));
+
+            Recipe recipe = new Recipe();
+            recipe.setDescription("Saved After The Snapshot");
+            context.getBean(RecipeRepository.class).save(recipe);
+        }
+
+        try(ConfigurableApplicationContext context = start(snapshot)) {
+            assertEquals("true", context.getEnvironment().getProperty(DatabaseSnapshotRestorer.RESTORED_PROPERTY));
+            //the bootstrap recipes were not saved a second time, the later one was not lost
+            assertEquals(3, context.getBean(RecipeRepository.class).count());
+            assertNotNull(context.getBean(MeterRegistry.class).find("recipe.startup").tag("phase", "ready").timer());
+        }
+    }
+
+    private ConfigurableApplicationContext start(File snapshot) {
+        return new SpringApplicationBuilder(Spring5RecipeAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("fast-start")
+                //arguments, default properties would lose to the profile's own
+                .run("--spring.datasource.url=jdbc:h2:file:" + new File(folder.getRoot(), "recipes").getPath(),
+                        "--" + DatabaseSnapshotRestorer.SNAPSHOT_PROPERTY + "=" + snapshot.getPath(),
+                        //the hibernate caches are shared with the other test contexts, closing this one would close them
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+    }
+}
@@ -0,0 +1,85 @@
+package guru.springframework.bootstrap;
+
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.RecipeRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@DirtiesContext
+//partitions write on their own connections, the rows have to be committed to be seen
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RecipeDataGeneratorTestIT {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    JdbcTemplate jdbcTemplate;
+    RecipeDataGenerator generator;
+
+    @Before
+    public void setUp() throws Exception {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        generator = new RecipeDataGenerator(jdbcTemplate, mock(StartupSeeder.class), 0, 3, 100, 42L);
+    }
+
+    @Test
+    public void generate() {
+        long recipes = recipeRepository.count();
+        long ingredients = count("select count(*) from ingredient");
+        long categoryLinks = count("select count(*) from recipe_category");
+
+        GeneratedRows rows = generator.generate(500);
+
+        assertEquals(500, rows.getRecipes());
+        assertEquals(500, rows.getNotes());
+        assertEquals(recipes + 500, recipeRepository.count());
+        assertEquals(ingredients + rows.getIngredients(), count("select count(*) from ingredient"));
+        assertEquals(categoryLinks + rows.getCategoryLinks(), count("select count(*) from recipe_category"));
+        assertTrue(rows.getIngredients() >= 3 * 500);
+
+        //every generated recipe is complete
+        assertEquals(0, count("select count(*) from recipe r where r.source = 'Recipe Generator' and not exists" +
+                " (select 1 from ingredient i where i.recipe_id = r.id)"));
+        assertEquals(0, count("select count(*) from recipe r where r.source = 'Recipe Generator' and not exists" +
+                " (select 1 from recipe_category c where c.recipe_id = r.id)"));
+        assertEquals(0, count("select count(*) from recipe r left join notes n on n.id = r.notes_id" +
+                " where r.source = 'Recipe Generator' and (n.id is null or n.recipe_id <> r.id)"));
+    }
+
+    @Test
+    public void savesContinueAfterGeneratedIds() {
+        generator.generate(50);
+        long maxId = count("select max(id) from recipe");
+
+        Recipe saved = recipeRepository.save(new Recipe());
+
+        assertTrue(saved.getId() > maxId);
+    }
+
+    @Test
+    public void generateNothing() {
+        assertEquals(0, generator.generate(0).total());
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,60 @@
+package guru.springframework.config;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class LazyInitBeanFactoryPostProcessorTest {
+
+    DefaultListableBeanFactory beanFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("recipeService", definition(BeanDefinition.ROLE_APPLICATION));
+        beanFactory.registerBeanDefinition("recipeChangeListener", definition(BeanDefinition.ROLE_APPLICATION));
+        beanFactory.registerBeanDefinition("internalProcessor", definition(BeanDefinition.ROLE_INFRASTRUCTURE));
+
+        new LazyInitBeanFactoryPostProcessor(Collections.singleton("recipeChangeListener")).postProcessBeanFactory(beanFactory);
+    }
+
+    @Test
+    public void applicationBeansBecomeLazy() {
+        assertTrue(beanFactory.getBeanDefinition("recipeService").isLazyInit());
+    }
+
+    @Test
+    public void eagerBeansStayEager() {
+        assertFalse(beanFactory.getBeanDefinition("recipeChangeListener").isLazyInit());
+    }
+
+    @Test
+    public void infrastructureBeansStayEager() {
+        assertFalse(beanFactory.getBeanDefinition("internalProcessor").isLazyInit());
+    }
+
+    @Test
+    public void lazyBeanIsCreatedOnFirstUse() {
+        beanFactory.preInstantiateSingletons();
+
+        assertFalse(beanFactory.containsSingleton("recipeService"));
+        assertTrue(beanFactory.containsSingleton("recipeChangeListener"));
+
+        beanFactory.getBean("recipeService");
+
+        assertTrue(beanFactory.containsSingleton("recipeService"));
+    }
+
+    private AbstractBeanDefinition definition(int role) {
+        AbstractBeanDefinition definition = BeanDefinitionBuilder.genericBeanDefinition(Object.class).getBeanDefinition();
+        definition.setRole(role);
+        return definition;
+    }
+}
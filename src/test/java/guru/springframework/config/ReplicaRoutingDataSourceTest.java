@@ -0,0 +1,58 @@
+package guru.springframework.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    //pools are only started by their first getConnection
+    HikariDataSource primary = new HikariDataSource();
+    HikariDataSource replica1 = new HikariDataSource();
+    HikariDataSource replica2 = new HikariDataSource();
+
+    ReplicaRoutingDataSource dataSource;
+
+    @Before
+    public void setUp() throws Exception {
+        dataSource = new ReplicaRoutingDataSource(new ReplicaPools(primary, Arrays.asList(replica1, replica2)));
+        dataSource.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void writesGoToPrimary() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void readOnlyTransactionsGoToReplicasRoundRobin() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        //keys are replica indexes
+        assertEquals(0, dataSource.determineCurrentLookupKey());
+        assertEquals(1, dataSource.determineCurrentLookupKey());
+        assertEquals(0, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void readOnlyWithoutReplicasGoesToPrimary() {
+        ReplicaRoutingDataSource primaryOnly = new ReplicaRoutingDataSource(new ReplicaPools(primary, Collections.emptyList()));
+        primaryOnly.afterPropertiesSet();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, primaryOnly.determineCurrentLookupKey());
+    }
+}
@@ -0,0 +1,119 @@
+package guru.springframework.config;
+
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.services.RecipeService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the replicas profile on in-memory H2 databases. Rows changed behind the application's back on one
+ * database show which one served a read.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "recipe.datasource.primary.jdbc-url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "recipe.datasource.replica-urls=jdbc:h2:mem:routing-replica1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:routing-replica2;DB_CLOSE_DELAY=-1",
+        "recipe.page-cache.enabled=false"})
+@ActiveProfiles("replicas")
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+public class ReplicaRoutingIT {
+
+    @Autowired
+    ReplicaPools replicaPools;
+
+    @Autowired
+    RecipeService recipeService;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    JdbcTemplate primary;
+    JdbcTemplate replica1;
+    JdbcTemplate replica2;
+
+    @Before
+    public void setUp() throws Exception {
+        primary = new JdbcTemplate(replicaPools.getPrimary());
+        replica1 = new JdbcTemplate(replicaPools.getReplicas().get(0));
+        replica2 = new JdbcTemplate(replicaPools.getReplicas().get(1));
+    }
+
+    @Test
+    public void replicasAreSeededFromPrimary() {
+        Integer recipes = primary.queryForObject("select count(*) from recipe", Integer.class);
+
+        assertTrue(recipes > 0);
+        assertEquals(recipes, replica1.queryForObject("select count(*) from recipe", Integer.class));
+        assertEquals(recipes, replica2.queryForObject("select count(*) from recipe", Integer.class));
+    }
+
+    @Test
+    public void readOnlyServiceCallsGoToReplicas() {
+        Long id = primary.queryForObject("select min(id) from recipe", Long.class);
+        String description = primary.queryForObject("select description from recipe where id = ?", String.class, id);
+        replica1.update("update recipe set description = 'Replica 1' where id = ?", id);
+        replica2.update("update recipe set description = 'Replica 2' where id = ?", id);
+
+        try {
+            String first = recipeService.findById(id).getDescription();
+            String second = recipeService.findById(id).getDescription();
+
+            assertTrue(first.startsWith("Replica"));
+            assertTrue(second.startsWith("Replica"));
+            assertNotEquals(first, second);
+
+            //a read inside a read-write transaction sees the primary
+            TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+            assertEquals(description, readWrite.execute(status -> recipeRepository.findById(id).get().getDescription()));
+        } finally {
+            replica1.update("update recipe set description = ? where id = ?", description, id);
+            replica2.update("update recipe set description = ? where id = ?", description, id);
+        }
+    }
+
+    @Test
+    public void writesGoToPrimary() {
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Primary Only");
+
+        Long id = recipeRepository.save(recipe).getId();
+
+        try {
+            assertEquals(Integer.valueOf(1), primary.queryForObject("select count(*) from recipe where id = ?", Integer.class, id));
+            assertEquals(Integer.valueOf(0), replica1.queryForObject("select count(*) from recipe where id = ?", Integer.class, id));
+        } finally {
+            primary.update("delete from recipe where id = ?", id);
+        }
+    }
+
+    //without open session in view the pages must not need lazy loading
+    @Test
+    public void pagesRender() throws Exception {
+        Long id = primary.queryForObject("select min(id) from recipe", Long.class);
+
+        mockMvc.perform(get("/index")).andExpect(status().isOk());
+        mockMvc.perform(get("/recipe/show/" + id)).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,82 @@
+package guru.springframework.controllers;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Renders the pages with recipe.execution.mode=async, through the page cache filter.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "recipe.execution.mode=async")
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+public class AsyncExecutionModeIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ApplicationContext applicationContext;
+
+    @Test
+    public void asyncControllersReplaceBlockingOnes() {
+        assertEquals(1, applicationContext.getBeansOfType(AsyncIndexController.class).size());
+        assertTrue(applicationContext.getBeansOfType(IndexController.class).isEmpty());
+        assertTrue(applicationContext.getBeansOfType(RecipeController.class).isEmpty());
+    }
+
+    @Test
+    public void indexPage() throws Exception {
+        MvcResult result = mockMvc.perform(get("/index"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andExpect(model().attributeExists("recipes"));
+    }
+
+    @Test
+    public void showPageIsRenderedAsyncThenCached() throws Exception {
+        MvcResult result = mockMvc.perform(get("/recipe/show/2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String rendered = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(content().string(containsString("Spicy Grilled Chicken")))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/recipe/show/2"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().string(rendered));
+    }
+
+    @Test
+    public void missingRecipeFailsAsBefore() throws Exception {
+        MvcResult result = mockMvc.perform(get("/recipe/show/999999"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //the future fails with a CompletionException around the service's exception
+        Throwable error = (Throwable) result.getAsyncResult();
+        assertEquals("Recipe Not Found!", NestedExceptionUtils.getMostSpecificCause(error).getMessage());
+    }
+}
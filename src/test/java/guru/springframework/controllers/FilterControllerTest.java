@@ -0,0 +1,71 @@
+package guru.springframework.controllers;
+
+import guru.springframework.search.Facet;
+import guru.springframework.search.FacetSelection;
+import guru.springframework.services.InvalidCursorException;
+import guru.springframework.services.RecipeFilterPage;
+import guru.springframework.services.RecipeFilterService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+import java.util.HashSet;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class FilterControllerTest {
+
+    @Mock
+    RecipeFilterService recipeFilterService;
+
+    FilterController controller;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        controller = new FilterController(recipeFilterService);
+    }
+
+    @Test
+    public void filter() throws Exception {
+        when(recipeFilterService.filter(any(), any(), anyInt()))
+                .thenReturn(new RecipeFilterPage(Collections.emptyMap(), Collections.emptyList(), 0, null, true));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        mockMvc.perform(get("/recipes/filter").param("difficulty", "EASY", "HARD").param("servings", "3-4")
+                .param("cursor", "MTA"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("recipes/filter"))
+                .andExpect(model().attributeExists("result"));
+
+        ArgumentCaptor<FacetSelection> selection = ArgumentCaptor.forClass(FacetSelection.class);
+        verify(recipeFilterService).filter(selection.capture(), eq("MTA"), eq(RecipeFilterService.DEFAULT_PAGE_SIZE));
+        assertEquals(new HashSet<>(asList("EASY", "HARD")), selection.getValue().values(Facet.DIFFICULTY));
+        assertEquals(Collections.singleton("3-4"), selection.getValue().values(Facet.SERVINGS));
+        assertFalse(selection.getValue().isSelected(Facet.CATEGORY));
+    }
+
+    @Test
+    public void invalidCursorIsABadRequest() throws Exception {
+        when(recipeFilterService.filter(any(), eq("garbage"), anyInt()))
+                .thenThrow(new InvalidCursorException(new NumberFormatException()));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        mockMvc.perform(get("/recipes/filter").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,133 @@
+package guru.springframework.controllers;
+
+import guru.springframework.domain.RecipeImage;
+import guru.springframework.services.ImageService;
+import guru.springframework.services.RecipeNotFoundException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class ImageControllerTest {
+
+    static final byte[] BYTES = "0123456789".getBytes();
+
+    @Mock
+    ImageService imageService;
+
+    ImageController controller;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        controller = new ImageController(imageService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        RecipeImage image = new RecipeImage();
+        image.setId(1L);
+        image.setContentType("image/png");
+        image.setContentLength((long) BYTES.length);
+        image.setEtag("abc");
+        when(imageService.findImage(1L)).thenReturn(Optional.of(image));
+
+        doAnswer(invocation -> {
+            int start = (int) (long) invocation.getArgument(1);
+            int count = (int) (long) invocation.getArgument(2);
+            WritableByteChannel out = invocation.getArgument(3);
+            out.write(ByteBuffer.wrap(Arrays.copyOfRange(BYTES, start, start + count)));
+            return null;
+        }).when(imageService).writeImage(eq(1L), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void handleImagePost() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("imagefile", "test.png", "image/png", BYTES);
+
+        mockMvc.perform(multipart("/recipe/1/image").file(file))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(header().string("Location", "/recipe/show/1"));
+
+        verify(imageService, times(1)).saveImage(1L, "image/png", BYTES);
+    }
+
+    @Test
+    public void imagePostForAMissingRecipeIsNotFound() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("imagefile", "test.png", "image/png", BYTES);
+        doThrow(new RecipeNotFoundException()).when(imageService).saveImage(eq(2L), anyString(), any());
+
+        mockMvc.perform(multipart("/recipe/2/image").file(file))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void renderImage() throws Exception {
+        mockMvc.perform(get("/recipe/1/image"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(BYTES));
+    }
+
+    @Test
+    public void renderImageNotModified() throws Exception {
+        mockMvc.perform(get("/recipe/1/image").header("If-None-Match", "\"abc\""))
+                .andExpect(status().isNotModified());
+
+        verify(imageService, never()).writeImage(anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void renderImageRange() throws Exception {
+        mockMvc.perform(get("/recipe/1/image").header("Range", "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+                .andExpect(content().bytes("2345".getBytes()));
+    }
+
+    @Test
+    public void renderImageSuffixRange() throws Exception {
+        mockMvc.perform(get("/recipe/1/image").header("Range", "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 7-9/10"))
+                .andExpect(content().bytes("789".getBytes()));
+    }
+
+    @Test
+    public void renderImageStaleIfRangeServesWholeImage() throws Exception {
+        mockMvc.perform(get("/recipe/1/image").header("Range", "bytes=2-5").header("If-Range", "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(BYTES));
+    }
+
+    @Test
+    public void renderImageUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/recipe/1/image").header("Range", "bytes=20-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */10"));
+    }
+
+    @Test
+    public void renderImageNotFound() throws Exception {
+        when(imageService.findImage(2L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/recipe/2/image"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,6 +1,10 @@
 package guru.springframework.controllers;
 
-import guru.springframework.domain.Recipe;
+import guru.springframework.popularity.TrendingRecipe;
+import guru.springframework.projections.RecipeSummary;
+import guru.springframework.services.InvalidCursorException;
+import guru.springframework.services.RecipePage;
+import guru.springframework.services.RecipePopularityService;
 import guru.springframework.services.RecipeService;
 import org.h2.index.Index;
 import org.junit.Before;
@@ -14,11 +18,14 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.ui.ExtendedModelMap;
 import org.springframework.ui.Model;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.*;
-import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -29,50 +36,64 @@ public class IndexControllerTest {
     @Mock
     RecipeService recipeService;
     @Mock
+    RecipePopularityService recipePopularityService;
+    @Mock
     Model model;
     IndexController indexController;
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
-        indexController = new IndexController(recipeService);
+        indexController = new IndexController(recipeService, recipePopularityService);
     }
 
     @Test
     public void testMockMvc() throws Exception {
+        when(recipeService.getRecipePage(any(), anyInt())).thenReturn(new RecipePage(Collections.emptyList(), null));
+
         MockMvc mockMvc = MockMvcBuilders.standaloneSetup(indexController).build();
         mockMvc.perform(get("/"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("index"));
     }
 
+    @Test
+    public void invalidCursorIsABadRequest() throws Exception {
+        when(recipeService.getRecipePage(eq("garbage"), anyInt()))
+                .thenThrow(new InvalidCursorException(new NumberFormatException()));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(indexController).build();
+        mockMvc.perform(get("/index").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void getIndexPage() {
 
         //given
-        Set<Recipe> recipes = new HashSet<>();
-        Recipe r1 = new Recipe();
-        r1.setDescription("Recipe 1");
-        Recipe r2 = new Recipe();
-        r2.setDescription("Recipe 2");
-
-        recipes.add(r1);
-        recipes.add(r2);
+        List<RecipeSummary> recipes = new ArrayList<>();
+        recipes.add(new RecipeSummary(1L, "Recipe 1", null));
+        recipes.add(new RecipeSummary(2L, "Recipe 2", null));
 
-        when(recipeService.getRecipes()).thenReturn(recipes);
+        when(recipeService.getRecipePage(isNull(), anyInt())).thenReturn(new RecipePage(recipes, "Mg"));
+        List<TrendingRecipe> trending = Collections.singletonList(new TrendingRecipe(2L, "Recipe 2", 40));
+        when(recipePopularityService.getTrending()).thenReturn(trending);
 
-        ArgumentCaptor<Set<Recipe>> argumentCaptor = ArgumentCaptor.forClass(Set.class);
+        ArgumentCaptor<List<RecipeSummary>> argumentCaptor = ArgumentCaptor.forClass(List.class);
 
         //when
-        String viewName = indexController.getIndexPage(model);
+        String viewName = indexController.getIndexPage(null, model);
 
         //then
         assertEquals("index", viewName);
-        verify(recipeService, times(1)).getRecipes();
+        verify(recipeService, times(1)).getRecipePage(isNull(), eq(RecipeService.DEFAULT_PAGE_SIZE));
+        verify(recipeService, never()).getRecipes();
         verify(model, times(1)).addAttribute(eq("recipes"), argumentCaptor.capture());
+        verify(model, times(1)).addAttribute("nextCursor", "Mg");
+        verify(model, times(1)).addAttribute("trendingRecipes", trending);
 
-        Set<Recipe> setInController = argumentCaptor.getValue();
-        assertEquals(2, setInController.size());
+        List<RecipeSummary> listInController = argumentCaptor.getValue();
+        assertEquals(2, listInController.size());
 
     }
 }
\ No newline at end of file
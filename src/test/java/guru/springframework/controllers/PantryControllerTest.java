@@ -0,0 +1,57 @@
+package guru.springframework.controllers;
+
+import guru.springframework.projections.PantryRecipe;
+import guru.springframework.services.RecipePantryPage;
+import guru.springframework.services.RecipePantryService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class PantryControllerTest {
+
+    @Mock
+    RecipePantryService recipePantryService;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PantryController(recipePantryService)).build();
+    }
+
+    @Test
+    public void match() throws Exception {
+        List<String> pantry = Arrays.asList("avocado", "lime juice", "salt");
+        when(recipePantryService.match(eq(pantry), eq(5))).thenReturn(new RecipePantryPage(pantry,
+                Collections.singletonList(new PantryRecipe(1L, "Perfect Guacamole", 0.75, 3, 4, Collections.singletonList("cilantro"))),
+                1, true));
+
+        mockMvc.perform(get("/api/recipes/pantry").param("have", "avocado", "lime juice").param("have", "salt").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recipes[0].description").value("Perfect Guacamole"))
+                .andExpect(jsonPath("$.recipes[0].coverage").value(0.75))
+                .andExpect(jsonPath("$.recipes[0].missing[0]").value("cilantro"))
+                .andExpect(jsonPath("$.total").value(1));
+    }
+
+    @Test
+    public void commaSeparated() throws Exception {
+        mockMvc.perform(get("/api/recipes/pantry").param("have", "eggs,milk"))
+                .andExpect(status().isOk());
+
+        verify(recipePantryService).match(Arrays.asList("eggs", "milk"), RecipePantryService.DEFAULT_LIMIT);
+    }
+}
@@ -0,0 +1,145 @@
+package guru.springframework.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.projections.IngredientItem;
+import guru.springframework.projections.RecipeItem;
+import guru.springframework.domain.Recipe;
+import guru.springframework.services.RecipeFields;
+import guru.springframework.services.RecipeForm;
+import guru.springframework.services.RecipeItemService;
+import guru.springframework.services.RecipeNotFoundException;
+import guru.springframework.services.RecipeService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class RecipeApiControllerTest {
+
+    @Mock
+    RecipeItemService recipeItemService;
+
+    @Mock
+    RecipeService recipeService;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new RecipeApiController(recipeItemService, recipeService, new ObjectMapper())).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void listStreamsOnlySelectedFields() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<RecipeItem> action = invocation.getArgument(1);
+            action.accept(recipe(1L, "Tacos"));
+            action.accept(recipe(2L, "Soup"));
+            return null;
+        }).when(recipeItemService).forEachRecipe(any(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/recipes").param("fields", "id,description"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].description").value("Soup"))
+                .andExpect(jsonPath("$[0].directions").doesNotExist())
+                .andExpect(jsonPath("$[0].notes").doesNotExist());
+    }
+
+    @Test
+    public void getRecipe() throws Exception {
+        when(recipeItemService.findById(eq(1L), any())).thenReturn(Optional.of(recipe(1L, "Tacos")));
+
+        mockMvc.perform(get("/api/recipes/1").param("fields", "description,ingredients"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Tacos"))
+                .andExpect(jsonPath("$.ingredients[0].unitOfMeasure").value("Cup"))
+                .andExpect(jsonPath("$.id").doesNotExist())
+                .andExpect(jsonPath("$.categories").doesNotExist());
+    }
+
+    @Test
+    public void missingRecipe() throws Exception {
+        when(recipeItemService.findById(anyLong(), any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/recipes/9"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void unknownField() throws Exception {
+        mockMvc.perform(get("/api/recipes").param("fields", "calories"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("calories")));
+
+        verifyZeroInteractions(recipeItemService);
+    }
+
+    @Test
+    public void createRecipe() throws Exception {
+        Recipe saved = new Recipe();
+        saved.setId(7L);
+        when(recipeService.saveRecipe(any())).thenReturn(saved);
+        when(recipeItemService.findById(eq(7L), any())).thenReturn(Optional.of(recipe(7L, "Tacos")));
+
+        mockMvc.perform(post("/api/recipes").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"Tacos\",\"ingredients\":[{\"description\":\"rice\",\"amount\":1,\"unitOfMeasure\":\"Cup\"}]}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/recipes/7"))
+                .andExpect(jsonPath("$.version").value(3));
+
+        verify(recipeService).saveRecipe(argThat(form -> "Cup".equals(form.getIngredients().get(0).getUnitOfMeasure())));
+    }
+
+    @Test
+    public void staleUpdateIsAConflict() throws Exception {
+        when(recipeService.updateRecipe(eq(7L), any(RecipeForm.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Recipe.class, 7L));
+
+        mockMvc.perform(put("/api/recipes/7").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"version\":2,\"description\":\"Tacos\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    public void deleteRecipe() throws Exception {
+        mockMvc.perform(delete("/api/recipes/7").param("version", "3"))
+                .andExpect(status().isNoContent());
+        verify(recipeService).deleteById(7L, 3L);
+
+        doThrow(new RecipeNotFoundException()).when(recipeService).deleteById(8L, 3L);
+        mockMvc.perform(delete("/api/recipes/8").param("version", "3"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static RecipeItem recipe(Long id, String description) {
+        return new RecipeItem(id, 3L, description, 10, 20, 4, null, null, "EASY", "Cook it", "Notes",
+                Collections.singletonList("Mexican"),
+                Collections.singletonList(new IngredientItem("rice", BigDecimal.ONE, "Cup")));
+    }
+}
@@ -2,7 +2,10 @@ package guru.springframework.controllers;
 
 
 import guru.springframework.domain.Recipe;
+import guru.springframework.search.SimilarRecipe;
+import guru.springframework.services.RecipePopularityService;
 import guru.springframework.services.RecipeService;
+import guru.springframework.services.RecipeSimilarityService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -10,6 +13,9 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.Collections;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -19,13 +25,19 @@ public class RecipeControllerTest {
     @Mock
     RecipeService recipeService;
 
+    @Mock
+    RecipeSimilarityService recipeSimilarityService;
+
+    @Mock
+    RecipePopularityService recipePopularityService;
+
     RecipeController controller;
 
     @Before
     public void setup() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        controller = new RecipeController(recipeService);
+        controller = new RecipeController(recipeService, recipeSimilarityService, recipePopularityService);
 
     }
 
@@ -37,11 +49,15 @@ public class RecipeControllerTest {
         MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
 
         when(recipeService.findById(anyLong())).thenReturn(recipe);
+        List<SimilarRecipe> similar = Collections.singletonList(new SimilarRecipe(2L, "Spicy Grilled Chicken Tacos", 0.4));
+        when(recipeSimilarityService.findSimilar(1L)).thenReturn(similar);
 
         mockMvc.perform(get("/recipe/show/1"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("recipe/show"))
-                .andExpect(model().attributeExists("recipe"));
+                .andExpect(model().attributeExists("recipe"))
+                .andExpect(model().attribute("similarRecipes", similar));
+        verify(recipePopularityService).recordView(1L);
     }
 
 }
@@ -0,0 +1,77 @@
+package guru.springframework.controllers;
+
+import guru.springframework.exporter.ExportFormat;
+import guru.springframework.exporter.ExportReport;
+import guru.springframework.exporter.RecipeExporter;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class RecipeExportControllerTest {
+
+    @Mock
+    RecipeExporter recipeExporter;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new RecipeExportController(recipeExporter)).build();
+    }
+
+    @Test
+    public void exportsCsv() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("description\r\nTacos\r\n".getBytes(StandardCharsets.UTF_8));
+            return new ExportReport(1, 20, 1);
+        }).when(recipeExporter).exportRecipes(any(OutputStream.class), eq(ExportFormat.CSV), eq(false));
+
+        MvcResult result = mockMvc.perform(get("/api/recipes/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"recipes.csv\""))
+                .andExpect(content().string("description\r\nTacos\r\n"));
+    }
+
+    @Test
+    public void exportsGzippedJsonLinesByDefault() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/recipes/export").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"recipes.jsonl.gz\""));
+
+        verify(recipeExporter).exportRecipes(any(OutputStream.class), eq(ExportFormat.JSONL), eq(true));
+    }
+
+    @Test
+    public void unknownFormat() throws Exception {
+        mockMvc.perform(get("/api/recipes/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoMoreInteractions(recipeExporter);
+    }
+}
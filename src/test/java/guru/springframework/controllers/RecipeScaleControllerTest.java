@@ -0,0 +1,73 @@
+package guru.springframework.controllers;
+
+import guru.springframework.projections.ScaledIngredient;
+import guru.springframework.projections.ScaledRecipe;
+import guru.springframework.services.RecipeScaleService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class RecipeScaleControllerTest {
+
+    @Mock
+    RecipeScaleService recipeScaleService;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new RecipeScaleController(recipeScaleService)).build();
+    }
+
+    @Test
+    public void scale() throws Exception {
+        when(recipeScaleService.scale(1L, 8)).thenReturn(Optional.of(new ScaledRecipe(1L, 8, 4,
+                Collections.singletonList(new ScaledIngredient("lime juice", new BigDecimal("1.5"), "1 1/2", "Cup")))));
+
+        mockMvc.perform(get("/recipe/1/scale").param("servings", "8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.servings").value(8))
+                .andExpect(jsonPath("$.originalServings").value(4))
+                .andExpect(jsonPath("$.ingredients[0].fraction").value("1 1/2"))
+                .andExpect(jsonPath("$.ingredients[0].unitOfMeasure").value("Cup"));
+    }
+
+    @Test
+    public void missingRecipe() throws Exception {
+        when(recipeScaleService.scale(anyLong(), anyInt())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/recipe/9/scale").param("servings", "2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void servingsOutOfRange() throws Exception {
+        when(recipeScaleService.scale(anyLong(), anyInt())).thenThrow(new IllegalArgumentException("Servings must be between 1 and 1000"));
+
+        mockMvc.perform(get("/recipe/1/scale").param("servings", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Servings must be between 1 and 1000"));
+    }
+
+    @Test
+    public void servingsRequired() throws Exception {
+        mockMvc.perform(get("/recipe/1/scale"))
+                .andExpect(status().isBadRequest());
+
+        verifyZeroInteractions(recipeScaleService);
+    }
+}
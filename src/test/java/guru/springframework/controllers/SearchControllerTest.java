@@ -0,0 +1,47 @@
+package guru.springframework.controllers;
+
+import guru.springframework.services.RecipeSearchPage;
+import guru.springframework.services.RecipeSearchService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class SearchControllerTest {
+
+    @Mock
+    RecipeSearchService recipeSearchService;
+
+    SearchController controller;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        controller = new SearchController(recipeSearchService);
+    }
+
+    @Test
+    public void search() throws Exception {
+        when(recipeSearchService.search(anyString(), anyInt(), anyInt()))
+                .thenReturn(new RecipeSearchPage("tacos", Collections.emptyList(), 2, 20, 0, true));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        mockMvc.perform(get("/recipes/search").param("q", "tacos").param("page", "2"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("recipes/search"))
+                .andExpect(model().attributeExists("result"));
+
+        verify(recipeSearchService).search("tacos", 2, RecipeSearchService.DEFAULT_PAGE_SIZE);
+    }
+}
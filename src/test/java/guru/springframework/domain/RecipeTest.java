@@ -0,0 +1,105 @@
+package guru.springframework.domain;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class RecipeTest {
+
+    Recipe recipe;
+
+    @Before
+    public void setUp() {
+        recipe = new Recipe();
+        recipe.setDescription("Perfect Guacamole");
+    }
+
+    @Test
+    public void hashCodeEqualsAndToStringDoNotWalkTheGraph() {
+        recipe.setIngredients(new UntouchableSet<>());
+        recipe.setCategories(new UntouchableSet<>());
+        Notes notes = new Notes();
+        notes.setRecipe(recipe);
+        recipe.setNotes(notes);
+
+        Set<Recipe> recipes = new HashSet<>();
+        recipes.add(recipe);
+
+        assertTrue(recipes.contains(recipe));
+        assertEquals(recipe, recipe);
+        assertTrue(recipe.toString().contains("Perfect Guacamole"));
+    }
+
+    @Test
+    public void hashCodeDoesNotGrowWithIngredients() {
+        for(int i = 0; i < 10_000; i++) {
+            recipe.addIngredient(new Ingredient("ingredient " + i, BigDecimal.ONE, new UnitOfMeasure()));
+        }
+        int hashCode = recipe.hashCode();
+
+        recipe.addIngredient(new Ingredient("one more", BigDecimal.ONE, new UnitOfMeasure()));
+
+        assertEquals(hashCode, recipe.hashCode());
+    }
+
+    //ids are assigned on persist, after the ingredients went into the set
+    @Test
+    public void stableWhenIdsAreAssigned() {
+        Ingredient ingredient = new Ingredient("salt", BigDecimal.ONE, new UnitOfMeasure());
+        recipe.addIngredient(ingredient);
+        int hashCode = recipe.hashCode();
+
+        recipe.setId(1L);
+        ingredient.setId(1L);
+
+        assertEquals(hashCode, recipe.hashCode());
+        assertTrue(recipe.getIngredients().contains(ingredient));
+        assertTrue(recipe.getIngredients().remove(ingredient));
+    }
+
+    @Test
+    public void sameValuesAreDistinctIngredients() {
+        recipe.addIngredient(new Ingredient("salt", BigDecimal.ONE, null));
+        recipe.addIngredient(new Ingredient("salt", BigDecimal.ONE, null));
+
+        assertEquals(2, recipe.getIngredients().size());
+    }
+
+    @Test
+    public void toStringOfIngredientDoesNotRecurseIntoRecipe() {
+        Ingredient ingredient = new Ingredient("salt", BigDecimal.ONE, null);
+        recipe.addIngredient(ingredient);
+
+        assertFalse(ingredient.toString().contains("Perfect Guacamole"));
+    }
+
+    //fails the test when anything hashes, compares or iterates it
+    private static class UntouchableSet<T> extends HashSet<T> {
+
+        @Override
+        public int hashCode() {
+            throw new AssertionError("hashCode");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            throw new AssertionError("equals");
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            throw new AssertionError("iterator");
+        }
+
+        @Override
+        public String toString() {
+            throw new AssertionError("toString");
+        }
+    }
+}
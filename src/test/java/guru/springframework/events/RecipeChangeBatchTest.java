@@ -0,0 +1,93 @@
+package guru.springframework.events;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class RecipeChangeBatchTest {
+
+    @Mock
+    ApplicationEventPublisher publisher;
+
+    RecipeChangeBatch batch;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @After
+    public void tearDown() {
+        batch.shutdown();
+    }
+
+    @Test
+    public void withoutAWindowEveryCommitIsPublished() {
+        batch = new RecipeChangeBatch(publisher, Duration.ZERO);
+
+        batch.add(Collections.singleton(1L), false);
+        batch.add(Collections.singleton(1L), false);
+
+        verify(publisher, times(2)).publishEvent(RecipeChangedEvent.of(Collections.singleton(1L)));
+    }
+
+    @Test
+    public void aBurstIsPublishedOnce() {
+        //long enough that only the explicit flush publishes
+        batch = new RecipeChangeBatch(publisher, Duration.ofMinutes(1));
+
+        for(int i = 0; i < 200; i++) {
+            batch.add(Collections.singleton(1L), false);
+        }
+        batch.add(Collections.singleton(2L), false);
+        verifyZeroInteractions(publisher);
+
+        batch.flush();
+        verify(publisher).publishEvent(RecipeChangedEvent.of(new HashSet<>(Arrays.asList(1L, 2L))));
+
+        //nothing left over
+        batch.flush();
+        verifyNoMoreInteractions(publisher);
+    }
+
+    @Test
+    public void allRecipesAbsorbsSingleRecipes() {
+        batch = new RecipeChangeBatch(publisher, Duration.ofMinutes(1));
+
+        batch.add(Collections.singleton(1L), false);
+        batch.add(Collections.emptySet(), true);
+        batch.add(Collections.singleton(2L), false);
+        batch.flush();
+
+        verify(publisher).publishEvent(RecipeChangedEvent.all());
+        verifyNoMoreInteractions(publisher);
+    }
+
+    @Test
+    public void publishedWhenTheWindowCloses() {
+        batch = new RecipeChangeBatch(publisher, Duration.ofMillis(20));
+
+        batch.add(Collections.singleton(1L), false);
+        batch.add(Collections.singleton(1L), false);
+
+        ArgumentCaptor<RecipeChangedEvent> event = ArgumentCaptor.forClass(RecipeChangedEvent.class);
+        verify(publisher, timeout(5000)).publishEvent(event.capture());
+        assertTrue(event.getValue().affects(1L));
+
+        //a change after the window opens the next one
+        batch.add(Collections.singleton(2L), false);
+        verify(publisher, timeout(5000).times(2)).publishEvent(any(RecipeChangedEvent.class));
+    }
+}
@@ -0,0 +1,129 @@
+package guru.springframework.events;
+
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "recipe.changes.batch-window=0ms")
+@Import({RecipeChangeListener.class, RecipeChangeListenerTestIT.EventCapture.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RecipeChangeListenerTestIT {
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Autowired
+    EventCapture eventCapture;
+
+    TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setUp() throws Exception {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    public void oneEventPerCommittedTransaction() {
+        Long recipeId = transactionTemplate.execute(status -> {
+            Recipe recipe = new Recipe();
+            recipe.setDescription("Listener Recipe");
+            recipe.addIngredient(new Ingredient("salt", BigDecimal.ONE, unitOfMeasureRepository.findByDescription("Pinch").get()));
+            return recipeRepository.save(recipe).getId();
+        });
+        eventCapture.events.clear();
+
+        transactionTemplate.execute(status -> {
+            Recipe recipe = recipeRepository.findById(recipeId).get();
+            recipe.setDescription("Changed");
+            recipe.getIngredients().iterator().next().setAmount(BigDecimal.TEN);
+            recipe.getCategories().add(categoryRepository.findByDescription("Italian").get());
+            return null;
+        });
+
+        assertEquals(1, eventCapture.events.size());
+        RecipeChangedEvent event = eventCapture.events.get(0);
+        assertFalse(event.isAllRecipes());
+        assertTrue(event.affects(recipeId));
+    }
+
+    @Test
+    public void rollbackPublishesNothing() {
+        eventCapture.events.clear();
+
+        transactionTemplate.execute(status -> {
+            Recipe recipe = new Recipe();
+            recipe.setDescription("Rolled Back");
+            recipeRepository.save(recipe);
+            entityManager.flush();
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertTrue(eventCapture.events.isEmpty());
+    }
+
+    @Test
+    public void categoryChangeAffectsAllRecipes() {
+        eventCapture.events.clear();
+
+        transactionTemplate.execute(status -> {
+            Category category = categoryRepository.findByDescription("Fast Food").get();
+            category.setDescription("Quick Food");
+            return null;
+        });
+        transactionTemplate.execute(status -> {
+            categoryRepository.findByDescription("Quick Food").get().setDescription("Fast Food");
+            return null;
+        });
+
+        assertEquals(2, eventCapture.events.size());
+        assertTrue(eventCapture.events.get(0).isAllRecipes());
+    }
+
+    @Component
+    static class EventCapture {
+        final List<RecipeChangedEvent> events = new ArrayList<>();
+
+        @EventListener
+        public void onRecipeChanged(RecipeChangedEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package guru.springframework.exporter;
+
+import guru.springframework.projections.IngredientItem;
+import guru.springframework.projections.RecipeItem;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class CsvRecipeWriterTest {
+
+    @Test
+    public void writesHeaderAndQuotesFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvRecipeWriter writer = new CsvRecipeWriter(out);
+
+        writer.write(new RecipeItem(1L, null, "Tacos, \"Spicy\"", 10, null, 4, "Test", null, "EASY", "Line one\nLine two",
+                null, Arrays.asList("American", "Mexican"),
+                Arrays.asList(new IngredientItem("salt", new BigDecimal("0.50"), "Teaspoon"),
+                        new IngredientItem("tortillas", BigDecimal.TEN, null))));
+        writer.write(new RecipeItem(2L, null, "Soup", null, null, null, null, null, null, null, null,
+                Collections.emptyList(), Collections.emptyList()));
+        writer.finish();
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals(String.join(",", CsvRecipeWriter.COLUMNS), lines[0]);
+        assertEquals("\"Tacos, \"\"Spicy\"\"\",10,,4,Test,,EASY,\"Line one\nLine two\",,American|Mexican,"
+                + "0.50;Teaspoon;salt|10;;tortillas", lines[1]);
+        assertEquals("Soup,,,,,,,,,,", lines[2]);
+    }
+
+    @Test
+    public void quote() {
+        assertEquals("plain", CsvRecipeWriter.quote("plain"));
+        assertEquals("\"a,b\"", CsvRecipeWriter.quote("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", CsvRecipeWriter.quote("say \"hi\""));
+    }
+}
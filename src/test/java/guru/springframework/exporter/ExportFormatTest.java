@@ -0,0 +1,32 @@
+package guru.springframework.exporter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ExportFormatTest {
+
+    @Test
+    public void fromFileName() {
+        assertEquals(ExportFormat.JSONL, ExportFormat.fromFileName("recipes.jsonl"));
+        assertEquals(ExportFormat.JSONL, ExportFormat.fromFileName("recipes.NDJSON"));
+        assertEquals(ExportFormat.CSV, ExportFormat.fromFileName("recipes.csv.gz"));
+        assertTrue(ExportFormat.isGzip("recipes.csv.GZ"));
+        assertFalse(ExportFormat.isGzip("recipes.csv"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void unsupportedFileName() {
+        ExportFormat.fromFileName("recipes.xml");
+    }
+
+    @Test
+    public void fromParameter() {
+        assertEquals(ExportFormat.CSV, ExportFormat.fromParameter("CSV"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownParameter() {
+        ExportFormat.fromParameter("xml");
+    }
+}
@@ -0,0 +1,185 @@
+package guru.springframework.exporter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.domain.*;
+import guru.springframework.importer.ImportReport;
+import guru.springframework.importer.RecipeImporter;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import guru.springframework.services.RecipeBulkWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@AutoConfigureJson
+//the importer reads the csv back in
+@Import({RecipeExporter.class, RecipeImporter.class, RecipeBulkWriter.class})
+//fetches smaller than the recipes so the cursors page
+@TestPropertySource(properties = "recipe.exporter.fetch-size=2")
+//the export reads on a session of its own, so the recipes have to be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RecipeExporterTestIT {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    RecipeExporter recipeExporter;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    RecipeImporter recipeImporter;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() throws Exception {
+        UnitOfMeasure cup = unitOfMeasureRepository.findByDescription("Cup").get();
+        for(int i = 0; i < 5; i++) {
+            Recipe recipe = new Recipe();
+            recipe.setDescription("Export " + i);
+            recipe.setPrepTime(i);
+            recipe.setDifficulty(Difficulty.EASY);
+            //every other recipe without ingredients or categories, the merge has to skip over them
+            if(i % 2 == 0) {
+                recipe.getCategories().add(categoryRepository.findByDescription("Mexican").get());
+                recipe.getCategories().add(categoryRepository.findByDescription("American").get());
+                recipe.addIngredient(new Ingredient("rice", BigDecimal.ONE, cup));
+                recipe.addIngredient(new Ingredient("water", new BigDecimal("2"), cup));
+                Notes notes = new Notes();
+                notes.setRecipeNotes("Notes " + i);
+                notes.setRecipe(recipe);
+                recipe.setNotes(notes);
+            }
+            recipeRepository.save(recipe);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        recipeRepository.deleteAll();
+    }
+
+    @Test
+    public void exportsJsonLines() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ExportReport report = recipeExporter.exportRecipes(out, ExportFormat.JSONL, false);
+
+        List<String> lines = lines(new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(5, report.getExported());
+        assertEquals(out.size(), report.getBytes());
+        assertEquals(5, lines.size());
+
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("Export 0", first.get("description").asText());
+        assertEquals("EASY", first.get("difficulty").asText());
+        assertEquals("Notes 0", first.get("notes").asText());
+        assertEquals("American", first.get("categories").get(0).asText());
+        assertEquals("Mexican", first.get("categories").get(1).asText());
+        assertEquals(2, first.get("ingredients").size());
+        assertEquals("Cup", first.get("ingredients").get(0).get("unitOfMeasure").asText());
+
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertEquals("Export 1", second.get("description").asText());
+        assertEquals(0, second.get("categories").size());
+        assertEquals(0, second.get("ingredients").size());
+        assertNull(second.get("notes"));
+    }
+
+    @Test
+    public void exportsGzippedCsvToFile() throws Exception {
+        Path output = folder.getRoot().toPath().resolve("recipes.csv.gz");
+
+        ExportReport report = recipeExporter.exportRecipes(output);
+
+        assertEquals(5, report.getExported());
+        assertEquals(Files.size(output), report.getBytes());
+        try(BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(output)), StandardCharsets.UTF_8))) {
+            List<String> lines = in.lines().collect(Collectors.toList());
+            assertEquals(6, lines.size());
+            assertEquals(String.join(",", CsvRecipeWriter.COLUMNS), lines.get(0));
+            String last = lines.get(5);
+            assertTrue(last.startsWith("Export 4,4,,,,,EASY,,Notes 4,American|Mexican,"));
+            //ingredients come out in id order, the order the set was saved in
+            assertTrue(last.contains("1.00;Cup;rice"));
+            assertTrue(last.contains("2.00;Cup;water"));
+        }
+    }
+
+    @Test
+    public void csvWithDelimitersInNamesImportsBack() throws Exception {
+        Category texMex = new Category();
+        texMex.setDescription("Tex|Mex");
+        texMex = categoryRepository.save(texMex);
+        try {
+            Recipe recipe = new Recipe();
+            recipe.setDescription("Round Trip");
+            recipe.getCategories().add(texMex);
+            recipe.addIngredient(new Ingredient("salt; pepper | herbs \\ more", BigDecimal.ONE,
+                    unitOfMeasureRepository.findByDescription("Pinch").get()));
+            recipeRepository.save(recipe);
+            Path csv = folder.getRoot().toPath().resolve("recipes.csv");
+            recipeExporter.exportRecipes(csv);
+            recipeRepository.deleteAll();
+
+            ImportReport report = recipeImporter.importRecipes(csv, folder.getRoot().toPath().resolve("recipes.rejects"));
+
+            assertEquals(6, report.getImported());
+            assertEquals("salt; pepper | herbs \\ more", jdbcTemplate.queryForObject("select i.description from ingredient i"
+                    + " join recipe r on r.id = i.recipe_id where r.description = 'Round Trip'", String.class));
+            assertEquals("Tex|Mex", jdbcTemplate.queryForObject("select c.description from category c"
+                    + " join recipe_category rc on rc.category_id = c.id join recipe r on r.id = rc.recipe_id"
+                    + " where r.description = 'Round Trip'", String.class));
+        } finally {
+            recipeRepository.deleteAll();
+            categoryRepository.delete(texMex);
+        }
+    }
+
+    private static List<String> lines(String text) {
+        return new BufferedReader(new java.io.StringReader(text)).lines().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,70 @@
+package guru.springframework.importer;
+
+import guru.springframework.domain.Recipe;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class CsvRecipeParserTest {
+
+    @Test
+    public void columnsByHeaderName() {
+        CsvRecipeParser parser = new CsvRecipeParser(ParserFixtures.referenceData(),
+                "servings,description,directions,categories,ingredients");
+
+        Recipe recipe = parser.parse("4,\"Tacos, Spicy\",\"1. Grill\n2. Serve \"\"hot\"\"\",Mexican|Fast Food,8;Each;corn tortillas|0.5;cup;rice");
+
+        assertEquals("Tacos, Spicy", recipe.getDescription());
+        assertEquals(Integer.valueOf(4), recipe.getServings());
+        assertEquals("1. Grill\n2. Serve \"hot\"", recipe.getDirections());
+        assertNull(recipe.getNotes());
+        assertEquals(2, recipe.getCategories().size());
+        assertTrue(recipe.getIngredients().stream()
+                .anyMatch(i -> i.getDescription().equals("rice") && i.getAmount().equals(new BigDecimal("0.5"))));
+    }
+
+    @Test
+    public void missingTrailingColumnsAreEmpty() {
+        CsvRecipeParser parser = new CsvRecipeParser(ParserFixtures.referenceData(), "description,prepTime,notes");
+
+        Recipe recipe = parser.parse("Toast");
+
+        assertEquals("Toast", recipe.getDescription());
+        assertNull(recipe.getPrepTime());
+    }
+
+    @Test
+    public void split() {
+        assertEquals(asList("a", "", "b,c", "d\"e"), CsvRecipeParser.split("a,,\"b,c\",\"d\"\"e\""));
+    }
+
+    @Test
+    public void escapedDelimitersInNames() {
+        CsvRecipeParser parser = new CsvRecipeParser(ParserFixtures.referenceData(), "description,ingredients");
+
+        Recipe recipe = parser.parse("Soup,1;cup;salt\\; pepper \\| herbs\\\\|2;cup;water");
+
+        assertEquals(2, recipe.getIngredients().size());
+        assertTrue(recipe.getIngredients().stream().anyMatch(i -> i.getDescription().equals("salt; pepper | herbs\\")));
+        assertEquals(asList("a\\|b", "c"), CsvRecipeParser.split("a\\|b|c", '|', 0));
+        assertEquals("a|b;c\\d\\e", CsvRecipeParser.unescape("a\\|b\\;c\\\\d\\e"));
+    }
+
+    @Test(expected = RejectedRecordException.class)
+    public void invalidIngredient() {
+        new CsvRecipeParser(ParserFixtures.referenceData(), "description,ingredients").parse("Toast,2 slices bread");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void unknownColumn() {
+        new CsvRecipeParser(ParserFixtures.referenceData(), "description,calories");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void headerWithoutDescription() {
+        new CsvRecipeParser(ParserFixtures.referenceData(), "prepTime,cookTime");
+    }
+}
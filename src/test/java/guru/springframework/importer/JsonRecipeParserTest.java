@@ -0,0 +1,59 @@
+package guru.springframework.importer;
+
+import guru.springframework.domain.Difficulty;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Recipe;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+public class JsonRecipeParserTest {
+
+    JsonRecipeParser parser = new JsonRecipeParser(ParserFixtures.referenceData());
+
+    @Test
+    public void parsesTheApiShape() {
+        Recipe recipe = parser.parse("{\"id\":99,\"description\":\"Tacos\",\"prepTime\":10,\"servings\":\"4\","
+                + "\"difficulty\":\"easy\",\"directions\":\"Grill\",\"notes\":\"Serve hot\",\"categories\":[\"mexican\",\"Fast Food\"],"
+                + "\"ingredients\":[{\"description\":\"corn tortillas\",\"amount\":8,\"unitOfMeasure\":\"each\"},"
+                + "{\"description\":\"rice\",\"amount\":0.5,\"unitOfMeasure\":\"Cup\"}]}");
+
+        assertNull(recipe.getId());
+        assertEquals("Tacos", recipe.getDescription());
+        assertEquals(Integer.valueOf(10), recipe.getPrepTime());
+        assertNull(recipe.getCookTime());
+        assertEquals(Integer.valueOf(4), recipe.getServings());
+        assertEquals(Difficulty.EASY, recipe.getDifficulty());
+        assertEquals("Serve hot", recipe.getNotes().getRecipeNotes());
+        assertSame(recipe, recipe.getNotes().getRecipe());
+        assertEquals(2, recipe.getCategories().size());
+        assertEquals(2, recipe.getIngredients().size());
+        Ingredient rice = recipe.getIngredients().stream().filter(i -> i.getDescription().equals("rice")).findFirst().get();
+        assertEquals(new BigDecimal("0.5"), rice.getAmount());
+        assertEquals("Cup", rice.getUom().getDescription());
+        assertSame(recipe, rice.getRecipe());
+    }
+
+    @Test
+    public void rejections() {
+        assertRejected("{\"description\":", "Invalid JSON");
+        assertRejected("[1,2]", "Expected A JSON Object");
+        assertRejected("{\"prepTime\":5}", "Missing Description");
+        assertRejected("{\"description\":\"Tacos\",\"prepTime\":\"soon\"}", "Invalid prepTime: soon");
+        assertRejected("{\"description\":\"Tacos\",\"difficulty\":\"EXTREME\"}", "Invalid difficulty: EXTREME");
+        assertRejected("{\"description\":\"Tacos\",\"categories\":[\"Thai\"]}", "Unknown Category: Thai");
+        assertRejected("{\"description\":\"Tacos\",\"ingredients\":[{\"description\":\"salt\",\"unitOfMeasure\":\"Gram\"}]}",
+                "Unknown Unit Of Measure: Gram");
+    }
+
+    private void assertRejected(String record, String reason) {
+        try {
+            parser.parse(record);
+            fail("Expected " + reason);
+        } catch (RejectedRecordException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(reason));
+        }
+    }
+}
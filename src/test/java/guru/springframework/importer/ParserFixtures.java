@@ -0,0 +1,28 @@
+package guru.springframework.importer;
+
+import guru.springframework.domain.Category;
+import guru.springframework.domain.UnitOfMeasure;
+
+import java.util.Arrays;
+
+final class ParserFixtures {
+
+    private ParserFixtures() {
+    }
+
+    static ReferenceData referenceData() {
+        Category mexican = new Category();
+        mexican.setId(3L);
+        mexican.setDescription("Mexican");
+        Category fastFood = new Category();
+        fastFood.setId(4L);
+        fastFood.setDescription("Fast Food");
+        UnitOfMeasure each = new UnitOfMeasure();
+        each.setId(7L);
+        each.setDescription("Each");
+        UnitOfMeasure cup = new UnitOfMeasure();
+        cup.setId(3L);
+        cup.setDescription("Cup");
+        return new ReferenceData(Arrays.asList(mexican, fastFood), Arrays.asList(each, cup));
+    }
+}
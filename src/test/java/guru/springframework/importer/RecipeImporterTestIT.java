@@ -0,0 +1,119 @@
+package guru.springframework.importer;
+
+import guru.springframework.services.RecipeBulkWriter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Import({RecipeImporter.class, RecipeBulkWriter.class})
+//small chunks and batches so every stage hands off many times
+@TestPropertySource(properties = {"recipe.importer.parsers=3", "recipe.importer.writers=2",
+        "recipe.importer.chunk-size=7", "recipe.importer.batch-size=5", "recipe.importer.queue-capacity=1"})
+//each batch commits on its own, like a real import
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RecipeImporterTestIT {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    RecipeImporter recipeImporter;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void importsJsonLinesAndRejectsBadRecords() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            lines.add("{\"description\":\"Json Import " + i + "\",\"source\":\"Json Import Test\",\"prepTime\":" + i
+                    + ",\"categories\":[\"Mexican\"],\"ingredients\":[{\"description\":\"salt\",\"amount\":1,\"unitOfMeasure\":\"Pinch\"}]}");
+        }
+        lines.add(10, "{\"description\":\"Broken\"");
+        lines.add(50, "{\"description\":\"Thai Curry\",\"source\":\"Json Import Test\",\"categories\":[\"Thai\"]}");
+        //fails in the database, taking its batch down to one by one saves
+        lines.add(70, "{\"description\":\"" + String.join("", Collections.nCopies(300, "x")) + "\",\"source\":\"Json Import Test\"}");
+        Path input = write("recipes.jsonl", lines);
+        Path rejects = folder.getRoot().toPath().resolve("recipes.rejects");
+
+        ImportReport report = recipeImporter.importRecipes(input, rejects);
+
+        assertEquals(103, report.getRead());
+        assertEquals(100, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(Integer.valueOf(100), jdbcTemplate.queryForObject(
+                "select count(*) from recipe where source = 'Json Import Test'", Integer.class));
+        assertEquals(Integer.valueOf(100), jdbcTemplate.queryForObject("select count(*) from recipe_category rc"
+                + " join recipe r on r.id = rc.recipe_id where r.source = 'Json Import Test'", Integer.class));
+        assertEquals(Integer.valueOf(100), jdbcTemplate.queryForObject("select count(*) from ingredient i"
+                + " join recipe r on r.id = i.recipe_id where r.source = 'Json Import Test'", Integer.class));
+
+        List<String> rejected = Files.readAllLines(rejects, StandardCharsets.UTF_8);
+        assertEquals(3, rejected.size());
+        assertTrue(rejected.stream().anyMatch(line -> line.startsWith("11\tInvalid JSON")));
+        assertTrue(rejected.stream().anyMatch(line -> line.startsWith("51\tUnknown Category: Thai")));
+        assertTrue(rejected.stream().anyMatch(line -> line.startsWith("71\t")));
+    }
+
+    @Test
+    public void importsCsv() throws Exception {
+        Path input = write("recipes.csv", java.util.Arrays.asList(
+                "description,source,directions,ingredients",
+                "Csv Tacos,Csv Import Test,\"1. Grill",
+                "2. Serve\",8;Each;corn tortillas|1;Cup;rice",
+                "Csv Soup,Csv Import Test,Simmer,",
+                ",Csv Import Test,No description,"));
+        Path rejects = folder.getRoot().toPath().resolve("csv.rejects");
+
+        ImportReport report = recipeImporter.importRecipes(input, rejects);
+
+        assertEquals(3, report.getRead());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals("1. Grill\n2. Serve", jdbcTemplate.queryForObject(
+                "select directions from recipe where description = 'Csv Tacos'", String.class));
+        assertEquals(Integer.valueOf(2), jdbcTemplate.queryForObject("select count(*) from ingredient i"
+                + " join recipe r on r.id = i.recipe_id where r.description = 'Csv Tacos'", Integer.class));
+        assertTrue(Files.readAllLines(rejects, StandardCharsets.UTF_8).get(0).startsWith("5\tMissing Description"));
+    }
+
+    @Test
+    public void nothingRejectedNoRejectFile() throws Exception {
+        Path input = write("empty.jsonl", Collections.singletonList(""));
+        Path rejects = folder.getRoot().toPath().resolve("empty.rejects");
+
+        ImportReport report = recipeImporter.importRecipes(input, rejects);
+
+        assertEquals(0, report.getRead());
+        assertFalse(Files.exists(rejects));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void unsupportedFile() throws Exception {
+        recipeImporter.importRecipes(write("recipes.xml", Collections.emptyList()), folder.getRoot().toPath().resolve("x"));
+    }
+
+    private Path write(String name, List<String> lines) throws Exception {
+        return Files.write(folder.getRoot().toPath().resolve(name), lines, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,47 @@
+package guru.springframework.importer;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class RecordReaderTest {
+
+    @Test
+    public void oneRecordPerLineSkippingBlankOnes() throws Exception {
+        RecordReader reader = reader("{\"a\":1}\n\n  \n{\"a\":\"x\\\"y\"}\n", false);
+
+        assertRecord(reader.next(), 1, "{\"a\":1}");
+        assertRecord(reader.next(), 4, "{\"a\":\"x\\\"y\"}");
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void csvQuotedFieldsSpanLines() throws Exception {
+        RecordReader reader = reader("description,directions\nTacos,\"1. Grill\n2. Serve \"\"hot\"\"\"\nSoup,Simmer\n", true);
+
+        assertRecord(reader.next(), 1, "description,directions");
+        assertRecord(reader.next(), 2, "Tacos,\"1. Grill\n2. Serve \"\"hot\"\"\"");
+        assertRecord(reader.next(), 4, "Soup,Simmer");
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void unterminatedQuoteRunsToTheEnd() throws Exception {
+        RecordReader reader = reader("Tacos,\"open\nstill open\n", true);
+
+        assertRecord(reader.next(), 1, "Tacos,\"open\nstill open");
+        assertNull(reader.next());
+    }
+
+    private static RecordReader reader(String input, boolean csv) {
+        return new RecordReader(new BufferedReader(new StringReader(input)), csv);
+    }
+
+    private static void assertRecord(ImportRecord record, long lineNumber, String text) {
+        assertEquals(lineNumber, record.getLineNumber());
+        assertEquals(text, record.getText());
+    }
+}
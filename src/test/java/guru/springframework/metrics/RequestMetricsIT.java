@@ -0,0 +1,45 @@
+package guru.springframework.metrics;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs pages end to end and reads the breakdown header and the Prometheus scrape they leave behind.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"recipe.metrics.server-timing=true", "recipe.page-cache.enabled=false"})
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+public class RequestMetricsIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void pagesAreTimedAndScraped() throws Exception {
+        mockMvc.perform(get("/index"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestMetricsInterceptor.SERVER_TIMING, startsWith("db;desc=\"1 statements\"")));
+        mockMvc.perform(get("/recipe/show/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestMetricsInterceptor.SERVER_TIMING, startsWith("db;desc=\"1 statements\"")));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("recipe_service_seconds_count{class=\"guru.springframework.services.RecipeServiceImpl\",exception=\"none\",method=\"findById\",")))
+                .andExpect(content().string(containsString("recipe_request_sql_statements_count{uri=\"/recipe/show/{id}\",}")))
+                .andExpect(content().string(containsString("recipe_view_render_seconds_count{uri=\"/index\",}")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending")));
+    }
+}
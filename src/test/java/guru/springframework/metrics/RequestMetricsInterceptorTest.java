@@ -0,0 +1,99 @@
+package guru.springframework.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+
+public class RequestMetricsInterceptorTest {
+
+    MeterRegistry meterRegistry;
+    MockHttpServletRequest request;
+    MockHttpServletResponse response;
+
+    @Before
+    public void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest("GET", "/recipe/show/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/recipe/show/{id}");
+        response = new MockHttpServletResponse();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        RequestTimings.unbind();
+    }
+
+    @Test
+    public void recordsStatementsRenderAndServerTiming() throws Exception {
+        RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor(meterRegistry, Duration.ofSeconds(1), true);
+
+        interceptor.preHandle(request, response, null);
+        executeStatements(2);
+        interceptor.postHandle(request, response, null, new ModelAndView("recipes/show"));
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertTrue(response.getHeader(RequestMetricsInterceptor.SERVER_TIMING).startsWith("db;desc=\"2 statements\";dur="));
+        assertEquals(2.0, meterRegistry.get("recipe.request.sql.statements").tag("uri", "/recipe/show/{id}")
+                .summary().totalAmount(), 0.0);
+        assertEquals(1, meterRegistry.get("recipe.request.sql.time").timer().count());
+        assertEquals(1, meterRegistry.get("recipe.view.render").tag("uri", "/recipe/show/{id}").timer().count());
+        assertNull(meterRegistry.find("recipe.sql.slow").counter());
+        assertNull(RequestTimings.current());
+    }
+
+    @Test
+    public void countsSlowStatements() throws Exception {
+        RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor(meterRegistry, Duration.ZERO, false);
+
+        interceptor.preHandle(request, response, null);
+        executeStatements(1);
+        interceptor.postHandle(request, response, null, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertNull(response.getHeader(RequestMetricsInterceptor.SERVER_TIMING));
+        assertEquals(1.0, meterRegistry.get("recipe.sql.slow").counter().count(), 0.0);
+        assertNull(meterRegistry.find("recipe.view.render").timer());
+    }
+
+    //the first pass hands over to the executor, the async dispatch finishes with the same timings
+    @Test
+    public void asyncDispatchKeepsTimings() throws Exception {
+        RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor(meterRegistry, Duration.ofSeconds(1), false);
+
+        interceptor.preHandle(request, response, null);
+        RequestTimings timings = RequestTimings.current();
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+        assertNull(RequestTimings.current());
+
+        RequestTimings.bind(timings);
+        executeStatements(3);
+        RequestTimings.unbind();
+
+        interceptor.preHandle(request, response, null);
+        assertSame(timings, RequestTimings.current());
+        interceptor.postHandle(request, response, null, new ModelAndView("index"));
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(3.0, meterRegistry.get("recipe.request.sql.statements").summary().totalAmount(), 0.0);
+    }
+
+    private static void executeStatements(int count) {
+        SqlStatementInspector inspector = new SqlStatementInspector();
+        SqlTimingSessionListener listener = new SqlTimingSessionListener();
+        for(int i = 0; i < count; i++) {
+            assertEquals("select " + i, inspector.inspect("select " + i));
+            listener.jdbcExecuteStatementStart();
+            listener.jdbcExecuteStatementEnd();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package guru.springframework.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class RequestTimingsTest {
+
+    @After
+    public void tearDown() throws Exception {
+        RequestTimings.unbind();
+    }
+
+    @Test
+    public void keepsSlowestStatement() {
+        RequestTimings timings = new RequestTimings();
+
+        timings.statementPrepared("select 1");
+        timings.statementExecuted(10);
+        timings.statementPrepared("select 2");
+        timings.statementExecuted(30);
+        timings.statementPrepared("select 3");
+        timings.statementExecuted(20);
+
+        assertEquals(3, timings.getStatements());
+        assertEquals(60, timings.getSqlNanos());
+        assertEquals(30, timings.getSlowestNanos());
+        assertEquals("select 2", timings.getSlowestSql());
+    }
+
+    @Test
+    public void wrapCarriesTimingsToAnotherThread() throws Exception {
+        RequestTimings timings = new RequestTimings();
+        RequestTimings.bind(timings);
+        AtomicReference<RequestTimings> seen = new AtomicReference<>();
+        AtomicReference<RequestTimings> after = new AtomicReference<>();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.execute(RequestTimings.wrap(() -> seen.set(RequestTimings.current())));
+        executor.execute(() -> after.set(RequestTimings.current()));
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertSame(timings, seen.get());
+        assertNull(after.get());
+    }
+
+    @Test
+    public void wrapWithoutTimings() {
+        Runnable task = () -> { };
+
+        assertSame(task, RequestTimings.wrap(task));
+    }
+}
@@ -0,0 +1,183 @@
+package guru.springframework.popularity;
+
+import guru.springframework.domain.Recipe;
+import guru.springframework.events.RecipeChangedEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+//only the flushes the tests make, and every flush halves the scores
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {"recipe.popularity.flush-interval=1h", "recipe.popularity.half-life=1h"})
+@Import(RecipePopularity.class)
+@DirtiesContext
+public class RecipePopularityTestIT {
+
+    @Autowired
+    RecipePopularity recipePopularity;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    Long tacosId;
+    Long soupId;
+
+    @Before
+    public void setUp() throws Exception {
+        tacosId = save("Tacos");
+        soupId = save("Soup");
+    }
+
+    @Test
+    public void viewsAreWrittenOnFlush() {
+        recordViews(tacosId, 3);
+        recordViews(soupId, 1);
+        assertEquals(0, views(tacosId));
+
+        recipePopularity.flush();
+        assertEquals(3, views(tacosId));
+        assertEquals(1, views(soupId));
+
+        recordViews(tacosId, 2);
+        recipePopularity.flush();
+        assertEquals(5, views(tacosId));
+    }
+
+    @Test
+    public void recentViewsTrendAboveOlderOnes() {
+        recordViews(tacosId, 10);
+        recipePopularity.flush();
+        assertEquals(tacosId, recipePopularity.trending().get(0).getRecipeId());
+
+        //tacos decay to 5, soup has 6 fresh views
+        recordViews(soupId, 6);
+        recipePopularity.flush();
+
+        List<TrendingRecipe> trending = recipePopularity.trending();
+        assertEquals("Soup", trending.get(0).getDescription());
+        assertEquals(6, trending.get(0).getViews());
+        assertEquals(10, trending.get(1).getViews());
+    }
+
+    @Test
+    public void concurrentViewsAreAllCounted() throws Exception {
+        List<Thread> viewers = new ArrayList<>();
+        for(int i = 0; i < 4; i++) {
+            Thread viewer = new Thread(() -> recordViews(tacosId, 20_000));
+            viewer.start();
+            viewers.add(viewer);
+        }
+        //flushes racing with the increments, each one decays the score as if an interval had passed
+        for(Thread viewer : viewers) {
+            while(viewer.isAlive()) {
+                recipePopularity.flush();
+            }
+        }
+        recipePopularity.flush();
+
+        assertEquals(80_000, views(tacosId));
+    }
+
+    @Test
+    public void aFailedWriteIsScoredOnceItSucceeds() {
+        JdbcTemplate failingOnce = spy(jdbcTemplate);
+        doThrow(new QueryTimeoutException("timeout")).doCallRealMethod()
+                .when(failingOnce).batchUpdate(eq(RecipePopularity.UPDATE_SQL), anyList());
+        RecipePopularity popularity = new RecipePopularity(failingOnce, Duration.ofHours(1), Duration.ofHours(1), 5);
+
+        recordViews(popularity, tacosId, 4);
+        try {
+            popularity.flush();
+            fail("Expected the write to fail");
+        } catch (QueryTimeoutException e) {
+            assertTrue(popularity.trending().isEmpty());
+        }
+
+        //tacos would outrank soup if their 4 views were scored twice
+        recordViews(popularity, soupId, 5);
+        popularity.flush();
+
+        assertEquals(4, views(tacosId));
+        assertEquals(asList(soupId, tacosId), popularity.trending().stream()
+                .map(TrendingRecipe::getRecipeId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void deletingARecipeDropsItsViews() {
+        recordViews(soupId, 3);
+        recipePopularity.flush();
+        recordViews(soupId, 2);
+
+        jdbcTemplate.update("delete from recipe where id = ?", soupId);
+        recipePopularity.onRecipeChanged(RecipeChangedEvent.of(Collections.singleton(soupId)));
+        recipePopularity.flush();
+
+        assertEquals(0, views(soupId));
+        assertTrue(recipePopularity.trending().stream().noneMatch(recipe -> recipe.getRecipeId().equals(soupId)));
+    }
+
+    @Test
+    public void viewsOfAMissingRecipeAreNotWritten() {
+        recordViews(-1L, 5);
+        recipePopularity.flush();
+
+        assertEquals(0, views(-1L));
+    }
+
+    @Test
+    public void deletedRecipesDoNotTrend() {
+        recordViews(tacosId, 2);
+        recordViews(-1L, 5);
+        recipePopularity.flush();
+
+        assertEquals(1, recipePopularity.trending().size());
+        assertEquals(tacosId, recipePopularity.trending().get(0).getRecipeId());
+    }
+
+    private Long save(String description) {
+        Recipe recipe = new Recipe();
+        recipe.setDescription(description);
+        //flushed, the trending query reads the recipes through JDBC
+        return entityManager.persistAndFlush(recipe).getId();
+    }
+
+    private void recordViews(Long recipeId, int views) {
+        recordViews(recipePopularity, recipeId, views);
+    }
+
+    private static void recordViews(RecipePopularity popularity, Long recipeId, int views) {
+        for(int i = 0; i < views; i++) {
+            popularity.recordView(recipeId);
+        }
+    }
+
+    private long views(Long recipeId) {
+        List<Long> views = jdbcTemplate.queryForList("select views from recipe_view_count where recipe_id = ?",
+                Long.class, recipeId);
+        return views.stream().collect(Collectors.summingLong(Long::longValue));
+    }
+}
@@ -0,0 +1,109 @@
+package guru.springframework.repositories;
+
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Notes;
+import guru.springframework.domain.Recipe;
+import guru.springframework.domain.UnitOfMeasure;
+import guru.springframework.projections.RecipeSummary;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class RecipeRepositoryTestIT {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Long detailedRecipeId;
+
+    @Before
+    public void setUp() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Recipe recipe = new Recipe();
+            recipe.setDescription("Recipe " + i);
+
+            Notes notes = new Notes();
+            notes.setRecipeNotes(new String(new char[RecipeSummary.NOTES_PREVIEW_LENGTH * 2]).replace('\0', 'x'));
+            notes.setRecipe(recipe);
+            recipe.setNotes(notes);
+
+            entityManager.persist(recipe);
+        }
+
+        UnitOfMeasure cup = unitOfMeasureRepository.findByDescription("Cup").get();
+        Recipe detailed = new Recipe();
+        detailed.setDescription("Detailed");
+        Notes notes = new Notes();
+        notes.setRecipe(detailed);
+        detailed.setNotes(notes);
+        for (int i = 0; i < 25; i++) {
+            detailed.addIngredient(new Ingredient("ingredient " + i, BigDecimal.ONE, cup));
+        }
+        detailed.getCategories().add(categoryRepository.findByDescription("American").get());
+        detailed.getCategories().add(categoryRepository.findByDescription("Mexican").get());
+        detailedRecipeId = entityManager.persistAndGetId(detailed, Long.class);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void findSummariesAfter() {
+        List<RecipeSummary> firstPage = recipeRepository.findSummariesAfter(0L, PageRequest.of(0, 3));
+        assertEquals(3, firstPage.size());
+        assertEquals(RecipeSummary.NOTES_PREVIEW_LENGTH, firstPage.get(0).getNotesPreview().length());
+
+        Long lastId = firstPage.get(2).getId();
+        List<RecipeSummary> secondPage = recipeRepository.findSummariesAfter(lastId, PageRequest.of(0, 3));
+        assertEquals(3, secondPage.size());
+        assertTrue(secondPage.get(0).getId() > lastId);
+
+        lastId = secondPage.get(2).getId();
+        assertTrue(recipeRepository.findSummariesAfter(lastId, PageRequest.of(0, 3)).isEmpty());
+    }
+
+    @Test
+    public void findWithDetailsByIdUsesSingleStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Recipe recipe = recipeRepository.findWithDetailsById(detailedRecipeId).get();
+
+        //walk everything recipe/show renders
+        recipe.getNotes().getRecipeNotes();
+        recipe.getCategories().forEach(Category::getDescription);
+        recipe.getIngredients().forEach(ingredient -> ingredient.getUom().getDescription());
+
+        assertEquals(25, recipe.getIngredients().size());
+        assertEquals(2, recipe.getCategories().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
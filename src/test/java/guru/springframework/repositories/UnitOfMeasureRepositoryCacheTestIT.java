@@ -0,0 +1,81 @@
+package guru.springframework.repositories;
+
+import guru.springframework.config.CacheConfig;
+import guru.springframework.domain.UnitOfMeasure;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.Assert.*;
+
+//every repository call runs in its own transaction, like separate requests would
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Import(CacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UnitOfMeasureRepositoryCacheTestIT {
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @Before
+    public void setUp() throws Exception {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void findByDescriptionIsCached() {
+        unitOfMeasureRepository.findByDescription("Cup");
+
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals("Cup", unitOfMeasureRepository.findByDescription("Cup").get().getDescription());
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findByIdIsCached() {
+        Long id = unitOfMeasureRepository.findByDescription("Pint").get().getId();
+
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals("Pint", unitOfMeasureRepository.findById(id).get().getDescription());
+
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void writeInvalidatesQueryCache() {
+        assertFalse(unitOfMeasureRepository.findByDescription("Gallon").isPresent());
+
+        UnitOfMeasure gallon = new UnitOfMeasure();
+        gallon.setDescription("Gallon");
+        gallon = unitOfMeasureRepository.save(gallon);
+
+        try {
+            assertTrue(unitOfMeasureRepository.findByDescription("Gallon").isPresent());
+            assertEquals(0, statistics.getQueryCacheHitCount());
+        } finally {
+            unitOfMeasureRepository.delete(gallon);
+        }
+    }
+}
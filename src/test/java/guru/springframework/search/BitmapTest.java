@@ -0,0 +1,58 @@
+package guru.springframework.search;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BitmapTest {
+
+    @Test
+    public void growsPastItsInitialSize() {
+        Bitmap bitmap = new Bitmap(10);
+        bitmap.set(3);
+        bitmap.set(1000);
+
+        assertTrue(bitmap.get(1000));
+        assertFalse(bitmap.get(999));
+        assertEquals(2, bitmap.cardinality());
+
+        bitmap.clear(1000);
+        bitmap.clear(5000);
+        assertEquals(1, bitmap.cardinality());
+    }
+
+    @Test
+    public void andOrAndCounts() {
+        Bitmap a = new Bitmap(64);
+        Bitmap b = new Bitmap(256);
+        a.set(1);
+        a.set(63);
+        b.set(63);
+        b.set(200);
+
+        assertEquals(1, Bitmap.andCardinality(a, b));
+
+        Bitmap union = a.copy();
+        union.or(b);
+        assertEquals(3, union.cardinality());
+        assertEquals(2, a.cardinality());
+
+        union.and(a);
+        assertEquals(2, union.cardinality());
+        assertFalse(union.get(200));
+    }
+
+    @Test
+    public void nextSetBit() {
+        Bitmap bitmap = new Bitmap(0);
+        bitmap.set(5);
+        bitmap.set(64);
+        bitmap.set(130);
+
+        assertEquals(5, bitmap.nextSetBit(0));
+        assertEquals(64, bitmap.nextSetBit(6));
+        assertEquals(130, bitmap.nextSetBit(65));
+        assertEquals(-1, bitmap.nextSetBit(131));
+        assertEquals(-1, bitmap.nextSetBit(100_000));
+    }
+}
@@ -0,0 +1,45 @@
+package guru.springframework.search;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DocIdMapperTest {
+
+    @Test
+    public void assignGrowsPastInitialCapacity() {
+        DocIdMapper mapper = new DocIdMapper(0);
+
+        for(long recipeId = 1; recipeId <= 1000; recipeId++) {
+            assertEquals(recipeId - 1, mapper.assign(recipeId * 31));
+        }
+
+        for(long recipeId = 1; recipeId <= 1000; recipeId++) {
+            int doc = mapper.doc(recipeId * 31);
+            assertEquals(recipeId - 1, doc);
+            assertEquals(recipeId * 31, mapper.recipeId(doc));
+        }
+        assertEquals(1000, mapper.docCount());
+    }
+
+    @Test
+    public void reassignReplacesDoc() {
+        DocIdMapper mapper = new DocIdMapper(4);
+        mapper.assign(7L);
+        mapper.assign(8L);
+
+        assertEquals(2, mapper.assign(7L));
+        assertEquals(2, mapper.doc(7L));
+    }
+
+    @Test
+    public void remove() {
+        DocIdMapper mapper = new DocIdMapper(4);
+        mapper.assign(7L);
+
+        assertEquals(0, mapper.remove(7L));
+        assertEquals(DocIdMapper.NO_DOC, mapper.doc(7L));
+        assertEquals(DocIdMapper.NO_DOC, mapper.remove(7L));
+        assertEquals(DocIdMapper.NO_DOC, mapper.remove(99L));
+    }
+}
@@ -0,0 +1,147 @@
+package guru.springframework.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class FacetIndexTest {
+
+    FacetIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        Map<Long, String> categories = new HashMap<>();
+        categories.put(1L, "Mexican");
+        categories.put(2L, "American");
+
+        index = new FacetIndex(categories, 4);
+        index.add(new FacetDocument(1L, set(1L), "EASY", 10, 0, 4));
+        index.add(new FacetDocument(2L, set(1L, 2L), "MODERATE", 20, 15, 4));
+        index.add(new FacetDocument(3L, set(2L), "EASY", 45, 90, 8));
+        index.add(new FacetDocument(4L, set(), "HARD", null, null, null));
+    }
+
+    @Test
+    public void noSelectionMatchesEverything() {
+        FacetResult result = index.filter(FacetSelection.NONE, 0, 10);
+
+        assertEquals(4, result.getTotal());
+        assertEquals(asList(1L, 2L, 3L, 4L), result.getRecipeIds());
+        assertNull(result.getLastId());
+        assertEquals(2, count(result, Facet.DIFFICULTY, "EASY"));
+        assertEquals(2, count(result, Facet.CATEGORY, "1"));
+        assertEquals(2, count(result, Facet.PREP_TIME, "0-15") + count(result, Facet.PREP_TIME, "16-30"));
+        assertEquals(1, count(result, Facet.COOK_TIME, "61+"));
+    }
+
+    @Test
+    public void valuesOfOneFacetAreAlternatives() {
+        FacetResult result = index.filter(selection(Facet.DIFFICULTY, "EASY", "HARD"), 0, 10);
+
+        assertEquals(asList(1L, 3L, 4L), result.getRecipeIds());
+    }
+
+    @Test
+    public void facetsAreIntersected() {
+        FacetSelection selection = FacetSelection.from(params(Facet.DIFFICULTY, "EASY", Facet.CATEGORY, "2"));
+        FacetResult result = index.filter(selection, 0, 10);
+
+        assertEquals(asList(3L), result.getRecipeIds());
+        assertEquals(1, result.getTotal());
+    }
+
+    @Test
+    public void countsIgnoreTheFacetsOwnSelection() {
+        FacetResult result = index.filter(selection(Facet.DIFFICULTY, "EASY"), 0, 10);
+
+        //other difficulties keep their full counts so they can be added to the selection
+        assertEquals(1, count(result, Facet.DIFFICULTY, "MODERATE"));
+        assertEquals(1, count(result, Facet.DIFFICULTY, "HARD"));
+        assertTrue(value(result, Facet.DIFFICULTY, "EASY").isSelected());
+
+        //other facets are narrowed to easy recipes
+        assertEquals(1, count(result, Facet.CATEGORY, "1"));
+        assertEquals(1, count(result, Facet.SERVINGS, "3-4"));
+        assertEquals(1, count(result, Facet.SERVINGS, "7+"));
+    }
+
+    @Test
+    public void categoriesAreLabelledAndSorted() {
+        List<FacetValue> categories = index.filter(FacetSelection.NONE, 0, 10).getFacets().get(Facet.CATEGORY);
+
+        assertEquals(asList("American", "Mexican"),
+                categories.stream().map(FacetValue::getLabel).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void pagesAfterTheLastId() {
+        FacetResult first = index.filter(FacetSelection.NONE, 0, 2);
+        FacetResult second = index.filter(FacetSelection.NONE, first.getLastId(), 2);
+
+        assertEquals(asList(1L, 2L), first.getRecipeIds());
+        assertEquals(Long.valueOf(2L), first.getLastId());
+        assertEquals(asList(3L, 4L), second.getRecipeIds());
+        assertNull(second.getLastId());
+    }
+
+    @Test
+    public void updatesAndRemovesRecipes() {
+        index.add(new FacetDocument(1L, set(2L), "HARD", 10, 0, 4));
+        index.remove(3L);
+        index.remove(99L);
+
+        FacetResult result = index.filter(FacetSelection.NONE, 0, 10);
+
+        assertEquals(3, index.size());
+        assertEquals(0, count(result, Facet.DIFFICULTY, "EASY"));
+        assertEquals(2, count(result, Facet.DIFFICULTY, "HARD"));
+        assertEquals(1, count(result, Facet.CATEGORY, "1"));
+        assertEquals(asList(1L, 2L, 4L), result.getRecipeIds());
+    }
+
+    @Test
+    public void growsForIdsPastTheBuildSize() {
+        index.add(new FacetDocument(5000L, set(1L), "EASY", 5, 5, 2));
+
+        FacetResult result = index.filter(selection(Facet.CATEGORY, "1"), 0, 10);
+
+        assertEquals(asList(1L, 2L, 5000L), result.getRecipeIds());
+    }
+
+    @Test
+    public void unknownValuesMatchNothing() {
+        FacetResult result = index.filter(selection(Facet.DIFFICULTY, "IMPOSSIBLE"), 0, 10);
+
+        assertEquals(0, result.getTotal());
+        assertTrue(result.getRecipeIds().isEmpty());
+    }
+
+    private static FacetSelection selection(Facet facet, String... values) {
+        return FacetSelection.from(Collections.singletonMap(facet.getParameter(), asList(values)));
+    }
+
+    private static Map<String, List<String>> params(Facet facet, String value, Facet other, String otherValue) {
+        Map<String, List<String>> params = new HashMap<>();
+        params.put(facet.getParameter(), asList(value));
+        params.put(other.getParameter(), asList(otherValue));
+        return params;
+    }
+
+    private static int count(FacetResult result, Facet facet, String key) {
+        return value(result, facet, key).getCount();
+    }
+
+    private static FacetValue value(FacetResult result, Facet facet, String key) {
+        return result.getFacets().get(facet).stream()
+                .filter(value -> value.getKey().equals(key)).findFirst().get();
+    }
+
+    private static Set<Long> set(Long... ids) {
+        return new HashSet<>(asList(ids));
+    }
+}
@@ -0,0 +1,124 @@
+package guru.springframework.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class InvertedIndexTest {
+
+    InvertedIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new InvertedIndex(4);
+        index.add(new RecipeDocument(1L, "Perfect Guacamole", "Mash the avocado", null, "ripe avocados salt lime", "Mexican"));
+        index.add(new RecipeDocument(2L, "Spicy Grilled Chicken Tacos", "Grill the chicken, serve with guacamole", null,
+                "chicken thighs corn tortillas", "Mexican American"));
+        index.add(new RecipeDocument(3L, "Chicken Noodle Soup", "Simmer the chicken", "Great when you have a cold",
+                "chicken noodles carrots", "American"));
+    }
+
+    @Test
+    public void descriptionOutranksDirections() {
+        assertEquals(asList(1L, 2L), ids(index.search("guacamole", 0, 10)));
+    }
+
+    @Test
+    public void everyTermMustMatch() {
+        assertEquals(asList(2L), ids(index.search("chicken mexican", 0, 10)));
+        assertTrue(ids(index.search("chicken pizza", 0, 10)).isEmpty());
+    }
+
+    @Test
+    public void searchesIngredientsNotesAndCategories() {
+        assertEquals(asList(1L), ids(index.search("avocado", 0, 10)));
+        assertEquals(asList(3L), ids(index.search("cold", 0, 10)));
+        assertEquals(new HashSet<>(asList(2L, 3L)), new HashSet<>(ids(index.search("american", 0, 10))));
+    }
+
+    @Test
+    public void pages() {
+        SearchHits first = index.search("chicken", 0, 2);
+        SearchHits second = index.search("chicken", 2, 2);
+
+        assertEquals(2, first.getTotal());
+        assertEquals(2, first.getHits().size());
+        assertTrue(second.getHits().isEmpty());
+        assertEquals(2, second.getTotal());
+    }
+
+    @Test
+    public void farOffsetsDoNotOverflow() {
+        SearchHits hits = index.search("chicken", Integer.MAX_VALUE - 1, 10);
+
+        assertTrue(hits.getHits().isEmpty());
+        assertEquals(2, hits.getTotal());
+    }
+
+    @Test
+    public void updateReplacesRecipe() {
+        index.add(new RecipeDocument(1L, "Chunky Salsa", "Chop everything", null, "tomatoes onion", "Mexican"));
+
+        assertTrue(ids(index.search("guacamole", 0, 10)).contains(2L));
+        assertFalse(ids(index.search("guacamole", 0, 10)).contains(1L));
+        assertEquals(asList(1L), ids(index.search("salsa", 0, 10)));
+        assertEquals(3, index.size());
+        assertEquals(0.25, index.deletedRatio(), 0.001);
+    }
+
+    @Test
+    public void remove() {
+        index.remove(2L);
+
+        assertEquals(asList(3L), ids(index.search("chicken", 0, 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void equalScoresRankByRecipeId() {
+        InvertedIndex twins = new InvertedIndex(2);
+        twins.add(new RecipeDocument(9L, "Pancakes", null, null, null, null));
+        twins.add(new RecipeDocument(4L, "Pancakes", null, null, null, null));
+
+        assertEquals(asList(4L, 9L), ids(twins.search("pancakes", 0, 10)));
+    }
+
+    @Test
+    public void skippingBlocksKeepsTopResults() {
+        String[] words = {"salt", "pepper", "garlic", "onion", "lime", "chicken", "rice", "butter"};
+        SplittableRandom random = new SplittableRandom(7);
+        InvertedIndex large = new InvertedIndex(2000);
+        for(long id = 1; id <= 2000; id++) {
+            StringBuilder text = new StringBuilder();
+            for(int i = random.nextInt(12); i >= 0; i--) {
+                text.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            large.add(new RecipeDocument(id, words[random.nextInt(words.length)], text.toString(), null, null, null));
+        }
+
+        for(String query : asList("salt", "garlic onion", "chicken rice butter")) {
+            SearchHits everything = large.search(query, 0, 2000);
+            SearchHits firstPage = large.search(query, 0, 10);
+
+            assertEquals(everything.getTotal(), firstPage.getTotal());
+            assertEquals(everything.getHits().subList(0, 10), firstPage.getHits());
+        }
+    }
+
+    @Test
+    public void unknownOrEmptyQuery() {
+        assertEquals(0, index.search("lasagna", 0, 10).getTotal());
+        assertEquals(0, index.search("the", 0, 10).getTotal());
+    }
+
+    private static List<Long> ids(SearchHits hits) {
+        return hits.getHits().stream().map(ScoredRecipe::getRecipeId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,103 @@
+package guru.springframework.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class NeighborIndexTest {
+
+    NeighborIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new NeighborIndex(4);
+        index.add(document(1L, "Guacamole", Arrays.asList("2 ripe avocados", "salt", "fresh lime juice", "cilantro"),
+                Arrays.asList("category:1", "difficulty:EASY")));
+        index.add(document(2L, "Avocado Toast", Arrays.asList("avocado", "salt", "lime juice", "bread"),
+                Arrays.asList("category:2", "difficulty:EASY")));
+        index.add(document(3L, "Lime Cilantro Rice", Arrays.asList("rice", "lime juice", "cilantro"),
+                Arrays.asList("category:1", "difficulty:MODERATE")));
+        index.add(document(4L, "Pancakes", Arrays.asList("flour", "eggs", "milk"),
+                Collections.singletonList("difficulty:HARD")));
+        index.build();
+    }
+
+    @Test
+    public void mostSimilarFirst() {
+        List<SimilarRecipe> similar = index.similar(1L);
+
+        //4 of the 8 features of guacamole and the toast are shared, 3 of 8 with the rice
+        assertEquals(Arrays.asList(2L, 3L), ids(similar));
+        assertEquals("Avocado Toast", similar.get(0).getDescription());
+        assertEquals(0.5, similar.get(0).getSimilarity(), 0.0001);
+        assertEquals(3.0 / 8, similar.get(1).getSimilarity(), 0.0001);
+        assertTrue(index.similar(4L).isEmpty());
+        assertTrue(index.similar(99L).isEmpty());
+    }
+
+    @Test
+    public void recipesAddedAfterTheBuildAreLinkedBothWays() {
+        index.add(document(5L, "Pancakes With Milk", Arrays.asList("flour", "eggs", "milk", "butter"),
+                Collections.singletonList("difficulty:HARD")));
+
+        assertEquals(Collections.singletonList(4L), ids(index.similar(5L)));
+        assertEquals(Collections.singletonList(5L), ids(index.similar(4L)));
+        assertTrue(index.staleRatio() > 0);
+    }
+
+    @Test
+    public void updatedAndRemovedRecipesLeaveTheirNeighbors() {
+        index.add(document(2L, "Toast", Collections.singletonList("bread"), Collections.emptyList()));
+        index.remove(3L);
+
+        assertTrue(index.similar(1L).isEmpty());
+        assertTrue(index.similar(3L).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void bandsFindNearDuplicatesInLargeCatalogs() {
+        int docs = NeighborIndex.EXHAUSTIVE_DOCS * 3;
+        index = new NeighborIndex(docs);
+        Random random = new Random(7);
+        for(long id = 1; id <= docs; id++) {
+            List<String> ingredients = new ArrayList<>();
+            for(int i = 0; i < 8; i++) {
+                ingredients.add(word(random.nextInt(100_000)));
+            }
+            index.add(document(id, "Recipe " + id, ingredients, Collections.emptyList()));
+        }
+        //the same ingredients, only the difficulty differs
+        List<String> nearDuplicate = new ArrayList<>(Arrays.asList(word(1), word(2), word(3), word(4), word(5)));
+        index.add(document(docs + 1L, "Original", nearDuplicate, Collections.singletonList("difficulty:EASY")));
+        index.add(document(docs + 2L, "Copy", nearDuplicate, Collections.singletonList("difficulty:HARD")));
+        index.build();
+
+        List<SimilarRecipe> similar = index.similar(docs + 1L);
+        assertEquals(Long.valueOf(docs + 2L), similar.get(0).getRecipeId());
+        assertEquals(5.0 / 7, similar.get(0).getSimilarity(), 0.0001);
+        assertTrue(index.memoryBytes() > 0);
+    }
+
+    private static NeighborDocument document(long id, String description, List<String> ingredients, List<String> traits) {
+        return new NeighborDocument(id, description, ingredients, traits);
+    }
+
+    //letters only, the dictionary drops terms starting with a digit
+    private static String word(int n) {
+        StringBuilder word = new StringBuilder("spice");
+        do {
+            word.append((char) ('a' + n % 26));
+            n /= 26;
+        } while(n > 0);
+        return word.toString();
+    }
+
+    private static List<Long> ids(List<SimilarRecipe> similar) {
+        return similar.stream().map(SimilarRecipe::getRecipeId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,79 @@
+package guru.springframework.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PantryIndexTest {
+
+    PantryIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new PantryIndex(2);
+        index.add(1L, Arrays.asList("2 ripe avocados", "salt", "fresh lime juice or lemon juice", "Cilantro"));
+        index.add(2L, Arrays.asList("Black Pepper", "salt", "olive oil"));
+        index.add(3L, Arrays.asList("flour", "sugar", "butter", "eggs", "milk"));
+    }
+
+    @Test
+    public void ranksByShareCovered() {
+        PantryMatches result = index.match(Arrays.asList("avocado", "salt", "pepper", "lime juice"), 10);
+
+        assertEquals(2, result.getTotal());
+        PantryMatch first = result.getMatches().get(0);
+        assertEquals(Long.valueOf(1L), first.getRecipeId());
+        assertEquals(3, first.getMatched());
+        assertEquals(4, first.getTotal());
+        assertEquals(Collections.singletonList("cilantro"), first.getMissing());
+        assertEquals(0.75, first.getCoverage(), 0.0001);
+
+        PantryMatch second = result.getMatches().get(1);
+        assertEquals(Long.valueOf(2L), second.getRecipeId());
+        assertEquals(Collections.singletonList("olive oil"), second.getMissing());
+    }
+
+    @Test
+    public void itemsNeedAllTheirTerms() {
+        //no recipe has a red onion, "olive" covers the olive oil of recipe 2
+        PantryMatches result = index.match(Arrays.asList("red onion", "olive"), 10);
+
+        assertEquals(1, result.getTotal());
+        assertEquals(Long.valueOf(2L), result.getMatches().get(0).getRecipeId());
+    }
+
+    @Test
+    public void keepsOnlyTheLimit() {
+        PantryMatches result = index.match(Collections.singletonList("salt"), 1);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(1, result.getMatches().size());
+        //a third of recipe 2 beats a quarter of recipe 1
+        assertEquals(Long.valueOf(2L), result.getMatches().get(0).getRecipeId());
+    }
+
+    @Test
+    public void updatesAndRemovals() {
+        index.add(2L, Arrays.asList("salt", "sugar"));
+        index.remove(1L);
+
+        List<PantryMatch> matches = index.match(Arrays.asList("salt", "sugar"), 10).getMatches();
+
+        assertEquals(2, matches.size());
+        assertEquals(Long.valueOf(2L), matches.get(0).getRecipeId());
+        assertEquals(1.0, matches.get(0).getCoverage(), 0.0001);
+        assertEquals(Long.valueOf(3L), matches.get(1).getRecipeId());
+        assertEquals(2, index.size());
+        assertEquals(0.5, index.deletedRatio(), 0.0001);
+    }
+
+    @Test
+    public void unknownPantry() {
+        assertSame(PantryMatches.EMPTY, index.match(Arrays.asList("saffron", "  "), 10));
+    }
+}
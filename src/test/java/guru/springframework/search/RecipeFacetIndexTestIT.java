@@ -0,0 +1,99 @@
+package guru.springframework.search;
+
+import guru.springframework.domain.Difficulty;
+import guru.springframework.domain.Recipe;
+import guru.springframework.events.RecipeChangeListener;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "recipe.changes.batch-window=0ms")
+@Import({RecipeFacetIndex.class, RecipeChangeListener.class})
+@DirtiesContext
+//the index follows committed changes, so every save here commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RecipeFacetIndexTestIT {
+
+    @Autowired
+    RecipeFacetIndex recipeFacetIndex;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        //the build started by the ready event
+        recipeFacetIndex.awaitPendingUpdates();
+    }
+
+    @Test
+    public void followsSavesUpdatesAndDeletes() throws Exception {
+        int before = count(Facet.SERVINGS, "7+");
+
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Feast Paella");
+        recipe.setDifficulty(Difficulty.HARD);
+        recipe.setServings(12);
+        recipe.setPrepTime(40);
+        recipe.getCategories().add(categoryRepository.findByDescription("Mexican").get());
+        recipe = recipeRepository.save(recipe);
+        recipeFacetIndex.awaitPendingUpdates();
+
+        assertEquals(before + 1, count(Facet.SERVINGS, "7+"));
+        assertTrue(recipeFacetIndex.filter(selection(Facet.PREP_TIME, "31-60"), 0, 100).getRecipeIds()
+                .contains(recipe.getId()));
+
+        recipe.setServings(2);
+        recipe = recipeRepository.save(recipe);
+        recipeFacetIndex.awaitPendingUpdates();
+
+        assertEquals(before, count(Facet.SERVINGS, "7+"));
+
+        recipeRepository.deleteById(recipe.getId());
+        recipeFacetIndex.awaitPendingUpdates();
+
+        assertFalse(recipeFacetIndex.filter(selection(Facet.PREP_TIME, "31-60"), 0, 100).getRecipeIds()
+                .contains(recipe.getId()));
+    }
+
+    @Test
+    public void rebuildIndexesWhatIsStored() throws Exception {
+        int before = recipeFacetIndex.size();
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Plain Toast");
+        recipeRepository.save(recipe);
+
+        recipeFacetIndex.rebuild();
+
+        assertTrue(recipeFacetIndex.isReady());
+        assertEquals(before + 1, recipeFacetIndex.size());
+        assertTrue(recipeFacetIndex.filter(FacetSelection.NONE, 0, 100).getFacets().get(Facet.CATEGORY).stream()
+                .anyMatch(value -> value.getLabel().equals("Mexican")));
+    }
+
+    private int count(Facet facet, String key) {
+        return recipeFacetIndex.filter(FacetSelection.NONE, 0, 1).getFacets().get(facet).stream()
+                .filter(value -> value.getKey().equals(key)).findFirst().get().getCount();
+    }
+
+    private static FacetSelection selection(Facet facet, String value) {
+        return FacetSelection.from(Collections.singletonMap(facet.getParameter(), Collections.singletonList(value)));
+    }
+}
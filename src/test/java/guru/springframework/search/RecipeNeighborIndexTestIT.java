@@ -0,0 +1,98 @@
+package guru.springframework.search;
+
+import guru.springframework.domain.Difficulty;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Recipe;
+import guru.springframework.events.RecipeChangeListener;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "recipe.changes.batch-window=0ms")
+@Import({RecipeNeighborIndex.class, RecipeChangeListener.class})
+@DirtiesContext
+//the index follows committed changes, so every save here commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RecipeNeighborIndexTestIT {
+
+    @Autowired
+    RecipeNeighborIndex recipeNeighborIndex;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        //the build started by the ready event
+        recipeNeighborIndex.awaitPendingUpdates();
+    }
+
+    @Test
+    public void followsSavesUpdatesAndDeletes() throws Exception {
+        Recipe rice = recipeRepository.save(recipe("Saffron Rice", "saffron threads", "basmati rice", "butter"));
+        Recipe risotto = recipeRepository.save(recipe("Saffron Risotto", "saffron", "arborio rice", "butter"));
+        recipeNeighborIndex.awaitPendingUpdates();
+
+        SimilarRecipe similar = recipeNeighborIndex.similar(rice.getId()).get(0);
+        assertEquals(risotto.getId(), similar.getRecipeId());
+        assertEquals("Saffron Risotto", similar.getDescription());
+        assertEquals(rice.getId(), recipeNeighborIndex.similar(risotto.getId()).get(0).getRecipeId());
+
+        risotto.setDescription("Butter Risotto");
+        recipeRepository.save(risotto);
+        recipeNeighborIndex.awaitPendingUpdates();
+
+        assertEquals("Butter Risotto", recipeNeighborIndex.similar(rice.getId()).get(0).getDescription());
+
+        recipeRepository.deleteById(risotto.getId());
+        recipeNeighborIndex.awaitPendingUpdates();
+
+        assertTrue(recipeNeighborIndex.similar(rice.getId()).isEmpty());
+        recipeRepository.deleteById(rice.getId());
+        recipeNeighborIndex.awaitPendingUpdates();
+    }
+
+    @Test
+    public void rebuildLinksWhatIsStored() throws Exception {
+        Recipe tacos = recipeRepository.save(recipe("Chicken Tacos", "chicken thighs", "corn tortillas", "lime"));
+        Recipe fajitas = recipeRepository.save(recipe("Chicken Fajitas", "chicken breast", "flour tortillas", "lime"));
+        recipeNeighborIndex.awaitPendingUpdates();
+
+        recipeNeighborIndex.rebuild();
+
+        assertTrue(recipeNeighborIndex.isReady());
+        assertEquals(fajitas.getId(), recipeNeighborIndex.similar(tacos.getId()).get(0).getRecipeId());
+
+        recipeRepository.deleteById(tacos.getId());
+        recipeRepository.deleteById(fajitas.getId());
+        recipeNeighborIndex.awaitPendingUpdates();
+    }
+
+    private Recipe recipe(String description, String... ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.setDescription(description);
+        recipe.setDifficulty(Difficulty.EASY);
+        recipe.setPrepTime(10);
+        for(String ingredient : ingredients) {
+            recipe.addIngredient(new Ingredient(ingredient, BigDecimal.ONE, unitOfMeasureRepository.findByDescription("Cup").get()));
+        }
+        return recipe;
+    }
+}
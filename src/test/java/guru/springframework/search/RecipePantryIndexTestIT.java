@@ -0,0 +1,95 @@
+package guru.springframework.search;
+
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Recipe;
+import guru.springframework.events.RecipeChangeListener;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "recipe.changes.batch-window=0ms")
+@Import({RecipePantryIndex.class, RecipeChangeListener.class})
+@DirtiesContext
+//the index follows committed changes, so every save here commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RecipePantryIndexTestIT {
+
+    @Autowired
+    RecipePantryIndex recipePantryIndex;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        //the build started by the ready event
+        recipePantryIndex.awaitPendingUpdates();
+    }
+
+    @Test
+    public void followsSavesUpdatesAndDeletes() throws Exception {
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Saffron Rice");
+        recipe.addIngredient(new Ingredient("saffron threads", BigDecimal.ONE, unitOfMeasureRepository.findByDescription("Pinch").get()));
+        recipe.addIngredient(new Ingredient("basmati rice", BigDecimal.ONE, unitOfMeasureRepository.findByDescription("Cup").get()));
+        recipe = recipeRepository.save(recipe);
+        recipePantryIndex.awaitPendingUpdates();
+
+        PantryMatch match = recipePantryIndex.match(Arrays.asList("saffron", "basmati rice"), 10).getMatches().get(0);
+        assertEquals(recipe.getId(), match.getRecipeId());
+        assertEquals(1.0, match.getCoverage(), 0.0001);
+
+        recipe.getIngredients().stream().filter(ingredient -> ingredient.getDescription().startsWith("saffron"))
+                .forEach(ingredient -> ingredient.setDescription("ground turmeric"));
+        recipe = recipeRepository.save(recipe);
+        recipePantryIndex.awaitPendingUpdates();
+
+        assertTrue(recipePantryIndex.match(Collections.singletonList("saffron"), 10).getMatches().isEmpty());
+        assertEquals(recipe.getId(), recipePantryIndex.match(Collections.singletonList("turmeric"), 10).getMatches()
+                .get(0).getRecipeId());
+
+        recipeRepository.deleteById(recipe.getId());
+        recipePantryIndex.awaitPendingUpdates();
+
+        assertTrue(recipePantryIndex.match(Collections.singletonList("basmati rice"), 10).getMatches().isEmpty());
+    }
+
+    @Test
+    public void rebuildIndexesWhatIsStored() throws Exception {
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Guacamole");
+        recipe.addIngredient(new Ingredient("ripe avocados", new BigDecimal(2), unitOfMeasureRepository.findByDescription("Each").get()));
+        recipe.addIngredient(new Ingredient("Kosher salt", BigDecimal.ONE, unitOfMeasureRepository.findByDescription("Teaspoon").get()));
+        recipe = recipeRepository.save(recipe);
+        recipePantryIndex.awaitPendingUpdates();
+
+        recipePantryIndex.rebuild();
+
+        assertTrue(recipePantryIndex.isReady());
+        PantryMatch match = recipePantryIndex.match(Arrays.asList("avocado", "salt"), 10).getMatches().get(0);
+        assertEquals(recipe.getId(), match.getRecipeId());
+        assertTrue(match.getMissing().isEmpty());
+
+        recipeRepository.deleteById(recipe.getId());
+        recipePantryIndex.awaitPendingUpdates();
+    }
+}
@@ -0,0 +1,92 @@
+package guru.springframework.search;
+
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Recipe;
+import guru.springframework.events.RecipeChangeListener;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "recipe.changes.batch-window=0ms")
+@Import({RecipeSearchIndex.class, RecipeChangeListener.class})
+@DirtiesContext
+//the index follows committed changes, so every save here commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RecipeSearchIndexTestIT {
+
+    @Autowired
+    RecipeSearchIndex recipeSearchIndex;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        //the build started by the ready event
+        recipeSearchIndex.awaitPendingUpdates();
+    }
+
+    @Test
+    public void followsSavesUpdatesAndDeletes() throws Exception {
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Lemon Risotto");
+        recipe.setDirections("Stir the rice slowly");
+        recipe.addIngredient(new Ingredient("arborio rice", BigDecimal.ONE,
+                unitOfMeasureRepository.findByDescription("Cup").get()));
+        recipe = recipeRepository.save(recipe);
+        recipeSearchIndex.awaitPendingUpdates();
+
+        assertEquals(1, ids("risotto").size());
+        assertTrue(ids("arborio").contains(recipe.getId()));
+
+        recipe.setDescription("Mushroom Risotto");
+        recipe = recipeRepository.save(recipe);
+        recipeSearchIndex.awaitPendingUpdates();
+
+        assertTrue(ids("lemon").isEmpty());
+        assertTrue(ids("mushroom risotto").contains(recipe.getId()));
+
+        recipeRepository.deleteById(recipe.getId());
+        recipeSearchIndex.awaitPendingUpdates();
+
+        assertTrue(ids("risotto").isEmpty());
+    }
+
+    @Test
+    public void rebuildIndexesWhatIsStored() throws Exception {
+        int before = recipeSearchIndex.size();
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Blueberry Pancakes");
+        recipeRepository.save(recipe);
+
+        recipeSearchIndex.rebuild();
+
+        assertTrue(recipeSearchIndex.isReady());
+        assertEquals(before + 1, recipeSearchIndex.size());
+        assertEquals(1, ids("blueberry").size());
+    }
+
+    private List<Long> ids(String query) {
+        return recipeSearchIndex.search(query, 0, 10).getHits().stream()
+                .map(ScoredRecipe::getRecipeId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,32 @@
+package guru.springframework.search;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class TokenizerTest {
+
+    @Test
+    public void tokenize() {
+        assertEquals(Arrays.asList("perfect", "guacamole"), Tokenizer.tokenize("The Perfect Guacamole!"));
+    }
+
+    @Test
+    public void foldsPlurals() {
+        assertEquals(Arrays.asList("tomato", "chili", "cherry", "egg", "glass"),
+                Tokenizer.tokenize("tomatoes chilis cherries eggs glass"));
+    }
+
+    @Test
+    public void dropsStopWordsAndSingleCharacters() {
+        assertEquals(Collections.singletonList("lime"), Tokenizer.tokenize("a lime and 2 of the"));
+    }
+
+    @Test
+    public void tokenizeNull() {
+        assertTrue(Tokenizer.tokenize(null).isEmpty());
+    }
+}
@@ -0,0 +1,49 @@
+package guru.springframework.search;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.*;
+
+public class TopKTest {
+
+    @Test
+    public void keepsLargestDescending() {
+        TopK top = new TopK(3);
+        for(long key : new long[]{5, 1, 9, 7, 3, 9, 2}) {
+            top.offer(key);
+        }
+
+        assertArrayEquals(new long[]{9, 9, 7}, top.descending());
+        assertEquals(7, top.offered());
+    }
+
+    @Test
+    public void fewerThanK() {
+        TopK top = new TopK(10);
+        top.offer(4);
+        top.offer(8);
+
+        assertArrayEquals(new long[]{8, 4}, top.descending());
+    }
+
+    @Test
+    public void mergeMatchesOneHeap() {
+        Random random = new Random(7);
+        long[] keys = LongStream.generate(() -> random.nextInt(1_000_000)).limit(10_000).toArray();
+        TopK whole = new TopK(25);
+        TopK first = new TopK(25);
+        TopK second = new TopK(25);
+        for(int i = 0; i < keys.length; i++) {
+            whole.offer(keys[i]);
+            (i % 3 == 0 ? first : second).offer(keys[i]);
+        }
+
+        TopK merged = first.merge(second);
+
+        assertArrayEquals(whole.descending(), merged.descending());
+        assertEquals(keys.length, merged.offered());
+    }
+}
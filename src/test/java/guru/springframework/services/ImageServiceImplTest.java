@@ -0,0 +1,85 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.Recipe;
+import guru.springframework.domain.RecipeImage;
+import guru.springframework.repositories.RecipeImageRepository;
+import guru.springframework.repositories.RecipeRepository;
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class ImageServiceImplTest {
+
+    @Mock
+    RecipeRepository recipeRepository;
+
+    @Mock
+    RecipeImageRepository recipeImageRepository;
+
+    ImageServiceImpl imageService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        imageService = new ImageServiceImpl(recipeRepository, recipeImageRepository);
+    }
+
+    @Test
+    public void saveImage() throws Exception {
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        byte[] bytes = "image bytes".getBytes();
+
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(recipe));
+        when(recipeImageRepository.findById(1L)).thenReturn(Optional.empty());
+        ArgumentCaptor<RecipeImage> argumentCaptor = ArgumentCaptor.forClass(RecipeImage.class);
+
+        imageService.saveImage(1L, "image/jpeg", bytes);
+
+        verify(recipeImageRepository, times(1)).save(argumentCaptor.capture());
+        RecipeImage saved = argumentCaptor.getValue();
+        assertSame(recipe, saved.getRecipe());
+        assertEquals("image/jpeg", saved.getContentType());
+        assertEquals(Long.valueOf(bytes.length), saved.getContentLength());
+        assertNotNull(saved.getEtag());
+        assertEquals(bytes.length, saved.getData().length());
+    }
+
+    @Test(expected = RecipeNotFoundException.class)
+    public void saveImageRecipeNotFound() {
+        when(recipeRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        imageService.saveImage(1L, "image/jpeg", new byte[1]);
+    }
+
+    @Test
+    public void writeImageRange() throws Exception {
+        //larger than one buffer so the copy loop runs more than once
+        byte[] bytes = new byte[ImageServiceImpl.BUFFER_SIZE * 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        RecipeImage image = new RecipeImage();
+        image.setData(BlobProxy.generateProxy(bytes));
+        when(recipeImageRepository.findById(1L)).thenReturn(Optional.of(image));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        imageService.writeImage(1L, 100, ImageServiceImpl.BUFFER_SIZE + 50, Channels.newChannel(out));
+
+        byte[] written = out.toByteArray();
+        assertEquals(ImageServiceImpl.BUFFER_SIZE + 50, written.length);
+        assertEquals(bytes[100], written[0]);
+        assertEquals(bytes[100 + written.length - 1], written[written.length - 1]);
+    }
+}
@@ -0,0 +1,62 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.Recipe;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class RecipeAsyncServiceImplTest {
+
+    RecipeAsyncServiceImpl recipeAsyncService;
+
+    @Mock
+    RecipeService recipeService;
+
+    int tasks;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        TaskExecutor taskExecutor = task -> {
+            tasks++;
+            task.run();
+        };
+        recipeAsyncService = new RecipeAsyncServiceImpl(recipeService, taskExecutor);
+    }
+
+    @Test
+    public void getRecipePageRunsOnExecutor() throws Exception {
+        RecipePage page = new RecipePage(Collections.emptyList(), null);
+        when(recipeService.getRecipePage("abc", 20)).thenReturn(page);
+
+        assertSame(page, recipeAsyncService.getRecipePage("abc", 20).get());
+        assertEquals(1, tasks);
+    }
+
+    @Test
+    public void findByIdFailsTheFuture() throws Exception {
+        Recipe recipe = new Recipe();
+        when(recipeService.findById(1L)).thenReturn(recipe);
+        when(recipeService.findById(2L)).thenThrow(new RuntimeException("Recipe Not Found!"));
+
+        assertSame(recipe, recipeAsyncService.findById(1L).get());
+
+        CompletableFuture<Recipe> missing = recipeAsyncService.findById(2L);
+        try {
+            missing.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("Recipe Not Found!", e.getCause().getMessage());
+        }
+        assertEquals(2, tasks);
+    }
+}
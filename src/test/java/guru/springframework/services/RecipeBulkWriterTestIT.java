@@ -0,0 +1,91 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.*;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(RecipeBulkWriter.class)
+public class RecipeBulkWriterTestIT {
+
+    static final int RECIPES = 120;
+
+    @Autowired
+    RecipeBulkWriter recipeBulkWriter;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @Before
+    public void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void saveAllBatchesInserts() {
+        List<Recipe> recipes = recipes(RECIPES);
+        long before = recipeRepository.count();
+        statistics.clear();
+
+        assertEquals(RECIPES, recipeBulkWriter.saveAll(recipes));
+
+        //recipes, notes, two ingredients and a category link each, without batching that is one statement per row
+        int rows = RECIPES * 5;
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue("expected batched inserts but prepared " + statements + " statements", statements < rows / 10);
+
+        assertEquals(before + RECIPES, recipeRepository.count());
+        recipes.forEach(recipe -> assertNotNull(recipe.getId()));
+    }
+
+    private List<Recipe> recipes(int count) {
+        Category american = categoryRepository.findByDescription("American").get();
+        UnitOfMeasure cup = unitOfMeasureRepository.findByDescription("Cup").get();
+
+        List<Recipe> recipes = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            Recipe recipe = new Recipe();
+            recipe.setDescription("Bulk Recipe " + i);
+
+            Notes notes = new Notes();
+            notes.setRecipeNotes("Notes " + i);
+            notes.setRecipe(recipe);
+            recipe.setNotes(notes);
+
+            recipe.addIngredient(new Ingredient("flour", BigDecimal.ONE, cup));
+            recipe.addIngredient(new Ingredient("milk", BigDecimal.ONE, cup));
+            recipe.getCategories().add(american);
+            recipes.add(recipe);
+        }
+        return recipes;
+    }
+}
@@ -0,0 +1,35 @@
+package guru.springframework.services;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class RecipeFieldsTest {
+
+    @Test
+    public void everythingWhenNothingIsAsked() {
+        assertEquals(RecipeFields.COLUMNS, asList(RecipeFields.forList(null).getNames().toArray()));
+        assertTrue(RecipeFields.forDetail(" ").includes("ingredients"));
+    }
+
+    @Test
+    public void onlyTheFieldsAskedFor() {
+        RecipeFields fields = RecipeFields.forList("id, description,,prepTime");
+
+        assertEquals(3, fields.getNames().size());
+        assertTrue(fields.includes("prepTime"));
+        assertFalse(fields.includes("directions"));
+        assertFalse(fields.includes("notes"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownField() {
+        RecipeFields.forDetail("id,calories");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void collectionsOnlyForSingleRecipe() {
+        RecipeFields.forList("id,ingredients");
+    }
+}
@@ -0,0 +1,68 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.RecipeSummary;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.search.FacetResult;
+import guru.springframework.search.FacetSelection;
+import guru.springframework.search.RecipeFacetIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class RecipeFilterServiceImplTest {
+
+    RecipeFilterServiceImpl recipeFilterService;
+
+    @Mock
+    RecipeFacetIndex recipeFacetIndex;
+
+    @Mock
+    RecipeRepository recipeRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        recipeFilterService = new RecipeFilterServiceImpl(recipeFacetIndex, recipeRepository);
+        when(recipeFacetIndex.isReady()).thenReturn(true);
+    }
+
+    @Test
+    public void filterKeepsIdOrderAndPagesWithCursor() {
+        when(recipeFacetIndex.filter(FacetSelection.NONE, 10L, 2)).thenReturn(
+                new FacetResult(Collections.emptyMap(), 7, Arrays.asList(11L, 12L), 12L));
+        when(recipeRepository.findSummariesByIdIn(any())).thenReturn(Arrays.asList(
+                new RecipeSummary(12L, "Tacos", null), new RecipeSummary(11L, "Soup", null)));
+
+        RecipeFilterPage page = recipeFilterService.filter(FacetSelection.NONE, RecipeCursor.encode(10L), 2);
+
+        assertEquals(Long.valueOf(11L), page.getRecipes().get(0).getId());
+        assertEquals(Long.valueOf(12L), page.getRecipes().get(1).getId());
+        assertEquals(7, page.getTotal());
+        assertTrue(page.hasNext());
+        assertEquals(12L, RecipeCursor.decode(page.getNextCursor()));
+        assertTrue(page.isIndexReady());
+    }
+
+    @Test
+    public void noMatchesSkipsRepository() {
+        when(recipeFacetIndex.filter(any(), anyLong(), anyInt())).thenReturn(
+                new FacetResult(Collections.emptyMap(), 0, Collections.emptyList(), null));
+
+        RecipeFilterPage page = recipeFilterService.filter(FacetSelection.NONE, null, 500);
+
+        assertTrue(page.getRecipes().isEmpty());
+        assertFalse(page.hasNext());
+        verify(recipeFacetIndex).filter(FacetSelection.NONE, RecipeCursor.START, RecipeFilterService.MAX_PAGE_SIZE);
+        verifyZeroInteractions(recipeRepository);
+    }
+}
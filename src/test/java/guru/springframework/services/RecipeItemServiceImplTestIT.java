@@ -0,0 +1,104 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.RecipeItem;
+import guru.springframework.domain.Difficulty;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Notes;
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Import(RecipeItemServiceImpl.class)
+public class RecipeItemServiceImplTestIT {
+
+    @Autowired
+    RecipeItemService recipeItemService;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    Long guacamoleId;
+
+    @Before
+    public void setUp() throws Exception {
+        Recipe guacamole = new Recipe();
+        guacamole.setDescription("Perfect Guacamole");
+        guacamole.setPrepTime(10);
+        guacamole.setDifficulty(Difficulty.EASY);
+        guacamole.setDirections("Mash the avocado");
+        Notes notes = new Notes();
+        notes.setRecipeNotes("Use ripe avocados");
+        guacamole.setNotes(notes);
+        guacamole.getCategories().add(categoryRepository.findByDescription("Mexican").get());
+        guacamole.addIngredient(new Ingredient("ripe avocados", new BigDecimal(2),
+                unitOfMeasureRepository.findByDescription("Each").get()));
+
+        Recipe toast = new Recipe();
+        toast.setDescription("Plain Toast");
+
+        guacamoleId = entityManager.persist(guacamole).getId();
+        entityManager.persist(toast);
+        entityManager.flush();
+    }
+
+    @Test
+    public void forEachRecipeInIdOrder() {
+        List<RecipeItem> recipes = new ArrayList<>();
+        recipeItemService.forEachRecipe(RecipeFields.forList("description,notes"), recipes::add);
+
+        assertTrue(recipes.size() >= 2);
+        for(int i = 1; i < recipes.size(); i++) {
+            assertTrue(recipes.get(i - 1).getId() < recipes.get(i).getId());
+        }
+        RecipeItem guacamole = recipes.stream().filter(recipe -> recipe.getDescription().equals("Perfect Guacamole"))
+                .findFirst().get();
+        assertNotNull(guacamole.getNotes());
+        assertNull(guacamole.getDirections());
+        assertNull(guacamole.getPrepTime());
+        assertNull(guacamole.getIngredients());
+    }
+
+    @Test
+    public void findByIdWithCollections() {
+        RecipeItem recipe = recipeItemService.findById(guacamoleId, RecipeFields.forDetail(null)).get();
+
+        assertEquals("Perfect Guacamole", recipe.getDescription());
+        assertEquals(Integer.valueOf(10), recipe.getPrepTime());
+        assertEquals("EASY", recipe.getDifficulty());
+        assertTrue(recipe.getCategories().contains("Mexican"));
+        assertFalse(recipe.getIngredients().isEmpty());
+        assertNotNull(recipe.getIngredients().get(0).getUnitOfMeasure());
+    }
+
+    @Test
+    public void findByIdWithoutCollectionsOrMissing() {
+        RecipeItem recipe = recipeItemService.findById(guacamoleId, RecipeFields.forDetail("id,directions")).get();
+
+        assertNotNull(recipe.getDirections());
+        assertNull(recipe.getCategories());
+        assertNull(recipe.getDescription());
+        assertFalse(recipeItemService.findById(999999L, RecipeFields.forDetail(null)).isPresent());
+    }
+}
@@ -0,0 +1,67 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.RecipeSummary;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.search.PantryMatch;
+import guru.springframework.search.PantryMatches;
+import guru.springframework.search.RecipePantryIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class RecipePantryServiceImplTest {
+
+    RecipePantryServiceImpl recipePantryService;
+
+    @Mock
+    RecipePantryIndex recipePantryIndex;
+
+    @Mock
+    RecipeRepository recipeRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        recipePantryService = new RecipePantryServiceImpl(recipePantryIndex, recipeRepository);
+        when(recipePantryIndex.isReady()).thenReturn(true);
+    }
+
+    @Test
+    public void matchKeepsRankOrder() {
+        when(recipePantryIndex.match(Arrays.asList("salt", "eggs"), 100)).thenReturn(new PantryMatches(Arrays.asList(
+                new PantryMatch(3L, 2, 2, Collections.emptyList()),
+                new PantryMatch(2L, 1, 2, Collections.singletonList("milk")),
+                new PantryMatch(1L, 1, 4, Collections.emptyList())), 12));
+        //recipe 2 was deleted after it was indexed
+        when(recipeRepository.findSummariesByIdIn(any())).thenReturn(Arrays.asList(
+                new RecipeSummary(1L, "Omelette", null), new RecipeSummary(3L, "Boiled Eggs", null)));
+
+        RecipePantryPage page = recipePantryService.match(Arrays.asList(" salt ", "eggs", ""), 500);
+
+        assertEquals(Arrays.asList("salt", "eggs"), page.getPantry());
+        assertEquals(2, page.getRecipes().size());
+        assertEquals("Boiled Eggs", page.getRecipes().get(0).getDescription());
+        assertEquals(1.0, page.getRecipes().get(0).getCoverage(), 0.0001);
+        assertEquals(Long.valueOf(1L), page.getRecipes().get(1).getId());
+        assertEquals(12, page.getTotal());
+        assertTrue(page.isIndexReady());
+    }
+
+    @Test
+    public void emptyPantrySkipsIndex() {
+        RecipePantryPage page = recipePantryService.match(Collections.singletonList(" "), 20);
+
+        assertTrue(page.getRecipes().isEmpty());
+        verify(recipePantryIndex, never()).match(any(), anyInt());
+        verifyZeroInteractions(recipeRepository);
+    }
+}
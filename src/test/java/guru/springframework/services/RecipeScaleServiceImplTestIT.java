@@ -0,0 +1,97 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Recipe;
+import guru.springframework.projections.ScaledIngredient;
+import guru.springframework.projections.ScaledRecipe;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Import(RecipeScaleServiceImpl.class)
+public class RecipeScaleServiceImplTestIT {
+
+    @Autowired
+    RecipeScaleService recipeScaleService;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    Long guacamoleId;
+    Long toastId;
+
+    @Before
+    public void setUp() throws Exception {
+        Recipe guacamole = new Recipe();
+        guacamole.setDescription("Perfect Guacamole");
+        guacamole.setServings(4);
+        guacamole.addIngredient(new Ingredient("ripe avocados", new BigDecimal(2),
+                unitOfMeasureRepository.findByDescription("Each").get()));
+        guacamole.addIngredient(new Ingredient("salt", new BigDecimal("0.25"),
+                unitOfMeasureRepository.findByDescription("Teaspoon").get()));
+        guacamole.addIngredient(new Ingredient("lime juice", new BigDecimal(3),
+                unitOfMeasureRepository.findByDescription("Tablespoon").get()));
+
+        Recipe toast = new Recipe();
+        toast.setDescription("Plain Toast");
+
+        guacamoleId = entityManager.persist(guacamole).getId();
+        toastId = entityManager.persist(toast).getId();
+        entityManager.flush();
+    }
+
+    @Test
+    public void scalesIntoReadableUnits() {
+        ScaledRecipe recipe = recipeScaleService.scale(guacamoleId, 32).get();
+
+        assertEquals(Integer.valueOf(4), recipe.getOriginalServings());
+        assertEquals(3, recipe.getIngredients().size());
+        assertEquals(new ScaledIngredient("ripe avocados", new BigDecimal("16"), "16", "Each"), ingredient(recipe, "ripe avocados"));
+        assertEquals(new ScaledIngredient("salt", new BigDecimal("2"), "2", "Teaspoon"), ingredient(recipe, "salt"));
+        assertEquals(new ScaledIngredient("lime juice", new BigDecimal("1.5"), "1 1/2", "Cup"), ingredient(recipe, "lime juice"));
+    }
+
+    @Test
+    public void scalesDownExactly() {
+        ScaledRecipe recipe = recipeScaleService.scale(guacamoleId, 3).get();
+
+        assertEquals("1 1/2", ingredient(recipe, "ripe avocados").getFraction());
+        assertEquals("3/16", ingredient(recipe, "salt").getFraction());
+        assertEquals(new BigDecimal("0.188"), ingredient(recipe, "salt").getAmount());
+    }
+
+    @Test
+    public void missingRecipe() {
+        assertFalse(recipeScaleService.scale(999999L, 2).isPresent());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void recipeWithoutServings() {
+        recipeScaleService.scale(toastId, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyServings() {
+        recipeScaleService.scale(guacamoleId, RecipeScaleService.MAX_SERVINGS + 1);
+    }
+
+    private static ScaledIngredient ingredient(ScaledRecipe recipe, String description) {
+        return recipe.getIngredients().stream().filter(ingredient -> ingredient.getDescription().equals(description))
+                .findFirst().get();
+    }
+}
@@ -0,0 +1,88 @@
+package guru.springframework.services;
+
+import guru.springframework.projections.RecipeSummary;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.search.RecipeSearchIndex;
+import guru.springframework.search.ScoredRecipe;
+import guru.springframework.search.SearchHits;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class RecipeSearchServiceImplTest {
+
+    RecipeSearchServiceImpl recipeSearchService;
+
+    @Mock
+    RecipeSearchIndex recipeSearchIndex;
+
+    @Mock
+    RecipeRepository recipeRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        recipeSearchService = new RecipeSearchServiceImpl(recipeSearchIndex, recipeRepository);
+        when(recipeSearchIndex.isReady()).thenReturn(true);
+    }
+
+    @Test
+    public void searchKeepsRankOrder() {
+        when(recipeSearchIndex.search("chicken", 20, 20)).thenReturn(new SearchHits(
+                Arrays.asList(new ScoredRecipe(3L, 2.0), new ScoredRecipe(1L, 1.5), new ScoredRecipe(2L, 1.0)), 43));
+        //recipe 2 was deleted after it was indexed
+        when(recipeRepository.findSummariesByIdIn(any())).thenReturn(Arrays.asList(
+                new RecipeSummary(1L, "Chicken Soup", null), new RecipeSummary(3L, "Chicken Tacos", null)));
+
+        RecipeSearchPage page = recipeSearchService.search("chicken", 1, 20);
+
+        assertEquals(2, page.getRecipes().size());
+        assertEquals(Long.valueOf(3L), page.getRecipes().get(0).getId());
+        assertEquals(Long.valueOf(1L), page.getRecipes().get(1).getId());
+        assertEquals(43, page.getTotal());
+        assertTrue(page.hasPrevious());
+        assertTrue(page.hasNext());
+        assertTrue(page.isIndexReady());
+    }
+
+    @Test
+    public void blankQuerySkipsIndex() {
+        RecipeSearchPage page = recipeSearchService.search("  ", 0, 20);
+
+        assertTrue(page.getRecipes().isEmpty());
+        verify(recipeSearchIndex, never()).search(anyString(), anyInt(), anyInt());
+        verifyZeroInteractions(recipeRepository);
+    }
+
+    @Test
+    public void deepPagesAreCapped() {
+        when(recipeSearchIndex.search(anyString(), anyInt(), anyInt())).thenReturn(new SearchHits(Collections.emptyList(), 50_000));
+
+        RecipeSearchPage page = recipeSearchService.search("salt", 100_000_000, 20);
+
+        verify(recipeSearchIndex).search("salt", RecipeSearchService.MAX_OFFSET, 20);
+        assertEquals(RecipeSearchService.MAX_OFFSET / 20, page.getPage());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    public void noHitsSkipsRepository() {
+        when(recipeSearchIndex.search(anyString(), anyInt(), anyInt())).thenReturn(new SearchHits(Collections.emptyList(), 0));
+
+        RecipeSearchPage page = recipeSearchService.search("lasagna", 0, 500);
+
+        assertEquals(RecipeSearchService.MAX_PAGE_SIZE, page.getSize());
+        assertFalse(page.hasNext());
+        verifyZeroInteractions(recipeRepository);
+    }
+}
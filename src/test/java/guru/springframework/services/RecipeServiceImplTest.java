@@ -1,17 +1,30 @@
 package guru.springframework.services;
 
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Ingredient;
 import guru.springframework.domain.Recipe;
+import guru.springframework.projections.RecipeSummary;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeImageRepository;
 import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.repositories.UnitOfMeasureRepository;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class RecipeServiceImplTest {
@@ -21,10 +34,20 @@ public class RecipeServiceImplTest {
     @Mock
     RecipeRepository recipeRepository;
 
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @Mock
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    @Mock
+    RecipeImageRepository recipeImageRepository;
+
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
-        recipeService = new RecipeServiceImpl(recipeRepository);
+        recipeService = new RecipeServiceImpl(recipeRepository, categoryRepository, unitOfMeasureRepository,
+                recipeImageRepository);
     }
 
     @Test
@@ -33,12 +56,13 @@ public class RecipeServiceImplTest {
         recipe.setId(1L);
         Optional<Recipe> recipeOptional = Optional.of(recipe);
 
-        when(recipeRepository.findById(anyLong())).thenReturn(recipeOptional);
+        when(recipeRepository.findWithDetailsById(anyLong())).thenReturn(recipeOptional);
 
         Recipe recipeReturned = recipeService.findById(1L);
 
         assertNotNull("Null recipe returned", recipeReturned);
-        verify(recipeRepository, times(1)).findById(anyLong());
+        verify(recipeRepository, times(1)).findWithDetailsById(anyLong());
+        verify(recipeRepository, never()).findById(anyLong());
         verify(recipeRepository, never()).findAll();
     }
 
@@ -55,4 +79,105 @@ public class RecipeServiceImplTest {
 
         verify(recipeRepository, times(1)).findAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getRecipePageFirstPage() {
+        List<RecipeSummary> summaries = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            summaries.add(new RecipeSummary(id, "Recipe " + id, null));
+        }
+
+        when(recipeRepository.findSummariesAfter(eq(0L), any(Pageable.class))).thenReturn(summaries);
+
+        RecipePage page = recipeService.getRecipePage(null, 2);
+
+        assertEquals(2, page.getRecipes().size());
+        assertTrue(page.hasNext());
+        verify(recipeRepository, times(1)).findSummariesAfter(0L, PageRequest.of(0, 3));
+        verify(recipeRepository, never()).findAll();
+
+        //the cursor seeks past the last id of the page
+        recipeService.getRecipePage(page.getNextCursor(), 2);
+        verify(recipeRepository, times(1)).findSummariesAfter(2L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    public void getRecipePageLastPage() {
+        List<RecipeSummary> summaries = new ArrayList<>();
+        summaries.add(new RecipeSummary(5L, "Recipe 5", null));
+
+        when(recipeRepository.findSummariesAfter(anyLong(), any(Pageable.class))).thenReturn(summaries);
+
+        RecipePage page = recipeService.getRecipePage(null, 2);
+
+        assertEquals(1, page.getRecipes().size());
+        assertFalse(page.hasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void getRecipePageInvalidCursor() {
+        recipeService.getRecipePage("not a cursor!", 2);
+    }
+
+    @Test
+    public void updateOfAnOlderVersionIsRefused() {
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setVersion(4L);
+        recipe.setDescription("Tacos");
+        when(recipeRepository.findWithDetailsById(1L)).thenReturn(Optional.of(recipe));
+
+        RecipeForm form = new RecipeForm();
+        form.setVersion(3L);
+        form.setDescription("Spicy Tacos");
+
+        try {
+            recipeService.updateRecipe(1L, form);
+            fail("Expected a conflict");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            assertEquals("Tacos", recipe.getDescription());
+        }
+    }
+
+    @Test
+    public void nullListsInTheFormClearTheRecipe() {
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setVersion(3L);
+        recipe.getCategories().add(new Category());
+        recipe.addIngredient(new Ingredient("salt", null, null));
+        when(recipeRepository.findWithDetailsById(1L)).thenReturn(Optional.of(recipe));
+
+        RecipeForm form = new RecipeForm();
+        form.setVersion(3L);
+        form.setDescription("Plain Tacos");
+        form.setCategories(null);
+        form.setIngredients(null);
+
+        recipeService.updateRecipe(1L, form);
+
+        assertTrue(recipe.getCategories().isEmpty());
+        assertTrue(recipe.getIngredients().isEmpty());
+    }
+
+    @Test
+    public void deleteRemovesTheImageFirst() {
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setVersion(0L);
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(recipe));
+
+        recipeService.deleteById(1L, 0L);
+
+        verify(recipeImageRepository).deleteByRecipeId(1L);
+        verify(recipeRepository).delete(recipe);
+    }
+
+    @Test(expected = RecipeNotFoundException.class)
+    public void deleteMissingRecipe() {
+        when(recipeRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        recipeService.deleteById(1L, 0L);
+    }
+}
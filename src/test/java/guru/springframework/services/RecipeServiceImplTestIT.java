@@ -0,0 +1,129 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.Recipe;
+import guru.springframework.events.RecipeChangeListener;
+import guru.springframework.events.RecipeChangedEvent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+//a window far longer than the test, changes are only published by flushing
+@DataJpaTest(properties = "recipe.changes.batch-window=30s")
+@Import({RecipeServiceImpl.class, RecipeChangeListener.class, RecipeServiceImplTestIT.EventCapture.class})
+//every write commits, the way a request would
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RecipeServiceImplTestIT {
+
+    @Autowired
+    RecipeService recipeService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    RecipeChangeListener recipeChangeListener;
+
+    @Autowired
+    EventCapture eventCapture;
+
+    @Test
+    public void updatesOfAnOlderVersionAreRefused() {
+        Recipe recipe = recipeService.saveRecipe(form(null, "Versioned Chili", "1"));
+        assertEquals(Long.valueOf(0), recipe.getVersion());
+
+        //only the ingredients change, the recipe still gets a new version
+        Recipe updated = recipeService.updateRecipe(recipe.getId(), form(0L, "Versioned Chili", "2"));
+        assertEquals(Long.valueOf(1), updated.getVersion());
+        assertEquals(Integer.valueOf(1), jdbcTemplate.queryForObject(
+                "select count(*) from ingredient where recipe_id = ?", Integer.class, recipe.getId()));
+
+        try {
+            recipeService.updateRecipe(recipe.getId(), form(0L, "Lost Update", "3"));
+            fail("Expected a conflict");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            assertEquals("Versioned Chili", recipeService.findById(recipe.getId()).getDescription());
+        }
+    }
+
+    @Test
+    public void deleteChecksTheVersion() {
+        Recipe recipe = recipeService.saveRecipe(form(null, "Deleted Stew", "1"));
+
+        try {
+            recipeService.deleteById(recipe.getId(), 5L);
+            fail("Expected a conflict");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            //still there
+        }
+        recipeService.deleteById(recipe.getId(), 0L);
+
+        assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+                "select count(*) from ingredient where recipe_id = ?", Integer.class, recipe.getId()));
+        try {
+            recipeService.deleteById(recipe.getId(), 0L);
+            fail("Expected the recipe to be gone");
+        } catch (RecipeNotFoundException e) {
+            //deleted
+        }
+    }
+
+    @Test
+    public void aBurstOfEditsIsPublishedOnce() {
+        Recipe recipe = recipeService.saveRecipe(form(null, "Busy Soup", "1"));
+        recipeChangeListener.flush();
+        eventCapture.events.clear();
+
+        for(long version = 0; version < 20; version++) {
+            recipeService.updateRecipe(recipe.getId(), form(version, "Busy Soup " + version, "1"));
+        }
+        //all of them wait for the window
+        assertTrue(eventCapture.events.isEmpty());
+        recipeChangeListener.flush();
+
+        assertEquals(1, eventCapture.events.size());
+        assertEquals(Collections.singleton(recipe.getId()), eventCapture.events.get(0).getRecipeIds());
+    }
+
+    private static RecipeForm form(Long version, String description, String amount) {
+        RecipeForm.IngredientForm ingredient = new RecipeForm.IngredientForm();
+        ingredient.setDescription("beans");
+        ingredient.setAmount(new BigDecimal(amount));
+        ingredient.setUnitOfMeasure("Cup");
+
+        RecipeForm form = new RecipeForm();
+        form.setVersion(version);
+        form.setDescription(description);
+        form.setDifficulty("easy");
+        form.setNotes("Simmer");
+        form.getCategories().add("Mexican");
+        form.getIngredients().add(ingredient);
+        return form;
+    }
+
+    @Component
+    static class EventCapture {
+        final List<RecipeChangedEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void onRecipeChanged(RecipeChangedEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package guru.springframework.units;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+public class AmountTest {
+
+    @Test
+    public void fromDecimalIsExactAndReduced() {
+        assertEquals(Amount.of(1, 4), Amount.of(new BigDecimal("0.25")));
+        assertEquals(Amount.of(5, 4), Amount.of(new BigDecimal("1.250")));
+        assertEquals(Amount.of(200, 1), Amount.of(new BigDecimal("2E+2")));
+        assertEquals(3, Amount.of(6, 8).getNumerator());
+        assertEquals(4, Amount.of(6, 8).getDenominator());
+    }
+
+    @Test
+    public void timesCancelsAcross() {
+        Amount third = Amount.of(1, 3);
+
+        assertEquals(Amount.of(1, 1), third.times(3, 1));
+        assertEquals(Amount.of(1, 9), third.times(1, 3));
+        assertEquals(Amount.of(-1, 2), Amount.of(3, 4).times(2, -3));
+        //would overflow multiplied out before reducing
+        assertEquals(Amount.of(7, 1), Amount.of(Long.MAX_VALUE / 7, 3).times(21, Long.MAX_VALUE / 7));
+    }
+
+    @Test
+    public void readsAsMixedFraction() {
+        assertEquals("1 1/2", Amount.of(3, 2).toString());
+        assertEquals("3/4", Amount.of(3, 4).toString());
+        assertEquals("-3/4", Amount.of(-3, 4).toString());
+        assertEquals("2", Amount.of(4, 2).toString());
+    }
+
+    @Test
+    public void roundsOnlyWhenShown() {
+        assertEquals(new BigDecimal("0.333"), Amount.of(1, 3).toBigDecimal(3));
+        assertEquals(new BigDecimal("0.25"), Amount.of(1, 4).toBigDecimal(3));
+        assertEquals(new BigDecimal("100"), Amount.of(100, 1).toBigDecimal(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroDenominator() {
+        Amount.of(1, 0);
+    }
+}
@@ -0,0 +1,97 @@
+package guru.springframework.units;
+
+import guru.springframework.domain.UnitOfMeasure;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class UnitConversionsTest {
+
+    UnitConversions conversions;
+    int teaspoon;
+    int tablespoon;
+    int cup;
+    int pinch;
+    int ounce;
+    int each;
+    int handful;
+
+    @Before
+    public void setUp() throws Exception {
+        List<UnitOfMeasure> units = new ArrayList<>();
+        for(String description : new String[]{"Teaspoon", "Tablespoon", "Cup", "Pinch", "Ounce", "Dash", "Each", "Pint", "Handful"}) {
+            UnitOfMeasure unit = new UnitOfMeasure();
+            unit.setId((long) units.size() + 1);
+            unit.setDescription(description);
+            units.add(unit);
+        }
+        conversions = new UnitConversions(units);
+        teaspoon = conversions.indexOf(1L);
+        tablespoon = conversions.indexOf(2L);
+        cup = conversions.indexOf(3L);
+        pinch = conversions.indexOf(4L);
+        ounce = conversions.indexOf(5L);
+        each = conversions.indexOf(7L);
+        handful = conversions.indexOf(9L);
+    }
+
+    @Test
+    public void convertsWithinAKind() {
+        assertEquals(Amount.of(1, 1), conversions.convert(Amount.of(16, 1), tablespoon, cup));
+        assertEquals(Amount.of(3, 1), conversions.convert(Amount.of(1, 1), tablespoon, teaspoon));
+        assertEquals(Amount.of(1, 16), conversions.convert(Amount.of(1, 1), pinch, teaspoon));
+        assertEquals(Amount.of(2, 1), conversions.convert(Amount.of(1, 1), conversions.indexOf(8L), cup));
+    }
+
+    @Test
+    public void otherKindsAndUnknownUnitsOnlyConvertToThemselves() {
+        assertFalse(conversions.convertible(cup, ounce));
+        assertFalse(conversions.convertible(each, teaspoon));
+        assertFalse(conversions.convertible(handful, cup));
+        assertTrue(conversions.convertible(handful, handful));
+        assertEquals(-1, conversions.indexOf(99L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void convertingAcrossKindsFails() {
+        conversions.convert(Amount.of(1, 1), cup, ounce);
+    }
+
+    @Test
+    public void readableUnits() {
+        assertEquals(cup, conversions.readableUnit(48, 1, teaspoon));
+        assertEquals(cup, conversions.readableUnit(24, 1, tablespoon));
+        //3/8 cup is simple, but under a cup it reads better in tablespoons
+        assertEquals(tablespoon, conversions.readableUnit(6, 1, tablespoon));
+        assertEquals(cup, conversions.readableUnit(1, 3, cup));
+        assertEquals(tablespoon, conversions.readableUnit(3, 16, cup));
+        assertEquals(pinch, conversions.readableUnit(3, 1, pinch));
+        assertEquals(each, conversions.readableUnit(7, 5, each));
+    }
+
+    @Test
+    public void batchScalesAndConvertsInPlace() {
+        AmountBatch batch = new AmountBatch(1);
+        batch.add(new BigDecimal("3"), tablespoon);
+        batch.add(new BigDecimal("0.25"), teaspoon);
+        batch.add(null, -1);
+        batch.add(new BigDecimal("2"), each);
+
+        batch.scale(0, 2, 8, 1);
+        batch.scale(2, 4, 8, 1);
+        batch.toReadableUnits(0, batch.size(), conversions);
+
+        assertEquals(4, batch.size());
+        assertEquals(Amount.of(3, 2), batch.amount(0));
+        assertEquals(cup, batch.unit(0));
+        assertEquals(Amount.of(2, 1), batch.amount(1));
+        assertEquals(teaspoon, batch.unit(1));
+        assertNull(batch.amount(2));
+        assertEquals(Amount.of(16, 1), batch.amount(3));
+    }
+}
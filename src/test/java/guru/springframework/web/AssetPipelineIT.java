@@ -0,0 +1,69 @@
+package guru.springframework.web;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+public class AssetPipelineIT {
+
+    private static final Pattern STYLESHEET = Pattern.compile("href=\"(/webjars/bootstrap/5\\.1\\.3/dist/css/bootstrap\\.min-[0-9a-f]{32}\\.css)\"");
+    private static final Pattern SCRIPT = Pattern.compile("<script src=\"(/webjars/jquery/3\\.6\\.0/dist/jquery\\.min-[0-9a-f]{32}\\.js)\"");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void pagesLinkContentHashedAssets() throws Exception {
+        String html = mockMvc.perform(get("/index")).andReturn().getResponse().getContentAsString();
+
+        assertTrue(html, STYLESHEET.matcher(html).find());
+        assertTrue(html, SCRIPT.matcher(html).find());
+        assertFalse(html, html.contains("cdn.jsdelivr.net"));
+    }
+
+    @Test
+    public void hashedAssetIsImmutableAndGzipped() throws Exception {
+        String stylesheet = stylesheetUrl();
+
+        MockHttpServletResponse gzipped = mockMvc.perform(get(stylesheet).header("Accept-Encoding", "gzip, deflate, br"))
+                .andReturn().getResponse();
+        MockHttpServletResponse plain = mockMvc.perform(get(stylesheet)).andReturn().getResponse();
+
+        assertEquals(200, gzipped.getStatus());
+        assertEquals("gzip", gzipped.getHeader("Content-Encoding"));
+        assertEquals(AssetCacheControlInterceptor.IMMUTABLE, gzipped.getHeader("Cache-Control"));
+        assertEquals("text/css", gzipped.getContentType());
+        assertNull(plain.getHeader("Content-Encoding"));
+        assertTrue(gzipped.getContentAsByteArray().length * 4 < plain.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void unhashedAssetIsRevalidated() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/webjars/bootstrap/5.1.3/dist/css/bootstrap.min.css"))
+                .andReturn().getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(AssetCacheControlInterceptor.REVALIDATE, response.getHeader("Cache-Control"));
+    }
+
+    private String stylesheetUrl() throws Exception {
+        Matcher matcher = STYLESHEET.matcher(mockMvc.perform(get("/index")).andReturn().getResponse().getContentAsString());
+        assertTrue(matcher.find());
+        return matcher.group(1);
+    }
+}
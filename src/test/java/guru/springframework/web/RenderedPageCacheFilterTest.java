@@ -0,0 +1,160 @@
+package guru.springframework.web;
+
+import guru.springframework.events.RecipeChangedEvent;
+import guru.springframework.services.RecipePopularityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class RenderedPageCacheFilterTest {
+
+    RenderedPageCache pageCache;
+    RenderedPageCacheFilter filter;
+    MeterRegistry meterRegistry;
+    RecipePopularityService recipePopularityService;
+    int renders;
+    int status;
+    String padding;
+
+    @Before
+    public void setUp() {
+        pageCache = new RenderedPageCache(1024 * 1024);
+        meterRegistry = new SimpleMeterRegistry();
+        recipePopularityService = mock(RecipePopularityService.class);
+        filter = new RenderedPageCacheFilter(pageCache, recipePopularityService, meterRegistry);
+        renders = 0;
+        status = 200;
+        padding = "";
+    }
+
+    @Test
+    public void secondRequestIsServedFromCache() throws Exception {
+        MockHttpServletResponse first = perform(get("/recipe/show/1"));
+        MockHttpServletResponse second = perform(get("/recipe/show/1"));
+
+        assertEquals(1, renders);
+        //the controller counts the render, the filter the hit
+        verify(recipePopularityService, times(1)).recordView(1L);
+        assertEquals("page 1", first.getContentAsString());
+        assertEquals("page 1", second.getContentAsString());
+        assertEquals("text/html;charset=UTF-8", second.getContentType());
+        assertNotNull(second.getHeader("ETag"));
+        assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+        assertNotNull(second.getHeader("Last-Modified"));
+    }
+
+    @Test
+    public void matchingEtagIsNotModified() throws Exception {
+        String etag = perform(get("/recipe/show/1")).getHeader("ETag");
+
+        MockHttpServletRequest request = get("/recipe/show/1");
+        request.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = perform(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentLength());
+        assertEquals(1, renders);
+    }
+
+    @Test
+    public void gzipIsServedToClientsThatAcceptIt() throws Exception {
+        padding = String.join("", Collections.nCopies(200, " recipe"));
+        MockHttpServletResponse plain = perform(get("/recipe/show/1"));
+
+        MockHttpServletRequest request = get("/recipe/show/1");
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+        MockHttpServletResponse gzipped = perform(request);
+
+        assertEquals(1, renders);
+        assertEquals("gzip", gzipped.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", gzipped.getHeader("Vary"));
+        assertNotEquals(plain.getHeader("ETag"), gzipped.getHeader("ETag"));
+        assertTrue(gzipped.getContentLength() < plain.getContentLength());
+        assertEquals(plain.getContentAsString(), gunzip(gzipped.getContentAsByteArray()));
+        assertEquals(gzipped.getContentLength(),
+                (long) meterRegistry.get("recipe.page.bytes").tag("encoding", "gzip").summary().totalAmount());
+    }
+
+    @Test
+    public void smallPagesAreNotCompressed() throws Exception {
+        MockHttpServletRequest request = get("/recipe/show/1");
+        request.addHeader("Accept-Encoding", "gzip");
+        MockHttpServletResponse response = perform(request);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("page 1", response.getContentAsString());
+    }
+
+    @Test
+    public void changedRecipeIsRenderedAgain() throws Exception {
+        perform(get("/recipe/show/1"));
+        pageCache.onRecipeChanged(RecipeChangedEvent.of(Collections.singleton(1L)));
+        perform(get("/recipe/show/1"));
+
+        assertEquals(2, renders);
+    }
+
+    @Test
+    public void errorsAreNotCached() throws Exception {
+        status = 500;
+        perform(get("/recipe/show/1"));
+        MockHttpServletResponse response = perform(get("/recipe/show/1"));
+
+        assertEquals(2, renders);
+        assertEquals(500, response.getStatus());
+        assertEquals("page 1", response.getContentAsString());
+    }
+
+    @Test
+    public void otherRequestsPassThrough() throws Exception {
+        perform(get("/recipe/show/abc"));
+        perform(get("/recipe/show/abc"));
+        MockHttpServletRequest post = get("/recipe/show/1");
+        post.setMethod("POST");
+        perform(post);
+
+        assertEquals(3, renders);
+        assertNull(pageCache.get(1L));
+    }
+
+    private MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                renders++;
+                resp.setStatus(status);
+                resp.setContentType("text/html;charset=UTF-8");
+                resp.getWriter().write("page " + req.getRequestURI().substring("/recipe/show/".length()) + padding);
+            }
+        }));
+        return response;
+    }
+
+    private String gunzip(byte[] bytes) throws IOException {
+        try(GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(StreamUtils.copyToByteArray(in), StandardCharsets.UTF_8);
+        }
+    }
+}
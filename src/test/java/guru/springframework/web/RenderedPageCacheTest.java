@@ -0,0 +1,84 @@
+package guru.springframework.web;
+
+import guru.springframework.events.RecipeChangedEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class RenderedPageCacheTest {
+
+    RenderedPageCache pageCache;
+
+    @Before
+    public void setUp() {
+        pageCache = new RenderedPageCache(1024);
+    }
+
+    @Test
+    public void putAndGet() {
+        RenderedPage page = page(10);
+
+        pageCache.put(1L, page, pageCache.generation());
+
+        assertSame(page, pageCache.get(1L));
+        assertNull(pageCache.get(2L));
+    }
+
+    @Test
+    public void staleRenderIsNotStored() {
+        long generation = pageCache.generation();
+        pageCache.onRecipeChanged(RecipeChangedEvent.of(Collections.singleton(2L)));
+
+        pageCache.put(1L, page(10), generation);
+
+        assertNull(pageCache.get(1L));
+    }
+
+    @Test
+    public void recipeChangeEvictsOnlyThatRecipe() {
+        pageCache.put(1L, page(10), pageCache.generation());
+        pageCache.put(2L, page(10), pageCache.generation());
+
+        pageCache.onRecipeChanged(RecipeChangedEvent.of(Collections.singleton(1L)));
+
+        assertNull(pageCache.get(1L));
+        assertNotNull(pageCache.get(2L));
+    }
+
+    @Test
+    public void sharedDataChangeEvictsEverything() {
+        pageCache.put(1L, page(10), pageCache.generation());
+        pageCache.put(2L, page(10), pageCache.generation());
+
+        pageCache.onRecipeChanged(RecipeChangedEvent.all());
+
+        assertNull(pageCache.get(1L));
+        assertNull(pageCache.get(2L));
+    }
+
+    @Test
+    public void newNeighborsEvictEverything() {
+        long generation = pageCache.generation();
+        pageCache.put(1L, page(10), generation);
+
+        pageCache.onRecipeNeighborsChanged();
+
+        assertNull(pageCache.get(1L));
+        pageCache.put(2L, page(10), generation);
+        assertNull(pageCache.get(2L));
+    }
+
+    @Test
+    public void pageLargerThanLimitIsNotKept() {
+        pageCache.put(1L, page(2048), pageCache.generation());
+
+        assertNull(pageCache.get(1L));
+    }
+
+    private RenderedPage page(int size) {
+        return new RenderedPage(new byte[size], null, "text/html", "\"etag\"", 0L);
+    }
+}